@@ -1,7 +1,9 @@
 import os
-from typing import List
+import struct
+from typing import List, Optional
 
-from fastapi import FastAPI
+import numpy as np
+from fastapi import FastAPI, Header, Response
 from pydantic import BaseModel
 from sentence_transformers import SentenceTransformer
 
@@ -10,6 +12,9 @@ MODEL_NAME = os.getenv(
     "sentence-transformers/code-bert-tiny-code-search",
 )
 
+# Binary response: little-endian uint32 row count, uint32 dimension, then row-major float32 values.
+F32_MEDIA_TYPE = "application/x-repomind-f32"
+
 app = FastAPI()
 model = SentenceTransformer(MODEL_NAME)
 
@@ -24,12 +29,20 @@ class EmbedResponse(BaseModel):
 
 @app.get("/health")
 def health() -> dict:
-    return {"status": "ok", "model": MODEL_NAME}
+    return {"status": "ok", "model": MODEL_NAME, "formats": ["json", "f32"]}
 
 
 @app.post("/embed", response_model=EmbedResponse)
-def embed(request: EmbedRequest) -> EmbedResponse:
+def embed(request: EmbedRequest, accept: Optional[str] = Header(default=None)):
+    binary = accept is not None and F32_MEDIA_TYPE in accept
     if not request.inputs:
+        if binary:
+            return Response(content=struct.pack("<II", 0, 0), media_type=F32_MEDIA_TYPE)
         return EmbedResponse(embeddings=[])
     embeddings = model.encode(request.inputs, normalize_embeddings=True, show_progress_bar=False)
+    if binary:
+        matrix = np.ascontiguousarray(embeddings, dtype="<f4")
+        rows, dimension = matrix.shape
+        header = struct.pack("<II", rows, dimension)
+        return Response(content=header + matrix.tobytes(), media_type=F32_MEDIA_TYPE)
     return EmbedResponse(embeddings=embeddings.tolist())
@@ -0,0 +1,100 @@
+package com.repomind.benchmarks;
+
+import com.repomind.core.config.DatabaseConfig;
+import com.repomind.core.config.RepoMindConfigLoader;
+import com.repomind.core.model.CodeChunk;
+import com.repomind.storage.ChunkWriteMode;
+import com.repomind.storage.DataSourceFactory;
+import com.repomind.storage.FlywayMigrator;
+import com.repomind.storage.PgVectorCodeChunkRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Upserts one batch of chunks into a local Postgres with each {@link ChunkWriteMode}. The same
+ * chunk ids are written every time, so after the first operation this measures the
+ * {@code ON CONFLICT DO UPDATE} path that re-indexing takes.
+ *
+ * <p>Connection settings come from {@code repomind.config.yaml} in the working directory plus the
+ * usual {@code REPOMIND_DB_*} overrides; start Postgres with {@code scripts/dev-up.sh}. Rows are
+ * written under the repo name {@code jmh-bench} and removed afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ChunkUpsertBenchmark {
+  private static final String REPO = "jmh-bench";
+  private static final int DIMENSION = 384;
+
+  @Param({"copy", "rows"})
+  public String writeMode;
+
+  @Param({"1000"})
+  public int chunks;
+
+  private HikariDataSource dataSource;
+  private PgVectorCodeChunkRepository repository;
+  private List<CodeChunk> batch;
+
+  @Setup
+  public void setUp() {
+    Path configPath = Path.of("repomind.config.yaml");
+    DatabaseConfig db = Files.isRegularFile(configPath)
+        ? new RepoMindConfigLoader().load(configPath).getDb()
+        : new DatabaseConfig();
+    dataSource = new DataSourceFactory().create(db, 2);
+    new FlywayMigrator().migrate(dataSource, db);
+    repository = new PgVectorCodeChunkRepository(dataSource, ChunkWriteMode.parse(writeMode), 1000);
+
+    SplittableRandom random = new SplittableRandom(11);
+    List<FixtureCorpus.SourceFile> corpus = FixtureCorpus.load(null);
+    batch = new ArrayList<>(chunks);
+    for (int i = 0; i < chunks; i++) {
+      FixtureCorpus.SourceFile file = corpus.get(i % corpus.size());
+      String symbol = "Symbol" + i;
+      float[] embedding = SimilarityBenchmark.randomVector(random, DIMENSION);
+      batch.add(new CodeChunk(REPO, file.path(), "java", "METHOD", symbol, i + 1, i + 10,
+          file.content(), CodeChunk.chunkId(REPO, file.path(), "METHOD", symbol, i + 1, i + 10),
+          embedding));
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement("DELETE FROM code_chunks WHERE repo = ?")) {
+      statement.setString(1, REPO);
+      statement.executeUpdate();
+    } finally {
+      dataSource.close();
+    }
+  }
+
+  @Benchmark
+  public void upsertBatch() {
+    repository.upsertChunks(batch);
+  }
+}
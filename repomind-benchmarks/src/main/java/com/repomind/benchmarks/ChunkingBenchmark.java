@@ -0,0 +1,61 @@
+package com.repomind.benchmarks;
+
+import com.repomind.indexer.Chunker;
+import com.repomind.indexer.FileChunker;
+import com.repomind.indexer.JavaSymbolChunker;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Chunks the whole corpus once per operation, sequentially and in parallel the way
+ * {@code IndexingPipeline} does. Point {@code corpus} at a checkout to measure a real repository.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChunkingBenchmark {
+  @Param({"symbol", "file"})
+  public String chunking;
+
+  @Param({""})
+  public String corpus;
+
+  private Chunker chunker;
+  private List<FixtureCorpus.SourceFile> files;
+
+  @Setup
+  public void setUp() {
+    chunker = "file".equals(chunking) ? new FileChunker(8000) : new JavaSymbolChunker(8000);
+    files = FixtureCorpus.load(corpus);
+  }
+
+  @Benchmark
+  public void chunkCorpus(Blackhole blackhole) {
+    for (FixtureCorpus.SourceFile file : files) {
+      blackhole.consume(chunker.chunk("bench", file.path(), file.content()));
+    }
+  }
+
+  @Benchmark
+  public long chunkCorpusParallel() {
+    return files.parallelStream()
+        .map(file -> chunker.chunk("bench", file.path(), file.content()))
+        .mapToLong(List::size)
+        .sum();
+  }
+}
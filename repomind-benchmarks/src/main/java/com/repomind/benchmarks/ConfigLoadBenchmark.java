@@ -0,0 +1,88 @@
+package com.repomind.benchmarks;
+
+import com.repomind.core.config.RepoMindConfig;
+import com.repomind.core.config.RepoMindConfigLoader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link RepoMindConfigLoader#load} as the CLI sees it: once per fresh JVM ({@code coldLoad},
+ * class loading and SnakeYAML initialization included) and steady state ({@code warmLoad}).
+ */
+@State(Scope.Benchmark)
+public class ConfigLoadBenchmark {
+  private static final String CONFIG = """
+      embeddings:
+        provider: local-http
+        model: sentence-transformers/code-bert-tiny-code-search
+        local_http:
+          url: http://localhost:8088
+          maxInFlight: 4
+          format: auto
+        cache:
+          enabled: true
+          maxBytes: 268435456
+      db:
+        host: localhost
+        port: 5432
+        name: repomind
+        user: repomind
+        password: repomind
+      search:
+        queryCacheMaxEntries: 1024
+        efSearch: 40
+      indexer:
+        includes:
+          - "**/*.java"
+        maxFileBytes: 1048576
+      """;
+
+  private Path directory;
+  private Path configPath;
+
+  @Setup
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("repomind-bench-config");
+    configPath = Files.writeString(directory.resolve("repomind.config.yaml"), CONFIG);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(configPath);
+    Files.deleteIfExists(directory);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Warmup(iterations = 0)
+  @Measurement(iterations = 1)
+  @Fork(10)
+  public RepoMindConfig coldLoad() {
+    return new RepoMindConfigLoader().load(configPath, Map.of());
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Warmup(iterations = 3, time = 2)
+  @Measurement(iterations = 5, time = 2)
+  @Fork(1)
+  public RepoMindConfig warmLoad() {
+    return new RepoMindConfigLoader().load(configPath, Map.of());
+  }
+}
@@ -0,0 +1,117 @@
+package com.repomind.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.repomind.core.embeddings.EmbeddingWireFormat;
+import com.repomind.core.embeddings.HttpResult;
+import com.repomind.core.embeddings.HttpTransport;
+import com.repomind.core.embeddings.LocalHttpEmbeddingProvider;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Client-side cost of one {@code /embed} round trip: request encoding, transport hand-off and
+ * response decoding, against a transport that returns a canned response without any I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmbeddingCodecBenchmark {
+  @Param({"json", "binary"})
+  public String format;
+
+  @Param({"32"})
+  public int batchSize;
+
+  @Param({"384"})
+  public int dimension;
+
+  private LocalHttpEmbeddingProvider provider;
+  private List<String> inputs;
+
+  @Setup
+  public void setUp() throws Exception {
+    SplittableRandom random = new SplittableRandom(42);
+    float[][] vectors = new float[batchSize][dimension];
+    for (float[] vector : vectors) {
+      for (int i = 0; i < dimension; i++) {
+        vector[i] = (float) (random.nextDouble() * 2 - 1);
+      }
+    }
+    EmbeddingWireFormat wireFormat = EmbeddingWireFormat.parse(format);
+    HttpResult response = wireFormat == EmbeddingWireFormat.BINARY
+        ? new HttpResult(200, float32Body(vectors), EmbeddingWireFormat.F32_MEDIA_TYPE)
+        : new HttpResult(200, new ObjectMapper().writeValueAsBytes(new EmbedResponse(vectors)),
+            "application/json");
+    provider = new LocalHttpEmbeddingProvider(new CannedTransport(response), URI.create("http://bench"),
+        new ObjectMapper(), batchSize, 1, wireFormat, Duration.ofSeconds(5));
+
+    List<FixtureCorpus.SourceFile> corpus = FixtureCorpus.load(null);
+    inputs = new ArrayList<>(batchSize);
+    for (int i = 0; i < batchSize; i++) {
+      inputs.add(corpus.get(i % corpus.size()).content());
+    }
+  }
+
+  @Benchmark
+  public List<float[]> embedBatch() {
+    return provider.embedFloats(inputs);
+  }
+
+  static byte[] float32Body(float[][] vectors) {
+    int dimension = vectors[0].length;
+    ByteBuffer buffer = ByteBuffer.allocate(8 + vectors.length * dimension * Float.BYTES)
+        .order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(vectors.length).putInt(dimension);
+    for (float[] vector : vectors) {
+      for (float value : vector) {
+        buffer.putFloat(value);
+      }
+    }
+    return buffer.array();
+  }
+
+  public record EmbedResponse(float[][] embeddings) {}
+
+  /** Returns the same response for every request; {@code /health} advertises binary support. */
+  static final class CannedTransport implements HttpTransport {
+    private static final byte[] HEALTH =
+        "{\"status\":\"ok\",\"formats\":[\"json\",\"f32\"]}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpResult response;
+
+    CannedTransport(HttpResult response) {
+      this.response = response;
+    }
+
+    @Override
+    public HttpResult post(URI uri, byte[] body, Duration timeout) {
+      return response;
+    }
+
+    @Override
+    public HttpResult get(URI uri, Duration timeout) {
+      return new HttpResult(200, HEALTH, "application/json");
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package com.repomind.benchmarks;
+
+import com.repomind.core.config.IndexerConfig;
+import com.repomind.indexer.RepoScanner;
+import com.repomind.indexer.ScannedFile;
+import com.repomind.indexer.SourceFileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Source files used by the benchmarks. Without a path this is the bundled PetClinic-shaped
+ * fixture ({@code fixtures/petclinic}); with one, the repository is scanned with the default
+ * indexer rules, so real checkouts (e.g. spring-petclinic) can be measured the same way.
+ */
+final class FixtureCorpus {
+  private static final String FIXTURE = "fixtures/petclinic/";
+
+  private FixtureCorpus() {
+  }
+
+  record SourceFile(String path, String content) {}
+
+  static List<SourceFile> load(String corpusPath) {
+    return corpusPath == null || corpusPath.isBlank() ? bundled() : scan(Path.of(corpusPath));
+  }
+
+  private static List<SourceFile> bundled() {
+    List<SourceFile> files = new ArrayList<>();
+    for (String path : resource(FIXTURE + "INDEX").split("\n")) {
+      if (!path.isBlank()) {
+        files.add(new SourceFile(path.strip(), resource(FIXTURE + path.strip())));
+      }
+    }
+    return files;
+  }
+
+  private static List<SourceFile> scan(Path root) {
+    SourceFileReader reader = new SourceFileReader();
+    List<SourceFile> files = new ArrayList<>();
+    try {
+      for (ScannedFile file : new RepoScanner(new IndexerConfig()).scan(root).files()) {
+        files.add(new SourceFile(file.relativePath(), reader.read(file)));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read corpus " + root, e);
+    }
+    if (files.isEmpty()) {
+      throw new IllegalArgumentException("No source files found under " + root);
+    }
+    return files;
+  }
+
+  private static String resource(String name) {
+    try (InputStream input = FixtureCorpus.class.getClassLoader().getResourceAsStream(name)) {
+      if (input == null) {
+        throw new IllegalStateException("Missing benchmark resource " + name);
+      }
+      return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package com.repomind.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Accepts the usual JMH command line and adds the GC
+ * profiler (allocation rate, bytes allocated per operation, GC count and time) unless other
+ * profilers are requested with {@code -prof}.
+ */
+public final class RepoMindBenchmarks {
+  private RepoMindBenchmarks() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    CommandLineOptions options = new CommandLineOptions(args);
+    if (options.shouldHelp()
+        || options.shouldList()
+        || options.shouldListWithParams()
+        || options.shouldListProfilers()
+        || options.shouldListResultFormats()) {
+      org.openjdk.jmh.Main.main(args);
+      return;
+    }
+    ChainedOptionsBuilder builder = new OptionsBuilder().parent(options);
+    if (options.getProfilers().isEmpty()) {
+      builder.addProfiler(GCProfiler.class);
+    }
+    new Runner(builder.build()).run();
+  }
+}
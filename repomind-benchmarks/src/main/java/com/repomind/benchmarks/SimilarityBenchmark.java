@@ -0,0 +1,102 @@
+package com.repomind.benchmarks;
+
+import com.repomind.core.vector.PackedVectors;
+import com.repomind.core.vector.TopK;
+import com.repomind.core.vector.VectorKernels;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * In-JVM similarity kernels over embedding-sized vectors: a single cosine and dot product, and
+ * brute-force top-k over a packed {@code rows x dimension} matrix, both with per-row norms
+ * ({@code topK}) and on the pre-normalized dot-product path ({@code topKNormalized}).
+ * {@code kernels=simd} needs {@code --add-modules jdk.incubator.vector}, which the fork adds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class SimilarityBenchmark {
+  @Param({"scalar", "simd"})
+  public String kernels;
+
+  @Param({"384"})
+  public int dimension;
+
+  @Param({"10000"})
+  public int rows;
+
+  @Param({"10"})
+  public int k;
+
+  private VectorKernels impl;
+  private float[] query;
+  private float[] normalizedQuery;
+  private float[] other;
+  private PackedVectors matrix;
+  private PackedVectors normalizedMatrix;
+
+  @Setup
+  public void setUp() {
+    impl = "simd".equals(kernels) ? VectorKernels.best() : VectorKernels.scalar();
+    if (!impl.name().startsWith(kernels)) {
+      throw new IllegalStateException("Requested " + kernels + " kernels but got " + impl.name()
+          + "; run with --add-modules jdk.incubator.vector");
+    }
+    SplittableRandom random = new SplittableRandom(7);
+    query = randomVector(random, dimension);
+    other = randomVector(random, dimension);
+    List<float[]> vectors = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      vectors.add(randomVector(random, dimension));
+    }
+    matrix = PackedVectors.pack(vectors);
+    normalizedMatrix = PackedVectors.packNormalized(vectors);
+    normalizedQuery = PackedVectors.packNormalized(List.of(query)).row(0);
+  }
+
+  @Benchmark
+  public float dot() {
+    return impl.dot(query, 0, other, 0, dimension);
+  }
+
+  @Benchmark
+  public float cosine() {
+    return impl.cosine(query, other);
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public TopK topK() {
+    return matrix.topK(query, k, impl);
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public TopK topKNormalized() {
+    return normalizedMatrix.topK(normalizedQuery, k, impl);
+  }
+
+  static float[] randomVector(SplittableRandom random, int dimension) {
+    float[] vector = new float[dimension];
+    for (int i = 0; i < dimension; i++) {
+      vector[i] = (float) (random.nextDouble() * 2 - 1);
+    }
+    return vector;
+  }
+}
@@ -0,0 +1,15 @@
+package org.springframework.samples.petclinic;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/** PetClinic Spring Boot Application. */
+@SpringBootApplication
+@ImportRuntimeHints(PetClinicRuntimeHints.class)
+public class PetClinicApplication {
+
+  public static void main(String[] args) {
+    SpringApplication.run(PetClinicApplication.class, args);
+  }
+}
@@ -0,0 +1,31 @@
+package org.springframework.samples.petclinic.model;
+
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+import java.io.Serializable;
+
+/**
+ * Simple JavaBean domain object with an id property. Used as a base class for objects needing
+ * this property.
+ */
+@MappedSuperclass
+public class BaseEntity implements Serializable {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Integer id;
+
+  public Integer getId() {
+    return id;
+  }
+
+  public void setId(Integer id) {
+    this.id = id;
+  }
+
+  public boolean isNew() {
+    return this.id == null;
+  }
+}
@@ -0,0 +1,30 @@
+package org.springframework.samples.petclinic.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Simple JavaBean domain object adds a name property to {@code BaseEntity}. Used as a base class
+ * for objects needing these properties.
+ */
+@MappedSuperclass
+public class NamedEntity extends BaseEntity {
+
+  @Column(name = "name")
+  @NotBlank
+  private String name;
+
+  public String getName() {
+    return this.name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  @Override
+  public String toString() {
+    return this.getName();
+  }
+}
@@ -0,0 +1,34 @@
+package org.springframework.samples.petclinic.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.validation.constraints.NotBlank;
+
+/** Simple JavaBean domain object representing a person. */
+@MappedSuperclass
+public class Person extends BaseEntity {
+
+  @Column(name = "first_name")
+  @NotBlank
+  private String firstName;
+
+  @Column(name = "last_name")
+  @NotBlank
+  private String lastName;
+
+  public String getFirstName() {
+    return this.firstName;
+  }
+
+  public void setFirstName(String firstName) {
+    this.firstName = firstName;
+  }
+
+  public String getLastName() {
+    return this.lastName;
+  }
+
+  public void setLastName(String lastName) {
+    this.lastName = lastName;
+  }
+}
@@ -0,0 +1,46 @@
+package org.springframework.samples.petclinic.owner;
+
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository class for <code>Owner</code> domain objects. All method names are compliant with
+ * Spring Data naming conventions so this interface can easily be extended for Spring Data.
+ */
+public interface OwnerRepository extends JpaRepository<Owner, Integer> {
+
+  /**
+   * Retrieve all {@link PetType}s from the data store.
+   *
+   * @return a Collection of {@link PetType}s.
+   */
+  @Query("SELECT ptype FROM PetType ptype ORDER BY ptype.name")
+  @Transactional(readOnly = true)
+  List<PetType> findPetTypes();
+
+  /**
+   * Retrieve {@link Owner}s from the data store by last name, returning all owners whose last
+   * name <i>starts</i> with the given name.
+   *
+   * @param lastName Value to search for
+   * @return a Collection of matching {@link Owner}s (or an empty Collection if none found)
+   */
+  @Query("SELECT DISTINCT owner FROM Owner owner left join owner.pets WHERE owner.lastName LIKE :lastName% ")
+  @Transactional(readOnly = true)
+  Page<Owner> findByLastName(@Param("lastName") String lastName, Pageable pageable);
+
+  /**
+   * Retrieve an {@link Owner} from the data store by id.
+   *
+   * @param id the id to search for
+   * @return an {@link Optional} containing the {@link Owner} if found, or an empty
+   *     {@link Optional} if not found.
+   */
+  Optional<Owner> findById(Integer id);
+}
@@ -0,0 +1,11 @@
+package org.springframework.samples.petclinic.owner;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import org.springframework.samples.petclinic.model.NamedEntity;
+
+/** Can be Cat, Dog, Hamster... */
+@Entity
+@Table(name = "types")
+public class PetType extends NamedEntity {
+}
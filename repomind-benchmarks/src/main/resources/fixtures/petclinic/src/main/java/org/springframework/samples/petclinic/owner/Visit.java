@@ -0,0 +1,43 @@
+package org.springframework.samples.petclinic.owner;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotBlank;
+import java.time.LocalDate;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.samples.petclinic.model.BaseEntity;
+
+/** Simple JavaBean domain object representing a visit. */
+@Entity
+@Table(name = "visits")
+public class Visit extends BaseEntity {
+
+  @Column(name = "visit_date")
+  @DateTimeFormat(pattern = "yyyy-MM-dd")
+  private LocalDate date;
+
+  @NotBlank
+  private String description;
+
+  /** Creates a new instance of Visit for the current date. */
+  public Visit() {
+    this.date = LocalDate.now();
+  }
+
+  public LocalDate getDate() {
+    return this.date;
+  }
+
+  public void setDate(LocalDate date) {
+    this.date = date;
+  }
+
+  public String getDescription() {
+    return this.description;
+  }
+
+  public void setDescription(String description) {
+    this.description = description;
+  }
+}
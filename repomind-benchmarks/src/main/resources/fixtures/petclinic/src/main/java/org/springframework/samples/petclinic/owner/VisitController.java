@@ -0,0 +1,73 @@
+package org.springframework.samples.petclinic.owner;
+
+import jakarta.validation.Valid;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.InitBinder;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+@Controller
+class VisitController {
+
+  private final OwnerRepository owners;
+
+  public VisitController(OwnerRepository owners) {
+    this.owners = owners;
+  }
+
+  @InitBinder
+  public void setAllowedFields(WebDataBinder dataBinder) {
+    dataBinder.setDisallowedFields("id");
+  }
+
+  /**
+   * Called before each and every @RequestMapping annotated method. 2 goals: - Make sure we always
+   * have fresh data - Since we do not use the session scope, make sure that Pet object always has
+   * an id (Even though id is not part of the form fields)
+   *
+   * @param petId the pet to load
+   * @return Pet
+   */
+  @ModelAttribute("visit")
+  public Visit loadPetWithVisit(@PathVariable("ownerId") int ownerId,
+      @PathVariable("petId") int petId, Map<String, Object> model) {
+    Optional<Owner> optionalOwner = owners.findById(ownerId);
+    Owner owner = optionalOwner.orElseThrow(() -> new IllegalArgumentException(
+        "Owner not found with id: " + ownerId + ". Please ensure the ID is correct "));
+
+    Pet pet = owner.getPet(petId);
+    model.put("pet", pet);
+    model.put("owner", owner);
+
+    Visit visit = new Visit();
+    pet.addVisit(visit);
+    return visit;
+  }
+
+  // Spring MVC calls method loadPetWithVisit(...) before initNewVisitForm is called
+  @GetMapping("/owners/{ownerId}/pets/{petId}/visits/new")
+  public String initNewVisitForm() {
+    return "pets/createOrUpdateVisitForm";
+  }
+
+  // Spring MVC calls method loadPetWithVisit(...) before processNewVisitForm is called
+  @PostMapping("/owners/{ownerId}/pets/{petId}/visits/new")
+  public String processNewVisitForm(@ModelAttribute Owner owner, @PathVariable int petId,
+      @Valid Visit visit, BindingResult result, RedirectAttributes redirectAttributes) {
+    if (result.hasErrors()) {
+      return "pets/createOrUpdateVisitForm";
+    }
+
+    owner.addVisit(petId, visit);
+    this.owners.save(owner);
+    redirectAttributes.addFlashAttribute("message", "Your visit has been booked");
+    return "redirect:/owners/{ownerId}";
+  }
+}
@@ -0,0 +1,31 @@
+package org.springframework.samples.petclinic.system;
+
+import javax.cache.configuration.MutableConfiguration;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Cache configuration intended for caches providing the JCache API. */
+@Configuration(proxyBeanMethods = false)
+@EnableCaching
+class CacheConfiguration {
+
+  @Bean
+  public JCacheManagerCustomizer petclinicCacheConfigurationCustomizer() {
+    return cm -> cm.createCache("vets", cacheConfiguration());
+  }
+
+  /**
+   * Create a simple configuration that enable statistics via the JCache programmatic
+   * configuration API.
+   *
+   * <p>Within the configuration object that is provided by the JCache API standard, there is
+   * only a very limited set of configuration options. The really relevant configuration options
+   * (like the size limit) must be set via a configuration mechanism that is provided by the
+   * selected JCache implementation.
+   */
+  private static javax.cache.configuration.Configuration<Object, Object> cacheConfiguration() {
+    return new MutableConfiguration<>().setStatisticsEnabled(true);
+  }
+}
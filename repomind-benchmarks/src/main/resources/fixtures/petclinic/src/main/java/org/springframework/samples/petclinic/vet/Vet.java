@@ -0,0 +1,49 @@
+package org.springframework.samples.petclinic.vet;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.Table;
+import jakarta.xml.bind.annotation.XmlElement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.samples.petclinic.model.NamedEntity;
+import org.springframework.samples.petclinic.model.Person;
+
+/** Simple JavaBean domain object representing a veterinarian. */
+@Entity
+@Table(name = "vets")
+public class Vet extends Person {
+
+  @ManyToMany(fetch = FetchType.EAGER)
+  @JoinTable(name = "vet_specialties", joinColumns = @JoinColumn(name = "vet_id"),
+      inverseJoinColumns = @JoinColumn(name = "specialty_id"))
+  private Set<Specialty> specialties;
+
+  protected Set<Specialty> getSpecialtiesInternal() {
+    if (this.specialties == null) {
+      this.specialties = new HashSet<>();
+    }
+    return this.specialties;
+  }
+
+  @XmlElement
+  public List<Specialty> getSpecialties() {
+    List<Specialty> sorted = new ArrayList<>(getSpecialtiesInternal());
+    sorted.sort(Comparator.comparing(NamedEntity::getName));
+    return sorted;
+  }
+
+  public int getNrOfSpecialties() {
+    return getSpecialtiesInternal().size();
+  }
+
+  public void addSpecialty(Specialty specialty) {
+    getSpecialtiesInternal().add(specialty);
+  }
+}
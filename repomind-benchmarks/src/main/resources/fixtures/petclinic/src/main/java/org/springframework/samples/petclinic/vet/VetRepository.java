@@ -0,0 +1,35 @@
+package org.springframework.samples.petclinic.vet;
+
+import java.util.Collection;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository class for <code>Vet</code> domain objects. All method names are compliant with
+ * Spring Data naming conventions so this interface can easily be extended for Spring Data.
+ */
+public interface VetRepository extends Repository<Vet, Integer> {
+
+  /**
+   * Retrieve all <code>Vet</code>s from the data store.
+   *
+   * @return a <code>Collection</code> of <code>Vet</code>s
+   */
+  @Transactional(readOnly = true)
+  @Cacheable("vets")
+  Collection<Vet> findAll() throws DataAccessException;
+
+  /**
+   * Retrieve all <code>Vet</code>s from data store in Pages.
+   *
+   * @param pageable the page to return
+   * @return a page of <code>Vet</code>s
+   */
+  @Transactional(readOnly = true)
+  @Cacheable("vets")
+  Page<Vet> findAll(Pageable pageable) throws DataAccessException;
+}
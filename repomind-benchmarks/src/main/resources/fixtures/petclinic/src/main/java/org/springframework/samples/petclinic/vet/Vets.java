@@ -0,0 +1,24 @@
+package org.springframework.samples.petclinic.vet;
+
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Simple domain object representing a list of veterinarians. Mostly here to be used for the
+ * 'vets' {@link org.springframework.web.servlet.view.xml.MarshallingView}.
+ */
+@XmlRootElement
+public class Vets {
+
+  private List<Vet> vets;
+
+  @XmlElement
+  public List<Vet> getVetList() {
+    if (vets == null) {
+      vets = new ArrayList<>();
+    }
+    return vets;
+  }
+}
@@ -0,0 +1,170 @@
+package com.repomind.cli;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.repomind.cli.daemon.DaemonProtocol;
+import com.repomind.cli.daemon.DaemonRequest;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.zaxxer.hikari.HikariConfig;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import org.flywaydb.core.Flyway;
+import picocli.CommandLine;
+
+/**
+ * Training run for the CLI's AppCDS archive (see the {@code cds-archive} execution in the CLI
+ * pom). Runs {@code index}, {@code search}, {@code context}, {@code doctor} and the help screens
+ * in the working directory against an embedded store and a stub embedding server, and loads the
+ * Postgres, Hikari and Flyway classes without connecting, so the archive covers both store
+ * backends. Fails when {@code index}, {@code search} or {@code context} does, since the archive
+ * would then miss the classes of the paths it is meant to speed up.
+ */
+public final class CdsTraining {
+  private static final int DIMENSION = 384;
+
+  private CdsTraining() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    Path work = Path.of("").toAbsolutePath();
+    HttpServer server = startEmbeddingStub();
+    try {
+      writeWorkspace(work, server.getAddress().getPort());
+      Map<String, Integer> exitCodes = new LinkedHashMap<>();
+      PrintStream out = System.out;
+      PrintStream err = System.err;
+      System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+      System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+      try {
+        exitCodes.put("index", run("index", "src", "--repo", "training", "--full"));
+        exitCodes.put("search",
+            run("search", "--repo", "training", "--no-daemon", "-v", "owner lookup"));
+        exitCodes.put("context",
+            run("context", "--repo", "training", "--no-daemon", "owner lookup"));
+        exitCodes.put("doctor", run("doctor", "--embeddings-only"));
+        exitCodes.put("help", run("--help"));
+        new CommandLine(new RepoMindCli()).getSubcommands().values()
+            .forEach(subcommand -> subcommand.usage(System.out));
+        loadPostgresClasses();
+        DaemonProtocol.fingerprint(Path.of("repomind.config.yaml"), System.getenv());
+        new ObjectMapper()
+            .writeValueAsBytes(DaemonRequest.search("training", "training", "owner", 10));
+      } finally {
+        System.setOut(out);
+        System.setErr(err);
+      }
+      System.out.println("CDS training run: " + exitCodes);
+      for (String command : new String[] {"index", "search", "context"}) {
+        if (exitCodes.get(command) != 0) {
+          throw new IllegalStateException("CDS training " + command + " exited with "
+              + exitCodes.get(command) + "; the archive would not cover it.");
+        }
+      }
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  private static int run(String... args) {
+    return new CommandLine(new RepoMindCli()).execute(args);
+  }
+
+  private static void loadPostgresClasses() throws ClassNotFoundException {
+    Class.forName("org.postgresql.Driver");
+    HikariConfig hikari = new HikariConfig();
+    hikari.setJdbcUrl("jdbc:postgresql://localhost:5432/repomind");
+    Flyway.configure().locations("classpath:db/migration");
+  }
+
+  private static void writeWorkspace(Path work, int port) throws IOException {
+    Files.createDirectories(work.resolve("src/com/example"));
+    Files.writeString(work.resolve("repomind.config.yaml"),
+        "embeddings:\n"
+            + "  provider: local-http\n"
+            + "  local_http:\n"
+            + "    url: http://127.0.0.1:" + port + "\n"
+            + "  cache:\n"
+            + "    path: " + work.resolve("embeddings.cache") + "\n"
+            + "store:\n"
+            + "  backend: embedded\n"
+            + "  path: " + work.resolve("store") + "\n");
+    for (String name : new String[] {"Owner", "Pet", "Visit"}) {
+      Files.writeString(work.resolve("src/com/example/" + name + ".java"),
+          "package com.example;\n\n"
+              + "/** A " + name.toLowerCase() + " record. */\n"
+              + "public class " + name + " {\n"
+              + "  private final String name;\n\n"
+              + "  public " + name + "(String name) {\n"
+              + "    this.name = name;\n"
+              + "  }\n\n"
+              + "  public String lookup(String key) {\n"
+              + "    return name + key;\n"
+              + "  }\n"
+              + "}\n");
+    }
+  }
+
+  /** Serves {@code /health} and {@code /embed} in both wire formats with seeded vectors. */
+  private static HttpServer startEmbeddingStub() throws IOException {
+    HttpServer server =
+        HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    ObjectMapper mapper = new ObjectMapper();
+    server.createContext("/health", exchange ->
+        respond(exchange, "application/json",
+            "{\"status\":\"ok\",\"formats\":[\"json\",\"f32\"]}".getBytes(StandardCharsets.UTF_8)));
+    server.createContext("/embed", exchange -> {
+      JsonNode inputs = mapper.readTree(exchange.getRequestBody().readAllBytes()).path("inputs");
+      String accept = exchange.getRequestHeaders().getFirst("Accept");
+      if (accept != null && accept.contains("x-repomind-f32")) {
+        ByteBuffer body = ByteBuffer.allocate(8 + inputs.size() * DIMENSION * Float.BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        body.putInt(inputs.size()).putInt(DIMENSION);
+        for (JsonNode input : inputs) {
+          for (float value : vector(input.asText())) {
+            body.putFloat(value);
+          }
+        }
+        respond(exchange, "application/x-repomind-f32", body.array());
+      } else {
+        float[][] rows = new float[inputs.size()][];
+        for (int i = 0; i < rows.length; i++) {
+          rows[i] = vector(inputs.get(i).asText());
+        }
+        respond(exchange, "application/json",
+            mapper.writeValueAsBytes(Map.of("embeddings", rows)));
+      }
+    });
+    server.start();
+    return server;
+  }
+
+  private static float[] vector(String text) {
+    SplittableRandom random = new SplittableRandom(text.hashCode());
+    float[] vector = new float[DIMENSION];
+    for (int i = 0; i < DIMENSION; i++) {
+      vector[i] = (float) random.nextGaussian();
+    }
+    return vector;
+  }
+
+  private static void respond(HttpExchange exchange, String contentType, byte[] body)
+      throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", contentType);
+    exchange.sendResponseHeaders(200, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+}
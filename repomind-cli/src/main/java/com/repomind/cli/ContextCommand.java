@@ -1,11 +1,158 @@
 package com.repomind.cli;
 
+import com.repomind.cli.daemon.DaemonClient;
+import com.repomind.cli.daemon.DaemonProtocol;
+import com.repomind.cli.daemon.DaemonRequest;
+import com.repomind.cli.daemon.DaemonResponse;
+import com.repomind.core.config.ContextConfig;
+import com.repomind.core.config.RepoMindConfig;
+import com.repomind.core.config.RepoMindConfigException;
+import com.repomind.core.config.RepoMindConfigLoader;
+import com.repomind.core.config.SearchConfig;
+import com.repomind.core.context.ContextPackOptions;
+import com.repomind.core.context.ContextPackSummary;
+import com.repomind.core.context.ContextService;
+import com.repomind.core.embeddings.EmbeddingProvider;
+import com.repomind.core.embeddings.EmbeddingProviderException;
+import com.repomind.core.embeddings.EmbeddingProviderFactory;
+import com.repomind.core.embeddings.QueryEmbeddingCache;
+import com.repomind.storage.ChunkStore;
+import com.repomind.storage.StorageException;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+@Command(name = "context", description = "Write a markdown context pack for a task.")
+public class ContextCommand implements Callable<Integer> {
+  @Parameters(index = "0", description = "Task or question to collect context for.")
+  private String query;
+
+  @Option(names = "--repo", required = true, description = "Repository name used at index time.")
+  private String repo;
+
+  @Option(names = "--out", description = "Markdown file to write (default: stdout).")
+  private Path out;
+
+  @Option(names = "--max-bytes",
+      description = "Byte budget of the pack (default: context.maxBytes).")
+  private Integer maxBytes;
+
+  @Option(names = "--max-tokens",
+      description = "Token budget, estimated as bytes / 4 (default: context.maxTokens).")
+  private Integer maxTokens;
+
+  @Option(names = "--candidates",
+      description = "Search results to select from (default: context.candidates).")
+  private Integer candidates;
+
+  @Option(names = "--no-daemon",
+      description = "Build the pack in this process even if `repomind serve` is running.")
+  private boolean noDaemon;
+
+  @Mixin
+  private StatsOptions stats;
 
-@Command(name = "context", description = "Generate a context pack (stub).")
-public class ContextCommand implements Runnable {
   @Override
-  public void run() {
-    System.out.println("Context command not implemented yet.");
+  public Integer call() {
+    if (!noDaemon && maxBytes == null && maxTokens == null && candidates == null
+        && !stats.enabled()) {
+      Optional<Integer> forwarded = forwardToDaemon();
+      if (forwarded.isPresent()) {
+        return forwarded.get();
+      }
+    }
+    try {
+      RepoMindConfig config = new RepoMindConfigLoader().load(ServeCommand.CONFIG_PATH);
+      ContextConfig contextConfig = config.getContext();
+      if (maxBytes != null) {
+        contextConfig.setMaxBytes(ContextConfig.validateMaxBytes(maxBytes, "--max-bytes"));
+      }
+      if (maxTokens != null) {
+        contextConfig.setMaxTokens(ContextConfig.validateMaxTokens(maxTokens, "--max-tokens"));
+      }
+      if (candidates != null) {
+        contextConfig.setCandidates(ContextConfig.validateCandidates(candidates, "--candidates"));
+      }
+      SearchConfig searchConfig = config.getSearch();
+      QueryEmbeddingCache queryCache = new QueryEmbeddingCache(
+          searchConfig.getQueryCacheMaxEntries(), searchConfig.getQueryCacheMaxBytes());
+      try (EmbeddingProvider provider =
+              new EmbeddingProviderFactory().createWithoutCache(config.getEmbeddings());
+          ChunkStore store = ChunkStore.openForSearch(config)) {
+        ContextService service = new ContextService(
+            provider, store.repository(), queryCache, ContextPackOptions.from(contextConfig));
+        ContextPackSummary summary;
+        if (out == null) {
+          Writer writer =
+              new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+          summary = service.write(repo, query, contextConfig.getCandidates(), writer);
+        } else {
+          try (Writer writer = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            summary = service.write(repo, query, contextConfig.getCandidates(), writer);
+          }
+        }
+        printSummary(summary);
+        stats.print();
+      }
+      return 0;
+    } catch (RepoMindConfigException e) {
+      System.err.println("Config error: " + e.getMessage());
+      return 1;
+    } catch (EmbeddingProviderException | StorageException | IOException e) {
+      System.err.println("Context failed: " + e.getMessage());
+      return 1;
+    }
+  }
+
+  /** Builds the pack in a running daemon; empty when none serves this directory's config. */
+  private Optional<Integer> forwardToDaemon() {
+    Map<String, String> env = System.getenv();
+    Path socket = DaemonProtocol.socketPath(env);
+    if (!Files.exists(socket)) {
+      return Optional.empty();
+    }
+    DaemonRequest request = DaemonRequest.context(
+        DaemonProtocol.fingerprint(ServeCommand.CONFIG_PATH, env), repo, query);
+    Optional<DaemonResponse> response;
+    try {
+      if (out == null) {
+        response = DaemonClient.call(socket, request,
+            new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+      } else {
+        try (Writer writer = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+          response = DaemonClient.call(socket, request, writer);
+        }
+      }
+    } catch (IOException e) {
+      System.err.println("Context failed: " + e.getMessage());
+      return Optional.of(1);
+    }
+    if (response.isEmpty()) {
+      return Optional.empty();
+    }
+    if (!response.get().ok()) {
+      System.err.println("Context failed: " + response.get().error());
+      return Optional.of(1);
+    }
+    printSummary(response.get().context());
+    return Optional.of(0);
+  }
+
+  private void printSummary(ContextPackSummary summary) {
+    System.err.printf(Locale.ROOT, "%s: %d of %d candidates, %d bytes (~%d tokens)%n",
+        out == null ? "context" : out, summary.selected(), summary.candidates(),
+        summary.bytes(), summary.estimatedTokens());
   }
 }
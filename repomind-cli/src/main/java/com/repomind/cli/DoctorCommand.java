@@ -4,14 +4,48 @@ import com.repomind.core.config.RepoMindConfig;
 import com.repomind.core.config.RepoMindConfigException;
 import com.repomind.core.config.RepoMindConfigLoader;
 import com.repomind.core.embeddings.LocalHttpEmbeddingServerClient;
+import com.repomind.storage.DataSourceFactory;
+import com.repomind.storage.PgVectorCodeChunkRepository;
+import com.repomind.storage.Quantization;
+import com.repomind.storage.QuantizationReport;
+import com.repomind.storage.StorageException;
+import com.repomind.storage.VectorIndexReport;
+import com.repomind.storage.VectorSearchSettings;
+import com.repomind.storage.embedded.EmbeddedCodeChunkRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import java.lang.management.ManagementFactory;
 import java.net.URI;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
 
 @Command(name = "doctor", description = "Validate configuration and dependencies.")
 public class DoctorCommand implements Runnable {
+  private static final int PROBE_LIMIT = 10;
+
+  @Option(names = "--repo", description = "Repository used to check the search plan (default: any indexed repo).")
+  private String repo;
+
+  @Option(names = "--explain", description = "Print the full search plan.")
+  private boolean explain;
+
+  @Option(names = "--embeddings-only",
+      description = "Check config and the embedding server only; skip the store and database.")
+  private boolean embeddingsOnly;
+
+  @Option(names = "--recall", paramLabel = "N",
+      description = "Measure recall@10 of the configured index against exact search for N sampled chunks of --repo.")
+  private int recallSamples;
+
   @Override
   public void run() {
+    Instant commandStarted = Instant.now();
     RepoMindConfigLoader loader = new RepoMindConfigLoader();
     Path configPath = Path.of("repomind.config.yaml");
 
@@ -19,28 +53,144 @@ public class DoctorCommand implements Runnable {
       RepoMindConfig config = loader.load(configPath);
       System.out.println("Config OK");
       System.out.println(config.toSafeString());
+      printStartup(commandStarted);
       validateEmbeddings(config);
+      if (embeddingsOnly) {
+        return;
+      }
+      if (config.getStore().isEmbedded()) {
+        validateEmbeddedStore(config);
+      } else {
+        validateDatabase(config);
+      }
     } catch (RepoMindConfigException e) {
       System.err.println("Config error: " + e.getMessage());
       throw e;
+    } catch (StorageException e) {
+      System.err.println("Database error: " + e.getMessage());
+      throw e;
     }
   }
 
+  /**
+   * Prints how long the JVM took to reach {@code main} and the CLI to reach this command, and
+   * whether an AppCDS archive is mapped, so cold-start regressions show up in {@code doctor}.
+   */
+  private static void printStartup(Instant commandStarted) {
+    Optional<Instant> processStarted = ProcessHandle.current().info().startInstant();
+    Instant mainStarted = RepoMindCli.mainStarted;
+    StringBuilder line = new StringBuilder("Startup:");
+    if (processStarted.isPresent()) {
+      line.append(' ').append(Duration.between(processStarted.get(), commandStarted).toMillis())
+          .append(" ms to command");
+      if (mainStarted != null) {
+        line.append(" (JVM ").append(Duration.between(processStarted.get(), mainStarted).toMillis())
+            .append(" ms, CLI ").append(Duration.between(mainStarted, commandStarted).toMillis())
+            .append(" ms)");
+      }
+    } else {
+      line.append(" process start time unavailable");
+    }
+    String archive = sharedArchive();
+    line.append(archive == null
+        ? ", AppCDS: off (see README: Fast startup)"
+        : ", AppCDS: " + archive);
+    System.out.println(line);
+  }
+
+  private static String sharedArchive() {
+    for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+      if (argument.startsWith("-XX:SharedArchiveFile=")) {
+        return argument.substring("-XX:SharedArchiveFile=".length());
+      }
+    }
+    return null;
+  }
+
   private void validateEmbeddings(RepoMindConfig config) {
     String provider = config.getEmbeddings().getProvider();
     if (!"local-http".equals(provider)) {
       return;
     }
-    String url = config.getEmbeddings().getLocalHttp() == null
-        ? null
-        : config.getEmbeddings().getLocalHttp().getUrl();
-    if (url == null || url.isBlank()) {
+    List<String> urls = config.getEmbeddings().getLocalHttp() == null
+        ? List.of()
+        : config.getEmbeddings().getLocalHttp().endpointUrls();
+    if (urls.isEmpty()) {
       throw new RepoMindConfigException("Embeddings local_http.url is required for provider local-http.");
     }
-    LocalHttpEmbeddingServerClient client = new LocalHttpEmbeddingServerClient(URI.create(url));
-    if (!client.isHealthy()) {
-      throw new RepoMindConfigException("Embedding server is not reachable at " + url);
+    List<String> unreachable = new ArrayList<>();
+    for (String url : urls) {
+      if (!new LocalHttpEmbeddingServerClient(URI.create(url)).isHealthy()) {
+        unreachable.add(url);
+      }
+    }
+    if (unreachable.size() == urls.size()) {
+      throw new RepoMindConfigException(
+          "Embedding server is not reachable at " + String.join(", ", unreachable));
     }
-    System.out.println("Embedding server OK");
+    if (urls.size() == 1) {
+      System.out.println("Embedding server OK");
+    } else {
+      System.out.println("Embedding servers OK: " + (urls.size() - unreachable.size()) + " of "
+          + urls.size() + (unreachable.isEmpty() ? "" : " (unreachable: "
+          + String.join(", ", unreachable) + ")"));
+    }
+  }
+
+  private void validateEmbeddedStore(RepoMindConfig config) {
+    Path root = config.getStore().resolvePath();
+    System.out.println("Store: embedded at " + root.toAbsolutePath() + " (no database needed)");
+    if (repo != null) {
+      try (EmbeddedCodeChunkRepository repository = new EmbeddedCodeChunkRepository(
+          root, config.getStore().getHnswM(), config.getStore().getHnswEfConstruction(),
+          config.getSearch().getEfSearch())) {
+        System.out.println("Repo " + repo + ": " + repository.chunkCount(repo) + " chunks");
+      }
+    }
+  }
+
+  private void validateDatabase(RepoMindConfig config) {
+    try (HikariDataSource dataSource = new DataSourceFactory().create(config.getDb(), 1)) {
+      System.out.println("Database OK");
+      PgVectorCodeChunkRepository repository = new PgVectorCodeChunkRepository(
+          dataSource, VectorSearchSettings.from(config.getSearch(), config.getDb()));
+      VectorIndexReport report = repository.inspectVectorIndex(repo, PROBE_LIMIT);
+      if (!report.indexExists() && repository.quantization() != Quantization.NONE) {
+        System.out.println("Vector index: MISSING for quantization " + config.getDb().getQuantization()
+            + "; create it with:");
+        System.out.println("  " + repository.createIndexSql(
+            config.getDb().getHnswM(), config.getDb().getHnswEfConstruction()) + ";");
+      } else if (!report.indexExists()) {
+        System.out.println("Vector index: MISSING (run `repomind index` to apply migrations)");
+      } else if (report.usedByPlanner()) {
+        System.out.println("Vector index: used by planner (" + report.indexDefinition() + ")");
+      } else {
+        System.out.println("Vector index: NOT used by planner, search falls back to a sequential scan "
+            + "(expected for small tables; run ANALYZE code_chunks after indexing)");
+      }
+      if (explain) {
+        System.out.print(report.plan());
+      }
+      if (recallSamples > 0) {
+        printQuantization(repository);
+      }
+    }
+  }
+
+  private void printQuantization(PgVectorCodeChunkRepository repository) {
+    if (repo == null) {
+      throw new RepoMindConfigException("--recall requires --repo.");
+    }
+    QuantizationReport report = repository.measureQuantization(repo, recallSamples, PROBE_LIMIT);
+    System.out.println("Quantization: " + report.mode().name().toLowerCase(Locale.ROOT));
+    System.out.println("  table: " + megabytes(report.tableBytes())
+        + ", float32 index: " + megabytes(report.fullIndexBytes())
+        + ", configured index: " + megabytes(report.quantizedIndexBytes()));
+    System.out.printf(Locale.ROOT, "  recall@%d: %.3f over %d queries%n",
+        report.k(), report.recall(), report.queries());
+  }
+
+  private static String megabytes(long bytes) {
+    return bytes < 0 ? "absent" : String.format(Locale.ROOT, "%.1f MB", bytes / (1024.0 * 1024.0));
   }
 }
@@ -0,0 +1,35 @@
+package com.repomind.cli;
+
+import com.repomind.core.config.RepoMindConfig;
+import com.repomind.core.config.RepoMindConfigException;
+import com.repomind.core.config.RepoMindConfigLoader;
+import com.repomind.storage.ChunkStore;
+import com.repomind.storage.StorageException;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+@Command(name = "drop", description = "Delete a repository's chunks and file manifest.")
+public class DropCommand implements Callable<Integer> {
+  @Option(names = "--repo", required = true, description = "Repository name to delete.")
+  private String repo;
+
+  @Override
+  public Integer call() {
+    try {
+      RepoMindConfig config = new RepoMindConfigLoader().load(Path.of("repomind.config.yaml"));
+      try (ChunkStore store = ChunkStore.openForIndexing(config)) {
+        store.repository().deleteRepo(repo);
+      }
+      System.out.println("Dropped " + repo);
+      return 0;
+    } catch (RepoMindConfigException e) {
+      System.err.println("Config error: " + e.getMessage());
+      return 1;
+    } catch (IllegalArgumentException | StorageException e) {
+      System.err.println("Drop failed: " + e.getMessage());
+      return 1;
+    }
+  }
+}
@@ -1,11 +1,160 @@
 package com.repomind.cli;
 
+import com.repomind.core.config.IndexerConfig;
+import com.repomind.core.config.RepoMindConfig;
+import com.repomind.core.config.RepoMindConfigException;
+import com.repomind.core.config.RepoMindConfigLoader;
+import com.repomind.core.embeddings.EmbeddingProvider;
+import com.repomind.core.embeddings.EmbeddingProviderException;
+import com.repomind.core.embeddings.EmbeddingProviderFactory;
+import com.repomind.indexer.Chunker;
+import com.repomind.indexer.FileChunker;
+import com.repomind.indexer.IndexSummary;
+import com.repomind.indexer.IndexingPipeline;
+import com.repomind.indexer.JavaSymbolChunker;
+import com.repomind.indexer.RepoScanner;
+import com.repomind.indexer.RepoWatcher;
+import com.repomind.indexer.SourceFileReader;
+import com.repomind.storage.ChunkStore;
+import com.repomind.storage.StorageException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+@Command(name = "index", description = "Index a repository.")
+public class IndexCommand implements Callable<Integer> {
+  private static final Duration SHUTDOWN_GRACE = Duration.ofSeconds(30);
+
+  @Parameters(index = "0", description = "Path to the repository root.")
+  private Path repoPath;
+
+  @Option(names = "--repo", required = true, description = "Repository name to index under.")
+  private String repo;
+
+  @Option(names = "--full", description = "Re-chunk and re-embed every file, ignoring the manifest.")
+  private boolean full;
+
+  @Option(names = "--watch",
+      description = "After indexing, keep watching the repository and re-index changed files.")
+  private boolean watch;
+
+  @Option(names = "--debounce-ms", defaultValue = "500",
+      description = "With --watch, wait this long without changes before re-indexing "
+          + "(default: ${DEFAULT-VALUE}); bursts are flushed after at most 10 times this.")
+  private long debounceMillis;
+
+  @Mixin
+  private StatsOptions stats;
+
+  private final CountDownLatch finished = new CountDownLatch(1);
+  private boolean rescanPending;
 
-@Command(name = "index", description = "Index a repository (stub).")
-public class IndexCommand implements Runnable {
   @Override
-  public void run() {
-    System.out.println("Index command not implemented yet.");
+  public Integer call() {
+    try {
+      RepoMindConfig config = new RepoMindConfigLoader().load(Path.of("repomind.config.yaml"));
+      try (EmbeddingProvider provider = new EmbeddingProviderFactory().create(config.getEmbeddings());
+          ChunkStore store = ChunkStore.openForIndexing(config)) {
+        IndexingPipeline pipeline = new IndexingPipeline(
+            new RepoScanner(config.getIndexer()),
+            new SourceFileReader(),
+            chunker(config.getIndexer()),
+            provider,
+            store.repository());
+        IndexSummary summary = pipeline.index(repo, repoPath, full);
+        System.out.println("Indexed " + repo + " from " + repoPath);
+        System.out.println("files:   scanned=" + summary.scanned()
+            + " skipped=" + summary.skipped()
+            + " updated=" + summary.updated()
+            + " deleted=" + summary.deleted()
+            + " failed=" + summary.failed());
+        System.out.println("chunks:  " + summary.chunks());
+        System.out.println("took:    " + summary.elapsedMillis() + " ms");
+        stats.print();
+        if (watch) {
+          watch(config, pipeline);
+        }
+      }
+      return 0;
+    } catch (IOException e) {
+      System.err.println("Watch failed: " + e.getMessage());
+      return 1;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return 1;
+    } catch (RepoMindConfigException e) {
+      System.err.println("Config error: " + e.getMessage());
+      return 1;
+    } catch (IllegalArgumentException | EmbeddingProviderException | StorageException e) {
+      System.err.println("Index failed: " + e.getMessage());
+      return 1;
+    } finally {
+      finished.countDown();
+    }
+  }
+
+  /**
+   * Re-indexes debounced batches of changed files until the process is stopped. A failed cycle
+   * (embedding server or database down) is reported and retried as an incremental scan on the
+   * next change, so no edit is lost.
+   */
+  private void watch(RepoMindConfig config, IndexingPipeline pipeline)
+      throws IOException, InterruptedException {
+    if (debounceMillis <= 0) {
+      throw new IllegalArgumentException("--debounce-ms must be positive.");
+    }
+    Duration quietPeriod = Duration.ofMillis(debounceMillis);
+    RepoWatcher watcher = new RepoWatcher(
+        new RepoScanner(config.getIndexer()), repoPath, quietPeriod, quietPeriod.multipliedBy(10));
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      try {
+        watcher.close();
+        // Let the current cycle finish its batch and the store close cleanly.
+        finished.await(SHUTDOWN_GRACE.toMillis(), TimeUnit.MILLISECONDS);
+      } catch (IOException | InterruptedException e) {
+        // exiting anyway
+      }
+    }));
+    System.out.println("Watching " + repoPath + " for changes (Ctrl+C to stop)");
+    watcher.run(batch -> reindex(pipeline, batch));
+  }
+
+  private void reindex(IndexingPipeline pipeline, RepoWatcher.ChangeBatch batch) {
+    boolean scan = batch.overflow() || rescanPending;
+    try {
+      IndexSummary summary = scan
+          ? pipeline.index(repo, repoPath, false)
+          : pipeline.update(repo, repoPath, batch.paths());
+      rescanPending = false;
+      if (summary.updated() + summary.deleted() + summary.failed() > 0) {
+        System.out.println(LocalTime.now().truncatedTo(ChronoUnit.SECONDS)
+            + (scan ? " rescanned:" : " changed:")
+            + " updated=" + summary.updated()
+            + " deleted=" + summary.deleted()
+            + " failed=" + summary.failed()
+            + " chunks=" + summary.chunks()
+            + " took=" + summary.elapsedMillis() + " ms");
+        stats.print();
+      }
+    } catch (IllegalArgumentException | IllegalStateException | EmbeddingProviderException
+        | StorageException e) {
+      rescanPending = true;
+      System.err.println("Index failed: " + e.getMessage() + " (will rescan on the next change)");
+    }
+  }
+
+  static Chunker chunker(IndexerConfig config) {
+    return "file".equals(config.getChunking())
+        ? new FileChunker(config.getMaxChunkChars())
+        : new JavaSymbolChunker(config.getMaxChunkChars());
   }
 }
@@ -1,5 +1,6 @@
 package com.repomind.cli;
 
+import java.time.Instant;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
 
@@ -11,15 +12,21 @@ import picocli.CommandLine.Command;
         DoctorCommand.class,
         IndexCommand.class,
         SearchCommand.class,
-        ContextCommand.class
+        ContextCommand.class,
+        ServeCommand.class,
+        DropCommand.class
     }
 )
 public class RepoMindCli implements Runnable {
+  /** When {@link #main} was entered; {@code null} when commands run embedded in another program. */
+  static volatile Instant mainStarted;
+
   @Override public void run() {
     CommandLine.usage(this, System.out);
   }
 
   public static void main(String[] args) {
+    mainStarted = Instant.now();
     int exit = new CommandLine(new RepoMindCli()).execute(args);
     System.exit(exit);
   }
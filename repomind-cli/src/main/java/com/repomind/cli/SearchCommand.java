@@ -1,11 +1,177 @@
 package com.repomind.cli;
 
+import com.repomind.cli.daemon.DaemonClient;
+import com.repomind.cli.daemon.DaemonProtocol;
+import com.repomind.cli.daemon.DaemonRequest;
+import com.repomind.cli.daemon.DaemonResponse;
+import com.repomind.core.config.RepoMindConfig;
+import com.repomind.core.config.RepoMindConfigException;
+import com.repomind.core.config.RepoMindConfigLoader;
+import com.repomind.core.config.SearchConfig;
+import com.repomind.core.embeddings.EmbeddingCacheStats;
+import com.repomind.core.embeddings.EmbeddingProvider;
+import com.repomind.core.embeddings.EmbeddingProviderException;
+import com.repomind.core.embeddings.EmbeddingProviderFactory;
+import com.repomind.core.embeddings.QueryEmbeddingCache;
+import com.repomind.core.model.SearchQuery;
+import com.repomind.core.model.SearchResult;
+import com.repomind.core.search.SearchService;
+import com.repomind.storage.ChunkStore;
+import com.repomind.storage.StorageException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+@Command(name = "search", description = "Search indexed code.")
+public class SearchCommand implements Callable<Integer> {
+  private static final int PREVIEW_CHARS = 160;
+  /** Leading characters of each result loaded for its preview, leaving room for indentation. */
+  static final int EXCERPT_CHARS = 2048;
+
+  @Parameters(index = "0", description = "Natural language query.")
+  private String query;
+
+  @Option(names = "--repo", required = true, description = "Repository name used at index time.")
+  private String repo;
+
+  @Option(names = "--limit", defaultValue = "10", description = "Maximum results (default: ${DEFAULT-VALUE}).")
+  private int limit;
+
+  @Option(names = "--ef-search", description = "HNSW candidate list size for this query (default: search.efSearch).")
+  private Integer efSearch;
+
+  @Option(names = "--mode", description = "vector or hybrid (vector plus full-text, default: search.mode).")
+  private String mode;
+
+  @Option(names = "--no-daemon", description = "Search in this process even if `repomind serve` is running.")
+  private boolean noDaemon;
+
+  @Option(names = {"-v", "--verbose"}, description = "Print timing and query cache statistics.")
+  private boolean verbose;
+
+  @Mixin
+  private StatsOptions stats;
 
-@Command(name = "search", description = "Search indexed code (stub).")
-public class SearchCommand implements Runnable {
   @Override
-  public void run() {
-    System.out.println("Search command not implemented yet.");
+  public Integer call() {
+    if (!noDaemon && efSearch == null && mode == null && !stats.enabled()) {
+      Optional<Integer> forwarded = forwardToDaemon();
+      if (forwarded.isPresent()) {
+        return forwarded.get();
+      }
+    }
+    try {
+      RepoMindConfig config = new RepoMindConfigLoader().load(ServeCommand.CONFIG_PATH);
+      SearchConfig searchConfig = config.getSearch();
+      if (efSearch != null) {
+        searchConfig.setEfSearch(SearchConfig.validateEfSearch(efSearch, "--ef-search"));
+      }
+      if (mode != null) {
+        searchConfig.setMode(SearchConfig.validateMode(mode, "--mode"));
+      }
+      QueryEmbeddingCache queryCache = new QueryEmbeddingCache(
+          searchConfig.getQueryCacheMaxEntries(), searchConfig.getQueryCacheMaxBytes());
+      try (EmbeddingProvider provider =
+              new EmbeddingProviderFactory().createWithoutCache(config.getEmbeddings());
+          ChunkStore store = ChunkStore.openForSearch(config)) {
+        SearchService service = new SearchService(provider, store.repository(), queryCache);
+        long started = System.nanoTime();
+        List<SearchResult> results =
+            service.search(new SearchQuery(repo, query, limit), EXCERPT_CHARS);
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        print(results);
+        if (verbose) {
+          printStats(service.queryCacheStats(), results.size(), elapsedMs);
+        }
+        stats.print();
+      }
+      return 0;
+    } catch (RepoMindConfigException e) {
+      System.err.println("Config error: " + e.getMessage());
+      return 1;
+    } catch (EmbeddingProviderException | StorageException e) {
+      System.err.println("Search failed: " + e.getMessage());
+      return 1;
+    }
+  }
+
+  /** Searches through a running daemon; empty when none serves this directory's config. */
+  private Optional<Integer> forwardToDaemon() {
+    Map<String, String> env = System.getenv();
+    long started = System.nanoTime();
+    Path socket = DaemonProtocol.socketPath(env);
+    if (!Files.exists(socket)) {
+      return Optional.empty();
+    }
+    Optional<DaemonResponse> response = DaemonClient.call(socket,
+        DaemonRequest.search(DaemonProtocol.fingerprint(ServeCommand.CONFIG_PATH, env), repo, query, limit));
+    if (response.isEmpty()) {
+      return Optional.empty();
+    }
+    if (!response.get().ok()) {
+      System.err.println("Search failed: " + response.get().error());
+      return Optional.of(1);
+    }
+    List<SearchResult> results = response.get().results();
+    long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+    print(results);
+    if (verbose) {
+      System.err.print("via daemon ");
+      printStats(response.get().queryCache(), results.size(), elapsedMs);
+    }
+    return Optional.of(0);
+  }
+
+  private static void print(List<SearchResult> results) {
+    if (results.isEmpty()) {
+      System.out.println("No results.");
+      return;
+    }
+    for (int i = 0; i < results.size(); i++) {
+      SearchResult result = results.get(i);
+      System.out.printf(Locale.ROOT, "#%d  (distance=%.4f)%n", i + 1, result.distance());
+      System.out.println(result.filePath() + ":" + result.startLine() + "-" + result.endLine());
+      System.out.println("symbol: " + result.symbol());
+      System.out.println("preview: " + preview(result.code()));
+      System.out.println();
+    }
+  }
+
+  private static void printStats(EmbeddingCacheStats stats, int resultCount, long elapsedMs) {
+    System.err.printf(Locale.ROOT,
+        "results=%d took=%dms query-cache hits=%d misses=%d hitRate=%.2f entries=%d%n",
+        resultCount, elapsedMs, stats.hits(), stats.misses(), stats.hitRate(), stats.entries());
+  }
+
+  static String preview(String code) {
+    if (code == null) {
+      return "";
+    }
+    StringBuilder preview = new StringBuilder();
+    for (String line : code.split("\n")) {
+      String trimmed = line.strip();
+      if (trimmed.isEmpty()) {
+        continue;
+      }
+      if (preview.length() > 0) {
+        preview.append(' ');
+      }
+      preview.append(trimmed);
+      if (preview.length() >= PREVIEW_CHARS) {
+        break;
+      }
+    }
+    if (preview.length() > PREVIEW_CHARS) {
+      return preview.substring(0, PREVIEW_CHARS) + "...";
+    }
+    return preview.toString();
   }
 }
@@ -0,0 +1,104 @@
+package com.repomind.cli;
+
+import com.repomind.cli.daemon.DaemonProtocol;
+import com.repomind.cli.daemon.DaemonRequest;
+import com.repomind.cli.daemon.DaemonResponse;
+import com.repomind.cli.daemon.DaemonServer;
+import com.repomind.core.config.RepoMindConfig;
+import com.repomind.core.config.RepoMindConfigException;
+import com.repomind.core.config.RepoMindConfigLoader;
+import com.repomind.core.config.SearchConfig;
+import com.repomind.core.context.ContextPackOptions;
+import com.repomind.core.context.ContextPackSummary;
+import com.repomind.core.context.ContextService;
+import com.repomind.core.embeddings.EmbeddingProvider;
+import com.repomind.core.embeddings.EmbeddingProviderException;
+import com.repomind.core.embeddings.EmbeddingProviderFactory;
+import com.repomind.core.embeddings.QueryEmbeddingCache;
+import com.repomind.core.model.SearchQuery;
+import com.repomind.core.search.SearchService;
+import com.repomind.storage.ChunkStore;
+import com.repomind.storage.StorageException;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+/**
+ * Keeps the config, connection pool, embedding client and query cache warm so that {@code search}
+ * and {@code context} calls from the same directory skip JVM, config and connection startup.
+ */
+@Command(name = "serve",
+    description = "Run a local daemon that answers search and context requests.")
+public class ServeCommand implements Callable<Integer> {
+  static final Path CONFIG_PATH = Path.of("repomind.config.yaml");
+
+  @Option(names = "--socket", description = "Unix socket path (default: $REPOMIND_SOCKET, "
+      + "$XDG_RUNTIME_DIR/repomind.sock or a per-user temp file).")
+  private Path socket;
+
+  @Option(names = "--pool-size", defaultValue = "4",
+      description = "Database connections for concurrent searches (default: ${DEFAULT-VALUE}).")
+  private int poolSize;
+
+  @Override
+  public Integer call() {
+    Path socketPath = socket != null ? socket : DaemonProtocol.socketPath(System.getenv());
+    try {
+      String fingerprint = DaemonProtocol.fingerprint(CONFIG_PATH, System.getenv());
+      RepoMindConfig config = new RepoMindConfigLoader().load(CONFIG_PATH);
+      SearchConfig searchConfig = config.getSearch();
+      QueryEmbeddingCache queryCache = new QueryEmbeddingCache(
+          searchConfig.getQueryCacheMaxEntries(), searchConfig.getQueryCacheMaxBytes());
+      try (EmbeddingProvider provider =
+              new EmbeddingProviderFactory().createWithoutCache(config.getEmbeddings());
+          ChunkStore store = ChunkStore.openForSearch(config, poolSize)) {
+        SearchService search = new SearchService(provider, store.repository(), queryCache);
+        ContextService context = new ContextService(provider, store.repository(), queryCache,
+            ContextPackOptions.from(config.getContext()));
+        int candidates = config.getContext().getCandidates();
+        DaemonServer server = DaemonServer.start(socketPath, fingerprint,
+            (request, output) -> handle(search, context, candidates, request, output));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> closeQuietly(server)));
+        System.out.println("RepoMind daemon listening on " + server.socket());
+        server.awaitTermination();
+      }
+      return 0;
+    } catch (RepoMindConfigException e) {
+      System.err.println("Config error: " + e.getMessage());
+      return 1;
+    } catch (EmbeddingProviderException | StorageException | IOException e) {
+      System.err.println("Serve failed: " + e.getMessage());
+      return 1;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return 1;
+    }
+  }
+
+  private static DaemonResponse handle(SearchService search, ContextService context,
+      int candidates, DaemonRequest request, Writer output) throws IOException {
+    if (DaemonRequest.SEARCH.equals(request.op())) {
+      return DaemonResponse.ok(
+          search.search(new SearchQuery(request.repo(), request.query(), request.limit()),
+              SearchCommand.EXCERPT_CHARS),
+          search.queryCacheStats());
+    }
+    if (DaemonRequest.CONTEXT.equals(request.op())) {
+      ContextPackSummary summary =
+          context.write(request.repo(), request.query(), candidates, output);
+      return DaemonResponse.context(summary, context.queryCacheStats());
+    }
+    return DaemonResponse.error("Unsupported daemon operation: " + request.op());
+  }
+
+  private static void closeQuietly(DaemonServer server) {
+    try {
+      server.close();
+    } catch (IOException e) {
+      System.err.println("Failed to remove daemon socket: " + e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package com.repomind.cli;
+
+import com.repomind.core.metrics.MetricsRegistry;
+import com.repomind.core.metrics.MetricsSnapshot;
+import java.util.Locale;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Spec;
+
+/** The {@code --stats} option shared by {@code index}, {@code search} and {@code context}. */
+class StatsOptions {
+  @Spec(Spec.Target.MIXEE)
+  private CommandSpec spec;
+
+  private String format;
+
+  @Option(names = "--stats", arity = "0..1", fallbackValue = "text", paramLabel = "FORMAT",
+      description = "Print a per-stage timing breakdown to stderr as text (default) or json.")
+  void setFormat(String value) {
+    String normalized = value.trim().toLowerCase(Locale.ROOT);
+    if (!normalized.equals("text") && !normalized.equals("json")) {
+      throw new ParameterException(spec.commandLine(),
+          "--stats must be text or json, got: " + value);
+    }
+    format = normalized;
+  }
+
+  boolean enabled() {
+    return format != null;
+  }
+
+  /** Prints the global registry to stderr when {@code --stats} was given, then clears it. */
+  void print() {
+    if (format == null) {
+      return;
+    }
+    MetricsRegistry metrics = MetricsRegistry.global();
+    MetricsSnapshot snapshot = metrics.snapshot();
+    metrics.reset();
+    if (format.equals("json")) {
+      System.err.println(snapshot.toJson());
+    } else {
+      System.err.print(snapshot.toText());
+    }
+  }
+}
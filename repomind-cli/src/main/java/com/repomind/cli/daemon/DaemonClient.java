@@ -0,0 +1,138 @@
+package com.repomind.cli.daemon;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Forwards a request to a running {@code repomind serve}. Every way the daemon can be unavailable
+ * (no socket, nobody listening, a different config, I/O failure, timeout) yields an empty result
+ * so the caller can do the work in process, unless streamed output has already been written; then
+ * the failure is returned as an error response.
+ */
+public final class DaemonClient {
+  private static final Logger log = LoggerFactory.getLogger(DaemonClient.class);
+
+  public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(60);
+
+  private DaemonClient() {
+  }
+
+  public static Optional<DaemonResponse> call(Path socket, DaemonRequest request) {
+    return call(socket, request, DEFAULT_TIMEOUT);
+  }
+
+  public static Optional<DaemonResponse> call(Path socket, DaemonRequest request, Duration timeout) {
+    return call(socket, request, null, timeout);
+  }
+
+  /** Like {@link #call(Path, DaemonRequest)}, writing streamed output to {@code output}. */
+  public static Optional<DaemonResponse> call(Path socket, DaemonRequest request, Writer output) {
+    return call(socket, request, output, DEFAULT_TIMEOUT);
+  }
+
+  private static Optional<DaemonResponse> call(
+      Path socket, DaemonRequest request, Writer output, Duration timeout) {
+    if (!Files.exists(socket)) {
+      return Optional.empty();
+    }
+    SocketChannel channel;
+    try {
+      channel = SocketChannel.open(UnixDomainSocketAddress.of(socket));
+    } catch (IOException e) {
+      log.debug("No daemon on {}: {}", socket, e.getMessage());
+      return Optional.empty();
+    }
+    AtomicReference<DaemonResponse> response = new AtomicReference<>();
+    AtomicReference<String> failure =
+        new AtomicReference<>("Daemon did not answer within " + timeout);
+    AtomicBoolean streamed = new AtomicBoolean();
+    Thread exchange = Thread.ofVirtual().start(() -> {
+      try {
+        response.set(exchange(channel, request, output, streamed));
+      } catch (IOException e) {
+        failure.set("Daemon request failed: " + e.getMessage());
+        log.debug("Daemon request failed: {}", e.getMessage());
+      }
+    });
+    try {
+      if (!exchange.join(timeout)) {
+        log.debug("Daemon did not answer within {}", timeout);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      closeQuietly(channel);
+    }
+    DaemonResponse result = response.get();
+    if (result == null && streamed.get()) {
+      return Optional.of(DaemonResponse.error(failure.get()));
+    }
+    if (result == null || result.stale()) {
+      return Optional.empty();
+    }
+    return Optional.of(result);
+  }
+
+  /** True when something accepts connections on {@code socket}. */
+  public static boolean isListening(Path socket) {
+    if (!Files.exists(socket)) {
+      return false;
+    }
+    try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+      return channel.connect(UnixDomainSocketAddress.of(socket));
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  private static DaemonResponse exchange(SocketChannel channel, DaemonRequest request,
+      Writer output, AtomicBoolean streamed) throws IOException {
+    OutputStream out = Channels.newOutputStream(channel);
+    out.write(DaemonProtocol.mapper().writeValueAsBytes(request));
+    out.write('\n');
+    out.flush();
+    BufferedReader reader = new BufferedReader(
+        new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+    while (true) {
+      String line = reader.readLine();
+      if (line == null) {
+        throw new IOException("Daemon closed the connection.");
+      }
+      DaemonResponse response = DaemonProtocol.mapper().readValue(line, DaemonResponse.class);
+      if (!response.more()) {
+        if (output != null) {
+          output.flush();
+        }
+        return response;
+      }
+      if (output != null && response.pack() != null) {
+        streamed.set(true);
+        output.write(response.pack());
+      }
+    }
+  }
+
+  private static void closeQuietly(SocketChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      log.debug("Closing daemon connection failed: {}", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package com.repomind.cli.daemon;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Wire format shared by {@link DaemonServer} and {@link DaemonClient}: newline-delimited JSON over
+ * a Unix domain socket, one request line answered by one response line.
+ */
+public final class DaemonProtocol {
+  /** Environment variable naming the socket; default {@link #defaultSocket}. */
+  public static final String SOCKET_ENV = "REPOMIND_SOCKET";
+
+  private DaemonProtocol() {
+  }
+
+  /** Built on first use so that resolving the socket path does not initialize Jackson. */
+  static ObjectMapper mapper() {
+    return MapperHolder.MAPPER;
+  }
+
+  private static final class MapperHolder {
+    static final ObjectMapper MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+  }
+
+  /** {@code $REPOMIND_SOCKET}, else {@code $XDG_RUNTIME_DIR/repomind.sock}, else a per-user temp path. */
+  public static Path socketPath(Map<String, String> env) {
+    String configured = env.get(SOCKET_ENV);
+    if (configured != null && !configured.isBlank()) {
+      return Path.of(configured);
+    }
+    return defaultSocket(env);
+  }
+
+  static Path defaultSocket(Map<String, String> env) {
+    String runtimeDir = env.get("XDG_RUNTIME_DIR");
+    if (runtimeDir != null && !runtimeDir.isBlank()) {
+      return Path.of(runtimeDir, "repomind.sock");
+    }
+    return Path.of(System.getProperty("java.io.tmpdir"),
+        "repomind-" + System.getProperty("user.name") + ".sock");
+  }
+
+  /**
+   * Identifies the config a process in the current directory would load without parsing it: the
+   * config file's absolute path, size and modification time plus every {@code REPOMIND_*}
+   * environment variable.
+   */
+  public static String fingerprint(Path configPath, Map<String, String> env) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      Path absolute = configPath.toAbsolutePath().normalize();
+      digest.update(absolute.toString().getBytes(StandardCharsets.UTF_8));
+      if (Files.exists(absolute)) {
+        BasicFileAttributes attributes = Files.readAttributes(absolute, BasicFileAttributes.class);
+        digest.update(("|" + attributes.size() + "|" + attributes.lastModifiedTime().toMillis())
+            .getBytes(StandardCharsets.UTF_8));
+      }
+      for (Map.Entry<String, String> entry : new TreeMap<>(env).entrySet()) {
+        if (entry.getKey().startsWith("REPOMIND_") && !entry.getKey().equals(SOCKET_ENV)) {
+          digest.update(("|" + entry.getKey() + "=" + entry.getValue())
+              .getBytes(StandardCharsets.UTF_8));
+        }
+      }
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (IOException e) {
+      return "unreadable:" + configPath;
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
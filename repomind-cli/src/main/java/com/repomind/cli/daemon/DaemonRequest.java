@@ -0,0 +1,25 @@
+package com.repomind.cli.daemon;
+
+/**
+ * One request line sent to {@code repomind serve}. {@code fingerprint} identifies the config the
+ * client would load (see {@link DaemonProtocol#fingerprint}); the daemon refuses requests made
+ * under a different config so results never come from the wrong database or model.
+ */
+public record DaemonRequest(String op, String fingerprint, String repo, String query, int limit) {
+  public static final String PING = "ping";
+  public static final String SEARCH = "search";
+  public static final String CONTEXT = "context";
+
+  public static DaemonRequest ping(String fingerprint) {
+    return new DaemonRequest(PING, fingerprint, null, null, 0);
+  }
+
+  public static DaemonRequest search(String fingerprint, String repo, String query, int limit) {
+    return new DaemonRequest(SEARCH, fingerprint, repo, query, limit);
+  }
+
+  /** A context pack built with the daemon's {@code context} settings. */
+  public static DaemonRequest context(String fingerprint, String repo, String query) {
+    return new DaemonRequest(CONTEXT, fingerprint, repo, query, 0);
+  }
+}
@@ -0,0 +1,45 @@
+package com.repomind.cli.daemon;
+
+import com.repomind.core.context.ContextPackSummary;
+import com.repomind.core.embeddings.EmbeddingCacheStats;
+import com.repomind.core.model.SearchResult;
+import java.util.List;
+
+/**
+ * One response line from {@code repomind serve}. {@code stale} means the daemon runs under a
+ * different config than the client and the client should do the work itself. Searches fill
+ * {@code results}. Context requests are answered by a line per piece of the pack as it is written,
+ * each with {@code more} set and the text in {@code pack}, and then one line with {@code context}
+ * saying what went into it.
+ */
+public record DaemonResponse(
+    boolean ok,
+    boolean stale,
+    boolean more,
+    String error,
+    List<SearchResult> results,
+    String pack,
+    ContextPackSummary context,
+    EmbeddingCacheStats queryCache) {
+  public static DaemonResponse ok(List<SearchResult> results, EmbeddingCacheStats queryCache) {
+    return new DaemonResponse(true, false, false, null, results, null, null, queryCache);
+  }
+
+  /** A piece of streamed output; the final response follows it. */
+  public static DaemonResponse output(String text) {
+    return new DaemonResponse(true, false, true, null, null, text, null, null);
+  }
+
+  public static DaemonResponse context(ContextPackSummary context, EmbeddingCacheStats queryCache) {
+    return new DaemonResponse(true, false, false, null, null, null, context, queryCache);
+  }
+
+  public static DaemonResponse error(String message) {
+    return new DaemonResponse(false, false, false, message, null, null, null, null);
+  }
+
+  public static DaemonResponse staleConfig() {
+    return new DaemonResponse(
+        false, true, false, "Daemon runs with a different config.", null, null, null, null);
+  }
+}
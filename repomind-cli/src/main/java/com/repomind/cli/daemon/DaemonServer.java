@@ -0,0 +1,165 @@
+package com.repomind.cli.daemon;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Listens on a Unix domain socket and answers {@link DaemonRequest} lines with the given handler,
+ * one virtual thread per connection. What a handler writes to its output reaches the client as it
+ * is written, ahead of the handler's response. The socket file is readable by its owner only and
+ * removed on {@link #close}.
+ */
+public final class DaemonServer implements Closeable {
+  private static final Logger log = LoggerFactory.getLogger(DaemonServer.class);
+
+  @FunctionalInterface
+  public interface Handler {
+    DaemonResponse handle(DaemonRequest request, Writer output) throws IOException;
+  }
+
+  private final Path socket;
+  private final String fingerprint;
+  private final Handler handler;
+  private final ServerSocketChannel server;
+  private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+  private final Thread acceptor;
+  private volatile boolean closed;
+
+  private DaemonServer(Path socket, String fingerprint, Handler handler, ServerSocketChannel server) {
+    this.socket = socket;
+    this.fingerprint = fingerprint;
+    this.handler = handler;
+    this.server = server;
+    this.acceptor = Thread.ofPlatform().name("repomind-daemon").unstarted(this::acceptLoop);
+  }
+
+  /** Binds {@code socket}, replacing a stale socket file, and starts accepting connections. */
+  public static DaemonServer start(Path socket, String fingerprint, Handler handler)
+      throws IOException {
+    Objects.requireNonNull(handler, "handler");
+    if (DaemonClient.isListening(socket)) {
+      throw new IOException("A RepoMind daemon is already listening on " + socket);
+    }
+    Files.deleteIfExists(socket);
+    if (socket.toAbsolutePath().getParent() != null) {
+      Files.createDirectories(socket.toAbsolutePath().getParent());
+    }
+    ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+    try {
+      server.bind(UnixDomainSocketAddress.of(socket));
+      try {
+        Files.setPosixFilePermissions(socket, PosixFilePermissions.fromString("rw-------"));
+      } catch (UnsupportedOperationException e) {
+        log.debug("Cannot restrict permissions of {}", socket);
+      }
+    } catch (IOException | RuntimeException e) {
+      server.close();
+      throw e;
+    }
+    DaemonServer daemon = new DaemonServer(socket, fingerprint, handler, server);
+    daemon.acceptor.start();
+    return daemon;
+  }
+
+  public Path socket() {
+    return socket;
+  }
+
+  /** Blocks until the server is closed. */
+  public void awaitTermination() throws InterruptedException {
+    acceptor.join();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      server.close();
+      connections.shutdownNow();
+    } finally {
+      Files.deleteIfExists(socket);
+    }
+  }
+
+  private void acceptLoop() {
+    while (!closed) {
+      try {
+        SocketChannel channel = server.accept();
+        connections.submit(() -> serve(channel));
+      } catch (ClosedChannelException e) {
+        return;
+      } catch (IOException e) {
+        if (!closed) {
+          log.warn("Daemon accept failed: {}", e.getMessage());
+        }
+      }
+    }
+  }
+
+  private void serve(SocketChannel channel) {
+    try (channel;
+        BufferedReader reader = new BufferedReader(
+            new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+        OutputStream out = Channels.newOutputStream(channel)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        send(out, respond(line, out));
+      }
+    } catch (IOException e) {
+      log.debug("Daemon connection closed: {}", e.getMessage());
+    }
+  }
+
+  static void send(OutputStream out, DaemonResponse response) throws IOException {
+    out.write(DaemonProtocol.mapper().writeValueAsBytes(response));
+    out.write('\n');
+    out.flush();
+  }
+
+  private DaemonResponse respond(String line, OutputStream out) throws IOException {
+    DaemonRequest request;
+    try {
+      request = DaemonProtocol.mapper().readValue(line, DaemonRequest.class);
+    } catch (IOException e) {
+      return DaemonResponse.error("Malformed request: " + e.getMessage());
+    }
+    if (!fingerprint.equals(request.fingerprint())) {
+      return DaemonResponse.staleConfig();
+    }
+    if (DaemonRequest.PING.equals(request.op())) {
+      return DaemonResponse.ok(List.of(), null);
+    }
+    long started = System.nanoTime();
+    try (OutputWriter output = new OutputWriter(out)) {
+      return handler.handle(request, output);
+    } catch (RuntimeException e) {
+      return DaemonResponse.error(e.getMessage());
+    } finally {
+      log.debug("Daemon {} repo={} took {} ms",
+          request.op(), request.repo(), (System.nanoTime() - started) / 1_000_000);
+    }
+  }
+}
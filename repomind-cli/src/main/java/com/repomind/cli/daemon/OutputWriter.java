@@ -0,0 +1,48 @@
+package com.repomind.cli.daemon;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * Streams a handler's output to the client as {@link DaemonResponse#output} lines of at most
+ * {@link #CHUNK_CHARS} characters, so nothing larger is held in the daemon.
+ */
+final class OutputWriter extends Writer {
+  static final int CHUNK_CHARS = 8192;
+
+  private final OutputStream out;
+  private final StringBuilder pending = new StringBuilder(CHUNK_CHARS);
+
+  OutputWriter(OutputStream out) {
+    this.out = out;
+  }
+
+  @Override
+  public void write(char[] chars, int offset, int length) throws IOException {
+    while (length > 0) {
+      int take = Math.min(length, CHUNK_CHARS - pending.length());
+      pending.append(chars, offset, take);
+      offset += take;
+      length -= take;
+      if (pending.length() == CHUNK_CHARS) {
+        flush();
+      }
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (pending.isEmpty()) {
+      return;
+    }
+    DaemonServer.send(out, DaemonResponse.output(pending.toString()));
+    pending.setLength(0);
+  }
+
+  /** Leaves the connection open; the server writes the final response after the handler. */
+  @Override
+  public void close() throws IOException {
+    flush();
+  }
+}
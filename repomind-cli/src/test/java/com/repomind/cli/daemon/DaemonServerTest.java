@@ -0,0 +1,131 @@
+package com.repomind.cli.daemon;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.repomind.core.context.ContextPackSummary;
+import com.repomind.core.embeddings.EmbeddingCacheStats;
+import com.repomind.core.model.SearchResult;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DaemonServerTest {
+  @TempDir
+  Path dir;
+
+  @Test
+  void answersSearchesFromTheSameConfigAndRefusesOthers() throws IOException {
+    Path socket = dir.resolve("repomind.sock");
+    AtomicInteger calls = new AtomicInteger();
+    SearchResult hit = new SearchResult("id", "Owner.java", "Owner", "CLASS", 1, 9, "class Owner {}", 0.25);
+    try (DaemonServer server = DaemonServer.start(socket, "config-a", (request, output) -> {
+      calls.incrementAndGet();
+      return DaemonResponse.ok(List.of(hit), new EmbeddingCacheStats(1, 2, 0, 3, 4));
+    })) {
+      Optional<DaemonResponse> response =
+          DaemonClient.call(socket, DaemonRequest.search("config-a", "petclinic", "owner", 5));
+      assertTrue(response.isPresent());
+      assertTrue(response.get().ok());
+      assertEquals(List.of(hit), response.get().results());
+      assertEquals(3, response.get().queryCache().entries());
+
+      assertEquals(Optional.empty(),
+          DaemonClient.call(socket, DaemonRequest.search("config-b", "petclinic", "owner", 5)));
+      assertTrue(DaemonClient.call(socket, DaemonRequest.ping("config-a")).get().ok());
+      assertEquals(1, calls.get());
+
+      assertThrows(IOException.class, () -> DaemonServer.start(socket, "config-a", (request, output) -> null));
+    }
+    assertFalse(Files.exists(socket));
+    assertEquals(Optional.empty(), DaemonClient.call(socket, DaemonRequest.ping("config-a")));
+  }
+
+  @Test
+  void streamsContextPacksAheadOfTheirSummary() throws IOException {
+    Path socket = dir.resolve("context.sock");
+    ContextPackSummary summary = new ContextPackSummary(50, 3, 1, 2, 4, 1200);
+    String section = "## 1. `Owner` (CLASS)\n\n" + "x".repeat(OutputWriter.CHUNK_CHARS) + "\n";
+    List<Integer> writes = new ArrayList<>();
+    try (DaemonServer server = DaemonServer.start(socket, "config", (request, output) -> {
+      assertEquals(DaemonRequest.CONTEXT, request.op());
+      output.write("# Context: " + request.query() + "\n\n");
+      output.flush();
+      output.write(section);
+      return DaemonResponse.context(summary, new EmbeddingCacheStats(0, 1, 0, 1, 2));
+    })) {
+      StringWriter pack = new StringWriter() {
+        @Override
+        public void write(String text) {
+          writes.add(text.length());
+          super.write(text);
+        }
+      };
+      DaemonResponse response = DaemonClient.call(
+          socket, DaemonRequest.context("config", "petclinic", "add visit validation"), pack)
+          .orElseThrow();
+      assertTrue(response.ok());
+      assertEquals("# Context: add visit validation\n\n" + section, pack.toString());
+      assertEquals(3, writes.size());
+      assertTrue(writes.stream()
+          .allMatch(length -> length <= OutputWriter.CHUNK_CHARS));
+      assertEquals(summary, response.context());
+      assertEquals(1, response.queryCache().misses());
+    }
+  }
+
+  @Test
+  void reportsAStreamCutShortAsAnError() throws IOException {
+    Path socket = dir.resolve("cut.sock");
+    try (DaemonServer server = DaemonServer.start(socket, "config", (request, output) -> {
+      output.write("# Context\n");
+      output.flush();
+      throw new Error("daemon died");
+    })) {
+      StringWriter pack = new StringWriter();
+      DaemonResponse response = DaemonClient.call(
+          socket, DaemonRequest.context("config", "petclinic", "owner"), pack).orElseThrow();
+      assertFalse(response.ok());
+      assertEquals("# Context\n", pack.toString());
+    }
+  }
+
+  @Test
+  void reportsHandlerFailuresAndReplacesStaleSocketFiles() throws IOException {
+    Path socket = dir.resolve("stale.sock");
+    Files.createFile(socket);
+    try (DaemonServer server = DaemonServer.start(socket, "config", (request, output) -> {
+      throw new IllegalArgumentException("repo is required.");
+    })) {
+      DaemonResponse response =
+          DaemonClient.call(socket, DaemonRequest.search("config", "", "owner", 5)).orElseThrow();
+      assertFalse(response.ok());
+      assertEquals("repo is required.", response.error());
+    }
+  }
+
+  @Test
+  void fingerprintTracksConfigFileAndRepomindEnvironment() throws IOException {
+    Path config = dir.resolve("repomind.config.yaml");
+    Files.writeString(config, "db:\n  host: localhost\n");
+    String base = DaemonProtocol.fingerprint(config, Map.of("HOME", "/home/a"));
+
+    assertEquals(base, DaemonProtocol.fingerprint(config, Map.of("HOME", "/home/b")));
+    assertEquals(base, DaemonProtocol.fingerprint(config, Map.of("REPOMIND_SOCKET", "/tmp/x.sock")));
+    assertFalse(base.equals(DaemonProtocol.fingerprint(config, Map.of("REPOMIND_DB_HOST", "db"))));
+    Files.writeString(config, "db:\n  host: db.internal\n");
+    assertFalse(base.equals(DaemonProtocol.fingerprint(config, Map.of())));
+    assertEquals(Path.of("/run/user/1/repomind.sock"),
+        DaemonProtocol.socketPath(Map.of("XDG_RUNTIME_DIR", "/run/user/1")));
+  }
+}
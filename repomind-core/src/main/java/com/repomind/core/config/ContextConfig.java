@@ -0,0 +1,111 @@
+package com.repomind.core.config;
+
+public class ContextConfig {
+  private Integer candidates = 50;
+  private Integer maxBytes = 32 * 1024;
+  private Integer maxTokens;
+  private Double mmrLambda = 0.7;
+  private Integer nearDuplicateBits = 3;
+
+  public Integer getCandidates() {
+    return candidates;
+  }
+
+  public void setCandidates(Integer candidates) {
+    this.candidates = candidates;
+  }
+
+  public Integer getMaxBytes() {
+    return maxBytes;
+  }
+
+  public void setMaxBytes(Integer maxBytes) {
+    this.maxBytes = maxBytes;
+  }
+
+  public Integer getMaxTokens() {
+    return maxTokens;
+  }
+
+  public void setMaxTokens(Integer maxTokens) {
+    this.maxTokens = maxTokens;
+  }
+
+  public Double getMmrLambda() {
+    return mmrLambda;
+  }
+
+  public void setMmrLambda(Double mmrLambda) {
+    this.mmrLambda = mmrLambda;
+  }
+
+  public Integer getNearDuplicateBits() {
+    return nearDuplicateBits;
+  }
+
+  public void setNearDuplicateBits(Integer nearDuplicateBits) {
+    this.nearDuplicateBits = nearDuplicateBits;
+  }
+
+  public static int validateCandidates(int candidates, String source) {
+    if (candidates < 1 || candidates > 500) {
+      throw new RepoMindConfigException(source + " must be between 1 and 500.");
+    }
+    return candidates;
+  }
+
+  public static int validateMaxBytes(int maxBytes, String source) {
+    if (maxBytes < 256) {
+      throw new RepoMindConfigException(source + " must be at least 256.");
+    }
+    return maxBytes;
+  }
+
+  public static int validateMaxTokens(int maxTokens, String source) {
+    if (maxTokens < 64) {
+      throw new RepoMindConfigException(source + " must be at least 64.");
+    }
+    return maxTokens;
+  }
+
+  public void apply(ContextConfig other) {
+    if (other == null) {
+      return;
+    }
+    if (other.candidates != null) {
+      this.candidates = validateCandidates(other.candidates, "context.candidates");
+    }
+    if (other.maxBytes != null) {
+      this.maxBytes = validateMaxBytes(other.maxBytes, "context.maxBytes");
+    }
+    if (other.maxTokens != null) {
+      this.maxTokens = validateMaxTokens(other.maxTokens, "context.maxTokens");
+    }
+    if (other.mmrLambda != null) {
+      if (other.mmrLambda < 0 || other.mmrLambda > 1) {
+        throw new RepoMindConfigException("context.mmrLambda must be between 0 and 1.");
+      }
+      this.mmrLambda = other.mmrLambda;
+    }
+    if (other.nearDuplicateBits != null) {
+      if (other.nearDuplicateBits < 0 || other.nearDuplicateBits > 32) {
+        throw new RepoMindConfigException("context.nearDuplicateBits must be between 0 and 32.");
+      }
+      this.nearDuplicateBits = other.nearDuplicateBits;
+    }
+  }
+
+  public String toSafeString() {
+    return "ContextConfig{candidates="
+        + candidates
+        + ", maxBytes="
+        + maxBytes
+        + ", maxTokens="
+        + maxTokens
+        + ", mmrLambda="
+        + mmrLambda
+        + ", nearDuplicateBits="
+        + nearDuplicateBits
+        + "}";
+  }
+}
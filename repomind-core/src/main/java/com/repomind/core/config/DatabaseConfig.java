@@ -1,11 +1,18 @@
 package com.repomind.core.config;
 
+import java.util.Locale;
+
 public class DatabaseConfig {
   private String host = "localhost";
   private Integer port = 5432;
   private String name = "repomind";
   private String user = "repomind";
   private String password = "repomind";
+  private String writeMode = "copy";
+  private Integer writeFlushRows = 1000;
+  private Integer hnswM = 16;
+  private Integer hnswEfConstruction = 64;
+  private String quantization = "none";
 
   public String getHost() {
     return host;
@@ -47,6 +54,64 @@ public class DatabaseConfig {
     this.password = password;
   }
 
+  public String getWriteMode() {
+    return writeMode;
+  }
+
+  public void setWriteMode(String writeMode) {
+    this.writeMode = writeMode;
+  }
+
+  public Integer getWriteFlushRows() {
+    return writeFlushRows;
+  }
+
+  public void setWriteFlushRows(Integer writeFlushRows) {
+    this.writeFlushRows = writeFlushRows;
+  }
+
+  public Integer getHnswM() {
+    return hnswM;
+  }
+
+  public void setHnswM(Integer hnswM) {
+    this.hnswM = hnswM;
+  }
+
+  public Integer getHnswEfConstruction() {
+    return hnswEfConstruction;
+  }
+
+  public void setHnswEfConstruction(Integer hnswEfConstruction) {
+    this.hnswEfConstruction = hnswEfConstruction;
+  }
+
+  public String getQuantization() {
+    return quantization;
+  }
+
+  public void setQuantization(String quantization) {
+    this.quantization = quantization;
+  }
+
+  static String validateWriteMode(String value, String source) {
+    String normalized = value.trim().toLowerCase(Locale.ROOT);
+    if (!normalized.equals("copy") && !normalized.equals("rows")) {
+      throw new RepoMindConfigException(
+          "Invalid " + source + ": " + value + " (expected copy or rows)");
+    }
+    return normalized;
+  }
+
+  static String validateQuantization(String value, String source) {
+    String normalized = value.trim().toLowerCase(Locale.ROOT);
+    if (!normalized.equals("none") && !normalized.equals("halfvec") && !normalized.equals("binary")) {
+      throw new RepoMindConfigException(
+          "Invalid " + source + ": " + value + " (expected none, halfvec or binary)");
+    }
+    return normalized;
+  }
+
   public void apply(DatabaseConfig other) {
     if (other.host != null && !other.host.isBlank()) {
       this.host = other.host;
@@ -63,10 +128,39 @@ public class DatabaseConfig {
     if (other.password != null) {
       this.password = other.password;
     }
+    if (other.writeMode != null && !other.writeMode.isBlank()) {
+      this.writeMode = validateWriteMode(other.writeMode, "db.writeMode");
+    }
+    if (other.writeFlushRows != null) {
+      if (other.writeFlushRows <= 0) {
+        throw new RepoMindConfigException("db.writeFlushRows must be positive.");
+      }
+      this.writeFlushRows = other.writeFlushRows;
+    }
+    if (other.hnswM != null) {
+      if (other.hnswM < 2 || other.hnswM > 100) {
+        throw new RepoMindConfigException("db.hnswM must be between 2 and 100.");
+      }
+      this.hnswM = other.hnswM;
+    }
+    if (other.hnswEfConstruction != null) {
+      if (other.hnswEfConstruction < 4 || other.hnswEfConstruction > 1000) {
+        throw new RepoMindConfigException("db.hnswEfConstruction must be between 4 and 1000.");
+      }
+      this.hnswEfConstruction = other.hnswEfConstruction;
+    }
+    if (hnswEfConstruction < 2 * hnswM) {
+      throw new RepoMindConfigException("db.hnswEfConstruction must be at least twice db.hnswM.");
+    }
+    if (other.quantization != null && !other.quantization.isBlank()) {
+      this.quantization = validateQuantization(other.quantization, "db.quantization");
+    }
   }
 
   public String toSafeString() {
     return "DatabaseConfig{host=" + host + ", port=" + port + ", name=" + name + ", user=" + user
-        + ", password=***}";
+        + ", password=***, writeMode=" + writeMode + ", writeFlushRows=" + writeFlushRows
+        + ", hnswM=" + hnswM + ", hnswEfConstruction=" + hnswEfConstruction
+        + ", quantization=" + quantization + "}";
   }
 }
@@ -0,0 +1,67 @@
+package com.repomind.core.config;
+
+import java.nio.file.Path;
+
+public class EmbeddingCacheConfig {
+  private static final long MAX_MAPPED_BYTES = Integer.MAX_VALUE;
+
+  private Boolean enabled = true;
+  private String path = "";
+  private Long maxBytes = 256L * 1024 * 1024;
+
+  public Boolean getEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(Boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public void setPath(String path) {
+    this.path = path;
+  }
+
+  public Long getMaxBytes() {
+    return maxBytes;
+  }
+
+  public void setMaxBytes(Long maxBytes) {
+    this.maxBytes = maxBytes;
+  }
+
+  /** Blank paths resolve to {@code ~/.cache/repomind/embeddings.cache}. */
+  public Path resolvePath() {
+    if (path == null || path.isBlank()) {
+      return Path.of(System.getProperty("user.home"), ".cache", "repomind", "embeddings.cache");
+    }
+    return Path.of(path);
+  }
+
+  public void apply(EmbeddingCacheConfig other) {
+    if (other == null) {
+      return;
+    }
+    if (other.enabled != null) {
+      this.enabled = other.enabled;
+    }
+    if (other.path != null) {
+      this.path = other.path;
+    }
+    if (other.maxBytes != null) {
+      if (other.maxBytes <= 0 || other.maxBytes > MAX_MAPPED_BYTES) {
+        throw new RepoMindConfigException(
+            "embeddings.cache.maxBytes must be between 1 and " + MAX_MAPPED_BYTES + ".");
+      }
+      this.maxBytes = other.maxBytes;
+    }
+  }
+
+  public String toSafeString() {
+    return "EmbeddingCacheConfig{enabled=" + enabled + ", path=" + path + ", maxBytes=" + maxBytes
+        + "}";
+  }
+}
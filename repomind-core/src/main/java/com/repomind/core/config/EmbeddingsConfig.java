@@ -5,6 +5,7 @@ public class EmbeddingsConfig {
   private String model = "sentence-transformers/code-bert-tiny-code-search";
   private String modelPath = "";
   private LocalHttpConfig localHttp = new LocalHttpConfig();
+  private EmbeddingCacheConfig cache = new EmbeddingCacheConfig();
 
   public String getProvider() {
     return provider;
@@ -46,6 +47,14 @@ public class EmbeddingsConfig {
     return localHttp;
   }
 
+  public EmbeddingCacheConfig getCache() {
+    return cache;
+  }
+
+  public void setCache(EmbeddingCacheConfig cache) {
+    this.cache = cache;
+  }
+
   public void apply(EmbeddingsConfig other) {
     if (other.provider != null && !other.provider.isBlank()) {
       this.provider = other.provider;
@@ -62,6 +71,12 @@ public class EmbeddingsConfig {
       }
       this.localHttp.apply(other.localHttp);
     }
+    if (other.cache != null) {
+      if (this.cache == null) {
+        this.cache = new EmbeddingCacheConfig();
+      }
+      this.cache.apply(other.cache);
+    }
   }
 
   public String toSafeString() {
@@ -73,6 +88,8 @@ public class EmbeddingsConfig {
         + modelPath
         + ", localHttp="
         + (localHttp == null ? "null" : localHttp.toSafeString())
+        + ", cache="
+        + (cache == null ? "null" : cache.toSafeString())
         + "}";
   }
 }
@@ -0,0 +1,105 @@
+package com.repomind.core.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class IndexerConfig {
+  private List<String> includes = new ArrayList<>(List.of("**/*.java"));
+  private List<String> excludes = new ArrayList<>(List.of(
+      "**/.git/**",
+      "**/target/**",
+      "**/build/**",
+      "**/out/**",
+      "**/node_modules/**"));
+  private Long maxFileBytes = 1024L * 1024;
+  private Integer maxChunkChars = 8000;
+  private String chunking = "symbol";
+
+  public List<String> getIncludes() {
+    return includes;
+  }
+
+  public void setIncludes(List<String> includes) {
+    this.includes = includes;
+  }
+
+  public List<String> getExcludes() {
+    return excludes;
+  }
+
+  public void setExcludes(List<String> excludes) {
+    this.excludes = excludes;
+  }
+
+  public Long getMaxFileBytes() {
+    return maxFileBytes;
+  }
+
+  public void setMaxFileBytes(Long maxFileBytes) {
+    this.maxFileBytes = maxFileBytes;
+  }
+
+  public Integer getMaxChunkChars() {
+    return maxChunkChars;
+  }
+
+  public void setMaxChunkChars(Integer maxChunkChars) {
+    this.maxChunkChars = maxChunkChars;
+  }
+
+  public String getChunking() {
+    return chunking;
+  }
+
+  public void setChunking(String chunking) {
+    this.chunking = chunking;
+  }
+
+  public void apply(IndexerConfig other) {
+    if (other == null) {
+      return;
+    }
+    if (other.includes != null && !other.includes.isEmpty()) {
+      this.includes = new ArrayList<>(other.includes);
+    }
+    if (other.excludes != null) {
+      this.excludes = new ArrayList<>(other.excludes);
+    }
+    if (other.maxFileBytes != null) {
+      if (other.maxFileBytes <= 0 || other.maxFileBytes > Integer.MAX_VALUE) {
+        throw new RepoMindConfigException(
+            "indexer.maxFileBytes must be between 1 and " + Integer.MAX_VALUE + ".");
+      }
+      this.maxFileBytes = other.maxFileBytes;
+    }
+    if (other.maxChunkChars != null) {
+      if (other.maxChunkChars <= 0) {
+        throw new RepoMindConfigException("indexer.maxChunkChars must be positive.");
+      }
+      this.maxChunkChars = other.maxChunkChars;
+    }
+    if (other.chunking != null && !other.chunking.isBlank()) {
+      String mode = other.chunking.trim().toLowerCase(Locale.ROOT);
+      if (!mode.equals("symbol") && !mode.equals("file")) {
+        throw new RepoMindConfigException(
+            "Invalid indexer.chunking: " + other.chunking + " (expected symbol or file)");
+      }
+      this.chunking = mode;
+    }
+  }
+
+  public String toSafeString() {
+    return "IndexerConfig{includes="
+        + includes
+        + ", excludes="
+        + excludes
+        + ", maxFileBytes="
+        + maxFileBytes
+        + ", maxChunkChars="
+        + maxChunkChars
+        + ", chunking="
+        + chunking
+        + "}";
+  }
+}
@@ -1,7 +1,25 @@
 package com.repomind.core.config;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
 public class LocalHttpConfig {
+  /** Smallest allowed {@code maxBatchChars}; also the floor of the adaptive budget. */
+  public static final int MIN_BATCH_CHARS = 1024;
+
   private String url = "http://localhost:8088";
+  private List<String> urls;
+  private Integer maxInFlight = 4;
+  private String format = "auto";
+  private String batching = "adaptive";
+  private Integer batchSize = 32;
+  private Integer maxBatchChars = 65536;
+  private Integer targetBatchMillis = 5000;
+  private Integer maxRetries = 2;
+  private Integer retryBackoffMillis = 200;
+  private Integer breakerFailures = 3;
+  private Integer breakerOpenMillis = 30000;
 
   public String getUrl() {
     return url;
@@ -11,6 +29,107 @@ public class LocalHttpConfig {
     this.url = url;
   }
 
+  /** Several embedding servers to balance across; when set, {@link #getUrl()} is ignored. */
+  public List<String> getUrls() {
+    return urls;
+  }
+
+  public void setUrls(List<String> urls) {
+    this.urls = urls;
+  }
+
+  /** The configured endpoints: {@code urls} when non-empty, otherwise {@code url}. */
+  public List<String> endpointUrls() {
+    if (urls != null && !urls.isEmpty()) {
+      return List.copyOf(urls);
+    }
+    return url == null || url.isBlank() ? List.of() : List.of(url);
+  }
+
+  public Integer getMaxInFlight() {
+    return maxInFlight;
+  }
+
+  public void setMaxInFlight(Integer maxInFlight) {
+    this.maxInFlight = maxInFlight;
+  }
+
+  public String getFormat() {
+    return format;
+  }
+
+  public void setFormat(String format) {
+    this.format = format;
+  }
+
+  public String getBatching() {
+    return batching;
+  }
+
+  public void setBatching(String batching) {
+    this.batching = batching;
+  }
+
+  public boolean isAdaptiveBatching() {
+    return "adaptive".equals(batching);
+  }
+
+  public Integer getBatchSize() {
+    return batchSize;
+  }
+
+  public void setBatchSize(Integer batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  public Integer getMaxBatchChars() {
+    return maxBatchChars;
+  }
+
+  public void setMaxBatchChars(Integer maxBatchChars) {
+    this.maxBatchChars = maxBatchChars;
+  }
+
+  public Integer getTargetBatchMillis() {
+    return targetBatchMillis;
+  }
+
+  public void setTargetBatchMillis(Integer targetBatchMillis) {
+    this.targetBatchMillis = targetBatchMillis;
+  }
+
+  public Integer getMaxRetries() {
+    return maxRetries;
+  }
+
+  public void setMaxRetries(Integer maxRetries) {
+    this.maxRetries = maxRetries;
+  }
+
+  public Integer getRetryBackoffMillis() {
+    return retryBackoffMillis;
+  }
+
+  public void setRetryBackoffMillis(Integer retryBackoffMillis) {
+    this.retryBackoffMillis = retryBackoffMillis;
+  }
+
+  public Integer getBreakerFailures() {
+    return breakerFailures;
+  }
+
+  public void setBreakerFailures(Integer breakerFailures) {
+    this.breakerFailures = breakerFailures;
+  }
+
+  public Integer getBreakerOpenMillis() {
+    return breakerOpenMillis;
+  }
+
+  public void setBreakerOpenMillis(Integer breakerOpenMillis) {
+    this.breakerOpenMillis = breakerOpenMillis;
+  }
+
   public void apply(LocalHttpConfig other) {
     if (other == null) {
       return;
@@ -18,9 +137,99 @@ public class LocalHttpConfig {
     if (other.url != null && !other.url.isBlank()) {
       this.url = other.url;
     }
+    if (other.urls != null) {
+      List<String> merged = new ArrayList<>();
+      for (String endpoint : other.urls) {
+        if (endpoint == null || endpoint.isBlank()) {
+          throw new RepoMindConfigException("embeddings.local_http.urls must not contain blank entries.");
+        }
+        merged.add(endpoint.trim());
+      }
+      this.urls = merged;
+    }
+    if (other.maxInFlight != null) {
+      if (other.maxInFlight <= 0) {
+        throw new RepoMindConfigException("embeddings.local_http.maxInFlight must be positive.");
+      }
+      this.maxInFlight = other.maxInFlight;
+    }
+    if (other.format != null && !other.format.isBlank()) {
+      this.format = validateFormat(other.format, "embeddings.local_http.format");
+    }
+    if (other.batching != null && !other.batching.isBlank()) {
+      this.batching = validateBatching(other.batching, "embeddings.local_http.batching");
+    }
+    if (other.batchSize != null) {
+      if (other.batchSize <= 0) {
+        throw new RepoMindConfigException("embeddings.local_http.batchSize must be positive.");
+      }
+      this.batchSize = other.batchSize;
+    }
+    if (other.maxBatchChars != null) {
+      if (other.maxBatchChars < MIN_BATCH_CHARS) {
+        throw new RepoMindConfigException(
+            "embeddings.local_http.maxBatchChars must be at least " + MIN_BATCH_CHARS + ".");
+      }
+      this.maxBatchChars = other.maxBatchChars;
+    }
+    if (other.targetBatchMillis != null) {
+      if (other.targetBatchMillis <= 0) {
+        throw new RepoMindConfigException(
+            "embeddings.local_http.targetBatchMillis must be positive.");
+      }
+      this.targetBatchMillis = other.targetBatchMillis;
+    }
+    if (other.maxRetries != null) {
+      if (other.maxRetries < 0) {
+        throw new RepoMindConfigException("embeddings.local_http.maxRetries must not be negative.");
+      }
+      this.maxRetries = other.maxRetries;
+    }
+    if (other.retryBackoffMillis != null) {
+      if (other.retryBackoffMillis <= 0) {
+        throw new RepoMindConfigException(
+            "embeddings.local_http.retryBackoffMillis must be positive.");
+      }
+      this.retryBackoffMillis = other.retryBackoffMillis;
+    }
+    if (other.breakerFailures != null) {
+      if (other.breakerFailures <= 0) {
+        throw new RepoMindConfigException("embeddings.local_http.breakerFailures must be positive.");
+      }
+      this.breakerFailures = other.breakerFailures;
+    }
+    if (other.breakerOpenMillis != null) {
+      if (other.breakerOpenMillis <= 0) {
+        throw new RepoMindConfigException(
+            "embeddings.local_http.breakerOpenMillis must be positive.");
+      }
+      this.breakerOpenMillis = other.breakerOpenMillis;
+    }
+  }
+
+  static String validateBatching(String batching, String source) {
+    String normalized = batching.trim().toLowerCase(Locale.ROOT);
+    if (!normalized.equals("adaptive") && !normalized.equals("fixed")) {
+      throw new RepoMindConfigException(
+          "Invalid " + source + ": " + batching + " (expected adaptive or fixed)");
+    }
+    return normalized;
+  }
+
+  static String validateFormat(String format, String source) {
+    String normalized = format.trim().toLowerCase(Locale.ROOT);
+    if (!normalized.equals("auto") && !normalized.equals("json") && !normalized.equals("binary")) {
+      throw new RepoMindConfigException(
+          "Invalid " + source + ": " + format + " (expected auto, json or binary)");
+    }
+    return normalized;
   }
 
   public String toSafeString() {
-    return "LocalHttpConfig{url=" + url + "}";
+    return "LocalHttpConfig{url=" + url + ", urls=" + urls + ", maxInFlight=" + maxInFlight + ", format=" + format
+        + ", batching=" + batching + ", batchSize=" + batchSize + ", maxBatchChars="
+        + maxBatchChars + ", targetBatchMillis=" + targetBatchMillis + ", maxRetries=" + maxRetries
+        + ", retryBackoffMillis=" + retryBackoffMillis + ", breakerFailures=" + breakerFailures
+        + ", breakerOpenMillis=" + breakerOpenMillis + "}";
   }
 }
@@ -3,6 +3,10 @@ package com.repomind.core.config;
 public class RepoMindConfig {
   private EmbeddingsConfig embeddings = new EmbeddingsConfig();
   private DatabaseConfig db = new DatabaseConfig();
+  private StoreConfig store = new StoreConfig();
+  private SearchConfig search = new SearchConfig();
+  private IndexerConfig indexer = new IndexerConfig();
+  private ContextConfig context = new ContextConfig();
 
   public EmbeddingsConfig getEmbeddings() {
     return embeddings;
@@ -20,6 +24,38 @@ public class RepoMindConfig {
     this.db = db;
   }
 
+  public StoreConfig getStore() {
+    return store;
+  }
+
+  public void setStore(StoreConfig store) {
+    this.store = store;
+  }
+
+  public SearchConfig getSearch() {
+    return search;
+  }
+
+  public void setSearch(SearchConfig search) {
+    this.search = search;
+  }
+
+  public IndexerConfig getIndexer() {
+    return indexer;
+  }
+
+  public void setIndexer(IndexerConfig indexer) {
+    this.indexer = indexer;
+  }
+
+  public ContextConfig getContext() {
+    return context;
+  }
+
+  public void setContext(ContextConfig context) {
+    this.context = context;
+  }
+
   public void apply(RepoMindConfig other) {
     if (other == null) {
       return;
@@ -30,10 +66,24 @@ public class RepoMindConfig {
     if (other.db != null) {
       this.db.apply(other.db);
     }
+    if (other.store != null) {
+      this.store.apply(other.store);
+    }
+    if (other.search != null) {
+      this.search.apply(other.search);
+    }
+    if (other.indexer != null) {
+      this.indexer.apply(other.indexer);
+    }
+    if (other.context != null) {
+      this.context.apply(other.context);
+    }
   }
 
   public String toSafeString() {
-    return "RepoMindConfig{" + embeddings.toSafeString() + ", " + db.toSafeString() + "}";
+    return "RepoMindConfig{" + embeddings.toSafeString() + ", " + db.toSafeString() + ", "
+        + store.toSafeString() + ", " + search.toSafeString() + ", " + indexer.toSafeString() + ", "
+        + context.toSafeString() + "}";
   }
 
   @Override
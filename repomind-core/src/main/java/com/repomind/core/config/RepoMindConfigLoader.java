@@ -4,6 +4,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.constructor.Constructor;
@@ -70,7 +72,69 @@ public class RepoMindConfigLoader {
       if (config.getEmbeddings().getLocalHttp() == null) {
         config.getEmbeddings().setLocalHttp(new LocalHttpConfig());
       }
-      config.getEmbeddings().getLocalHttp().setUrl(localHttpUrl);
+      List<String> endpoints = new ArrayList<>();
+      for (String endpoint : localHttpUrl.split(",")) {
+        if (!endpoint.isBlank()) {
+          endpoints.add(endpoint.trim());
+        }
+      }
+      if (endpoints.isEmpty()) {
+        throw new RepoMindConfigException("Invalid REPOMIND_EMBEDDINGS_LOCAL_HTTP_URL: " + localHttpUrl);
+      }
+      config.getEmbeddings().getLocalHttp().setUrl(endpoints.get(0));
+      config.getEmbeddings().getLocalHttp().setUrls(endpoints.size() > 1 ? endpoints : null);
+    }
+
+    String maxInFlightValue = env.get("REPOMIND_EMBEDDINGS_LOCAL_HTTP_MAX_IN_FLIGHT");
+    if (maxInFlightValue != null && !maxInFlightValue.isBlank()) {
+      int maxInFlight;
+      try {
+        maxInFlight = Integer.parseInt(maxInFlightValue);
+      } catch (NumberFormatException e) {
+        throw new RepoMindConfigException(
+            "Invalid REPOMIND_EMBEDDINGS_LOCAL_HTTP_MAX_IN_FLIGHT: " + maxInFlightValue, e);
+      }
+      if (maxInFlight <= 0) {
+        throw new RepoMindConfigException(
+            "Invalid REPOMIND_EMBEDDINGS_LOCAL_HTTP_MAX_IN_FLIGHT: " + maxInFlightValue);
+      }
+      if (config.getEmbeddings().getLocalHttp() == null) {
+        config.getEmbeddings().setLocalHttp(new LocalHttpConfig());
+      }
+      config.getEmbeddings().getLocalHttp().setMaxInFlight(maxInFlight);
+    }
+
+    String localHttpFormat = env.get("REPOMIND_EMBEDDINGS_LOCAL_HTTP_FORMAT");
+    if (localHttpFormat != null && !localHttpFormat.isBlank()) {
+      if (config.getEmbeddings().getLocalHttp() == null) {
+        config.getEmbeddings().setLocalHttp(new LocalHttpConfig());
+      }
+      config.getEmbeddings().getLocalHttp().setFormat(
+          LocalHttpConfig.validateFormat(localHttpFormat, "REPOMIND_EMBEDDINGS_LOCAL_HTTP_FORMAT"));
+    }
+
+    String localHttpBatching = env.get("REPOMIND_EMBEDDINGS_LOCAL_HTTP_BATCHING");
+    if (localHttpBatching != null && !localHttpBatching.isBlank()) {
+      if (config.getEmbeddings().getLocalHttp() == null) {
+        config.getEmbeddings().setLocalHttp(new LocalHttpConfig());
+      }
+      config.getEmbeddings().getLocalHttp().setBatching(LocalHttpConfig.validateBatching(
+          localHttpBatching, "REPOMIND_EMBEDDINGS_LOCAL_HTTP_BATCHING"));
+    }
+
+    String cacheEnabled = env.get("REPOMIND_EMBEDDINGS_CACHE_ENABLED");
+    if (cacheEnabled != null && !cacheEnabled.isBlank()) {
+      if (config.getEmbeddings().getCache() == null) {
+        config.getEmbeddings().setCache(new EmbeddingCacheConfig());
+      }
+      config.getEmbeddings().getCache().setEnabled(Boolean.parseBoolean(cacheEnabled.trim()));
+    }
+
+    if (env.containsKey("REPOMIND_EMBEDDINGS_CACHE_PATH")) {
+      if (config.getEmbeddings().getCache() == null) {
+        config.getEmbeddings().setCache(new EmbeddingCacheConfig());
+      }
+      config.getEmbeddings().getCache().setPath(env.get("REPOMIND_EMBEDDINGS_CACHE_PATH"));
     }
 
     String host = env.get("REPOMIND_DB_HOST");
@@ -100,5 +164,31 @@ public class RepoMindConfigLoader {
     if (env.containsKey("REPOMIND_DB_PASSWORD")) {
       config.getDb().setPassword(env.get("REPOMIND_DB_PASSWORD"));
     }
+
+    String writeMode = env.get("REPOMIND_DB_WRITE_MODE");
+    if (writeMode != null && !writeMode.isBlank()) {
+      config.getDb().setWriteMode(DatabaseConfig.validateWriteMode(writeMode, "REPOMIND_DB_WRITE_MODE"));
+    }
+
+    String quantization = env.get("REPOMIND_DB_QUANTIZATION");
+    if (quantization != null && !quantization.isBlank()) {
+      config.getDb().setQuantization(
+          DatabaseConfig.validateQuantization(quantization, "REPOMIND_DB_QUANTIZATION"));
+    }
+
+    String storeBackend = env.get("REPOMIND_STORE_BACKEND");
+    if (storeBackend != null && !storeBackend.isBlank()) {
+      config.getStore().setBackend(
+          StoreConfig.validateBackend(storeBackend, "REPOMIND_STORE_BACKEND"));
+    }
+
+    if (env.containsKey("REPOMIND_STORE_PATH")) {
+      config.getStore().setPath(env.get("REPOMIND_STORE_PATH"));
+    }
+
+    String searchMode = env.get("REPOMIND_SEARCH_MODE");
+    if (searchMode != null && !searchMode.isBlank()) {
+      config.getSearch().setMode(SearchConfig.validateMode(searchMode, "REPOMIND_SEARCH_MODE"));
+    }
   }
 }
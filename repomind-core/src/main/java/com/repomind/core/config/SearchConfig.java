@@ -0,0 +1,192 @@
+package com.repomind.core.config;
+
+import java.util.Locale;
+import java.util.Set;
+
+public class SearchConfig {
+  private static final Set<String> ITERATIVE_SCAN_MODES = Set.of("off", "strict_order", "relaxed_order");
+
+  private Integer queryCacheMaxEntries = 1024;
+  private Long queryCacheMaxBytes = 8L * 1024 * 1024;
+  private Integer efSearch = 40;
+  private String iterativeScan = "strict_order";
+  private Integer rerankFactor = 4;
+  private String mode = "hybrid";
+  private Double vectorWeight = 1.0;
+  private Double lexicalWeight = 1.0;
+  private Integer rrfK = 60;
+
+  public Integer getQueryCacheMaxEntries() {
+    return queryCacheMaxEntries;
+  }
+
+  public void setQueryCacheMaxEntries(Integer queryCacheMaxEntries) {
+    this.queryCacheMaxEntries = queryCacheMaxEntries;
+  }
+
+  public Long getQueryCacheMaxBytes() {
+    return queryCacheMaxBytes;
+  }
+
+  public void setQueryCacheMaxBytes(Long queryCacheMaxBytes) {
+    this.queryCacheMaxBytes = queryCacheMaxBytes;
+  }
+
+  public Integer getEfSearch() {
+    return efSearch;
+  }
+
+  public void setEfSearch(Integer efSearch) {
+    this.efSearch = efSearch;
+  }
+
+  public String getIterativeScan() {
+    return iterativeScan;
+  }
+
+  public void setIterativeScan(String iterativeScan) {
+    this.iterativeScan = iterativeScan;
+  }
+
+  public Integer getRerankFactor() {
+    return rerankFactor;
+  }
+
+  public void setRerankFactor(Integer rerankFactor) {
+    this.rerankFactor = rerankFactor;
+  }
+
+  public String getMode() {
+    return mode;
+  }
+
+  public void setMode(String mode) {
+    this.mode = mode;
+  }
+
+  public boolean isHybrid() {
+    return "hybrid".equals(mode);
+  }
+
+  public Double getVectorWeight() {
+    return vectorWeight;
+  }
+
+  public void setVectorWeight(Double vectorWeight) {
+    this.vectorWeight = vectorWeight;
+  }
+
+  public Double getLexicalWeight() {
+    return lexicalWeight;
+  }
+
+  public void setLexicalWeight(Double lexicalWeight) {
+    this.lexicalWeight = lexicalWeight;
+  }
+
+  public Integer getRrfK() {
+    return rrfK;
+  }
+
+  public void setRrfK(Integer rrfK) {
+    this.rrfK = rrfK;
+  }
+
+  public static String validateMode(String value, String source) {
+    String normalized = value.trim().toLowerCase(Locale.ROOT);
+    if (!normalized.equals("vector") && !normalized.equals("hybrid")) {
+      throw new RepoMindConfigException(
+          "Invalid " + source + ": " + value + " (expected vector or hybrid)");
+    }
+    return normalized;
+  }
+
+  public static int validateEfSearch(int efSearch, String source) {
+    if (efSearch < 1 || efSearch > 1000) {
+      throw new RepoMindConfigException(source + " must be between 1 and 1000.");
+    }
+    return efSearch;
+  }
+
+  public void apply(SearchConfig other) {
+    if (other == null) {
+      return;
+    }
+    if (other.queryCacheMaxEntries != null) {
+      if (other.queryCacheMaxEntries <= 0) {
+        throw new RepoMindConfigException("search.queryCacheMaxEntries must be positive.");
+      }
+      this.queryCacheMaxEntries = other.queryCacheMaxEntries;
+    }
+    if (other.queryCacheMaxBytes != null) {
+      if (other.queryCacheMaxBytes <= 0) {
+        throw new RepoMindConfigException("search.queryCacheMaxBytes must be positive.");
+      }
+      this.queryCacheMaxBytes = other.queryCacheMaxBytes;
+    }
+    if (other.efSearch != null) {
+      this.efSearch = validateEfSearch(other.efSearch, "search.efSearch");
+    }
+    if (other.iterativeScan != null && !other.iterativeScan.isBlank()) {
+      String mode = other.iterativeScan.trim().toLowerCase(Locale.ROOT);
+      if (!ITERATIVE_SCAN_MODES.contains(mode)) {
+        throw new RepoMindConfigException("Invalid search.iterativeScan: " + other.iterativeScan
+            + " (expected off, strict_order or relaxed_order)");
+      }
+      this.iterativeScan = mode;
+    }
+    if (other.rerankFactor != null) {
+      if (other.rerankFactor < 1 || other.rerankFactor > 100) {
+        throw new RepoMindConfigException("search.rerankFactor must be between 1 and 100.");
+      }
+      this.rerankFactor = other.rerankFactor;
+    }
+    if (other.mode != null && !other.mode.isBlank()) {
+      this.mode = validateMode(other.mode, "search.mode");
+    }
+    if (other.vectorWeight != null) {
+      if (other.vectorWeight < 0) {
+        throw new RepoMindConfigException("search.vectorWeight must not be negative.");
+      }
+      this.vectorWeight = other.vectorWeight;
+    }
+    if (other.lexicalWeight != null) {
+      if (other.lexicalWeight < 0) {
+        throw new RepoMindConfigException("search.lexicalWeight must not be negative.");
+      }
+      this.lexicalWeight = other.lexicalWeight;
+    }
+    if (vectorWeight == 0 && lexicalWeight == 0) {
+      throw new RepoMindConfigException(
+          "search.vectorWeight and search.lexicalWeight must not both be zero.");
+    }
+    if (other.rrfK != null) {
+      if (other.rrfK < 1 || other.rrfK > 1000) {
+        throw new RepoMindConfigException("search.rrfK must be between 1 and 1000.");
+      }
+      this.rrfK = other.rrfK;
+    }
+  }
+
+  public String toSafeString() {
+    return "SearchConfig{queryCacheMaxEntries="
+        + queryCacheMaxEntries
+        + ", queryCacheMaxBytes="
+        + queryCacheMaxBytes
+        + ", efSearch="
+        + efSearch
+        + ", iterativeScan="
+        + iterativeScan
+        + ", rerankFactor="
+        + rerankFactor
+        + ", mode="
+        + mode
+        + ", vectorWeight="
+        + vectorWeight
+        + ", lexicalWeight="
+        + lexicalWeight
+        + ", rrfK="
+        + rrfK
+        + "}";
+  }
+}
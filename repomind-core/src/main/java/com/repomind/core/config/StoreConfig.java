@@ -0,0 +1,97 @@
+package com.repomind.core.config;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+public class StoreConfig {
+  private String backend = "postgres";
+  private String path = "";
+  private Integer hnswM = 16;
+  private Integer hnswEfConstruction = 100;
+
+  public String getBackend() {
+    return backend;
+  }
+
+  public void setBackend(String backend) {
+    this.backend = backend;
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public void setPath(String path) {
+    this.path = path;
+  }
+
+  public Integer getHnswM() {
+    return hnswM;
+  }
+
+  public void setHnswM(Integer hnswM) {
+    this.hnswM = hnswM;
+  }
+
+  public Integer getHnswEfConstruction() {
+    return hnswEfConstruction;
+  }
+
+  public void setHnswEfConstruction(Integer hnswEfConstruction) {
+    this.hnswEfConstruction = hnswEfConstruction;
+  }
+
+  public boolean isEmbedded() {
+    return "embedded".equals(backend);
+  }
+
+  /** Blank paths resolve to {@code ~/.local/share/repomind/store}. */
+  public Path resolvePath() {
+    if (path == null || path.isBlank()) {
+      return Path.of(System.getProperty("user.home"), ".local", "share", "repomind", "store");
+    }
+    return Path.of(path);
+  }
+
+  static String validateBackend(String value, String source) {
+    String normalized = value.trim().toLowerCase(Locale.ROOT);
+    if (!normalized.equals("postgres") && !normalized.equals("embedded")) {
+      throw new RepoMindConfigException(
+          "Invalid " + source + ": " + value + " (expected postgres or embedded)");
+    }
+    return normalized;
+  }
+
+  public void apply(StoreConfig other) {
+    if (other == null) {
+      return;
+    }
+    if (other.backend != null && !other.backend.isBlank()) {
+      this.backend = validateBackend(other.backend, "store.backend");
+    }
+    if (other.path != null) {
+      this.path = other.path;
+    }
+    if (other.hnswM != null) {
+      if (other.hnswM < 2 || other.hnswM > 100) {
+        throw new RepoMindConfigException("store.hnswM must be between 2 and 100.");
+      }
+      this.hnswM = other.hnswM;
+    }
+    if (other.hnswEfConstruction != null) {
+      if (other.hnswEfConstruction < 4 || other.hnswEfConstruction > 1000) {
+        throw new RepoMindConfigException("store.hnswEfConstruction must be between 4 and 1000.");
+      }
+      this.hnswEfConstruction = other.hnswEfConstruction;
+    }
+    if (hnswEfConstruction < 2 * hnswM) {
+      throw new RepoMindConfigException(
+          "store.hnswEfConstruction must be at least twice store.hnswM.");
+    }
+  }
+
+  public String toSafeString() {
+    return "StoreConfig{backend=" + backend + ", path=" + path + ", hnswM=" + hnswM
+        + ", hnswEfConstruction=" + hnswEfConstruction + "}";
+  }
+}
@@ -0,0 +1,34 @@
+package com.repomind.core.context;
+
+import com.repomind.core.config.ContextConfig;
+
+/**
+ * Limits and tuning for one context pack.
+ *
+ * @param maxBytes UTF-8 bytes of the whole pack
+ * @param maxTokens estimated tokens (bytes / 4), or 0 for no token limit
+ * @param mmrLambda weight of relevance against diversity in MMR selection (1 = relevance only)
+ * @param nearDuplicateBits SimHash distance at or below which a chunk is a near-duplicate
+ */
+public record ContextPackOptions(
+    int maxBytes, int maxTokens, double mmrLambda, int nearDuplicateBits) {
+  /** Rough bytes per token for source code; the budget is enforced in bytes. */
+  public static final int BYTES_PER_TOKEN = 4;
+
+  public static ContextPackOptions from(ContextConfig config) {
+    return new ContextPackOptions(
+        config.getMaxBytes(),
+        config.getMaxTokens() == null ? 0 : config.getMaxTokens(),
+        config.getMmrLambda(),
+        config.getNearDuplicateBits());
+  }
+
+  /** The byte budget: {@code maxBytes}, lowered to fit {@code maxTokens} when that is set. */
+  public long byteBudget() {
+    return maxTokens > 0 ? Math.min(maxBytes, (long) maxTokens * BYTES_PER_TOKEN) : maxBytes;
+  }
+
+  public static long estimateTokens(long bytes) {
+    return (bytes + BYTES_PER_TOKEN - 1) / BYTES_PER_TOKEN;
+  }
+}
@@ -0,0 +1,18 @@
+package com.repomind.core.context;
+
+/**
+ * What went into a context pack.
+ *
+ * @param candidates chunks returned by the search
+ * @param selected chunks written
+ * @param nearDuplicates skipped as SimHash near-duplicates of a written chunk
+ * @param overlapping skipped for overlapping a written chunk of the same file, or repeating it
+ * @param overBudget skipped because they no longer fit the budget
+ * @param bytes UTF-8 bytes of the whole pack, header and closing line included
+ */
+public record ContextPackSummary(
+    int candidates, int selected, int nearDuplicates, int overlapping, int overBudget, long bytes) {
+  public long estimatedTokens() {
+    return ContextPackOptions.estimateTokens(bytes);
+  }
+}
@@ -0,0 +1,304 @@
+package com.repomind.core.context;
+
+import com.repomind.core.model.SearchCandidate;
+import com.repomind.core.model.SearchResult;
+import com.repomind.core.vector.PackedVectors;
+import com.repomind.core.vector.TopK;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Selects chunks for a context pack and writes them as markdown while selecting.
+ *
+ * <p>Selection is maximal marginal relevance over the candidates' stored embeddings: each step
+ * picks the chunk maximizing {@code lambda * sim(query, c) - (1 - lambda) * max sim(c, picked)},
+ * with similarities computed by the packed vector kernels. A pick is skipped when it repeats or
+ * overlaps an already written chunk of the same file (type chunks elide member bodies, so they do
+ * not conflict with members), when its SimHash is within {@code nearDuplicateBits} of a written
+ * chunk, or when its section no longer fits the byte budget; smaller chunks may still fit after
+ * that. The budget covers the whole pack: the header (with the query cut short if it would not
+ * fit) and room for the closing summary line are counted before any section. Each accepted
+ * section is written to the {@link Writer} immediately, so the pack is never held in memory.
+ *
+ * <p>Candidates may come without code. Code is loaded through a {@link CodeLoader} only for picks
+ * that pass the overlap check, together with the next most relevant candidates still without
+ * code, so a pack costs a few small batched loads instead of every candidate's body.
+ */
+public final class ContextPackWriter {
+  private static final Set<String> TYPE_KINDS =
+      Set.of("CLASS", "INTERFACE", "ENUM", "RECORD", "ANNOTATION");
+  /** Candidates whose code is loaded together when a pick needs its code. */
+  static final int CODE_BATCH = 8;
+
+  /** Returns {@code results} in the same order with their code set. */
+  @FunctionalInterface
+  public interface CodeLoader {
+    List<SearchResult> load(List<SearchResult> results);
+  }
+
+  private final ContextPackOptions options;
+
+  public ContextPackWriter(ContextPackOptions options) {
+    this.options = Objects.requireNonNull(options, "options");
+  }
+
+  public ContextPackSummary write(String repo, String query, float[] queryEmbedding,
+      List<SearchCandidate> candidates, Writer out) throws IOException {
+    return write(repo, query, queryEmbedding, candidates, results -> results, out);
+  }
+
+  public ContextPackSummary write(String repo, String query, float[] queryEmbedding,
+      List<SearchCandidate> candidates, CodeLoader codeLoader, Writer out) throws IOException {
+    int count = candidates.size();
+    SearchResult[] results = new SearchResult[count];
+    boolean[] hasCode = new boolean[count];
+    for (int i = 0; i < count; i++) {
+      results[i] = candidates.get(i).result();
+      hasCode[i] = results[i].code() != null;
+    }
+    List<float[]> vectors = new ArrayList<>(count);
+    for (SearchCandidate candidate : candidates) {
+      if (candidate.embedding() == null) {
+        throw new IllegalArgumentException(
+            "Candidate " + candidate.result().chunkId() + " has no embedding.");
+      }
+      vectors.add(candidate.embedding());
+    }
+    PackedVectors packed = PackedVectors.packNormalized(vectors);
+    float[] relevance = new float[count];
+    if (count > 0) {
+      TopK ranked = packed.topK(unit(queryEmbedding), count);
+      for (int i = 0; i < ranked.size(); i++) {
+        relevance[ranked.rows()[i]] = ranked.scores()[i];
+      }
+    }
+    float[] redundancy = new float[count];
+    boolean[] done = new boolean[count];
+
+    // Counts never exceed the candidate count, so this footer is at least as long as the real one.
+    long budget = options.byteBudget() - utf8Length(footer(count, count, count, count));
+    StringBuilder section = new StringBuilder(4096);
+    header(section, repo, singleLine(query), budget);
+    long bytes = utf8Length(section);
+    out.append(section);
+
+    List<SearchResult> written = new ArrayList<>();
+    List<Long> signatures = new ArrayList<>();
+    Set<String> writtenIds = new HashSet<>();
+    int nearDuplicates = 0;
+    int overlapping = 0;
+    int overBudget = 0;
+    double lambda = options.mmrLambda();
+    for (int step = 0; step < count; step++) {
+      int best = -1;
+      double bestScore = Double.NEGATIVE_INFINITY;
+      for (int i = 0; i < count; i++) {
+        if (!done[i]) {
+          double score = lambda * relevance[i] - (1 - lambda) * redundancy[i];
+          if (score > bestScore) {
+            best = i;
+            bestScore = score;
+          }
+        }
+      }
+      done[best] = true;
+      SearchResult result = results[best];
+      if (writtenIds.contains(result.chunkId()) || overlapsWritten(result, written)) {
+        overlapping++;
+        continue;
+      }
+      if (!hasCode[best]) {
+        loadCode(best, results, hasCode, done, relevance, codeLoader);
+        result = results[best];
+      }
+      long signature = SimHash.of(result.code() == null ? "" : result.code());
+      if (isNearDuplicate(signature, signatures)) {
+        nearDuplicates++;
+        continue;
+      }
+      section.setLength(0);
+      renderSection(section, written.size() + 1, result, relevance[best]);
+      long sectionBytes = utf8Length(section);
+      if (bytes + sectionBytes > budget) {
+        overBudget++;
+        continue;
+      }
+      out.append(section);
+      bytes += sectionBytes;
+      written.add(result);
+      signatures.add(signature);
+      writtenIds.add(result.chunkId());
+      for (int i = 0; i < count; i++) {
+        if (!done[i]) {
+          redundancy[i] = Math.max(redundancy[i], packed.similarity(i, best));
+        }
+      }
+    }
+
+    String footer = footer(written.size(), nearDuplicates, overlapping, overBudget);
+    out.append(footer);
+    out.flush();
+    return new ContextPackSummary(count, written.size(), nearDuplicates, overlapping, overBudget,
+        bytes + utf8Length(footer));
+  }
+
+  /** Writes the header, cutting {@code query} short if the header would not fit {@code budget}. */
+  private static void header(StringBuilder header, String repo, String query, long budget) {
+    int length = query.length();
+    while (true) {
+      String shown = length == query.length() ? query
+          : length == 0 ? "" : query.substring(0, length).stripTrailing() + "...";
+      header.setLength(0);
+      header.append("# Context: ").append(shown).append("\n\n")
+          .append("repo: `").append(repo).append("`\n\n");
+      if (length == 0 || utf8Length(header) <= budget) {
+        return;
+      }
+      length -= Math.max(1, length / 4);
+      if (length > 0 && Character.isHighSurrogate(query.charAt(length - 1))) {
+        length--;
+      }
+    }
+  }
+
+  private static String footer(int selected, int nearDuplicates, int overlapping, int overBudget) {
+    return String.format(Locale.ROOT,
+        "---\n_%d chunks; skipped %d near-duplicate, %d overlapping, %d over budget._\n",
+        selected, nearDuplicates, overlapping, overBudget);
+  }
+
+  /**
+   * Loads the code of candidate {@code first} and of up to {@code CODE_BATCH - 1} more of the
+   * most relevant candidates not yet picked and still without code.
+   */
+  private static void loadCode(int first, SearchResult[] results, boolean[] hasCode, boolean[] done,
+      float[] relevance, CodeLoader codeLoader) {
+    List<Integer> rows = new ArrayList<>(CODE_BATCH);
+    rows.add(first);
+    hasCode[first] = true;
+    while (rows.size() < CODE_BATCH) {
+      int next = -1;
+      for (int i = 0; i < results.length; i++) {
+        if (!done[i] && !hasCode[i] && (next < 0 || relevance[i] > relevance[next])) {
+          next = i;
+        }
+      }
+      if (next < 0) {
+        break;
+      }
+      rows.add(next);
+      hasCode[next] = true;
+    }
+    List<SearchResult> batch = new ArrayList<>(rows.size());
+    for (int row : rows) {
+      batch.add(results[row]);
+    }
+    List<SearchResult> loaded = codeLoader.load(batch);
+    for (int i = 0; i < rows.size(); i++) {
+      results[rows.get(i)] = loaded.get(i);
+    }
+  }
+
+  private boolean isNearDuplicate(long signature, List<Long> signatures) {
+    for (long other : signatures) {
+      if (SimHash.distance(signature, other) <= options.nearDuplicateBits()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean overlapsWritten(SearchResult result, List<SearchResult> written) {
+    if (TYPE_KINDS.contains(result.symbolKind())) {
+      return false;
+    }
+    for (SearchResult other : written) {
+      if (other.filePath().equals(result.filePath())
+          && !TYPE_KINDS.contains(other.symbolKind())
+          && other.startLine() <= result.endLine()
+          && result.startLine() <= other.endLine()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void renderSection(
+      StringBuilder section, int number, SearchResult result, float relevance) {
+    String code = result.code() == null ? "" : result.code();
+    String fence = "`".repeat(Math.max(3, longestBacktickRun(code) + 1));
+    section.append("## ").append(number).append(". `").append(result.symbol()).append("` (")
+        .append(result.symbolKind()).append(")\n\n")
+        .append('`').append(result.filePath()).append(':').append(result.startLine()).append('-')
+        .append(result.endLine()).append('`')
+        .append(String.format(Locale.ROOT, ", similarity %.3f", relevance)).append("\n\n")
+        .append(fence).append(language(result.filePath())).append('\n')
+        .append(code);
+    if (!code.endsWith("\n")) {
+      section.append('\n');
+    }
+    section.append(fence).append("\n\n");
+  }
+
+  private static String language(String filePath) {
+    int dot = filePath.lastIndexOf('.');
+    if (dot < 0 || dot < filePath.lastIndexOf('/')) {
+      return "";
+    }
+    String extension = filePath.substring(dot + 1).toLowerCase(Locale.ROOT);
+    return extension.chars().allMatch(Character::isLetterOrDigit) ? extension : "";
+  }
+
+  private static int longestBacktickRun(String code) {
+    int longest = 0;
+    int run = 0;
+    for (int i = 0; i < code.length(); i++) {
+      run = code.charAt(i) == '`' ? run + 1 : 0;
+      longest = Math.max(longest, run);
+    }
+    return longest;
+  }
+
+  private static String singleLine(String text) {
+    return text.replaceAll("\\s+", " ").strip();
+  }
+
+  private static float[] unit(float[] vector) {
+    double norm = 0;
+    for (float value : vector) {
+      norm += value * value;
+    }
+    float inverse = norm == 0 ? 0f : (float) (1 / Math.sqrt(norm));
+    float[] unit = new float[vector.length];
+    for (int i = 0; i < vector.length; i++) {
+      unit[i] = vector[i] * inverse;
+    }
+    return unit;
+  }
+
+  /** UTF-8 length without encoding; unpaired surrogates count as the 3-byte replacement. */
+  static long utf8Length(CharSequence text) {
+    long bytes = 0;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c < 0x80) {
+        bytes++;
+      } else if (c < 0x800) {
+        bytes += 2;
+      } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+          && Character.isLowSurrogate(text.charAt(i + 1))) {
+        bytes += 4;
+        i++;
+      } else {
+        bytes += 3;
+      }
+    }
+    return bytes;
+  }
+}
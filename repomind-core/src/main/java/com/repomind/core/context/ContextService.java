@@ -0,0 +1,57 @@
+package com.repomind.core.context;
+
+import com.repomind.core.embeddings.EmbeddingCacheStats;
+import com.repomind.core.embeddings.EmbeddingProvider;
+import com.repomind.core.embeddings.QueryEmbeddingCache;
+import com.repomind.core.metrics.MetricsRegistry;
+import com.repomind.core.metrics.Stage;
+import com.repomind.core.metrics.StageTimer;
+import com.repomind.core.model.SearchCandidate;
+import com.repomind.core.store.CodeChunkRepository;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Embeds the query, fetches candidates with their embeddings in one search and writes the pack,
+ * loading code only for the candidates the pack considers.
+ */
+public class ContextService {
+  private final EmbeddingProvider embeddingProvider;
+  private final CodeChunkRepository repository;
+  private final QueryEmbeddingCache queryCache;
+  private final ContextPackWriter packWriter;
+
+  public ContextService(
+      EmbeddingProvider embeddingProvider,
+      CodeChunkRepository repository,
+      QueryEmbeddingCache queryCache,
+      ContextPackOptions options) {
+    this.embeddingProvider = Objects.requireNonNull(embeddingProvider, "embeddingProvider");
+    this.repository = Objects.requireNonNull(repository, "repository");
+    this.queryCache = Objects.requireNonNull(queryCache, "queryCache");
+    this.packWriter = new ContextPackWriter(options);
+  }
+
+  public ContextPackSummary write(String repo, String query, int candidates, Writer out)
+      throws IOException {
+    float[] embedding = queryCache.getOrEmbed(query, embeddingProvider);
+    MetricsRegistry metrics = MetricsRegistry.global();
+    List<SearchCandidate> found;
+    try (StageTimer timer = metrics.start(Stage.STORE_SEARCH)) {
+      found = repository.searchCandidates(repo, query, embedding, candidates);
+      timer.items(found.size());
+    }
+    try (StageTimer timer = metrics.start(Stage.CONTEXT_PACK).items(found.size())) {
+      ContextPackSummary summary = packWriter.write(repo, query, embedding, found,
+          results -> repository.loadCode(repo, results, 0), out);
+      timer.bytes(summary.bytes());
+      return summary;
+    }
+  }
+
+  public EmbeddingCacheStats queryCacheStats() {
+    return queryCache.stats();
+  }
+}
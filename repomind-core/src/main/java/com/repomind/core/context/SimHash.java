@@ -0,0 +1,86 @@
+package com.repomind.core.context;
+
+/**
+ * 64-bit SimHash of source text over shingles of three consecutive tokens. Texts that differ by a
+ * few tokens (a renamed variable, an extra annotation) land a few bits apart, so near-duplicates
+ * are found by comparing signatures instead of texts.
+ */
+public final class SimHash {
+  private static final int SHINGLE = 3;
+  private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private SimHash() {}
+
+  public static long of(CharSequence text) {
+    int[] counts = new int[Long.SIZE];
+    long[] window = new long[SHINGLE];
+    int tokens = 0;
+    int length = text.length();
+    int i = 0;
+    while (i < length) {
+      char c = text.charAt(i);
+      if (Character.isWhitespace(c)) {
+        i++;
+        continue;
+      }
+      long hash = FNV_OFFSET;
+      if (isWordChar(c)) {
+        while (i < length && isWordChar(text.charAt(i))) {
+          hash = (hash ^ Character.toLowerCase(text.charAt(i))) * FNV_PRIME;
+          i++;
+        }
+      } else {
+        hash = (hash ^ c) * FNV_PRIME;
+        i++;
+      }
+      window[tokens % SHINGLE] = hash;
+      tokens++;
+      if (tokens >= SHINGLE) {
+        add(counts, shingle(window, tokens));
+      }
+    }
+    if (tokens > 0 && tokens < SHINGLE) {
+      add(counts, shingle(window, tokens));
+    }
+    long signature = 0;
+    for (int bit = 0; bit < Long.SIZE; bit++) {
+      if (counts[bit] > 0) {
+        signature |= 1L << bit;
+      }
+    }
+    return signature;
+  }
+
+  /** Number of differing bits. */
+  public static int distance(long a, long b) {
+    return Long.bitCount(a ^ b);
+  }
+
+  private static boolean isWordChar(char c) {
+    return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+  }
+
+  /** Order-sensitive hash of the last {@code min(tokens, SHINGLE)} token hashes. */
+  private static long shingle(long[] window, int tokens) {
+    int size = Math.min(tokens, SHINGLE);
+    long hash = 0;
+    for (int k = size; k > 0; k--) {
+      hash = mix(hash * 31 + window[(tokens - k) % SHINGLE]);
+    }
+    return hash;
+  }
+
+  private static void add(int[] counts, long feature) {
+    for (int bit = 0; bit < Long.SIZE; bit++) {
+      counts[bit] += ((feature >>> bit) & 1L) != 0 ? 1 : -1;
+    }
+  }
+
+  /** SplitMix64 finalizer, so every bit of a feature depends on every input bit. */
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+}
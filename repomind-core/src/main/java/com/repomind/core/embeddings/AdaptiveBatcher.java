@@ -0,0 +1,136 @@
+package com.repomind.core.embeddings;
+
+import com.repomind.core.config.LocalHttpConfig;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+
+/**
+ * Groups embedding inputs of similar length and sizes each batch by its padded length, the
+ * input count times the longest input, because the server pads every sequence of a batch to the
+ * longest one. The padded budget starts at {@code maxPaddedChars} and follows observed batch
+ * latency towards {@code targetMillis}, so a slow server gets smaller batches long before a
+ * request reaches the timeout. One instance lives as long as its provider and keeps what it
+ * learned across calls.
+ */
+final class AdaptiveBatcher {
+  /** Lowest budget the latency feedback can set; longer inputs are still sent, one per batch. */
+  static final int MIN_PADDED_CHARS = LocalHttpConfig.MIN_BATCH_CHARS;
+
+  private final int maxInputs;
+  private final int maxPaddedChars;
+  private final double targetMillis;
+  private double budget;
+
+  AdaptiveBatcher(int maxInputs, int maxPaddedChars, long targetMillis) {
+    if (maxInputs <= 0) {
+      throw new IllegalArgumentException("maxInputs must be positive.");
+    }
+    if (maxPaddedChars < MIN_PADDED_CHARS) {
+      throw new IllegalArgumentException("maxPaddedChars must be at least " + MIN_PADDED_CHARS + ".");
+    }
+    if (targetMillis <= 0) {
+      throw new IllegalArgumentException("targetMillis must be positive.");
+    }
+    this.maxInputs = maxInputs;
+    this.maxPaddedChars = maxPaddedChars;
+    this.targetMillis = targetMillis;
+    this.budget = maxPaddedChars;
+  }
+
+  /** Current padded-length budget of one batch. */
+  synchronized int budget() {
+    return (int) budget;
+  }
+
+  /**
+   * Feeds back how long a batch of {@code paddedChars} took. Its throughput is extrapolated to
+   * the target latency and averaged into the budget. Batches well under the budget only count
+   * when they were slow, since their fixed per-request cost would understate the throughput.
+   */
+  synchronized void observe(long paddedChars, long nanos) {
+    double millis = Math.max(1.0, nanos / 1_000_000.0);
+    if (paddedChars < budget / 2 && millis <= targetMillis) {
+      return;
+    }
+    double fitted = paddedChars * targetMillis / millis;
+    budget = Math.max(MIN_PADDED_CHARS, Math.min(maxPaddedChars, (budget + fitted) / 2));
+  }
+
+  /** Plans batches over {@code inputs}; each batch is cut when it is requested. */
+  Plan plan(List<String> inputs) {
+    return new Plan(inputs);
+  }
+
+  static long paddedChars(List<String> batch) {
+    int longest = 0;
+    for (String input : batch) {
+      longest = Math.max(longest, input.length());
+    }
+    return (long) longest * batch.size();
+  }
+
+  /**
+   * Batches in ascending input length, cut lazily against the budget current at the time, so
+   * latency observed on earlier batches already shapes later ones.
+   */
+  final class Plan implements Iterator<List<String>> {
+    private final List<String> inputs;
+    private final int[] order;
+    private final List<int[]> cut = new ArrayList<>();
+    private int next;
+
+    private Plan(List<String> inputs) {
+      this.inputs = inputs;
+      this.order = IntStream.range(0, inputs.size()).boxed()
+          .sorted(Comparator.comparingInt(index -> inputs.get(index).length()))
+          .mapToInt(Integer::intValue)
+          .toArray();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next < order.length;
+    }
+
+    @Override
+    public List<String> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      int limit = budget();
+      int start = next;
+      next++;
+      // Sorted ascending, so the input being added is always the longest of the batch.
+      while (next < order.length
+          && next - start < maxInputs
+          && (long) inputs.get(order[next]).length() * (next - start + 1) <= limit) {
+        next++;
+      }
+      int[] indexes = Arrays.copyOfRange(order, start, next);
+      cut.add(indexes);
+      List<String> batch = new ArrayList<>(indexes.length);
+      for (int index : indexes) {
+        batch.add(inputs.get(index));
+      }
+      return batch;
+    }
+
+    /** Maps per-batch results, in the order batches were cut, back to input order. */
+    List<float[]> inInputOrder(List<List<float[]>> batchResults) {
+      float[][] results = new float[inputs.size()][];
+      for (int batch = 0; batch < batchResults.size(); batch++) {
+        int[] indexes = cut.get(batch);
+        List<float[]> vectors = batchResults.get(batch);
+        for (int i = 0; i < indexes.length; i++) {
+          results[indexes[i]] = vectors.get(i);
+        }
+      }
+      return List.of(results);
+    }
+  }
+}
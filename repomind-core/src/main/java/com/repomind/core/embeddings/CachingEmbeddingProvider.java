@@ -0,0 +1,89 @@
+package com.repomind.core.embeddings;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Decorator that serves vectors for previously embedded text from a {@link MappedEmbeddingCache}.
+ * Entries are keyed by model name and a hash of the input text, so unchanged chunks never reach
+ * the embedding server again. Misses are forwarded to the wrapped provider in a single call, in
+ * input order, and identical inputs within one call are embedded once.
+ */
+public class CachingEmbeddingProvider implements EmbeddingProvider {
+  private final EmbeddingProvider delegate;
+  private final String model;
+  private final MappedEmbeddingCache cache;
+
+  public CachingEmbeddingProvider(EmbeddingProvider delegate, String model, MappedEmbeddingCache cache) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate");
+    this.model = Objects.requireNonNull(model, "model");
+    this.cache = Objects.requireNonNull(cache, "cache");
+  }
+
+  @Override
+  public List<float[]> embedFloats(List<String> inputs) {
+    if (inputs == null) {
+      throw new IllegalArgumentException("inputs are required.");
+    }
+    if (inputs.isEmpty()) {
+      return List.of();
+    }
+
+    float[][] results = new float[inputs.size()][];
+    Map<EmbeddingCacheKey, List<Integer>> pending = new LinkedHashMap<>();
+    List<String> misses = new ArrayList<>();
+    for (int i = 0; i < inputs.size(); i++) {
+      String input = inputs.get(i);
+      EmbeddingCacheKey key = EmbeddingCacheKey.of(model, input);
+      List<Integer> positions = pending.get(key);
+      if (positions != null) {
+        positions.add(i);
+        continue;
+      }
+      float[] cached = cache.get(key);
+      if (cached != null) {
+        results[i] = cached;
+      } else {
+        positions = new ArrayList<>(1);
+        positions.add(i);
+        pending.put(key, positions);
+        misses.add(input);
+      }
+    }
+
+    if (!misses.isEmpty()) {
+      List<float[]> fetched = delegate.embedFloats(misses);
+      if (fetched.size() != misses.size()) {
+        throw new EmbeddingProviderException(
+            "Embedding provider returned " + fetched.size() + " vectors for " + misses.size()
+                + " inputs.");
+      }
+      int next = 0;
+      for (Map.Entry<EmbeddingCacheKey, List<Integer>> entry : pending.entrySet()) {
+        float[] vector = fetched.get(next++);
+        cache.put(entry.getKey(), vector);
+        for (int position : entry.getValue()) {
+          results[position] = vector;
+        }
+      }
+    }
+    return List.copyOf(Arrays.asList(results));
+  }
+
+  public EmbeddingCacheStats stats() {
+    return cache.stats();
+  }
+
+  @Override
+  public void close() {
+    try {
+      cache.close();
+    } finally {
+      delegate.close();
+    }
+  }
+}
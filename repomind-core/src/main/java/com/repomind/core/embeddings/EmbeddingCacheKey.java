@@ -0,0 +1,43 @@
+package com.repomind.core.embeddings;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/** SHA-256 of {@code model + '\0' + text}, held as four longs so it can key a hash map. */
+public record EmbeddingCacheKey(long h0, long h1, long h2, long h3) {
+  public static final int BYTES = 32;
+
+  public static EmbeddingCacheKey of(String model, String text) {
+    MessageDigest digest = sha256();
+    digest.update(model.getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) 0);
+    digest.update(text.getBytes(StandardCharsets.UTF_8));
+    ByteBuffer hash = ByteBuffer.wrap(digest.digest());
+    return new EmbeddingCacheKey(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+  }
+
+  static EmbeddingCacheKey read(ByteBuffer buffer, int offset) {
+    return new EmbeddingCacheKey(
+        buffer.getLong(offset),
+        buffer.getLong(offset + 8),
+        buffer.getLong(offset + 16),
+        buffer.getLong(offset + 24));
+  }
+
+  void write(ByteBuffer buffer, int offset) {
+    buffer.putLong(offset, h0);
+    buffer.putLong(offset + 8, h1);
+    buffer.putLong(offset + 16, h2);
+    buffer.putLong(offset + 24, h3);
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available.", e);
+    }
+  }
+}
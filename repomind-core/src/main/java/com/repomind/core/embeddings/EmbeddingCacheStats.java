@@ -0,0 +1,8 @@
+package com.repomind.core.embeddings;
+
+public record EmbeddingCacheStats(long hits, long misses, long evictions, int entries, long bytes) {
+  public double hitRate() {
+    long lookups = hits + misses;
+    return lookups == 0 ? 0.0 : (double) hits / lookups;
+  }
+}
@@ -1,7 +1,30 @@
 package com.repomind.core.embeddings;
 
+import java.util.ArrayList;
 import java.util.List;
 
-public interface EmbeddingProvider {
-  List<double[]> embed(List<String> inputs);
+public interface EmbeddingProvider extends AutoCloseable {
+  /**
+   * Embeds each input into a float vector, in input order. Models emit float32, so this is the
+   * native representation; prefer it over {@link #embed(List)} on hot paths.
+   */
+  List<float[]> embedFloats(List<String> inputs);
+
+  /** Compatibility adapter that widens {@link #embedFloats(List)} to doubles. */
+  default List<double[]> embed(List<String> inputs) {
+    List<float[]> vectors = embedFloats(inputs);
+    List<double[]> results = new ArrayList<>(vectors.size());
+    for (float[] vector : vectors) {
+      double[] widened = new double[vector.length];
+      for (int i = 0; i < vector.length; i++) {
+        widened[i] = vector[i];
+      }
+      results.add(widened);
+    }
+    return List.copyOf(results);
+  }
+
+  /** Releases resources such as on-disk caches. Stateless providers need not override this. */
+  @Override
+  default void close() {}
 }
@@ -0,0 +1,50 @@
+package com.repomind.core.embeddings;
+
+import com.repomind.core.config.EmbeddingCacheConfig;
+import com.repomind.core.config.EmbeddingsConfig;
+import com.repomind.core.config.RepoMindConfigException;
+import java.nio.file.Path;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class EmbeddingProviderFactory {
+  private static final Logger log = LoggerFactory.getLogger(EmbeddingProviderFactory.class);
+
+  /**
+   * Builds the configured provider behind the persistent chunk cache when it is enabled. When
+   * another process holds the cache file, this one embeds without it.
+   */
+  public EmbeddingProvider create(EmbeddingsConfig config) {
+    EmbeddingProvider provider = createWithoutCache(config);
+    EmbeddingCacheConfig cache = config.getCache();
+    if (cache != null && Boolean.TRUE.equals(cache.getEnabled())) {
+      Path path = cache.resolvePath();
+      Optional<MappedEmbeddingCache> opened =
+          MappedEmbeddingCache.openIfUnlocked(path, cache.getMaxBytes());
+      if (opened.isEmpty()) {
+        log.warn("Embedding cache {} is in use by another process; embedding without it", path);
+        return provider;
+      }
+      provider = new CachingEmbeddingProvider(provider, config.getModel(), opened.get());
+    }
+    return provider;
+  }
+
+  /**
+   * Builds the configured provider without the persistent chunk cache, for short-lived query
+   * paths where loading the cache index would cost more than it saves.
+   */
+  public EmbeddingProvider createWithoutCache(EmbeddingsConfig config) {
+    if (config == null) {
+      throw new RepoMindConfigException("Embeddings config is required.");
+    }
+    if (!"local-http".equals(config.getProvider())) {
+      throw new RepoMindConfigException("Unsupported embeddings provider: " + config.getProvider());
+    }
+    if (config.getLocalHttp() == null || config.getLocalHttp().endpointUrls().isEmpty()) {
+      throw new RepoMindConfigException("Embeddings local_http.url is required for provider local-http.");
+    }
+    return new LocalHttpEmbeddingProvider(config.getLocalHttp());
+  }
+}
@@ -0,0 +1,78 @@
+package com.repomind.core.embeddings;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Streams an {@code {"embeddings": [[...], ...]}} response straight into {@code float[]} rows.
+ * Components are read with {@link JsonParser#getFloatValue()} so no boxed values or intermediate
+ * lists are created; each row is allocated once at the dimension seen on the first row.
+ */
+final class EmbeddingResponseParser {
+  private static final int INITIAL_DIMENSION = 384;
+
+  private final JsonFactory factory;
+
+  EmbeddingResponseParser(JsonFactory factory) {
+    this.factory = Objects.requireNonNull(factory, "factory");
+  }
+
+  List<float[]> parse(byte[] body, int expectedRows) throws IOException {
+    try (JsonParser parser = factory.createParser(body)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new EmbeddingProviderException("Embedding server response is not a JSON object.");
+      }
+      List<float[]> rows = null;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        JsonToken value = parser.nextToken();
+        if ("embeddings".equals(field) && value == JsonToken.START_ARRAY) {
+          rows = readRows(parser, expectedRows);
+        } else {
+          parser.skipChildren();
+        }
+      }
+      if (rows == null) {
+        throw new EmbeddingProviderException("Embedding server response missing embeddings.");
+      }
+      return rows;
+    }
+  }
+
+  private static List<float[]> readRows(JsonParser parser, int expectedRows) throws IOException {
+    List<float[]> rows = new ArrayList<>(Math.max(expectedRows, 0));
+    int dimension = -1;
+    JsonToken token;
+    while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+      if (token == JsonToken.VALUE_NULL) {
+        rows.add(new float[0]);
+        continue;
+      }
+      if (token != JsonToken.START_ARRAY) {
+        throw new EmbeddingProviderException("Embedding server response row is not an array.");
+      }
+      float[] row = new float[dimension < 0 ? INITIAL_DIMENSION : dimension];
+      int size = 0;
+      while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+        if (size == row.length) {
+          row = Arrays.copyOf(row, Math.max(1, row.length * 2));
+        }
+        row[size++] = token == JsonToken.VALUE_NULL ? 0.0f : parser.getFloatValue();
+      }
+      if (size != row.length) {
+        row = Arrays.copyOf(row, size);
+      }
+      if (dimension < 0) {
+        dimension = size;
+      }
+      rows.add(row);
+    }
+    return rows;
+  }
+}
@@ -0,0 +1,26 @@
+package com.repomind.core.embeddings;
+
+import java.util.Locale;
+
+/** Response encoding requested from the embedding server's {@code /embed} endpoint. */
+public enum EmbeddingWireFormat {
+  /** Use binary float32 when {@code /health} advertises it, JSON otherwise. */
+  AUTO,
+  JSON,
+  /** Little-endian float32 rows; see {@link Float32EmbeddingDecoder}. */
+  BINARY;
+
+  public static final String F32_MEDIA_TYPE = "application/x-repomind-f32";
+
+  public static EmbeddingWireFormat parse(String value) {
+    if (value == null || value.isBlank()) {
+      return AUTO;
+    }
+    try {
+      return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(
+          "Unknown embeddings wire format: " + value + " (expected auto, json or binary)", e);
+    }
+  }
+}
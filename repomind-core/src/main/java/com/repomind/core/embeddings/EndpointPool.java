@@ -0,0 +1,207 @@
+package com.repomind.core.embeddings;
+
+import com.repomind.core.metrics.MetricsRegistry;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The embedding servers of one provider. Each batch goes to the available endpoint with the
+ * fewest outstanding requests, ties rotating, so a slow instance naturally receives less work.
+ *
+ * <p>Every endpoint has a circuit breaker: after {@link RetryPolicy#breakerFailures()}
+ * consecutive failures it receives no traffic for {@link RetryPolicy#breakerOpen()}. After that
+ * its {@code /health} is probed; if healthy, one trial batch decides whether the breaker closes
+ * or opens again.
+ */
+final class EndpointPool {
+  private static final Logger log = LoggerFactory.getLogger(EndpointPool.class);
+
+  private final List<Endpoint> endpoints;
+  private final RetryPolicy policy;
+  private final LongSupplier clock;
+  private final AtomicInteger rotation = new AtomicInteger();
+
+  EndpointPool(HttpTransport transport, List<URI> baseUrls, RetryPolicy policy, LongSupplier clock) {
+    if (baseUrls == null || baseUrls.isEmpty()) {
+      throw new IllegalArgumentException("baseUrl is required.");
+    }
+    List<Endpoint> built = new ArrayList<>(baseUrls.size());
+    for (URI baseUrl : baseUrls) {
+      built.add(new Endpoint(baseUrl, resolve(baseUrl, "embed"),
+          new LocalHttpEmbeddingServerClient(transport, baseUrl, null)));
+    }
+    this.endpoints = List.copyOf(built);
+    this.policy = policy;
+    this.clock = clock;
+  }
+
+  int size() {
+    return endpoints.size();
+  }
+
+  List<Endpoint> endpoints() {
+    return endpoints;
+  }
+
+  /**
+   * Reserves the least loaded endpoint that accepts traffic, preferring endpoints not in
+   * {@code tried}; {@code null} when every breaker is open. Release the reservation with
+   * {@link #succeeded} or {@link #failed}.
+   */
+  Endpoint acquire(Set<Endpoint> tried) {
+    Endpoint endpoint = acquire(tried, true);
+    return endpoint != null ? endpoint : acquire(tried, false);
+  }
+
+  private Endpoint acquire(Set<Endpoint> tried, boolean untriedOnly) {
+    int start = Math.floorMod(rotation.getAndIncrement(), endpoints.size());
+    List<Endpoint> candidates = new ArrayList<>(endpoints.size());
+    for (int i = 0; i < endpoints.size(); i++) {
+      Endpoint endpoint = endpoints.get((start + i) % endpoints.size());
+      if (!untriedOnly || !tried.contains(endpoint)) {
+        candidates.add(endpoint);
+      }
+    }
+    // Stable sort keeps the rotated order among equally loaded endpoints.
+    candidates.sort(Comparator.comparingInt(endpoint -> endpoint.outstanding.get()));
+    for (Endpoint endpoint : candidates) {
+      Admission admission = endpoint.admit(clock.getAsLong());
+      if (admission == Admission.TRIAL && !endpoint.health.isHealthy()) {
+        reopen(endpoint, "health check failed");
+        continue;
+      }
+      if (admission != Admission.REJECTED) {
+        endpoint.outstanding.incrementAndGet();
+        return endpoint;
+      }
+    }
+    return null;
+  }
+
+  void succeeded(Endpoint endpoint) {
+    endpoint.outstanding.decrementAndGet();
+    boolean recovered;
+    synchronized (endpoint) {
+      recovered = endpoint.open;
+      endpoint.consecutiveFailures = 0;
+      endpoint.open = false;
+      endpoint.trial = false;
+    }
+    if (recovered) {
+      log.info("Embedding server {} recovered", endpoint.baseUrl);
+    }
+  }
+
+  /** Records a failed request; opens the breaker on a failed trial or too many failures. */
+  void failed(Endpoint endpoint, String reason) {
+    endpoint.outstanding.decrementAndGet();
+    boolean open;
+    synchronized (endpoint) {
+      endpoint.consecutiveFailures++;
+      open = endpoint.trial || endpoint.consecutiveFailures >= policy.breakerFailures();
+    }
+    if (open) {
+      reopen(endpoint, reason);
+    }
+  }
+
+  /** Releases a reservation whose outcome says nothing about the endpoint's health. */
+  void released(Endpoint endpoint) {
+    endpoint.outstanding.decrementAndGet();
+    synchronized (endpoint) {
+      endpoint.trial = false;
+    }
+  }
+
+  private void reopen(Endpoint endpoint, String reason) {
+    Duration openFor = policy.breakerOpen();
+    synchronized (endpoint) {
+      endpoint.open = true;
+      endpoint.trial = false;
+      endpoint.openUntil = clock.getAsLong() + openFor.toNanos();
+    }
+    MetricsRegistry.global().increment("embed.breaker.opened");
+    log.warn("Embedding server {} taken out of rotation for {} s: {}",
+        endpoint.baseUrl, openFor.toSeconds(), reason);
+  }
+
+  static URI resolve(URI baseUrl, String path) {
+    if (baseUrl == null) {
+      throw new IllegalArgumentException("baseUrl is required.");
+    }
+    String base = baseUrl.toString();
+    if (!base.endsWith("/")) {
+      base = base + "/";
+    }
+    return URI.create(base).resolve(path);
+  }
+
+  private enum Admission { CLOSED, TRIAL, REJECTED }
+
+  static final class Endpoint {
+    final URI baseUrl;
+    final URI embedUri;
+    final LocalHttpEmbeddingServerClient health;
+    final AtomicInteger outstanding = new AtomicInteger();
+    private volatile Boolean binaryResponses;
+    // Breaker state, guarded by this.
+    private int consecutiveFailures;
+    private boolean open;
+    private boolean trial;
+    private long openUntil;
+
+    private Endpoint(URI baseUrl, URI embedUri, LocalHttpEmbeddingServerClient health) {
+      this.baseUrl = baseUrl;
+      this.embedUri = embedUri;
+      this.health = health;
+    }
+
+    private synchronized Admission admit(long now) {
+      if (!open) {
+        return Admission.CLOSED;
+      }
+      if (trial || now - openUntil < 0) {
+        return Admission.REJECTED;
+      }
+      trial = true;
+      return Admission.TRIAL;
+    }
+
+    /**
+     * Resolves the response format once per endpoint. In {@code AUTO} mode the server's
+     * {@code /health} is probed so older JSON-only servers are never sent the binary Accept
+     * header. Until a probe gets an answer, for instance while the server is still starting,
+     * batches use JSON and the next batch probes again.
+     */
+    boolean binaryResponses(EmbeddingWireFormat requested) {
+      Boolean resolved = binaryResponses;
+      if (resolved == null) {
+        Optional<Boolean> answer = switch (requested) {
+          case JSON -> Optional.of(false);
+          case BINARY -> Optional.of(true);
+          case AUTO -> health.probeBinaryEmbeddings();
+        };
+        if (answer.isEmpty()) {
+          return false;
+        }
+        resolved = answer.get();
+        binaryResponses = resolved;
+      }
+      return resolved;
+    }
+
+    @Override
+    public String toString() {
+      return baseUrl.toString();
+    }
+  }
+}
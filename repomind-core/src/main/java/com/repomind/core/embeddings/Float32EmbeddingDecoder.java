@@ -0,0 +1,48 @@
+package com.repomind.core.embeddings;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes the binary {@code /embed} response: a header of two little-endian uint32 values (row
+ * count, dimension) followed by {@code rows * dimension} little-endian float32 values. Rows are
+ * bulk-read from a float view over the response bytes, so the body is never copied as a whole.
+ */
+final class Float32EmbeddingDecoder {
+  static final int HEADER_BYTES = 8;
+
+  private Float32EmbeddingDecoder() {}
+
+  static List<float[]> decode(byte[] body) {
+    if (body == null || body.length < HEADER_BYTES) {
+      throw new EmbeddingProviderException("Embedding server binary response is truncated.");
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(body).order(ByteOrder.LITTLE_ENDIAN);
+    long rows = Integer.toUnsignedLong(buffer.getInt(0));
+    long dimension = Integer.toUnsignedLong(buffer.getInt(4));
+    long expected = HEADER_BYTES + rows * dimension * Float.BYTES;
+    if (expected != body.length) {
+      throw new EmbeddingProviderException(
+          "Embedding server binary response has "
+              + body.length
+              + " bytes, expected "
+              + expected
+              + " for "
+              + rows
+              + "x"
+              + dimension);
+    }
+    FloatBuffer floats = buffer.position(HEADER_BYTES).slice().order(ByteOrder.LITTLE_ENDIAN)
+        .asFloatBuffer();
+    List<float[]> results = new ArrayList<>((int) rows);
+    for (int i = 0; i < rows; i++) {
+      float[] row = new float[(int) dimension];
+      floats.get(row);
+      results.add(row);
+    }
+    return results;
+  }
+}
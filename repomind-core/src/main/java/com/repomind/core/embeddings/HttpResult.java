@@ -1,3 +1,7 @@
 package com.repomind.core.embeddings;
 
-public record HttpResult(int statusCode, byte[] body) {}
+public record HttpResult(int statusCode, byte[] body, String contentType) {
+  public HttpResult(int statusCode, byte[] body) {
+    this(statusCode, body, null);
+  }
+}
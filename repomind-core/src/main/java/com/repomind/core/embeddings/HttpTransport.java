@@ -7,5 +7,14 @@ import java.time.Duration;
 public interface HttpTransport {
   HttpResult post(URI uri, byte[] body, Duration timeout) throws IOException, InterruptedException;
 
+  /**
+   * Posts with an explicit {@code Accept} header. Transports that cannot negotiate content fall
+   * back to {@link #post(URI, byte[], Duration)}; callers must check {@link HttpResult#contentType()}.
+   */
+  default HttpResult post(URI uri, byte[] body, String accept, Duration timeout)
+      throws IOException, InterruptedException {
+    return post(uri, body, timeout);
+  }
+
   HttpResult get(URI uri, Duration timeout) throws IOException, InterruptedException;
 }
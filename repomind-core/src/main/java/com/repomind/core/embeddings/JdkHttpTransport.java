@@ -1,5 +1,8 @@
 package com.repomind.core.embeddings;
 
+import com.repomind.core.metrics.MetricsRegistry;
+import com.repomind.core.metrics.Stage;
+import com.repomind.core.metrics.StageTimer;
 import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -17,13 +20,19 @@ public class JdkHttpTransport implements HttpTransport {
 
   @Override
   public HttpResult post(URI uri, byte[] body, Duration timeout) throws IOException, InterruptedException {
+    return post(uri, body, "application/json", timeout);
+  }
+
+  @Override
+  public HttpResult post(URI uri, byte[] body, String accept, Duration timeout)
+      throws IOException, InterruptedException {
     HttpRequest request = HttpRequest.newBuilder(uri)
         .timeout(timeout)
         .header("Content-Type", "application/json")
+        .header("Accept", accept)
         .POST(HttpRequest.BodyPublishers.ofByteArray(body))
         .build();
-    HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
-    return new HttpResult(response.statusCode(), response.body());
+    return send(request);
   }
 
   @Override
@@ -32,7 +41,20 @@ public class JdkHttpTransport implements HttpTransport {
         .timeout(timeout)
         .GET()
         .build();
-    HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
-    return new HttpResult(response.statusCode(), response.body());
+    return send(request);
+  }
+
+  private HttpResult send(HttpRequest request) throws IOException, InterruptedException {
+    HttpResponse<byte[]> response;
+    try (StageTimer timer = MetricsRegistry.global().start(Stage.HTTP).items(1)) {
+      response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+      long sent = request.bodyPublisher().map(HttpRequest.BodyPublisher::contentLength).orElse(0L);
+      timer.bytes(Math.max(0, sent) + response.body().length);
+    } catch (IOException e) {
+      MetricsRegistry.global().increment("http.errors");
+      throw e;
+    }
+    String contentType = response.headers().firstValue("Content-Type").orElse(null);
+    return new HttpResult(response.statusCode(), response.body(), contentType);
   }
 }
@@ -1,50 +1,154 @@
 package com.repomind.core.embeddings;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.repomind.core.config.LocalHttpConfig;
+import com.repomind.core.metrics.MetricsRegistry;
+import com.repomind.core.metrics.Stage;
+import com.repomind.core.metrics.StageTimer;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
+/**
+ * Embeds through one or more {@code embed_server.py} instances. Batches are spread over the
+ * endpoints by {@link EndpointPool}; a batch that fails with a transport error, a 5xx/429 or an
+ * unreadable response is retried with backoff, preferring an endpoint it has not tried yet.
+ */
 public class LocalHttpEmbeddingProvider implements EmbeddingProvider {
   private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
   private static final int DEFAULT_BATCH_SIZE = 32;
+  private static final int DEFAULT_MAX_IN_FLIGHT = 4;
 
   private final HttpTransport transport;
-  private final URI embedUri;
+  private final EndpointPool endpoints;
+  private final RetryPolicy retryPolicy;
   private final ObjectMapper mapper;
+  private final EmbeddingResponseParser responseParser;
   private final int batchSize;
+  private final int maxInFlight;
+  private final EmbeddingWireFormat requestedFormat;
   private final Duration timeout;
+  private final AdaptiveBatcher batcher;
 
   public LocalHttpEmbeddingProvider(URI baseUrl) {
     this(new JdkHttpTransport(java.net.http.HttpClient.newHttpClient()),
         baseUrl,
         new ObjectMapper(),
         DEFAULT_BATCH_SIZE,
+        DEFAULT_MAX_IN_FLIGHT,
+        EmbeddingWireFormat.AUTO,
         DEFAULT_TIMEOUT);
   }
 
+  public LocalHttpEmbeddingProvider(LocalHttpConfig config) {
+    this(new JdkHttpTransport(java.net.http.HttpClient.newHttpClient()),
+        Objects.requireNonNull(config, "config").endpointUrls().stream().map(URI::create).toList(),
+        new ObjectMapper(),
+        config.getBatchSize() == null ? DEFAULT_BATCH_SIZE : config.getBatchSize(),
+        config.getMaxInFlight() == null ? DEFAULT_MAX_IN_FLIGHT : config.getMaxInFlight(),
+        EmbeddingWireFormat.parse(config.getFormat()),
+        DEFAULT_TIMEOUT,
+        config.isAdaptiveBatching()
+            ? new AdaptiveBatcher(
+                config.getBatchSize() == null ? DEFAULT_BATCH_SIZE : config.getBatchSize(),
+                config.getMaxBatchChars(),
+                config.getTargetBatchMillis())
+            : null,
+        RetryPolicy.from(config));
+  }
+
+  public LocalHttpEmbeddingProvider(
+      HttpTransport transport,
+      URI baseUrl,
+      ObjectMapper mapper,
+      int batchSize,
+      Duration timeout) {
+    this(transport, baseUrl, mapper, batchSize, DEFAULT_MAX_IN_FLIGHT, EmbeddingWireFormat.AUTO,
+        timeout);
+  }
+
+  public LocalHttpEmbeddingProvider(
+      HttpTransport transport,
+      URI baseUrl,
+      ObjectMapper mapper,
+      int batchSize,
+      int maxInFlight,
+      Duration timeout) {
+    this(transport, baseUrl, mapper, batchSize, maxInFlight, EmbeddingWireFormat.AUTO, timeout);
+  }
+
   public LocalHttpEmbeddingProvider(
       HttpTransport transport,
       URI baseUrl,
       ObjectMapper mapper,
       int batchSize,
+      int maxInFlight,
+      EmbeddingWireFormat format,
       Duration timeout) {
+    this(transport, baseUrl, mapper, batchSize, maxInFlight, format, timeout, null);
+  }
+
+  LocalHttpEmbeddingProvider(
+      HttpTransport transport,
+      URI baseUrl,
+      ObjectMapper mapper,
+      int batchSize,
+      int maxInFlight,
+      EmbeddingWireFormat format,
+      Duration timeout,
+      AdaptiveBatcher batcher) {
+    this(transport, baseUrl == null ? null : List.of(baseUrl), mapper, batchSize, maxInFlight,
+        format, timeout, batcher, RetryPolicy.DEFAULT);
+  }
+
+  /**
+   * With a non-null {@code batcher} inputs are batched by length instead of by count.
+   * {@code maxInFlight} applies per endpoint.
+   */
+  LocalHttpEmbeddingProvider(
+      HttpTransport transport,
+      List<URI> baseUrls,
+      ObjectMapper mapper,
+      int batchSize,
+      int maxInFlight,
+      EmbeddingWireFormat format,
+      Duration timeout,
+      AdaptiveBatcher batcher,
+      RetryPolicy retryPolicy) {
     this.transport = Objects.requireNonNull(transport, "transport");
     this.mapper = Objects.requireNonNull(mapper, "mapper");
-    this.embedUri = buildEmbedUri(baseUrl);
+    this.responseParser = new EmbeddingResponseParser(mapper.getFactory());
+    this.retryPolicy = Objects.requireNonNull(retryPolicy, "retryPolicy");
+    this.endpoints = new EndpointPool(this.transport, baseUrls, retryPolicy, System::nanoTime);
     if (batchSize <= 0) {
       throw new IllegalArgumentException("batchSize must be positive.");
     }
+    if (maxInFlight <= 0) {
+      throw new IllegalArgumentException("maxInFlight must be positive.");
+    }
     this.batchSize = batchSize;
+    this.maxInFlight = maxInFlight * endpoints.size();
+    this.requestedFormat = format == null ? EmbeddingWireFormat.AUTO : format;
     this.timeout = timeout == null ? DEFAULT_TIMEOUT : timeout;
+    this.batcher = batcher;
   }
 
   @Override
-  public List<double[]> embed(List<String> inputs) {
+  public List<float[]> embedFloats(List<String> inputs) {
     if (inputs == null) {
       throw new IllegalArgumentException("inputs are required.");
     }
@@ -52,73 +156,217 @@ public class LocalHttpEmbeddingProvider implements EmbeddingProvider {
       return List.of();
     }
 
-    List<double[]> results = new ArrayList<>(inputs.size());
+    if (batcher != null) {
+      AdaptiveBatcher.Plan plan = batcher.plan(inputs);
+      return plan.inInputOrder(fetchAll(plan, this::fetchObserved));
+    }
+
+    List<List<String>> batches = new ArrayList<>();
     for (int start = 0; start < inputs.size(); start += batchSize) {
       int end = Math.min(inputs.size(), start + batchSize);
-      List<String> batch = inputs.subList(start, end);
-      List<double[]> batchResults = fetchBatch(batch);
+      batches.add(inputs.subList(start, end));
+    }
+    List<float[]> results = new ArrayList<>(inputs.size());
+    for (List<float[]> batchResults : fetchAll(batches.iterator(), this::fetchBatch)) {
       results.addAll(batchResults);
     }
     return List.copyOf(results);
   }
 
-  private List<double[]> fetchBatch(List<String> batch) {
-    try {
-      byte[] payload = mapper.writeValueAsBytes(new EmbedRequest(batch));
-      HttpResult response = transport.post(embedUri, payload, timeout);
-      if (response.statusCode() != 200) {
-        String body = new String(response.body(), StandardCharsets.UTF_8);
-        throw new EmbeddingProviderException(
-            "Embedding server error: HTTP " + response.statusCode() + " - " + body);
-      }
-      EmbedResponse embedResponse = mapper.readValue(response.body(), EmbedResponse.class);
-      if (embedResponse.embeddings() == null) {
-        throw new EmbeddingProviderException("Embedding server response missing embeddings.");
-      }
-      if (embedResponse.embeddings().size() != batch.size()) {
-        throw new EmbeddingProviderException(
-            "Embedding server response size mismatch: expected "
-                + batch.size()
-                + ", got "
-                + embedResponse.embeddings().size());
+  /** Fetches a batch and feeds its latency back to the adaptive batcher. */
+  private List<float[]> fetchObserved(List<String> batch) {
+    long started = System.nanoTime();
+    List<float[]> results = fetchBatch(batch);
+    batcher.observe(AdaptiveBatcher.paddedChars(batch), System.nanoTime() - started);
+    return results;
+  }
+
+  /** Fetches every batch, pipelined unless there is only one; results in batch order. */
+  private List<List<float[]>> fetchAll(
+      Iterator<List<String>> batches, Function<List<String>, List<float[]>> fetch) {
+    List<String> first = batches.next();
+    if (maxInFlight > 1 && batches.hasNext()) {
+      return fetchPipelined(first, batches, fetch);
+    }
+    List<List<float[]>> results = new ArrayList<>();
+    results.add(fetch.apply(first));
+    while (batches.hasNext()) {
+      results.add(fetch.apply(batches.next()));
+    }
+    return results;
+  }
+
+  /**
+   * Keeps up to {@code maxInFlight} batches on the wire at once so the embedding server is not
+   * idle while this side encodes the next request or decodes the previous response. The next
+   * batch is only taken from {@code rest} once a permit is free. Results are collected in
+   * submission order; the first failing batch stops further submissions and cancels everything
+   * still running.
+   */
+  private List<List<float[]>> fetchPipelined(
+      List<String> first, Iterator<List<String>> rest, Function<List<String>, List<float[]>> fetch) {
+    List<Future<List<float[]>>> futures = new ArrayList<>();
+    Semaphore permits = new Semaphore(maxInFlight);
+    AtomicBoolean failed = new AtomicBoolean();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      try {
+        boolean firstBatch = true;
+        while (firstBatch || rest.hasNext()) {
+          permits.acquire();
+          if (failed.get()) {
+            permits.release();
+            break;
+          }
+          List<String> batch = firstBatch ? first : rest.next();
+          firstBatch = false;
+          futures.add(executor.submit(() -> {
+            try {
+              return fetch.apply(batch);
+            } catch (RuntimeException e) {
+              failed.set(true);
+              throw e;
+            } finally {
+              permits.release();
+            }
+          }));
+        }
+
+        List<List<float[]>> results = new ArrayList<>(futures.size());
+        for (Future<List<float[]>> future : futures) {
+          results.add(future.get());
+        }
+        return results;
+      } catch (ExecutionException e) {
+        cancelAll(futures);
+        Throwable cause = e.getCause();
+        if (cause instanceof EmbeddingProviderException providerException) {
+          throw providerException;
+        }
+        throw new EmbeddingProviderException("Embedding request failed.", cause);
+      } catch (InterruptedException e) {
+        cancelAll(futures);
+        Thread.currentThread().interrupt();
+        throw new EmbeddingProviderException("Embedding request interrupted.", e);
       }
-      List<double[]> results = new ArrayList<>(embedResponse.embeddings().size());
-      for (List<Double> row : embedResponse.embeddings()) {
-        results.add(toPrimitive(row));
+    }
+  }
+
+  private static void cancelAll(List<? extends Future<?>> futures) {
+    for (Future<?> future : futures) {
+      future.cancel(true);
+    }
+  }
+
+  /** Sends one batch, retrying on another endpoint with backoff when the endpoint fails. */
+  private List<float[]> fetchBatch(List<String> batch) {
+    MetricsRegistry metrics = MetricsRegistry.global();
+    try (StageTimer timer = metrics.start(Stage.EMBED).items(batch.size())) {
+      byte[] payload = mapper.writeValueAsBytes(new EmbedRequest(batch));
+      Set<EndpointPool.Endpoint> tried = new HashSet<>();
+      EmbeddingProviderException failure = null;
+      for (int attempt = 0; attempt <= retryPolicy.maxRetries(); attempt++) {
+        if (attempt > 0) {
+          metrics.increment("embed.retries");
+          Thread.sleep(retryPolicy.backoffMillis(attempt));
+        }
+        EndpointPool.Endpoint endpoint = endpoints.acquire(tried);
+        if (endpoint == null) {
+          failure = new EmbeddingProviderException(
+              "No embedding server available: every endpoint is out of rotation after repeated "
+                  + "failures.");
+          continue;
+        }
+        tried.add(endpoint);
+        boolean recorded = false;
+        try {
+          List<float[]> results = fetchFrom(endpoint, batch, payload, timer);
+          endpoints.succeeded(endpoint);
+          recorded = true;
+          return results;
+        } catch (EndpointFailure e) {
+          endpoints.failed(endpoint, e.getMessage());
+          recorded = true;
+          failure = e.exception;
+        } finally {
+          // Request errors, interrupts from cancelled siblings and Errors say nothing about the
+          // endpoint, but the reservation, and a trial, must still end.
+          if (!recorded) {
+            endpoints.released(endpoint);
+          }
+        }
       }
-      return results;
+      throw failure;
     } catch (IOException e) {
-      throw new EmbeddingProviderException("Failed to read embedding response.", e);
+      throw new EmbeddingProviderException("Failed to encode embedding request.", e);
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
       throw new EmbeddingProviderException("Embedding request interrupted.", e);
     }
   }
 
-  private static double[] toPrimitive(List<Double> values) {
-    if (values == null) {
-      return new double[0];
+  /**
+   * One attempt against {@code endpoint}. Failures that another endpoint, or the same one a
+   * little later, could avoid are thrown as {@link EndpointFailure}; a 4xx other than 429 means
+   * the request itself is wrong and fails the batch at once.
+   */
+  private List<float[]> fetchFrom(
+      EndpointPool.Endpoint endpoint, List<String> batch, byte[] payload, StageTimer timer)
+      throws EndpointFailure, InterruptedException {
+    HttpResult response;
+    try {
+      response = endpoint.binaryResponses(requestedFormat)
+          ? transport.post(endpoint.embedUri, payload, EmbeddingWireFormat.F32_MEDIA_TYPE, timeout)
+          : transport.post(endpoint.embedUri, payload, timeout);
+    } catch (IOException e) {
+      throw new EndpointFailure(new EmbeddingProviderException(
+          "Embedding request to " + endpoint + " failed: " + e, e));
+    }
+    timer.bytes(payload.length + response.body().length);
+    if (response.statusCode() != 200) {
+      MetricsRegistry.global().increment("embed.errors");
+      String body = new String(response.body(), StandardCharsets.UTF_8);
+      EmbeddingProviderException error = new EmbeddingProviderException(
+          "Embedding server error: HTTP " + response.statusCode() + " - " + body);
+      if (response.statusCode() >= 500 || response.statusCode() == 429) {
+        throw new EndpointFailure(error);
+      }
+      throw error;
+    }
+    List<float[]> results;
+    try (StageTimer decode =
+        MetricsRegistry.global().start(Stage.DECODE).bytes(response.body().length)) {
+      results = isBinary(response)
+          ? Float32EmbeddingDecoder.decode(response.body())
+          : responseParser.parse(response.body(), batch.size());
+      decode.items(results.size());
+    } catch (IOException e) {
+      throw new EndpointFailure(
+          new EmbeddingProviderException("Failed to read embedding response.", e));
     }
-    double[] result = new double[values.size()];
-    for (int i = 0; i < values.size(); i++) {
-      Double value = values.get(i);
-      result[i] = value == null ? 0.0 : value;
+    if (results.size() != batch.size()) {
+      throw new EndpointFailure(new EmbeddingProviderException(
+          "Embedding server response size mismatch: expected "
+              + batch.size()
+              + ", got "
+              + results.size()));
     }
-    return result;
+    return results;
   }
 
-  private static URI buildEmbedUri(URI baseUrl) {
-    if (baseUrl == null) {
-      throw new IllegalArgumentException("baseUrl is required.");
-    }
-    String base = baseUrl.toString();
-    if (!base.endsWith("/")) {
-      base = base + "/";
+  private static boolean isBinary(HttpResult response) {
+    String contentType = response.contentType();
+    return contentType != null && contentType.startsWith(EmbeddingWireFormat.F32_MEDIA_TYPE);
+  }
+
+  /** An attempt that failed because of the endpoint rather than the request. */
+  private static final class EndpointFailure extends Exception {
+    private final EmbeddingProviderException exception;
+
+    private EndpointFailure(EmbeddingProviderException exception) {
+      super(exception.getMessage(), exception, false, false);
+      this.exception = exception;
     }
-    return URI.create(base).resolve("embed");
   }
 
   private record EmbedRequest(List<String> inputs) {}
-
-  private record EmbedResponse(List<List<Double>> embeddings) {}
 }
@@ -1,15 +1,21 @@
 package com.repomind.core.embeddings;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
 import java.net.URI;
 import java.time.Duration;
 import java.util.Objects;
+import java.util.Optional;
 
 public class LocalHttpEmbeddingServerClient {
   private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+  private static final String F32_FORMAT = "f32";
 
   private final HttpTransport transport;
   private final URI healthUri;
   private final Duration timeout;
+  private final ObjectMapper mapper = new ObjectMapper();
 
   public LocalHttpEmbeddingServerClient(URI baseUrl) {
     this(new JdkHttpTransport(java.net.http.HttpClient.newHttpClient()), baseUrl, DEFAULT_TIMEOUT);
@@ -33,6 +39,49 @@ public class LocalHttpEmbeddingServerClient {
     }
   }
 
+  /**
+   * Returns true when {@code /health} lists {@code "f32"} under {@code formats}. Older servers do
+   * not advertise formats and are treated as JSON-only, as are servers that cannot be asked.
+   */
+  public boolean supportsBinaryEmbeddings() {
+    return probeBinaryEmbeddings().orElse(false);
+  }
+
+  /**
+   * Asks {@code /health} whether the server sends binary embeddings. Only a 200 response answers
+   * the question: a body that lists {@code "f32"} under {@code formats} means yes, any other body
+   * means an older, JSON-only server. Empty when the server could not be asked (not started yet,
+   * timed out, an error status or an interrupt), so callers can ask again later.
+   */
+  public Optional<Boolean> probeBinaryEmbeddings() {
+    HttpResult response;
+    try {
+      response = transport.get(healthUri, timeout);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return Optional.empty();
+    } catch (Exception e) {
+      return Optional.empty();
+    }
+    if (response.statusCode() != 200) {
+      return Optional.empty();
+    }
+    if (response.body() == null || response.body().length == 0) {
+      return Optional.of(false);
+    }
+    try {
+      JsonNode formats = mapper.readTree(response.body()).path("formats");
+      for (JsonNode format : formats) {
+        if (F32_FORMAT.equals(format.asText())) {
+          return Optional.of(true);
+        }
+      }
+    } catch (IOException e) {
+      // A body that is not JSON comes from a server that predates format negotiation.
+    }
+    return Optional.of(false);
+  }
+
   private static URI buildHealthUri(URI baseUrl) {
     if (baseUrl == null) {
       throw new IllegalArgumentException("baseUrl is required.");
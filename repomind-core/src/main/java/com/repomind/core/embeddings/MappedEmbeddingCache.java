@@ -0,0 +1,279 @@
+package com.repomind.core.embeddings;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Append-only, memory-mapped store of embedding vectors keyed by {@link EmbeddingCacheKey}.
+ *
+ * <p>Layout: a 16-byte header (magic, version, end of data) followed by records of
+ * {@code key (32 bytes), dimension (int), dimension * float32}, all little-endian. The in-memory
+ * index maps keys to record offsets in access order; when an append would exceed
+ * {@code maxBytes} the file is compacted down to the most recently used entries.
+ *
+ * <p>One process uses a cache file at a time: {@link #open} holds an exclusive lock on a
+ * {@code .lock} file next to it until {@link #close}, since two writers would append over each
+ * other's records.
+ */
+public final class MappedEmbeddingCache implements Closeable {
+  private static final int MAGIC = 0x524D4543;
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 16;
+  private static final int END_OFFSET = 8;
+  private static final int RECORD_HEADER_BYTES = EmbeddingCacheKey.BYTES + Integer.BYTES;
+  private static final long GROWTH_BYTES = 4L * 1024 * 1024;
+  private static final double COMPACTION_TARGET = 0.75;
+
+  private final Path path;
+  private final long maxBytes;
+  private final LinkedHashMap<EmbeddingCacheKey, Integer> index =
+      new LinkedHashMap<>(1024, 0.75f, true);
+  private FileChannel lockChannel;
+  private FileLock lock;
+  private FileChannel channel;
+  private MappedByteBuffer buffer;
+  private int dataEnd;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  private MappedEmbeddingCache(Path path, long maxBytes) {
+    this.path = path;
+    this.maxBytes = maxBytes;
+  }
+
+  /** Opens the cache; fails when another process has it open. */
+  public static MappedEmbeddingCache open(Path path, long maxBytes) {
+    return openIfUnlocked(path, maxBytes).orElseThrow(() -> new EmbeddingProviderException(
+        "Embedding cache is in use by another process: " + path));
+  }
+
+  /** Opens the cache, or returns empty when another process has it open. */
+  public static Optional<MappedEmbeddingCache> openIfUnlocked(Path path, long maxBytes) {
+    if (path == null) {
+      throw new IllegalArgumentException("path is required.");
+    }
+    if (maxBytes <= HEADER_BYTES || maxBytes > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("maxBytes must be between 17 and " + Integer.MAX_VALUE + ".");
+    }
+    MappedEmbeddingCache cache = new MappedEmbeddingCache(path, maxBytes);
+    try {
+      if (!cache.acquireLock()) {
+        cache.closeQuietly();
+        return Optional.empty();
+      }
+      cache.load();
+    } catch (IOException e) {
+      cache.closeQuietly();
+      throw new EmbeddingProviderException("Failed to open embedding cache: " + path, e);
+    }
+    return Optional.of(cache);
+  }
+
+  /**
+   * Returns the vector stored for {@code key}, or null. A record whose stored key differs from
+   * {@code key} is dropped from the index and counts as a miss.
+   */
+  public synchronized float[] get(EmbeddingCacheKey key) {
+    Integer offset = buffer == null ? null : index.get(key);
+    if (offset == null || !key.equals(EmbeddingCacheKey.read(buffer, offset))) {
+      if (offset != null) {
+        index.remove(key);
+      }
+      misses++;
+      return null;
+    }
+    hits++;
+    int dimension = buffer.getInt(offset + EmbeddingCacheKey.BYTES);
+    float[] vector = new float[dimension];
+    buffer.slice(offset + RECORD_HEADER_BYTES, dimension * Float.BYTES)
+        .order(ByteOrder.LITTLE_ENDIAN)
+        .asFloatBuffer()
+        .get(vector);
+    return vector;
+  }
+
+  public synchronized void put(EmbeddingCacheKey key, float[] vector) {
+    if (buffer == null || index.containsKey(key)) {
+      return;
+    }
+    int recordBytes = RECORD_HEADER_BYTES + vector.length * Float.BYTES;
+    if (HEADER_BYTES + (long) recordBytes > maxBytes) {
+      return;
+    }
+    try {
+      if ((long) dataEnd + recordBytes > maxBytes) {
+        compact((long) (maxBytes * COMPACTION_TARGET) - recordBytes);
+      }
+      ensureMapped((long) dataEnd + recordBytes);
+      int offset = dataEnd;
+      key.write(buffer, offset);
+      buffer.putInt(offset + EmbeddingCacheKey.BYTES, vector.length);
+      buffer.slice(offset + RECORD_HEADER_BYTES, vector.length * Float.BYTES)
+          .order(ByteOrder.LITTLE_ENDIAN)
+          .asFloatBuffer()
+          .put(vector);
+      dataEnd = offset + recordBytes;
+      buffer.putLong(END_OFFSET, dataEnd);
+      index.put(key, offset);
+    } catch (IOException e) {
+      throw new EmbeddingProviderException("Failed to write embedding cache: " + path, e);
+    }
+  }
+
+  public synchronized EmbeddingCacheStats stats() {
+    return new EmbeddingCacheStats(hits, misses, evictions, index.size(), dataEnd);
+  }
+
+  @Override
+  public synchronized void close() {
+    if (buffer != null) {
+      buffer.force();
+    }
+    closeQuietly();
+  }
+
+  private boolean acquireLock() throws IOException {
+    Path parent = path.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    lockChannel = FileChannel.open(path.resolveSibling(path.getFileName() + ".lock"),
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    try {
+      lock = lockChannel.tryLock();
+    } catch (OverlappingFileLockException e) {
+      lock = null;
+    }
+    return lock != null;
+  }
+
+  private void load() throws IOException {
+    channel = FileChannel.open(path,
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    long fileSize = channel.size();
+    if (fileSize < HEADER_BYTES) {
+      reset();
+      return;
+    }
+    map(Math.min(fileSize, maxBytes));
+    long end = buffer.getLong(END_OFFSET);
+    if (buffer.getInt(0) != MAGIC
+        || buffer.getInt(4) != VERSION
+        || end < HEADER_BYTES
+        || end > buffer.capacity()) {
+      reset();
+      return;
+    }
+    int offset = HEADER_BYTES;
+    while (offset + RECORD_HEADER_BYTES <= end) {
+      int dimension = buffer.getInt(offset + EmbeddingCacheKey.BYTES);
+      long next = offset + RECORD_HEADER_BYTES + (long) dimension * Float.BYTES;
+      if (dimension < 0 || next > end) {
+        break;
+      }
+      index.put(EmbeddingCacheKey.read(buffer, offset), offset);
+      offset = (int) next;
+    }
+    dataEnd = offset;
+    buffer.putLong(END_OFFSET, dataEnd);
+  }
+
+  private void reset() throws IOException {
+    channel.truncate(0);
+    index.clear();
+    map(Math.min(GROWTH_BYTES, maxBytes));
+    buffer.putInt(0, MAGIC);
+    buffer.putInt(4, VERSION);
+    dataEnd = HEADER_BYTES;
+    buffer.putLong(END_OFFSET, dataEnd);
+  }
+
+  private void ensureMapped(long required) throws IOException {
+    if (required <= buffer.capacity()) {
+      return;
+    }
+    map(Math.min(maxBytes, Math.max(required, (long) buffer.capacity() + GROWTH_BYTES)));
+  }
+
+  private void map(long size) throws IOException {
+    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  /**
+   * Rewrites the file with the most recently used entries that fit in {@code targetBytes}, oldest
+   * first so that reloading the file restores the access order.
+   */
+  private void compact(long targetBytes) throws IOException {
+    List<Map.Entry<EmbeddingCacheKey, Integer>> entries = new ArrayList<>(index.entrySet());
+    List<Integer> kept = new ArrayList<>();
+    long size = HEADER_BYTES;
+    for (int i = entries.size() - 1; i >= 0; i--) {
+      int offset = entries.get(i).getValue();
+      int recordBytes = recordBytes(offset);
+      if (size + recordBytes > targetBytes) {
+        break;
+      }
+      size += recordBytes;
+      kept.add(offset);
+    }
+
+    Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+    try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      header.putInt(MAGIC).putInt(VERSION).putLong(size).flip();
+      out.write(header);
+      for (int i = kept.size() - 1; i >= 0; i--) {
+        int offset = kept.get(i);
+        out.write(buffer.slice(offset, recordBytes(offset)));
+      }
+    }
+
+    evictions += index.size() - kept.size();
+    index.clear();
+    buffer = null;
+    channel.close();
+    Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    load();
+  }
+
+  private int recordBytes(int offset) {
+    return RECORD_HEADER_BYTES + buffer.getInt(offset + EmbeddingCacheKey.BYTES) * Float.BYTES;
+  }
+
+  private void closeQuietly() {
+    buffer = null;
+    index.clear();
+    closeQuietly(channel);
+    // Closing the channel releases the lock.
+    closeQuietly(lockChannel);
+    lock = null;
+  }
+
+  private static void closeQuietly(FileChannel channel) {
+    if (channel != null) {
+      try {
+        channel.close();
+      } catch (IOException ignored) {
+        // nothing left to flush
+      }
+    }
+  }
+}
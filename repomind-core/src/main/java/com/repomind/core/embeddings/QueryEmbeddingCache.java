@@ -0,0 +1,96 @@
+package com.repomind.core.embeddings;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Bounded, thread-safe LRU cache of query embeddings. Entries are keyed by the normalized query
+ * (trimmed, internal whitespace collapsed, lower-cased), so near-identical agent queries share one
+ * entry. Entries are evicted once either the entry count or the approximate byte size limit is
+ * exceeded.
+ */
+public class QueryEmbeddingCache {
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+  private static final int ENTRY_OVERHEAD_BYTES = 64;
+
+  private final int maxEntries;
+  private final long maxBytes;
+  private final LinkedHashMap<String, float[]> entries = new LinkedHashMap<>(64, 0.75f, true);
+  private long bytes;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  public QueryEmbeddingCache(int maxEntries, long maxBytes) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("maxEntries must be positive.");
+    }
+    if (maxBytes <= 0) {
+      throw new IllegalArgumentException("maxBytes must be positive.");
+    }
+    this.maxEntries = maxEntries;
+    this.maxBytes = maxBytes;
+  }
+
+  public static String normalize(String query) {
+    if (query == null) {
+      throw new IllegalArgumentException("query is required.");
+    }
+    return WHITESPACE.matcher(query.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Returns the cached embedding for {@code query}, embedding its normalized text with
+   * {@code provider} on a miss, so every spelling that shares an entry gets the same vector no
+   * matter which was asked first. The provider call happens outside the lock.
+   */
+  public float[] getOrEmbed(String query, EmbeddingProvider provider) {
+    String key = normalize(query);
+    synchronized (this) {
+      float[] cached = entries.get(key);
+      if (cached != null) {
+        hits++;
+        return cached;
+      }
+      misses++;
+    }
+    List<float[]> embedded = provider.embedFloats(List.of(key));
+    if (embedded.size() != 1) {
+      throw new EmbeddingProviderException(
+          "Embedding provider returned " + embedded.size() + " vectors for 1 query.");
+    }
+    float[] vector = embedded.get(0);
+    put(key, vector);
+    return vector;
+  }
+
+  public synchronized EmbeddingCacheStats stats() {
+    return new EmbeddingCacheStats(hits, misses, evictions, entries.size(), bytes);
+  }
+
+  private synchronized void put(String key, float[] vector) {
+    float[] previous = entries.put(key, vector);
+    if (previous != null) {
+      bytes -= sizeOf(key, previous);
+    }
+    bytes += sizeOf(key, vector);
+    Iterator<Map.Entry<String, float[]>> eldest = entries.entrySet().iterator();
+    while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+      Map.Entry<String, float[]> entry = eldest.next();
+      if (entry.getKey().equals(key)) {
+        break;
+      }
+      bytes -= sizeOf(entry.getKey(), entry.getValue());
+      eldest.remove();
+      evictions++;
+    }
+  }
+
+  private static long sizeOf(String key, float[] vector) {
+    return ENTRY_OVERHEAD_BYTES + 2L * key.length() + (long) Float.BYTES * vector.length;
+  }
+}
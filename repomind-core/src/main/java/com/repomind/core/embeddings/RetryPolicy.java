@@ -0,0 +1,37 @@
+package com.repomind.core.embeddings;
+
+import com.repomind.core.config.LocalHttpConfig;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How a failed {@code /embed} batch is retried and when an endpoint is taken out of rotation.
+ *
+ * @param maxRetries further attempts after the first, each preferring an endpoint not tried yet
+ * @param backoff base delay before a retry, doubled per attempt; the actual delay is drawn
+ *     between half and all of it
+ * @param breakerFailures consecutive failures that open an endpoint's circuit breaker
+ * @param breakerOpen how long an open breaker rejects traffic before a health-checked trial
+ */
+public record RetryPolicy(int maxRetries, Duration backoff, int breakerFailures, Duration breakerOpen) {
+  public static final RetryPolicy DEFAULT =
+      new RetryPolicy(2, Duration.ofMillis(200), 3, Duration.ofSeconds(30));
+
+  private static final Duration MAX_BACKOFF = Duration.ofSeconds(5);
+
+  public static RetryPolicy from(LocalHttpConfig config) {
+    return new RetryPolicy(
+        config.getMaxRetries() == null ? DEFAULT.maxRetries : config.getMaxRetries(),
+        config.getRetryBackoffMillis() == null
+            ? DEFAULT.backoff : Duration.ofMillis(config.getRetryBackoffMillis()),
+        config.getBreakerFailures() == null ? DEFAULT.breakerFailures : config.getBreakerFailures(),
+        config.getBreakerOpenMillis() == null
+            ? DEFAULT.breakerOpen : Duration.ofMillis(config.getBreakerOpenMillis()));
+  }
+
+  /** Delay before retry number {@code retry} (1-based): random up to backoff * 2^(retry-1). */
+  long backoffMillis(int retry) {
+    long ceiling = Math.min(MAX_BACKOFF.toMillis(), backoff.toMillis() << Math.min(retry - 1, 20));
+    return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+  }
+}
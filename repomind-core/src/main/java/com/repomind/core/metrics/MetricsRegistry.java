@@ -0,0 +1,110 @@
+package com.repomind.core.metrics;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-stage call counts, totals and latency histograms plus named counters. Recording is
+ * lock-free and cheap enough to stay on all the time; {@code --stats} only decides whether a
+ * {@link #snapshot()} is printed.
+ *
+ * <p>Components record into {@link #global()}, the way they pick {@code VectorKernels.best()},
+ * so no constructor has to thread a registry through; tests create their own instances.
+ */
+public final class MetricsRegistry {
+  private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+  private final Map<Stage, Recorder> stages = new EnumMap<>(Stage.class);
+  private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+  public MetricsRegistry() {
+    for (Stage stage : Stage.values()) {
+      stages.put(stage, new Recorder());
+    }
+  }
+
+  /** The registry of this process. */
+  public static MetricsRegistry global() {
+    return GLOBAL;
+  }
+
+  /** Starts timing one execution of {@code stage}; close the timer when the stage is done. */
+  public StageTimer start(Stage stage) {
+    return new StageTimer(this, stage);
+  }
+
+  public void record(Stage stage, long nanos, long items, long bytes) {
+    stages.get(stage).record(nanos, items, bytes);
+  }
+
+  /** Adds one to the counter {@code name}, e.g. {@code http.errors}. */
+  public void increment(String name) {
+    add(name, 1);
+  }
+
+  public void add(String name, long delta) {
+    counters.computeIfAbsent(name, ignored -> new LongAdder()).add(delta);
+  }
+
+  /** Stages that ran at least once, in pipeline order, and all counters by name. */
+  public MetricsSnapshot snapshot() {
+    List<StageStats> stats = new ArrayList<>();
+    for (Map.Entry<Stage, Recorder> entry : stages.entrySet()) {
+      Recorder recorder = entry.getValue();
+      if (recorder.count.sum() > 0) {
+        stats.add(recorder.stats(entry.getKey().label()));
+      }
+    }
+    Map<String, Long> counterValues = new TreeMap<>();
+    counters.forEach((name, value) -> counterValues.put(name, value.sum()));
+    return new MetricsSnapshot(stats, counterValues);
+  }
+
+  /** Clears everything, e.g. between the cycles of {@code index --watch}. */
+  public void reset() {
+    stages.values().forEach(Recorder::reset);
+    counters.clear();
+  }
+
+  private static final class Recorder {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder items = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    void record(long nanos, long itemCount, long byteCount) {
+      count.increment();
+      items.add(itemCount);
+      bytes.add(byteCount);
+      totalNanos.add(nanos);
+      maxNanos.accumulateAndGet(nanos, Math::max);
+      histogram.record(nanos);
+    }
+
+    StageStats stats(String label) {
+      long max = maxNanos.get();
+      return new StageStats(label, count.sum(), items.sum(), bytes.sum(), totalNanos.sum(),
+          Math.min(max, histogram.percentile(0.50)),
+          Math.min(max, histogram.percentile(0.95)),
+          Math.min(max, histogram.percentile(0.99)),
+          max);
+    }
+
+    void reset() {
+      count.reset();
+      items.reset();
+      bytes.reset();
+      totalNanos.reset();
+      maxNanos.set(0);
+      histogram.reset();
+    }
+  }
+}
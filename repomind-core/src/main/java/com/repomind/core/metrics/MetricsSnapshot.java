@@ -0,0 +1,83 @@
+package com.repomind.core.metrics;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** Point-in-time copy of a {@link MetricsRegistry}, rendered for {@code --stats}. */
+public record MetricsSnapshot(List<StageStats> stages, Map<String, Long> counters) {
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  public MetricsSnapshot {
+    stages = List.copyOf(stages);
+    counters = Collections.unmodifiableMap(new TreeMap<>(counters));
+  }
+
+  /** One row per stage with times in milliseconds, then the counters on one line. */
+  public String toText() {
+    StringBuilder text = new StringBuilder();
+    text.append(String.format(Locale.ROOT, "%-13s %7s %9s %11s %10s %9s %9s %9s %9s%n",
+        "stage", "calls", "items", "bytes", "total ms", "mean ms", "p50 ms", "p95 ms", "max ms"));
+    for (StageStats stage : stages) {
+      text.append(String.format(Locale.ROOT,
+          "%-13s %7d %9d %11d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+          stage.stage(), stage.count(), stage.items(), stage.bytes(),
+          millis(stage.totalNanos()), millis(stage.meanNanos()), millis(stage.p50Nanos()),
+          millis(stage.p95Nanos()), millis(stage.maxNanos())));
+    }
+    if (!counters.isEmpty()) {
+      text.append("counters:");
+      counters.forEach((name, value) -> text.append(' ').append(name).append('=').append(value));
+      text.append(System.lineSeparator());
+    }
+    return text.toString();
+  }
+
+  /** The same data as one JSON object: {@code {"stages":[...],"counters":{...}}}. */
+  public String toJson() {
+    StringWriter out = new StringWriter();
+    try (JsonGenerator json = new JsonFactory().createGenerator(out)) {
+      json.writeStartObject();
+      json.writeArrayFieldStart("stages");
+      for (StageStats stage : stages) {
+        json.writeStartObject();
+        json.writeStringField("stage", stage.stage());
+        json.writeNumberField("calls", stage.count());
+        json.writeNumberField("items", stage.items());
+        json.writeNumberField("bytes", stage.bytes());
+        json.writeNumberField("totalMs", round(millis(stage.totalNanos())));
+        json.writeNumberField("meanMs", round(millis(stage.meanNanos())));
+        json.writeNumberField("p50Ms", round(millis(stage.p50Nanos())));
+        json.writeNumberField("p95Ms", round(millis(stage.p95Nanos())));
+        json.writeNumberField("p99Ms", round(millis(stage.p99Nanos())));
+        json.writeNumberField("maxMs", round(millis(stage.maxNanos())));
+        json.writeEndObject();
+      }
+      json.writeEndArray();
+      json.writeObjectFieldStart("counters");
+      for (Map.Entry<String, Long> counter : counters.entrySet()) {
+        json.writeNumberField(counter.getKey(), counter.getValue());
+      }
+      json.writeEndObject();
+      json.writeEndObject();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toString();
+  }
+
+  private static double millis(long nanos) {
+    return nanos / NANOS_PER_MILLI;
+  }
+
+  private static double round(double millis) {
+    return Math.round(millis * 1000) / 1000.0;
+  }
+}
@@ -0,0 +1,45 @@
+package com.repomind.core.metrics;
+
+import java.util.function.Supplier;
+
+/**
+ * A timed step of the index or query pipeline. Each stage has its own Flight Recorder event type
+ * (see {@link StageEvents}) so a recording can be filtered per stage.
+ */
+public enum Stage {
+  /** Walking the repository and applying the include/exclude rules. */
+  SCAN("scan", StageEvents.Scan::new),
+  /** Reading and hashing one source file. */
+  READ("read", StageEvents.Read::new),
+  /** Splitting one file into chunks, including Java parsing. */
+  CHUNK("chunk", StageEvents.Chunk::new),
+  /** One {@code /embed} batch end to end: request encoding, HTTP and response decoding. */
+  EMBED("embed", StageEvents.Embed::new),
+  /** One HTTP exchange with the embedding server. */
+  HTTP("http", StageEvents.Http::new),
+  /** Decoding one embedding response, JSON or binary. */
+  DECODE("decode", StageEvents.Decode::new),
+  /** Writing one index batch to the store in a single transaction. */
+  STORE_WRITE("store.write", StageEvents.StoreWrite::new),
+  /** One search query against the store. */
+  STORE_SEARCH("store.search", StageEvents.StoreSearch::new),
+  /** Selecting and writing a context pack. */
+  CONTEXT_PACK("context.pack", StageEvents.ContextPack::new);
+
+  private final String label;
+  private final Supplier<StageEvents.StageEvent> events;
+
+  Stage(String label, Supplier<StageEvents.StageEvent> events) {
+    this.label = label;
+    this.events = events;
+  }
+
+  /** Name used in {@code --stats} output. */
+  public String label() {
+    return label;
+  }
+
+  StageEvents.StageEvent newEvent() {
+    return events.get();
+  }
+}
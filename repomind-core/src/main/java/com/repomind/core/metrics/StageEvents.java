@@ -0,0 +1,76 @@
+package com.repomind.core.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event types, one per {@link Stage}. They are disabled unless a recording
+ * enables them, e.g. {@code -XX:StartFlightRecording}; while disabled, begin, end and commit are
+ * no-ops.
+ */
+final class StageEvents {
+  private StageEvents() {
+  }
+
+  @Category("RepoMind")
+  @StackTrace(false)
+  abstract static class StageEvent extends Event {
+    @Label("Items")
+    @Description("Files, chunks, inputs or results handled by the stage")
+    long items;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+  }
+
+  @Name("com.repomind.Scan")
+  @Label("Repository Scan")
+  static final class Scan extends StageEvent {
+  }
+
+  @Name("com.repomind.Read")
+  @Label("File Read")
+  static final class Read extends StageEvent {
+  }
+
+  @Name("com.repomind.Chunk")
+  @Label("Chunking")
+  static final class Chunk extends StageEvent {
+  }
+
+  @Name("com.repomind.Embed")
+  @Label("Embedding Batch")
+  static final class Embed extends StageEvent {
+  }
+
+  @Name("com.repomind.Http")
+  @Label("Embedding HTTP Exchange")
+  static final class Http extends StageEvent {
+  }
+
+  @Name("com.repomind.Decode")
+  @Label("Embedding Decode")
+  static final class Decode extends StageEvent {
+  }
+
+  @Name("com.repomind.StoreWrite")
+  @Label("Store Write")
+  static final class StoreWrite extends StageEvent {
+  }
+
+  @Name("com.repomind.StoreSearch")
+  @Label("Store Search")
+  static final class StoreSearch extends StageEvent {
+  }
+
+  @Name("com.repomind.ContextPack")
+  @Label("Context Pack")
+  static final class ContextPack extends StageEvent {
+  }
+}
@@ -0,0 +1,20 @@
+package com.repomind.core.metrics;
+
+/**
+ * Totals and latency percentiles of one {@link Stage}. Percentiles are histogram bucket upper
+ * bounds, accurate to within 1/8 of their value.
+ */
+public record StageStats(
+    String stage,
+    long count,
+    long items,
+    long bytes,
+    long totalNanos,
+    long p50Nanos,
+    long p95Nanos,
+    long p99Nanos,
+    long maxNanos) {
+  public long meanNanos() {
+    return count == 0 ? 0 : totalNanos / count;
+  }
+}
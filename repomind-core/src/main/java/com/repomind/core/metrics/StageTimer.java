@@ -0,0 +1,50 @@
+package com.repomind.core.metrics;
+
+/**
+ * Times one execution of a {@link Stage} from creation to {@link #close()}, recording it in the
+ * registry and committing the stage's Flight Recorder event. Not thread-safe; use one per call.
+ */
+public final class StageTimer implements AutoCloseable {
+  private final MetricsRegistry registry;
+  private final Stage stage;
+  private final StageEvents.StageEvent event;
+  private final long started;
+  private long items;
+  private long bytes;
+  private boolean closed;
+
+  StageTimer(MetricsRegistry registry, Stage stage) {
+    this.registry = registry;
+    this.stage = stage;
+    this.event = stage.newEvent();
+    event.begin();
+    this.started = System.nanoTime();
+  }
+
+  /** Adds to the number of files, chunks, inputs or results this execution handled. */
+  public StageTimer items(long count) {
+    items += count;
+    return this;
+  }
+
+  /** Adds to the number of bytes this execution read, wrote or transferred. */
+  public StageTimer bytes(long count) {
+    bytes += count;
+    return this;
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    registry.record(stage, System.nanoTime() - started, items, bytes);
+    event.end();
+    if (event.shouldCommit()) {
+      event.items = items;
+      event.bytes = bytes;
+      event.commit();
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package com.repomind.core.model;
+
+public record CodeChunk(
+    String repo,
+    String filePath,
+    String language,
+    String symbolKind,
+    String symbol,
+    int startLine,
+    int endLine,
+    String code,
+    String chunkId,
+    float[] embedding) {
+
+  /** Stable id used for upserts: {@code repo:file_path:symbol_kind:symbol:start_line:end_line}. */
+  public static String chunkId(
+      String repo, String filePath, String symbolKind, String symbol, int startLine, int endLine) {
+    return repo + ":" + filePath + ":" + symbolKind + ":" + symbol + ":" + startLine + ":" + endLine;
+  }
+
+  public CodeChunk withEmbedding(float[] embedding) {
+    return new CodeChunk(
+        repo, filePath, language, symbolKind, symbol, startLine, endLine, code, chunkId, embedding);
+  }
+}
@@ -0,0 +1,4 @@
+package com.repomind.core.model;
+
+/** What was indexed for one file: used to skip unchanged files on the next run. */
+public record FileManifestEntry(String filePath, long size, long lastModifiedMillis, String contentHash) {}
@@ -0,0 +1,7 @@
+package com.repomind.core.model;
+
+/**
+ * A search result together with the chunk's stored embedding, for callers that compare results
+ * with each other (context pack selection) without another round trip to the store.
+ */
+public record SearchCandidate(SearchResult result, float[] embedding) {}
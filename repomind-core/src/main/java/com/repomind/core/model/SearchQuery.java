@@ -0,0 +1,15 @@
+package com.repomind.core.model;
+
+public record SearchQuery(String repo, String text, int limit) {
+  public SearchQuery {
+    if (repo == null || repo.isBlank()) {
+      throw new IllegalArgumentException("repo is required.");
+    }
+    if (text == null || text.isBlank()) {
+      throw new IllegalArgumentException("query text is required.");
+    }
+    if (limit <= 0) {
+      throw new IllegalArgumentException("limit must be positive.");
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package com.repomind.core.model;
+
+/**
+ * One search hit. {@code code} is {@code null} when the store ranked without reading code bodies;
+ * see {@link com.repomind.core.store.CodeChunkRepository#loadCode}.
+ */
+public record SearchResult(
+    String chunkId,
+    String filePath,
+    String symbol,
+    String symbolKind,
+    int startLine,
+    int endLine,
+    String code,
+    double distance) {
+  public SearchResult withCode(String code) {
+    return new SearchResult(chunkId, filePath, symbol, symbolKind, startLine, endLine, code, distance);
+  }
+}
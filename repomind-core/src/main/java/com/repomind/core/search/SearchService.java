@@ -0,0 +1,52 @@
+package com.repomind.core.search;
+
+import com.repomind.core.embeddings.EmbeddingCacheStats;
+import com.repomind.core.embeddings.EmbeddingProvider;
+import com.repomind.core.embeddings.QueryEmbeddingCache;
+import com.repomind.core.metrics.MetricsRegistry;
+import com.repomind.core.metrics.Stage;
+import com.repomind.core.metrics.StageTimer;
+import com.repomind.core.model.SearchQuery;
+import com.repomind.core.model.SearchResult;
+import com.repomind.core.store.CodeChunkRepository;
+import java.util.List;
+import java.util.Objects;
+
+public class SearchService {
+  public static final int MAX_LIMIT = 100;
+
+  private final EmbeddingProvider embeddingProvider;
+  private final CodeChunkRepository repository;
+  private final QueryEmbeddingCache queryCache;
+
+  public SearchService(
+      EmbeddingProvider embeddingProvider,
+      CodeChunkRepository repository,
+      QueryEmbeddingCache queryCache) {
+    this.embeddingProvider = Objects.requireNonNull(embeddingProvider, "embeddingProvider");
+    this.repository = Objects.requireNonNull(repository, "repository");
+    this.queryCache = Objects.requireNonNull(queryCache, "queryCache");
+  }
+
+  public List<SearchResult> search(SearchQuery query) {
+    return search(query, 0);
+  }
+
+  /**
+   * Ranks without code bodies, then loads the code of the results in one batch: only the first
+   * {@code codeChars} characters of each when positive, for callers that print excerpts.
+   */
+  public List<SearchResult> search(SearchQuery query, int codeChars) {
+    float[] embedding = queryCache.getOrEmbed(query.text(), embeddingProvider);
+    try (StageTimer timer = MetricsRegistry.global().start(Stage.STORE_SEARCH)) {
+      List<SearchResult> results = repository.search(
+          query.repo(), query.text(), embedding, Math.min(query.limit(), MAX_LIMIT));
+      timer.items(results.size());
+      return repository.loadCode(query.repo(), results, codeChars);
+    }
+  }
+
+  public EmbeddingCacheStats queryCacheStats() {
+    return queryCache.stats();
+  }
+}
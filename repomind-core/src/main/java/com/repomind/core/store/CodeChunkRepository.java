@@ -0,0 +1,91 @@
+package com.repomind.core.store;
+
+import com.repomind.core.model.CodeChunk;
+import com.repomind.core.model.FileManifestEntry;
+import com.repomind.core.model.SearchCandidate;
+import com.repomind.core.model.SearchResult;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chunk storage. Searches may return results without {@code code} so that ranking never reads
+ * code bodies; callers load it with {@link #loadCode} for the results they render.
+ */
+public interface CodeChunkRepository {
+  /** Returns up to {@code topK} chunks of {@code repo}, nearest first by cosine distance. */
+  List<SearchResult> search(String repo, float[] queryEmbedding, int topK);
+
+  /**
+   * Searches with both the query text and its embedding. Stores that support lexical matching
+   * fuse both rankings; the default ignores {@code queryText}.
+   */
+  default List<SearchResult> search(String repo, String queryText, float[] queryEmbedding, int topK) {
+    return search(repo, queryEmbedding, topK);
+  }
+
+  /**
+   * Runs the same search as {@link #search(String, String, float[], int)} and returns each result
+   * with its stored embedding, fetched by the same query.
+   */
+  List<SearchCandidate> searchCandidates(
+      String repo, String queryText, float[] queryEmbedding, int topK);
+
+  /**
+   * Returns {@code results} in the same order with their code set, cut to the first
+   * {@code maxChars} characters when positive, in one round trip. The default serves stores whose
+   * searches already return code and only cuts it.
+   */
+  default List<SearchResult> loadCode(String repo, List<SearchResult> results, int maxChars) {
+    if (maxChars <= 0) {
+      return results;
+    }
+    List<SearchResult> excerpts = new ArrayList<>(results.size());
+    for (SearchResult result : results) {
+      String code = result.code();
+      excerpts.add(code != null && code.length() > maxChars
+          ? result.withCode(code.substring(0, maxChars))
+          : result);
+    }
+    return excerpts;
+  }
+
+  /**
+   * Returns the vectors this store already holds for any of {@code texts}, embedded with the model
+   * it writes chunks for, keyed by text; callers embed only the others. The default holds none.
+   */
+  default Map<String, float[]> findEmbeddings(List<String> texts) {
+    return Map.of();
+  }
+
+  /** Inserts or updates chunks by {@code chunk_id}. */
+  void upsertChunks(List<CodeChunk> chunks);
+
+  /** Returns the file manifest of {@code repo} keyed by repo-relative path. */
+  Map<String, FileManifestEntry> loadManifest(String repo);
+
+  /** Applies {@code batch} to chunks and manifest of {@code repo} in a single transaction. */
+  void applyBatch(String repo, IndexBatch batch);
+
+  /**
+   * Starts a full re-index of {@code repo}. The default applies every batch in place, so searches
+   * see the index change batch by batch and {@code commit} has nothing left to do.
+   */
+  default RepoRebuild rebuild(String repo) {
+    return new RepoRebuild() {
+      @Override
+      public void applyBatch(IndexBatch batch) {
+        CodeChunkRepository.this.applyBatch(repo, batch);
+      }
+
+      @Override
+      public void commit() {}
+
+      @Override
+      public void close() {}
+    };
+  }
+
+  /** Removes every chunk and the manifest of {@code repo}. */
+  void deleteRepo(String repo);
+}
@@ -0,0 +1,32 @@
+package com.repomind.core.store;
+
+import com.repomind.core.model.CodeChunk;
+import com.repomind.core.model.FileManifestEntry;
+import java.util.List;
+
+/**
+ * One transactional unit of incremental indexing.
+ *
+ * @param changedFiles files whose chunks are replaced by {@code chunks}
+ * @param chunks the new chunks of {@code changedFiles}
+ * @param touchedFiles files whose content is unchanged but whose size or mtime moved; only the
+ *     manifest is updated
+ * @param deletedPaths files removed from the repo; their chunks and manifest rows are deleted
+ */
+public record IndexBatch(
+    List<FileManifestEntry> changedFiles,
+    List<CodeChunk> chunks,
+    List<FileManifestEntry> touchedFiles,
+    List<String> deletedPaths) {
+
+  public IndexBatch {
+    changedFiles = List.copyOf(changedFiles);
+    chunks = List.copyOf(chunks);
+    touchedFiles = List.copyOf(touchedFiles);
+    deletedPaths = List.copyOf(deletedPaths);
+  }
+
+  public boolean isEmpty() {
+    return changedFiles.isEmpty() && touchedFiles.isEmpty() && deletedPaths.isEmpty();
+  }
+}
@@ -0,0 +1,16 @@
+package com.repomind.core.store;
+
+/**
+ * A full re-index of one repo. Stores that can build the new index aside keep serving the previous
+ * one to searches until {@link #commit()} swaps it in; closing without committing discards it.
+ */
+public interface RepoRebuild extends AutoCloseable {
+  /** Adds {@code batch} to the rebuilt index; deleted paths need no action on a fresh index. */
+  void applyBatch(IndexBatch batch);
+
+  /** Makes the rebuilt index, and nothing of the previous one, visible to searches. */
+  void commit();
+
+  @Override
+  void close();
+}
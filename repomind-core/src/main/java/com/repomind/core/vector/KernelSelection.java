@@ -0,0 +1,37 @@
+package com.repomind.core.vector;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** Picks the kernels once per JVM; see {@link VectorKernels#best()}. */
+final class KernelSelection {
+  private static final Logger log = LoggerFactory.getLogger(KernelSelection.class);
+  private static final String SIMD_PROPERTY = "repomind.simd";
+
+  static final VectorKernels BEST = select();
+
+  private KernelSelection() {
+  }
+
+  private static VectorKernels select() {
+    if (!Boolean.parseBoolean(System.getProperty(SIMD_PROPERTY, "true"))) {
+      return ScalarVectorKernels.INSTANCE;
+    }
+    if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+      log.debug("jdk.incubator.vector not present, using scalar similarity kernels");
+      return ScalarVectorKernels.INSTANCE;
+    }
+    try {
+      // Fewer than 4 lanes means no usable SIMD unit; the scalar loop is faster there.
+      if (SimdVectorKernels.lanes() < 4) {
+        return ScalarVectorKernels.INSTANCE;
+      }
+      VectorKernels simd = new SimdVectorKernels();
+      log.debug("Using {} similarity kernels", simd.name());
+      return simd;
+    } catch (LinkageError e) {
+      log.debug("Vector API unavailable ({}), using scalar similarity kernels", e.toString());
+      return ScalarVectorKernels.INSTANCE;
+    }
+  }
+}
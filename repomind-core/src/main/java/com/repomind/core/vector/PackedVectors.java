@@ -0,0 +1,115 @@
+package com.repomind.core.vector;
+
+import java.util.List;
+
+/**
+ * Same-dimension vectors packed row-major into one {@code float[]} for batch scoring.
+ *
+ * <p>When every row already has unit length (the embedding server normalizes its output) scores
+ * are plain dot products; otherwise each row keeps its inverse norm and scores are divided by the
+ * norms, so {@link #topK} always ranks by cosine similarity.
+ */
+public final class PackedVectors {
+  private static final float UNIT_TOLERANCE = 1e-3f;
+
+  private final int dimension;
+  private final int rows;
+  private final float[] data;
+  private final float[] inverseNorms;
+
+  private PackedVectors(int dimension, int rows, float[] data, float[] inverseNorms) {
+    this.dimension = dimension;
+    this.rows = rows;
+    this.data = data;
+    this.inverseNorms = inverseNorms;
+  }
+
+  /** Packs {@code vectors} as they are, detecting whether they are already normalized. */
+  public static PackedVectors pack(List<float[]> vectors) {
+    return pack(vectors, false);
+  }
+
+  /** Packs unit-length copies of {@code vectors}, so scoring always takes the dot-product path. */
+  public static PackedVectors packNormalized(List<float[]> vectors) {
+    return pack(vectors, true);
+  }
+
+  private static PackedVectors pack(List<float[]> vectors, boolean normalize) {
+    int rows = vectors.size();
+    int dimension = rows == 0 ? 0 : vectors.get(0).length;
+    float[] data = new float[rows * dimension];
+    float[] inverseNorms = new float[rows];
+    boolean unit = true;
+    VectorKernels kernels = VectorKernels.best();
+    for (int row = 0; row < rows; row++) {
+      float[] vector = vectors.get(row);
+      if (vector.length != dimension) {
+        throw new IllegalArgumentException("Row " + row + " has dimension " + vector.length
+            + ", expected " + dimension + ".");
+      }
+      float norm = (float) Math.sqrt(kernels.dot(vector, vector));
+      float inverse = norm == 0f ? 0f : 1f / norm;
+      int offset = row * dimension;
+      if (normalize) {
+        for (int i = 0; i < dimension; i++) {
+          data[offset + i] = vector[i] * inverse;
+        }
+      } else {
+        System.arraycopy(vector, 0, data, offset, dimension);
+        unit &= Math.abs(norm - 1f) <= UNIT_TOLERANCE;
+      }
+      inverseNorms[row] = inverse;
+    }
+    return new PackedVectors(dimension, rows, data, normalize || unit ? null : inverseNorms);
+  }
+
+  public int rows() {
+    return rows;
+  }
+
+  public int dimension() {
+    return dimension;
+  }
+
+  /** True when scoring skips the norm division. */
+  public boolean normalized() {
+    return inverseNorms == null;
+  }
+
+  public float[] row(int row) {
+    float[] vector = new float[dimension];
+    System.arraycopy(data, row * dimension, vector, 0, dimension);
+    return vector;
+  }
+
+  /** Cosine similarity between two packed rows. */
+  public float similarity(int a, int b) {
+    float dot = VectorKernels.best().dot(data, a * dimension, data, b * dimension, dimension);
+    return inverseNorms == null ? dot : dot * inverseNorms[a] * inverseNorms[b];
+  }
+
+  public TopK topK(float[] query, int k) {
+    return topK(query, k, VectorKernels.best());
+  }
+
+  /**
+   * The {@code k} rows most similar to {@code query}. On the normalized path scores are dot
+   * products, which equal cosine similarity when the query has unit length as well.
+   */
+  public TopK topK(float[] query, int k, VectorKernels kernels) {
+    if (query.length != dimension) {
+      throw new IllegalArgumentException(
+          "Query dimension " + query.length + " does not match " + dimension + ".");
+    }
+    float[] scores = new float[rows];
+    kernels.dotRows(query, data, rows, scores);
+    if (inverseNorms != null) {
+      float queryNorm = (float) Math.sqrt(kernels.dot(query, query));
+      float inverseQuery = queryNorm == 0f ? 0f : 1f / queryNorm;
+      for (int row = 0; row < rows; row++) {
+        scores[row] *= inverseQuery * inverseNorms[row];
+      }
+    }
+    return TopK.select(scores, rows, k);
+  }
+}
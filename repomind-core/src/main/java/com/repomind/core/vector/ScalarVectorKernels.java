@@ -0,0 +1,44 @@
+package com.repomind.core.vector;
+
+/** Plain loops: the fallback, and the reference the SIMD kernels are tested against. */
+final class ScalarVectorKernels implements VectorKernels {
+  static final ScalarVectorKernels INSTANCE = new ScalarVectorKernels();
+
+  private ScalarVectorKernels() {
+  }
+
+  @Override
+  public String name() {
+    return "scalar";
+  }
+
+  @Override
+  public float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+    float sum = 0f;
+    for (int i = 0; i < length; i++) {
+      sum += a[aOffset + i] * b[bOffset + i];
+    }
+    return sum;
+  }
+
+  @Override
+  public float cosine(float[] a, float[] b) {
+    if (a.length != b.length) {
+      throw new IllegalArgumentException("Vector lengths differ: " + a.length + " != " + b.length);
+    }
+    float dot = 0f;
+    float normA = 0f;
+    float normB = 0f;
+    for (int i = 0; i < a.length; i++) {
+      dot += a[i] * b[i];
+      normA += a[i] * a[i];
+      normB += b[i] * b[i];
+    }
+    return cosine(dot, normA, normB);
+  }
+
+  static float cosine(float dot, float normA, float normB) {
+    double norms = (double) normA * normB;
+    return norms == 0 ? 0f : (float) (dot / Math.sqrt(norms));
+  }
+}
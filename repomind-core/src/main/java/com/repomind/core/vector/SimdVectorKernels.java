@@ -0,0 +1,113 @@
+package com.repomind.core.vector;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Java Vector API kernels on the preferred species (8 lanes on AVX2, 16 on AVX-512). Loops
+ * accumulate lane-wise with FMA and reduce once, then finish the tail with scalar code, so results
+ * can differ from {@link ScalarVectorKernels} in the last bits. Only loaded when the
+ * {@code jdk.incubator.vector} module is present.
+ */
+final class SimdVectorKernels implements VectorKernels {
+  private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+  static int lanes() {
+    return SPECIES.length();
+  }
+
+  @Override
+  public String name() {
+    return "simd-" + SPECIES.length();
+  }
+
+  @Override
+  public float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+    FloatVector sum = FloatVector.zero(SPECIES);
+    int bound = SPECIES.loopBound(length);
+    int i = 0;
+    for (; i < bound; i += SPECIES.length()) {
+      FloatVector va = FloatVector.fromArray(SPECIES, a, aOffset + i);
+      FloatVector vb = FloatVector.fromArray(SPECIES, b, bOffset + i);
+      sum = va.fma(vb, sum);
+    }
+    float result = sum.reduceLanes(VectorOperators.ADD);
+    for (; i < length; i++) {
+      result += a[aOffset + i] * b[bOffset + i];
+    }
+    return result;
+  }
+
+  @Override
+  public float cosine(float[] a, float[] b) {
+    if (a.length != b.length) {
+      throw new IllegalArgumentException("Vector lengths differ: " + a.length + " != " + b.length);
+    }
+    FloatVector dot = FloatVector.zero(SPECIES);
+    FloatVector normA = FloatVector.zero(SPECIES);
+    FloatVector normB = FloatVector.zero(SPECIES);
+    int bound = SPECIES.loopBound(a.length);
+    int i = 0;
+    for (; i < bound; i += SPECIES.length()) {
+      FloatVector va = FloatVector.fromArray(SPECIES, a, i);
+      FloatVector vb = FloatVector.fromArray(SPECIES, b, i);
+      dot = va.fma(vb, dot);
+      normA = va.fma(va, normA);
+      normB = vb.fma(vb, normB);
+    }
+    float d = dot.reduceLanes(VectorOperators.ADD);
+    float na = normA.reduceLanes(VectorOperators.ADD);
+    float nb = normB.reduceLanes(VectorOperators.ADD);
+    for (; i < a.length; i++) {
+      d += a[i] * b[i];
+      na += a[i] * a[i];
+      nb += b[i] * b[i];
+    }
+    return ScalarVectorKernels.cosine(d, na, nb);
+  }
+
+  /** Scores four rows per pass so each query load feeds four FMAs. */
+  @Override
+  public void dotRows(float[] query, float[] matrix, int rows, float[] scores) {
+    int dimension = query.length;
+    int bound = SPECIES.loopBound(dimension);
+    int row = 0;
+    for (; row + 4 <= rows; row += 4) {
+      int r0 = row * dimension;
+      int r1 = r0 + dimension;
+      int r2 = r1 + dimension;
+      int r3 = r2 + dimension;
+      FloatVector s0 = FloatVector.zero(SPECIES);
+      FloatVector s1 = FloatVector.zero(SPECIES);
+      FloatVector s2 = FloatVector.zero(SPECIES);
+      FloatVector s3 = FloatVector.zero(SPECIES);
+      int i = 0;
+      for (; i < bound; i += SPECIES.length()) {
+        FloatVector q = FloatVector.fromArray(SPECIES, query, i);
+        s0 = q.fma(FloatVector.fromArray(SPECIES, matrix, r0 + i), s0);
+        s1 = q.fma(FloatVector.fromArray(SPECIES, matrix, r1 + i), s1);
+        s2 = q.fma(FloatVector.fromArray(SPECIES, matrix, r2 + i), s2);
+        s3 = q.fma(FloatVector.fromArray(SPECIES, matrix, r3 + i), s3);
+      }
+      float d0 = s0.reduceLanes(VectorOperators.ADD);
+      float d1 = s1.reduceLanes(VectorOperators.ADD);
+      float d2 = s2.reduceLanes(VectorOperators.ADD);
+      float d3 = s3.reduceLanes(VectorOperators.ADD);
+      for (; i < dimension; i++) {
+        float q = query[i];
+        d0 += q * matrix[r0 + i];
+        d1 += q * matrix[r1 + i];
+        d2 += q * matrix[r2 + i];
+        d3 += q * matrix[r3 + i];
+      }
+      scores[row] = d0;
+      scores[row + 1] = d1;
+      scores[row + 2] = d2;
+      scores[row + 3] = d3;
+    }
+    for (; row < rows; row++) {
+      scores[row] = dot(query, 0, matrix, row * dimension, dimension);
+    }
+  }
+}
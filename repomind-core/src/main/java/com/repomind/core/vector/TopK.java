@@ -0,0 +1,38 @@
+package com.repomind.core.vector;
+
+/**
+ * The {@code k} best-scoring rows, best first; ties keep the lower row first.
+ *
+ * @param rows row indexes into the scored matrix
+ * @param scores the matching similarity scores
+ */
+public record TopK(int[] rows, float[] scores) {
+  public int size() {
+    return rows.length;
+  }
+
+  /** Selects the {@code k} highest of {@code scores[0..count)} by insertion; k is small. */
+  public static TopK select(float[] scores, int count, int k) {
+    int size = Math.min(k, count);
+    int[] best = new int[size];
+    float[] bestScores = new float[size];
+    int filled = 0;
+    for (int row = 0; row < count; row++) {
+      float score = scores[row];
+      if (filled < size) {
+        filled++;
+      } else if (size == 0 || score <= bestScores[size - 1]) {
+        continue;
+      }
+      int at = filled - 1;
+      while (at > 0 && bestScores[at - 1] < score) {
+        bestScores[at] = bestScores[at - 1];
+        best[at] = best[at - 1];
+        at--;
+      }
+      bestScores[at] = score;
+      best[at] = row;
+    }
+    return new TopK(best, bestScores);
+  }
+}
@@ -0,0 +1,44 @@
+package com.repomind.core.vector;
+
+/**
+ * Similarity kernels over float vectors. {@link #best()} uses the Java Vector API when the JVM was
+ * started with {@code --add-modules jdk.incubator.vector} and falls back to plain loops otherwise
+ * (or when {@code -Drepomind.simd=false} is set).
+ */
+public interface VectorKernels {
+  /** {@code simd-<lanes>} or {@code scalar}. */
+  String name();
+
+  float dot(float[] a, int aOffset, float[] b, int bOffset, int length);
+
+  default float dot(float[] a, float[] b) {
+    checkLength(a, b);
+    return dot(a, 0, b, 0, a.length);
+  }
+
+  /** Cosine similarity; {@code 0} when either vector is all zeros. */
+  float cosine(float[] a, float[] b);
+
+  /** Writes {@code dot(query, row)} for each of the first {@code rows} rows of {@code matrix}. */
+  default void dotRows(float[] query, float[] matrix, int rows, float[] scores) {
+    int dimension = query.length;
+    for (int row = 0; row < rows; row++) {
+      scores[row] = dot(query, 0, matrix, row * dimension, dimension);
+    }
+  }
+
+  static VectorKernels best() {
+    return KernelSelection.BEST;
+  }
+
+  static VectorKernels scalar() {
+    return ScalarVectorKernels.INSTANCE;
+  }
+
+  private static void checkLength(float[] a, float[] b) {
+    if (a.length != b.length) {
+      throw new IllegalArgumentException(
+          "Vector lengths differ: " + a.length + " != " + b.length);
+    }
+  }
+}
@@ -8,6 +8,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
 
@@ -23,12 +24,39 @@ class RepoMindConfigLoaderTest {
             + "  modelPath: /models/code-bert\n"
             + "  local_http:\n"
             + "    url: http://localhost:8088\n"
+            + "    maxInFlight: 6\n"
+            + "    batching: Fixed\n"
+            + "    batchSize: 16\n"
+            + "    maxBatchChars: 20000\n"
+            + "  cache:\n"
+            + "    enabled: false\n"
+            + "    maxBytes: 1048576\n"
             + "db:\n"
             + "  host: db.local\n"
             + "  port: 5544\n"
             + "  name: repomind_test\n"
             + "  user: repomind_user\n"
-            + "  password: secret\n");
+            + "  password: secret\n"
+            + "  writeMode: ROWS\n"
+            + "  writeFlushRows: 250\n"
+            + "  hnswM: 24\n"
+            + "  hnswEfConstruction: 128\n"
+            + "  quantization: HalfVec\n"
+            + "store:\n"
+            + "  backend: Embedded\n"
+            + "  path: /var/lib/repomind\n"
+            + "  hnswM: 12\n"
+            + "search:\n"
+            + "  efSearch: 100\n"
+            + "  iterativeScan: RELAXED_ORDER\n"
+            + "  rerankFactor: 8\n"
+            + "  mode: Vector\n"
+            + "  lexicalWeight: 2\n"
+            + "  rrfK: 30\n"
+            + "context:\n"
+            + "  candidates: 80\n"
+            + "  maxTokens: 4000\n"
+            + "  mmrLambda: 0.5\n");
 
     RepoMindConfigLoader loader = new RepoMindConfigLoader();
     RepoMindConfig config = loader.load(configPath, Map.of());
@@ -38,11 +66,39 @@ class RepoMindConfigLoaderTest {
     assertEquals("sentence-transformers/code-bert-tiny-code-search", config.getEmbeddings().getModel());
     assertEquals("/models/code-bert", config.getEmbeddings().getModelPath());
     assertEquals("http://localhost:8088", config.getEmbeddings().getLocalHttp().getUrl());
+    assertEquals(6, config.getEmbeddings().getLocalHttp().getMaxInFlight());
+    assertEquals("fixed", config.getEmbeddings().getLocalHttp().getBatching());
+    assertEquals(16, config.getEmbeddings().getLocalHttp().getBatchSize());
+    assertEquals(20000, config.getEmbeddings().getLocalHttp().getMaxBatchChars());
+    assertEquals(5000, config.getEmbeddings().getLocalHttp().getTargetBatchMillis());
+    assertEquals(false, config.getEmbeddings().getCache().getEnabled());
+    assertEquals(1048576L, config.getEmbeddings().getCache().getMaxBytes());
     assertEquals("db.local", config.getDb().getHost());
     assertEquals(5544, config.getDb().getPort());
     assertEquals("repomind_test", config.getDb().getName());
     assertEquals("repomind_user", config.getDb().getUser());
     assertEquals("secret", config.getDb().getPassword());
+    assertEquals("rows", config.getDb().getWriteMode());
+    assertEquals(250, config.getDb().getWriteFlushRows());
+    assertEquals(24, config.getDb().getHnswM());
+    assertEquals(128, config.getDb().getHnswEfConstruction());
+    assertEquals("halfvec", config.getDb().getQuantization());
+    assertEquals("embedded", config.getStore().getBackend());
+    assertEquals(Path.of("/var/lib/repomind"), config.getStore().resolvePath());
+    assertEquals(12, config.getStore().getHnswM());
+    assertEquals(100, config.getStore().getHnswEfConstruction());
+    assertEquals(100, config.getSearch().getEfSearch());
+    assertEquals("relaxed_order", config.getSearch().getIterativeScan());
+    assertEquals(8, config.getSearch().getRerankFactor());
+    assertEquals(false, config.getSearch().isHybrid());
+    assertEquals(1.0, config.getSearch().getVectorWeight());
+    assertEquals(2.0, config.getSearch().getLexicalWeight());
+    assertEquals(30, config.getSearch().getRrfK());
+    assertEquals(80, config.getContext().getCandidates());
+    assertEquals(32768, config.getContext().getMaxBytes());
+    assertEquals(4000, config.getContext().getMaxTokens());
+    assertEquals(0.5, config.getContext().getMmrLambda());
+    assertEquals(3, config.getContext().getNearDuplicateBits());
   }
 
   @Test
@@ -62,16 +118,120 @@ class RepoMindConfigLoaderTest {
     Map<String, String> env = new HashMap<>();
     env.put("REPOMIND_EMBEDDINGS_MODEL", "sentence-transformers/custom-model");
     env.put("REPOMIND_EMBEDDINGS_LOCAL_HTTP_URL", "http://localhost:18088");
+    env.put("REPOMIND_EMBEDDINGS_LOCAL_HTTP_MAX_IN_FLIGHT", "2");
     env.put("REPOMIND_DB_HOST", "db.internal");
     env.put("REPOMIND_DB_PORT", "6543");
+    env.put("REPOMIND_DB_WRITE_MODE", "rows");
+    env.put("REPOMIND_DB_QUANTIZATION", "BINARY");
+    env.put("REPOMIND_SEARCH_MODE", "vector");
+    env.put("REPOMIND_STORE_BACKEND", "embedded");
+    env.put("REPOMIND_STORE_PATH", "/tmp/repomind-store");
 
     RepoMindConfigLoader loader = new RepoMindConfigLoader();
     RepoMindConfig config = loader.load(configPath, env);
 
     assertEquals("sentence-transformers/custom-model", config.getEmbeddings().getModel());
     assertEquals("http://localhost:18088", config.getEmbeddings().getLocalHttp().getUrl());
+    assertEquals(2, config.getEmbeddings().getLocalHttp().getMaxInFlight());
     assertEquals("db.internal", config.getDb().getHost());
     assertEquals(6543, config.getDb().getPort());
+    assertEquals("rows", config.getDb().getWriteMode());
+    assertEquals("binary", config.getDb().getQuantization());
+    assertEquals("vector", config.getSearch().getMode());
+    assertEquals(true, config.getStore().isEmbedded());
+    assertEquals("/tmp/repomind-store", config.getStore().getPath());
+  }
+
+  @Test
+  void readsEndpointListsFromYamlAndEnv() throws IOException {
+    Path dir = Files.createTempDirectory("repomind-config-endpoints");
+    Path configPath = dir.resolve("repomind.config.yaml");
+    Files.writeString(configPath,
+        "embeddings:\n"
+            + "  local_http:\n"
+            + "    urls:\n"
+            + "      - http://gpu-1:8088\n"
+            + "      - http://gpu-2:8088\n"
+            + "    maxRetries: 4\n"
+            + "    breakerFailures: 5\n");
+
+    RepoMindConfigLoader loader = new RepoMindConfigLoader();
+    LocalHttpConfig fromFile = loader.load(configPath, Map.of()).getEmbeddings().getLocalHttp();
+    LocalHttpConfig fromEnv = loader.load(configPath,
+        Map.of("REPOMIND_EMBEDDINGS_LOCAL_HTTP_URL", "http://a:1, http://b:2,http://c:3"))
+        .getEmbeddings().getLocalHttp();
+    LocalHttpConfig single = loader.load(configPath,
+        Map.of("REPOMIND_EMBEDDINGS_LOCAL_HTTP_URL", "http://a:1"))
+        .getEmbeddings().getLocalHttp();
+
+    assertEquals(List.of("http://gpu-1:8088", "http://gpu-2:8088"), fromFile.endpointUrls());
+    assertEquals(4, fromFile.getMaxRetries());
+    assertEquals(5, fromFile.getBreakerFailures());
+    assertEquals(200, fromFile.getRetryBackoffMillis());
+    assertEquals(List.of("http://a:1", "http://b:2", "http://c:3"), fromEnv.endpointUrls());
+    assertEquals(List.of("http://a:1"), single.endpointUrls());
+  }
+
+  @Test
+  void rejectsUnknownWriteMode() throws IOException {
+    Path dir = Files.createTempDirectory("repomind-config-write-mode");
+    Path configPath = dir.resolve("repomind.config.yaml");
+    Files.writeString(configPath, "db:\n  writeMode: merge\n");
+
+    RepoMindConfigLoader loader = new RepoMindConfigLoader();
+
+    RepoMindConfigException ex = assertThrows(RepoMindConfigException.class,
+        () -> loader.load(configPath, Map.of()));
+    assertEquals("Invalid db.writeMode: merge (expected copy or rows)", ex.getMessage());
+  }
+
+  @Test
+  void rejectsUnknownStoreBackend() throws IOException {
+    Path dir = Files.createTempDirectory("repomind-config-store");
+    Path configPath = dir.resolve("repomind.config.yaml");
+    Files.writeString(configPath, "store:\n  backend: sqlite\n");
+
+    RepoMindConfigLoader loader = new RepoMindConfigLoader();
+
+    RepoMindConfigException ex = assertThrows(RepoMindConfigException.class,
+        () -> loader.load(configPath, Map.of()));
+    assertEquals("Invalid store.backend: sqlite (expected postgres or embedded)", ex.getMessage());
+  }
+
+  @Test
+  void rejectsInvalidHnswSettings() throws IOException {
+    Path dir = Files.createTempDirectory("repomind-config-hnsw");
+    Path configPath = dir.resolve("repomind.config.yaml");
+    RepoMindConfigLoader loader = new RepoMindConfigLoader();
+
+    Files.writeString(configPath, "db:\n  hnswM: 48\n");
+    RepoMindConfigException ex = assertThrows(RepoMindConfigException.class,
+        () -> loader.load(configPath, Map.of()));
+    assertEquals("db.hnswEfConstruction must be at least twice db.hnswM.", ex.getMessage());
+
+    Files.writeString(configPath, "search:\n  efSearch: 0\n");
+    ex = assertThrows(RepoMindConfigException.class, () -> loader.load(configPath, Map.of()));
+    assertEquals("search.efSearch must be between 1 and 1000.", ex.getMessage());
+
+    Files.writeString(configPath, "search:\n  rerankFactor: 0\n");
+    ex = assertThrows(RepoMindConfigException.class, () -> loader.load(configPath, Map.of()));
+    assertEquals("search.rerankFactor must be between 1 and 100.", ex.getMessage());
+
+    Files.writeString(configPath, "db:\n  quantization: pq\n");
+    ex = assertThrows(RepoMindConfigException.class, () -> loader.load(configPath, Map.of()));
+    assertEquals("Invalid db.quantization: pq (expected none, halfvec or binary)", ex.getMessage());
+
+    Files.writeString(configPath, "search:\n  mode: keyword\n");
+    ex = assertThrows(RepoMindConfigException.class, () -> loader.load(configPath, Map.of()));
+    assertEquals("Invalid search.mode: keyword (expected vector or hybrid)", ex.getMessage());
+
+    Files.writeString(configPath, "search:\n  vectorWeight: 0\n  lexicalWeight: 0\n");
+    ex = assertThrows(RepoMindConfigException.class, () -> loader.load(configPath, Map.of()));
+    assertEquals("search.vectorWeight and search.lexicalWeight must not both be zero.", ex.getMessage());
+
+    Files.writeString(configPath, "context:\n  mmrLambda: 1.5\n");
+    ex = assertThrows(RepoMindConfigException.class, () -> loader.load(configPath, Map.of()));
+    assertEquals("context.mmrLambda must be between 0 and 1.", ex.getMessage());
   }
 
   @Test
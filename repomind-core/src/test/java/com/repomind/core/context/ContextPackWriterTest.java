@@ -0,0 +1,145 @@
+package com.repomind.core.context;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.repomind.core.model.SearchCandidate;
+import com.repomind.core.model.SearchResult;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ContextPackWriterTest {
+  private static final String OWNER_SAVE =
+      "public void save(Owner owner) {\n  validate(owner);\n  repository.save(owner);\n}\n";
+
+  @Test
+  void simHashKeepsSmallEditsCloseAndUnrelatedCodeFar() {
+    long original = SimHash.of(OWNER_SAVE);
+    long edited = SimHash.of(OWNER_SAVE.replace("validate(owner);", "validate(owner, true);"));
+    long unrelated = SimHash.of("for (Visit visit : pet.getVisits()) {\n  total += visit.cost();\n}\n");
+
+    assertEquals(0, SimHash.distance(original, SimHash.of(OWNER_SAVE.toUpperCase())));
+    assertTrue(SimHash.distance(original, edited) < SimHash.distance(original, unrelated),
+        SimHash.distance(original, edited) + " vs " + SimHash.distance(original, unrelated));
+    assertTrue(SimHash.distance(original, unrelated) > 10);
+  }
+
+  @Test
+  void mmrPrefersADiverseChunkOverARedundantOne() throws IOException {
+    List<SearchCandidate> candidates = List.of(
+        candidate("owner/OwnerService.java", "METHOD", 10, 20, "void save() { a(); }", 0.95f, 0.3f, 0),
+        candidate("owner/OwnerStore.java", "METHOD", 10, 20, "void persist() { b(); }", 0.93f, 0.35f, 0.05f),
+        candidate("vet/VetService.java", "METHOD", 10, 20, "void list() { c(); }", 0.85f, -0.5f, 0.1f));
+    StringWriter out = new StringWriter();
+
+    ContextPackSummary summary = new ContextPackWriter(options(32 * 1024, 0.5))
+        .write("petclinic", "save owner", new float[] {1, 0, 0}, candidates, out);
+
+    assertEquals(3, summary.selected());
+    String pack = out.toString();
+    assertTrue(pack.startsWith("# Context: save owner\n"), pack);
+    assertTrue(pack.indexOf("OwnerService.java") < pack.indexOf("VetService.java"), pack);
+    assertTrue(pack.indexOf("VetService.java") < pack.indexOf("OwnerStore.java"), pack);
+  }
+
+  @Test
+  void skipsDuplicatesOverlapsAndWhatNoLongerFits() throws IOException {
+    String big = "int[] table = {" + "1, ".repeat(400) + "};\n";
+    List<SearchCandidate> candidates = List.of(
+        candidate("Owner.java", "METHOD", 10, 14, OWNER_SAVE, 1, 0, 0),
+        candidate("OwnerCopy.java", "METHOD", 30, 34, OWNER_SAVE + "\n", 0.9f, 0.3f, 0),
+        candidate("Owner.java", "FIELD", 12, 12, "private Owner owner;", 0.9f, 0, 0.3f),
+        candidate("Owner.java", "CLASS", 1, 40, "public class Owner { ... }", 0.8f, 0.3f, 0.3f),
+        candidate("Table.java", "FIELD", 1, 1, big, 0.7f, 0, 0.7f),
+        candidate("Vet.java", "METHOD", 1, 3, "List<Vet> vets() {\n  return all;\n}\n", 0.1f, 0.2f, 0.9f));
+    StringWriter out = new StringWriter();
+
+    ContextPackSummary summary = new ContextPackWriter(options(1024, 0.7))
+        .write("petclinic", "owner", new float[] {1, 0, 0}, candidates, out);
+
+    assertEquals(3, summary.selected());
+    assertEquals(1, summary.nearDuplicates());
+    assertEquals(1, summary.overlapping());
+    assertEquals(1, summary.overBudget());
+    String pack = out.toString();
+    assertTrue(pack.contains("`Owner.java:1-40`"), pack);
+    assertTrue(pack.contains("`Vet.java:1-3`"), pack);
+    assertTrue(!pack.contains("OwnerCopy.java") && !pack.contains("Table.java"), pack);
+    assertTrue(pack.endsWith(
+        "---\n_3 chunks; skipped 1 near-duplicate, 1 overlapping, 1 over budget._\n"), pack);
+    assertEquals(summary.bytes(), pack.getBytes(StandardCharsets.UTF_8).length);
+    assertTrue(summary.bytes() <= 1024);
+  }
+
+  @Test
+  void cutsALongQueryToKeepTheWholePackInBudget() throws IOException {
+    List<SearchCandidate> candidates = List.of(
+        candidate("Owner.java", "METHOD", 10, 14, OWNER_SAVE, 1, 0, 0));
+    StringWriter out = new StringWriter();
+
+    ContextPackSummary summary = new ContextPackWriter(options(256, 0.7)).write(
+        "petclinic", "owner ".repeat(100), new float[] {1, 0, 0}, candidates, out);
+
+    String pack = out.toString();
+    assertTrue(pack.startsWith("# Context: owner owner"), pack);
+    assertTrue(pack.contains("...\n\nrepo: `petclinic`"), pack);
+    assertEquals(summary.bytes(), pack.getBytes(StandardCharsets.UTF_8).length);
+    assertTrue(summary.bytes() <= 256, pack);
+  }
+
+  @Test
+  void loadsCodeInBatchesAndWritesTheSamePack() throws IOException {
+    List<SearchCandidate> eager = new ArrayList<>();
+    List<SearchCandidate> lazy = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      SearchCandidate candidate = candidate("F" + i + ".java", "METHOD", 1, 5,
+          "int f" + i + "() {\n  return " + i * 7919 + ";\n}\n", 1 - i * 0.05f, i * 0.1f, 0);
+      eager.add(candidate);
+      lazy.add(new SearchCandidate(candidate.result().withCode(null), candidate.embedding()));
+    }
+    List<Integer> batches = new ArrayList<>();
+    ContextPackWriter.CodeLoader loader = results -> {
+      batches.add(results.size());
+      List<SearchResult> loaded = new ArrayList<>();
+      for (SearchResult result : results) {
+        loaded.add(eager.stream().map(SearchCandidate::result)
+            .filter(r -> r.chunkId().equals(result.chunkId())).findFirst().orElseThrow());
+      }
+      return loaded;
+    };
+    ContextPackWriter writer = new ContextPackWriter(options(32 * 1024, 0.7));
+    StringWriter expected = new StringWriter();
+    StringWriter actual = new StringWriter();
+
+    writer.write("petclinic", "f", new float[] {1, 0, 0}, eager, expected);
+    ContextPackSummary summary =
+        writer.write("petclinic", "f", new float[] {1, 0, 0}, lazy, loader, actual);
+
+    assertEquals(10, summary.selected());
+    assertEquals(expected.toString(), actual.toString());
+    assertEquals(List.of(ContextPackWriter.CODE_BATCH, 10 - ContextPackWriter.CODE_BATCH), batches);
+  }
+
+  @Test
+  void tokenBudgetTightensTheByteBudget() {
+    assertEquals(2000, new ContextPackOptions(32 * 1024, 500, 0.7, 3).byteBudget());
+    assertEquals(1024, new ContextPackOptions(1024, 0, 0.7, 3).byteBudget());
+    assertEquals(250, ContextPackOptions.estimateTokens(1000));
+  }
+
+  private static ContextPackOptions options(int maxBytes, double lambda) {
+    return new ContextPackOptions(maxBytes, 0, lambda, 3);
+  }
+
+  private static SearchCandidate candidate(
+      String path, String kind, int start, int end, String code, float... embedding) {
+    String symbol = path.substring(0, path.indexOf('.')) + "#" + kind.toLowerCase() + start;
+    return new SearchCandidate(
+        new SearchResult("petclinic:" + path + ":" + symbol, path, symbol, kind, start, end, code, 0),
+        embedding);
+  }
+}
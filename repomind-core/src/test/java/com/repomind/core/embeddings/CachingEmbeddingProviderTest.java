@@ -0,0 +1,60 @@
+package com.repomind.core.embeddings;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CachingEmbeddingProviderTest {
+  @Test
+  void sendsOnlyMissesToDelegateInOrder() throws Exception {
+    Path file = Files.createTempDirectory("repomind-caching").resolve("embeddings.cache");
+    RecordingProvider delegate = new RecordingProvider();
+
+    try (CachingEmbeddingProvider provider = new CachingEmbeddingProvider(
+        delegate, "model", MappedEmbeddingCache.open(file, 1024 * 1024))) {
+      provider.embedFloats(List.of("a", "bb"));
+      List<float[]> results = provider.embedFloats(List.of("ccc", "a", "dddd", "ccc", "bb"));
+
+      assertEquals(List.of(List.of("a", "bb"), List.of("ccc", "dddd")), delegate.calls);
+      assertEquals(5, results.size());
+      assertEquals(3.0f, results.get(0)[0]);
+      assertEquals(1.0f, results.get(1)[0]);
+      assertEquals(4.0f, results.get(2)[0]);
+      assertEquals(3.0f, results.get(3)[0]);
+      assertEquals(2.0f, results.get(4)[0]);
+      assertEquals(2, provider.stats().hits());
+      assertEquals(4, provider.stats().misses());
+    }
+  }
+
+  @Test
+  void cacheIsKeyedByModel() throws Exception {
+    Path file = Files.createTempDirectory("repomind-caching-model").resolve("embeddings.cache");
+    RecordingProvider delegate = new RecordingProvider();
+
+    try (MappedEmbeddingCache cache = MappedEmbeddingCache.open(file, 1024 * 1024)) {
+      new CachingEmbeddingProvider(delegate, "model-a", cache).embedFloats(List.of("x"));
+      new CachingEmbeddingProvider(delegate, "model-b", cache).embedFloats(List.of("x"));
+    }
+
+    assertEquals(2, delegate.calls.size());
+  }
+
+  private static final class RecordingProvider implements EmbeddingProvider {
+    private final List<List<String>> calls = new ArrayList<>();
+
+    @Override
+    public List<float[]> embedFloats(List<String> inputs) {
+      calls.add(List.copyOf(inputs));
+      List<float[]> results = new ArrayList<>();
+      for (String input : inputs) {
+        results.add(new float[] {input.length()});
+      }
+      return results;
+    }
+  }
+}
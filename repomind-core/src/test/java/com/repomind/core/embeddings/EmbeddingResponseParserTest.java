@@ -0,0 +1,42 @@
+package com.repomind.core.embeddings;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class EmbeddingResponseParserTest {
+  private final EmbeddingResponseParser parser = new EmbeddingResponseParser(new JsonFactory());
+
+  @Test
+  void parsesRowsIntoFloatArrays() throws Exception {
+    byte[] body = "{\"model\":{\"name\":\"x\"},\"embeddings\":[[0.5,-1.25,3],[1e-3,null,2.0]]}"
+        .getBytes(StandardCharsets.UTF_8);
+
+    List<float[]> rows = parser.parse(body, 2);
+
+    assertEquals(2, rows.size());
+    assertArrayEquals(new float[] {0.5f, -1.25f, 3.0f}, rows.get(0));
+    assertArrayEquals(new float[] {0.001f, 0.0f, 2.0f}, rows.get(1));
+  }
+
+  @Test
+  void parsesEmptyEmbeddings() throws Exception {
+    List<float[]> rows = parser.parse("{\"embeddings\":[]}".getBytes(StandardCharsets.UTF_8), 0);
+
+    assertEquals(0, rows.size());
+  }
+
+  @Test
+  void missingEmbeddingsThrows() {
+    byte[] body = "{\"embeddings\":null}".getBytes(StandardCharsets.UTF_8);
+
+    EmbeddingProviderException ex = assertThrows(EmbeddingProviderException.class,
+        () -> parser.parse(body, 1));
+    assertEquals("Embedding server response missing embeddings.", ex.getMessage());
+  }
+}
@@ -0,0 +1,96 @@
+package com.repomind.core.embeddings;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class EndpointPoolTest {
+  private static final RetryPolicy POLICY =
+      new RetryPolicy(2, Duration.ofMillis(1), 2, Duration.ofSeconds(10));
+
+  @Test
+  void prefersTheLeastLoadedUntriedEndpoint() {
+    EndpointPool pool = pool(new HealthTransport(), new AtomicLong(), 3);
+    EndpointPool.Endpoint first = pool.acquire(Set.of());
+    EndpointPool.Endpoint second = pool.acquire(Set.of());
+    EndpointPool.Endpoint third = pool.acquire(Set.of());
+
+    assertEquals(3, Set.of(first, second, third).size(), "each busy endpoint gets one");
+    pool.succeeded(second);
+    assertSame(second, pool.acquire(Set.of()));
+    assertSame(second, pool.acquire(Set.of(first, third)), "untried endpoint wins over load");
+  }
+
+  @Test
+  void breakerOpensThenAdmitsOneHealthCheckedTrial() {
+    HealthTransport transport = new HealthTransport();
+    AtomicLong clock = new AtomicLong();
+    EndpointPool pool = pool(transport, clock, 1);
+
+    pool.failed(pool.acquire(Set.of()), "boom");
+    EndpointPool.Endpoint endpoint = pool.acquire(Set.of());
+    assertNotNull(endpoint, "one failure stays below the threshold");
+    pool.failed(endpoint, "boom");
+    assertNull(pool.acquire(Set.of()));
+
+    clock.addAndGet(Duration.ofSeconds(11).toNanos());
+    transport.status = 503;
+    assertNull(pool.acquire(Set.of()), "unhealthy endpoint stays open");
+    assertEquals(1, transport.healthChecks.get());
+
+    clock.addAndGet(Duration.ofSeconds(11).toNanos());
+    transport.status = 200;
+    EndpointPool.Endpoint trial = pool.acquire(Set.of());
+    assertSame(endpoint, trial);
+    assertNull(pool.acquire(Set.of()), "only one trial at a time");
+    pool.succeeded(trial);
+    assertSame(endpoint, pool.acquire(Set.of()));
+  }
+
+  @Test
+  void failedTrialReopensImmediately() {
+    AtomicLong clock = new AtomicLong();
+    EndpointPool pool = pool(new HealthTransport(), clock, 1);
+    pool.failed(pool.acquire(Set.of()), "boom");
+    pool.failed(pool.acquire(Set.of()), "boom");
+    clock.addAndGet(Duration.ofSeconds(11).toNanos());
+
+    pool.failed(pool.acquire(Set.of()), "still broken");
+
+    assertNull(pool.acquire(Set.of()));
+  }
+
+  private static EndpointPool pool(HealthTransport transport, AtomicLong clock, int endpoints) {
+    List<URI> urls = new ArrayList<>();
+    for (int i = 0; i < endpoints; i++) {
+      urls.add(URI.create("http://localhost:" + (8001 + i)));
+    }
+    return new EndpointPool(transport, urls, POLICY, clock::get);
+  }
+
+  private static final class HealthTransport implements HttpTransport {
+    private final AtomicInteger healthChecks = new AtomicInteger();
+    private volatile int status = 200;
+
+    @Override
+    public HttpResult post(URI uri, byte[] body, Duration timeout) {
+      throw new AssertionError("unexpected post");
+    }
+
+    @Override
+    public HttpResult get(URI uri, Duration timeout) {
+      healthChecks.incrementAndGet();
+      return new HttpResult(status, new byte[0]);
+    }
+  }
+}
@@ -1,16 +1,25 @@
 package com.repomind.core.embeddings;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 
@@ -32,6 +41,21 @@ class LocalHttpEmbeddingProviderTest {
     assertEquals(5.0, results.get(2)[0]);
   }
 
+  @Test
+  void embedFloatsReturnsFloatVectors() {
+    ObjectMapper mapper = new ObjectMapper();
+    RecordingTransport transport = new RecordingTransport(mapper);
+    URI baseUrl = URI.create("http://localhost:8088");
+    LocalHttpEmbeddingProvider provider = new LocalHttpEmbeddingProvider(
+        transport, baseUrl, mapper, 8, Duration.ofSeconds(5));
+
+    List<float[]> results = provider.embedFloats(List.of("a", "abcd"));
+
+    assertEquals(2, results.size());
+    assertEquals(1.0f, results.get(0)[0]);
+    assertEquals(4.0f, results.get(1)[0]);
+  }
+
   @Test
   void embedReturnsEmptyWhenNoInputs() {
     ObjectMapper mapper = new ObjectMapper();
@@ -45,20 +69,292 @@ class LocalHttpEmbeddingProviderTest {
     assertTrue(results.isEmpty());
   }
 
-  private static final class RecordingTransport implements HttpTransport {
+  @Test
+  void embedPipelinesBatchesAndKeepsInputOrder() {
+    ObjectMapper mapper = new ObjectMapper();
+    RecordingTransport transport = new RecordingTransport(mapper);
+    transport.delayMillis = 20;
+    URI baseUrl = URI.create("http://localhost:8088");
+    LocalHttpEmbeddingProvider provider = new LocalHttpEmbeddingProvider(
+        transport, baseUrl, mapper, 1, 3, Duration.ofSeconds(5));
+
+    List<String> inputs = new ArrayList<>();
+    for (int i = 0; i < 12; i++) {
+      inputs.add("x".repeat(i + 1));
+    }
+    List<double[]> results = provider.embed(inputs);
+
+    assertEquals(12, transport.calls.get());
+    assertEquals(12, results.size());
+    for (int i = 0; i < 12; i++) {
+      assertEquals(i + 1.0, results.get(i)[0]);
+    }
+    assertTrue(transport.maxConcurrent.get() > 1);
+    assertTrue(transport.maxConcurrent.get() <= 3);
+  }
+
+  @Test
+  void embedFailsWholeCallWhenOneBatchFails() {
+    ObjectMapper mapper = new ObjectMapper();
+    RecordingTransport transport = new RecordingTransport(mapper);
+    transport.failOn = "boom";
+    URI baseUrl = URI.create("http://localhost:8088");
+    LocalHttpEmbeddingProvider provider = new LocalHttpEmbeddingProvider(
+        transport, baseUrl, mapper, 1, 4, Duration.ofSeconds(5));
+
+    EmbeddingProviderException ex = assertThrows(EmbeddingProviderException.class,
+        () -> provider.embed(List.of("one", "two", "boom", "four", "five")));
+    assertEquals("Embedding server error: HTTP 500 - boom", ex.getMessage());
+  }
+
+  @Test
+  void embedUsesBinaryResponsesWhenServerAdvertisesThem() {
+    ObjectMapper mapper = new ObjectMapper();
+    RecordingTransport transport = new RecordingTransport(mapper);
+    transport.healthBody = "{\"status\":\"ok\",\"formats\":[\"json\",\"f32\"]}";
+    URI baseUrl = URI.create("http://localhost:8088");
+    LocalHttpEmbeddingProvider provider = new LocalHttpEmbeddingProvider(
+        transport, baseUrl, mapper, 2, Duration.ofSeconds(5));
+
+    List<float[]> results = provider.embedFloats(List.of("one", "three", "seven"));
+
+    assertEquals(2, transport.binaryCalls.get());
+    assertEquals(3, results.size());
+    assertEquals(3.0f, results.get(0)[0]);
+    assertEquals(5.0f, results.get(1)[0]);
+    assertEquals(-5.0f, results.get(2)[1]);
+  }
+
+  @Test
+  void embedFallsBackToJsonForServersWithoutBinarySupport() {
+    ObjectMapper mapper = new ObjectMapper();
+    RecordingTransport transport = new RecordingTransport(mapper);
+    transport.healthBody = "{\"status\":\"ok\"}";
+    URI baseUrl = URI.create("http://localhost:8088");
+    LocalHttpEmbeddingProvider provider = new LocalHttpEmbeddingProvider(
+        transport, baseUrl, mapper, 2, Duration.ofSeconds(5));
+
+    List<float[]> results = provider.embedFloats(List.of("one", "three", "seven"));
+
+    assertEquals(0, transport.binaryCalls.get());
+    assertEquals(2, transport.calls.get());
+    assertEquals(5.0f, results.get(2)[0]);
+  }
+
+  @Test
+  void embedProbesAgainUntilTheServerAnswersHealth() {
+    ObjectMapper mapper = new ObjectMapper();
+    RecordingTransport transport = new RecordingTransport(mapper);
+    transport.healthStatus = 503;
+    transport.healthBody = "{\"status\":\"ok\",\"formats\":[\"json\",\"f32\"]}";
+    LocalHttpEmbeddingProvider provider = new LocalHttpEmbeddingProvider(
+        transport, URI.create("http://localhost:8088"), mapper, 1, 1, Duration.ofSeconds(5));
+
+    assertEquals(3.0f, provider.embedFloats(List.of("one")).get(0)[0]);
+    assertEquals(0, transport.binaryCalls.get());
+
+    transport.healthStatus = 200;
+    provider.embedFloats(List.of("one"));
+    transport.healthStatus = 503;
+    provider.embedFloats(List.of("one"));
+
+    assertEquals(2, transport.binaryCalls.get());
+    assertEquals(2, transport.healthChecks.get());
+  }
+
+  @Test
+  void adaptiveBatchingGroupsSimilarLengthsAndKeepsInputOrder() {
+    ObjectMapper mapper = new ObjectMapper();
+    RecordingTransport transport = new RecordingTransport(mapper);
+    URI baseUrl = URI.create("http://localhost:8088");
+    LocalHttpEmbeddingProvider provider = new LocalHttpEmbeddingProvider(
+        transport, baseUrl, mapper, 8, 2, EmbeddingWireFormat.JSON, Duration.ofSeconds(5),
+        new AdaptiveBatcher(8, 2048, 60_000));
+
+    List<String> inputs = List.of(
+        "x".repeat(1500), "a", "bb", "y".repeat(900), "ccc", "z".repeat(1000), "dddd");
+    List<float[]> results = provider.embedFloats(inputs);
+
+    for (int i = 0; i < inputs.size(); i++) {
+      assertEquals(inputs.get(i).length(), results.get(i)[0], "input " + i);
+    }
+    // Short inputs share a batch; the long ones cannot pair up within 2048 padded chars.
+    assertEquals(List.of(List.of(1, 2, 3, 4), List.of(900, 1000), List.of(1500)),
+        transport.batchLengths);
+  }
+
+  @Test
+  void adaptiveBudgetFollowsObservedLatency() {
+    AdaptiveBatcher batcher = new AdaptiveBatcher(64, 100_000, 1000);
+
+    batcher.observe(100_000, 4_000_000_000L);
+    assertEquals(62_500, batcher.budget());
+    batcher.observe(100, 50_000_000_000L);
+    assertEquals(31_251, batcher.budget());
+    batcher.observe(2_000, 1_000_000L);
+    assertEquals(31_251, batcher.budget(), "small fast batches say nothing about throughput");
+    batcher.observe(31_000, 100_000_000L);
+    assertEquals(100_000, batcher.budget());
+    for (int i = 0; i < 20; i++) {
+      batcher.observe(1_000, 60_000_000_000L);
+    }
+    assertEquals(AdaptiveBatcher.MIN_PADDED_CHARS, batcher.budget());
+  }
+
+  @Test
+  void failedBatchesMoveToAnotherEndpointUntilTheBreakerOpens() {
+    ObjectMapper mapper = new ObjectMapper();
+    RecordingTransport transport = new RecordingTransport(mapper);
+    transport.failingPorts = Set.of(8001);
+    LocalHttpEmbeddingProvider provider = new LocalHttpEmbeddingProvider(
+        transport, List.of(URI.create("http://localhost:8001"), URI.create("http://localhost:8002")),
+        mapper, 1, 1, EmbeddingWireFormat.JSON, Duration.ofSeconds(5), null,
+        new RetryPolicy(2, Duration.ofMillis(1), 2, Duration.ofMinutes(1)));
+
+    List<String> inputs = List.of("a", "bb", "ccc", "dddd", "eeeee", "ffffff");
+    List<float[]> results = provider.embedFloats(inputs);
+
+    for (int i = 0; i < inputs.size(); i++) {
+      assertEquals(i + 1.0f, results.get(i)[0]);
+    }
+    assertEquals(2, transport.callsByPort.get(8001).get(), "breaker opens after two failures");
+    assertEquals(6, transport.callsByPort.get(8002).get());
+  }
+
+  @Test
+  void leastOutstandingRoutingUsesEveryEndpoint() {
+    ObjectMapper mapper = new ObjectMapper();
+    RecordingTransport transport = new RecordingTransport(mapper);
+    transport.delayMillis = 20;
+    LocalHttpEmbeddingProvider provider = new LocalHttpEmbeddingProvider(
+        transport, List.of(URI.create("http://localhost:8001"), URI.create("http://localhost:8002")),
+        mapper, 1, 2, EmbeddingWireFormat.JSON, Duration.ofSeconds(5), null, RetryPolicy.DEFAULT);
+
+    List<float[]> results = provider.embedFloats(List.of("a", "b", "c", "d", "e", "f", "g", "h"));
+
+    assertEquals(8, results.size());
+    assertTrue(transport.callsByPort.get(8001).get() >= 3, transport.callsByPort.toString());
+    assertTrue(transport.callsByPort.get(8002).get() >= 3, transport.callsByPort.toString());
+    assertTrue(transport.maxConcurrent.get() <= 4);
+  }
+
+  @Test
+  void interruptedTrialBatchLetsTheEndpointBeAdmittedAgain() throws Exception {
+    ObjectMapper mapper = new ObjectMapper();
+    AtomicInteger mode = new AtomicInteger();
+    CountDownLatch posted = new CountDownLatch(1);
+    CountDownLatch returned = new CountDownLatch(1);
+    HttpTransport transport = new RecordingTransport(mapper) {
+      @Override
+      public HttpResult post(URI uri, byte[] body, Duration timeout)
+          throws IOException, InterruptedException {
+        switch (mode.get()) {
+          case 0:
+            return new HttpResult(503, "restarting".getBytes(StandardCharsets.UTF_8));
+          case 1:
+            try {
+              posted.countDown();
+              Thread.sleep(Duration.ofMinutes(1));
+              throw new AssertionError("not interrupted");
+            } finally {
+              returned.countDown();
+            }
+          default:
+            return super.post(uri, body, timeout);
+        }
+      }
+    };
+    LocalHttpEmbeddingProvider provider = new LocalHttpEmbeddingProvider(
+        transport, List.of(URI.create("http://localhost:8001")), mapper, 8, 1,
+        EmbeddingWireFormat.JSON, Duration.ofSeconds(5), null,
+        new RetryPolicy(0, Duration.ofMillis(1), 1, Duration.ofMillis(20)));
+
+    assertThrows(EmbeddingProviderException.class, () -> provider.embedFloats(List.of("x")));
+    Thread.sleep(40);
+    mode.set(1);
+    Thread trial = new Thread(() -> {
+      try {
+        provider.embedFloats(List.of("x"));
+      } catch (EmbeddingProviderException expected) {
+        // interrupted
+      }
+    });
+    trial.start();
+    posted.await();
+    trial.interrupt();
+    assertTrue(returned.await(5, TimeUnit.SECONDS));
+    trial.join();
+
+    mode.set(2);
+    assertEquals(1.0f, provider.embedFloats(List.of("x")).get(0)[0]);
+  }
+
+  @Test
+  void clientErrorsAreNotRetried() {
+    ObjectMapper mapper = new ObjectMapper();
+    HttpTransport transport = new RecordingTransport(mapper) {
+      @Override
+      public HttpResult post(URI uri, byte[] body, Duration timeout) {
+        super.calls.incrementAndGet();
+        return new HttpResult(400, "bad input".getBytes(StandardCharsets.UTF_8));
+      }
+    };
+    LocalHttpEmbeddingProvider provider = new LocalHttpEmbeddingProvider(
+        transport, List.of(URI.create("http://localhost:8001"), URI.create("http://localhost:8002")),
+        mapper, 8, 1, EmbeddingWireFormat.JSON, Duration.ofSeconds(5), null, RetryPolicy.DEFAULT);
+
+    EmbeddingProviderException ex = assertThrows(EmbeddingProviderException.class,
+        () -> provider.embedFloats(List.of("x")));
+    assertEquals("Embedding server error: HTTP 400 - bad input", ex.getMessage());
+    assertEquals(1, ((RecordingTransport) transport).calls.get());
+  }
+
+  private static class RecordingTransport implements HttpTransport {
     private final ObjectMapper mapper;
     private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+    private volatile long delayMillis;
+    private volatile String failOn;
+    private volatile String healthBody = "";
+    private volatile int healthStatus = 200;
+    private final AtomicInteger healthChecks = new AtomicInteger();
+    private final AtomicInteger binaryCalls = new AtomicInteger();
+    private final List<List<Integer>> batchLengths = new CopyOnWriteArrayList<>();
+    private final Map<Integer, AtomicInteger> callsByPort = new ConcurrentHashMap<>();
+    private volatile Set<Integer> failingPorts = Set.of();
 
-    private RecordingTransport(ObjectMapper mapper) {
+    RecordingTransport(ObjectMapper mapper) {
       this.mapper = mapper;
     }
 
     @Override
-    public HttpResult post(URI uri, byte[] body, Duration timeout) throws IOException {
+    public HttpResult post(URI uri, byte[] body, Duration timeout)
+        throws IOException, InterruptedException {
       calls.incrementAndGet();
+      callsByPort.computeIfAbsent(uri.getPort(), port -> new AtomicInteger()).incrementAndGet();
+      maxConcurrent.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      try {
+        if (delayMillis > 0) {
+          Thread.sleep(delayMillis);
+        }
+        if (failingPorts.contains(uri.getPort())) {
+          return new HttpResult(503, "restarting".getBytes(StandardCharsets.UTF_8));
+        }
+        return respond(body);
+      } finally {
+        inFlight.decrementAndGet();
+      }
+    }
+
+    private HttpResult respond(byte[] body) throws IOException {
       Map<String, Object> payload = mapper.readValue(body, new TypeReference<Map<String, Object>>() {});
       @SuppressWarnings("unchecked")
       List<String> inputs = (List<String>) payload.get("inputs");
+      batchLengths.add(inputs.stream().map(String::length).toList());
+      if (failOn != null && inputs.contains(failOn)) {
+        return new HttpResult(500, failOn.getBytes(StandardCharsets.UTF_8));
+      }
       List<List<Double>> embeddings = new ArrayList<>();
       for (String input : inputs) {
         embeddings.add(List.of((double) input.length()));
@@ -67,9 +363,29 @@ class LocalHttpEmbeddingProviderTest {
       return new HttpResult(200, response);
     }
 
+    @Override
+    public HttpResult post(URI uri, byte[] body, String accept, Duration timeout)
+        throws IOException {
+      if (!EmbeddingWireFormat.F32_MEDIA_TYPE.equals(accept)) {
+        throw new AssertionError("Unexpected Accept header: " + accept);
+      }
+      binaryCalls.incrementAndGet();
+      Map<String, Object> payload = mapper.readValue(body, new TypeReference<Map<String, Object>>() {});
+      @SuppressWarnings("unchecked")
+      List<String> inputs = (List<String>) payload.get("inputs");
+      ByteBuffer buffer = ByteBuffer.allocate(8 + inputs.size() * 2 * Float.BYTES)
+          .order(ByteOrder.LITTLE_ENDIAN);
+      buffer.putInt(inputs.size()).putInt(2);
+      for (String input : inputs) {
+        buffer.putFloat(input.length()).putFloat(-input.length());
+      }
+      return new HttpResult(200, buffer.array(), EmbeddingWireFormat.F32_MEDIA_TYPE);
+    }
+
     @Override
     public HttpResult get(URI uri, Duration timeout) {
-      return new HttpResult(200, new byte[0]);
+      healthChecks.incrementAndGet();
+      return new HttpResult(healthStatus, healthBody.getBytes(StandardCharsets.UTF_8));
     }
   }
 }
@@ -1,10 +1,13 @@
 package com.repomind.core.embeddings;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Optional;
 import org.junit.jupiter.api.Test;
 
 class LocalHttpEmbeddingServerClientTest {
@@ -26,11 +29,50 @@ class LocalHttpEmbeddingServerClientTest {
     assertFalse(client.isHealthy());
   }
 
+  @Test
+  void binarySupportIsReadFromHealthFormats() {
+    URI baseUrl = URI.create("http://localhost:8088");
+    LocalHttpEmbeddingServerClient client = new LocalHttpEmbeddingServerClient(
+        new StubTransport(200, "{\"status\":\"ok\",\"formats\":[\"json\",\"f32\"]}"),
+        baseUrl, Duration.ofSeconds(2));
+
+    assertTrue(client.supportsBinaryEmbeddings());
+  }
+
+  @Test
+  void binarySupportIsFalseForOlderServers() {
+    URI baseUrl = URI.create("http://localhost:8088");
+    LocalHttpEmbeddingServerClient client = new LocalHttpEmbeddingServerClient(
+        new StubTransport(200, "{\"status\":\"ok\",\"model\":\"m\"}"),
+        baseUrl, Duration.ofSeconds(2));
+
+    assertFalse(client.supportsBinaryEmbeddings());
+  }
+
+  @Test
+  void binarySupportIsUnknownUntilHealthAnswers() {
+    URI baseUrl = URI.create("http://localhost:8088");
+    LocalHttpEmbeddingServerClient starting = new LocalHttpEmbeddingServerClient(
+        new StubTransport(503, "{\"formats\":[\"f32\"]}"), baseUrl, Duration.ofSeconds(2));
+    LocalHttpEmbeddingServerClient plain = new LocalHttpEmbeddingServerClient(
+        new StubTransport(200, "ok"), baseUrl, Duration.ofSeconds(2));
+
+    assertEquals(Optional.empty(), starting.probeBinaryEmbeddings());
+    assertFalse(starting.supportsBinaryEmbeddings());
+    assertEquals(Optional.of(false), plain.probeBinaryEmbeddings());
+  }
+
   private static final class StubTransport implements HttpTransport {
     private final int status;
+    private final byte[] healthBody;
 
     private StubTransport(int status) {
+      this(status, "");
+    }
+
+    private StubTransport(int status, String healthBody) {
       this.status = status;
+      this.healthBody = healthBody.getBytes(StandardCharsets.UTF_8);
     }
 
     @Override
@@ -40,7 +82,7 @@ class LocalHttpEmbeddingServerClientTest {
 
     @Override
     public HttpResult get(URI uri, Duration timeout) {
-      return new HttpResult(status, new byte[0]);
+      return new HttpResult(status, healthBody);
     }
   }
 }
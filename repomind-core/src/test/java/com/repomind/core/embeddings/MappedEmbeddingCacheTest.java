@@ -0,0 +1,106 @@
+package com.repomind.core.embeddings;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.junit.jupiter.api.Test;
+
+class MappedEmbeddingCacheTest {
+  @Test
+  void persistsVectorsAcrossReopen() throws Exception {
+    Path file = Files.createTempDirectory("repomind-cache").resolve("embeddings.cache");
+    EmbeddingCacheKey key = EmbeddingCacheKey.of("model", "class Owner {}");
+
+    try (MappedEmbeddingCache cache = MappedEmbeddingCache.open(file, 1024 * 1024)) {
+      assertNull(cache.get(key));
+      cache.put(key, new float[] {0.25f, -0.5f, 1.0f});
+    }
+
+    try (MappedEmbeddingCache cache = MappedEmbeddingCache.open(file, 1024 * 1024)) {
+      assertArrayEquals(new float[] {0.25f, -0.5f, 1.0f}, cache.get(key));
+      assertNull(cache.get(EmbeddingCacheKey.of("other-model", "class Owner {}")));
+      EmbeddingCacheStats stats = cache.stats();
+      assertEquals(1, stats.hits());
+      assertEquals(1, stats.misses());
+      assertEquals(1, stats.entries());
+    }
+  }
+
+  @Test
+  void evictsLeastRecentlyUsedEntriesWhenFull() throws Exception {
+    Path file = Files.createTempDirectory("repomind-cache-evict").resolve("embeddings.cache");
+    // Each record is 36 + 4 * 4 = 52 bytes; the header is 16 bytes.
+    long maxBytes = 16 + 52 * 4;
+    try (MappedEmbeddingCache cache = MappedEmbeddingCache.open(file, maxBytes)) {
+      for (int i = 0; i < 4; i++) {
+        cache.put(EmbeddingCacheKey.of("m", "text-" + i), new float[] {i, i, i, i});
+      }
+      assertNotNull(cache.get(EmbeddingCacheKey.of("m", "text-0")));
+
+      cache.put(EmbeddingCacheKey.of("m", "text-4"), new float[] {4, 4, 4, 4});
+
+      EmbeddingCacheStats stats = cache.stats();
+      assertTrue(stats.evictions() > 0);
+      assertTrue(stats.bytes() <= maxBytes);
+      assertNotNull(cache.get(EmbeddingCacheKey.of("m", "text-0")));
+      assertNotNull(cache.get(EmbeddingCacheKey.of("m", "text-4")));
+      assertNull(cache.get(EmbeddingCacheKey.of("m", "text-1")));
+    }
+  }
+
+  @Test
+  void refusesASecondOpenOfTheSameFileUntilClosed() throws Exception {
+    Path file = Files.createTempDirectory("repomind-cache-lock").resolve("embeddings.cache");
+    try (MappedEmbeddingCache cache = MappedEmbeddingCache.open(file, 1024 * 1024)) {
+      assertTrue(MappedEmbeddingCache.openIfUnlocked(file, 1024 * 1024).isEmpty());
+      assertThrows(EmbeddingProviderException.class,
+          () -> MappedEmbeddingCache.open(file, 1024 * 1024));
+    }
+    try (MappedEmbeddingCache cache = MappedEmbeddingCache.open(file, 1024 * 1024)) {
+      assertNull(cache.get(EmbeddingCacheKey.of("model", "class Owner {}")));
+    }
+  }
+
+  @Test
+  void ignoresRecordsWhoseStoredKeyDiffers() throws Exception {
+    Path file = Files.createTempDirectory("repomind-cache-key").resolve("embeddings.cache");
+    EmbeddingCacheKey key = EmbeddingCacheKey.of("model", "class Owner {}");
+    try (MappedEmbeddingCache cache = MappedEmbeddingCache.open(file, 1024 * 1024)) {
+      cache.put(key, new float[] {1, 2, 3});
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+        // Overwrites the first record's key, as a second writer appending at the same offset would.
+        EmbeddingCacheKey other = EmbeddingCacheKey.of("model", "class Pet {}");
+        ByteBuffer record = ByteBuffer.allocate(EmbeddingCacheKey.BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        other.write(record, 0);
+        channel.write(record, 16);
+      }
+
+      assertNull(cache.get(key));
+      assertEquals(1, cache.stats().misses());
+      assertEquals(0, cache.stats().entries());
+    }
+  }
+
+  @Test
+  void closedCacheMissesAndIgnoresWrites() throws Exception {
+    Path file = Files.createTempDirectory("repomind-cache-closed").resolve("embeddings.cache");
+    EmbeddingCacheKey key = EmbeddingCacheKey.of("model", "class Owner {}");
+    MappedEmbeddingCache cache = MappedEmbeddingCache.open(file, 1024 * 1024);
+    cache.put(key, new float[] {1, 2, 3});
+    cache.close();
+
+    cache.put(key, new float[] {4, 5, 6});
+    assertNull(cache.get(key));
+  }
+}
@@ -0,0 +1,75 @@
+package com.repomind.core.embeddings;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class QueryEmbeddingCacheTest {
+  @Test
+  void normalizesWhitespaceAndCase() {
+    assertEquals("owner address", QueryEmbeddingCache.normalize("  Owner \t\n ADDRESS "));
+  }
+
+  @Test
+  void reusesEmbeddingForEquivalentQueries() {
+    CountingProvider provider = new CountingProvider();
+    QueryEmbeddingCache cache = new QueryEmbeddingCache(16, 1024 * 1024);
+
+    float[] first = cache.getOrEmbed("Owner address", provider);
+    float[] second = cache.getOrEmbed("owner   address ", provider);
+
+    assertSame(first, second);
+    assertEquals(List.of("owner address"), provider.inputs);
+    assertEquals(1, cache.stats().hits());
+    assertEquals(1, cache.stats().misses());
+  }
+
+  @Test
+  void evictsLeastRecentlyUsedByEntryCount() {
+    CountingProvider provider = new CountingProvider();
+    QueryEmbeddingCache cache = new QueryEmbeddingCache(2, 1024 * 1024);
+
+    cache.getOrEmbed("a", provider);
+    cache.getOrEmbed("b", provider);
+    cache.getOrEmbed("a", provider);
+    cache.getOrEmbed("c", provider);
+    cache.getOrEmbed("a", provider);
+    cache.getOrEmbed("b", provider);
+
+    assertEquals(List.of("a", "b", "c", "b"), provider.inputs);
+    assertEquals(2, cache.stats().entries());
+    assertEquals(2, cache.stats().evictions());
+  }
+
+  @Test
+  void evictsByByteSize() {
+    CountingProvider provider = new CountingProvider();
+    provider.dimension = 100;
+    QueryEmbeddingCache cache = new QueryEmbeddingCache(100, 1000);
+
+    cache.getOrEmbed("a", provider);
+    cache.getOrEmbed("b", provider);
+    cache.getOrEmbed("c", provider);
+
+    assertEquals(2, cache.stats().entries());
+    assertEquals(1, cache.stats().evictions());
+  }
+
+  private static final class CountingProvider implements EmbeddingProvider {
+    private final List<String> inputs = new ArrayList<>();
+    private int dimension = 4;
+
+    @Override
+    public List<float[]> embedFloats(List<String> batch) {
+      inputs.addAll(batch);
+      List<float[]> results = new ArrayList<>();
+      for (String input : batch) {
+        results.add(new float[dimension]);
+      }
+      return results;
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package com.repomind.core.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MetricsRegistryTest {
+  @Test
+  void histogramBucketsBoundValuesWithinAnEighth() {
+    for (long value : new long[] {0, 1, 7, 8, 9, 15, 16, 1_000, 123_456_789L, Long.MAX_VALUE}) {
+      int bucket = LatencyHistogram.bucket(value);
+      long upper = LatencyHistogram.upperBound(bucket);
+      assertTrue(upper >= value, value + " <= " + upper);
+      assertTrue(upper - value <= value / 8, value + " vs " + upper);
+      assertEquals(bucket, LatencyHistogram.bucket(upper), "bucket of " + upper);
+    }
+  }
+
+  @Test
+  void percentilesFollowTheRecordedDistribution() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long micros = 1; micros <= 100; micros++) {
+      histogram.record(micros * 1_000);
+    }
+
+    assertNear(50_000, histogram.percentile(0.50));
+    assertNear(95_000, histogram.percentile(0.95));
+    assertNear(100_000, histogram.percentile(1.0));
+    assertEquals(0, new LatencyHistogram().percentile(0.5));
+  }
+
+  @Test
+  void snapshotReportsStagesThatRanAndCounters() {
+    MetricsRegistry registry = new MetricsRegistry();
+    registry.record(Stage.HTTP, 2_000_000, 1, 100);
+    registry.record(Stage.HTTP, 4_000_000, 1, 300);
+    registry.record(Stage.SCAN, 1_000_000, 42, 0);
+    registry.increment("http.errors");
+
+    MetricsSnapshot snapshot = registry.snapshot();
+
+    assertEquals(List.of("scan", "http"), snapshot.stages().stream().map(StageStats::stage).toList());
+    StageStats http = snapshot.stages().get(1);
+    assertEquals(2, http.count());
+    assertEquals(400, http.bytes());
+    assertEquals(3_000_000, http.meanNanos());
+    assertEquals(4_000_000, http.maxNanos());
+    assertEquals(1L, snapshot.counters().get("http.errors"));
+    assertTrue(snapshot.toText().contains("counters: http.errors=1"), snapshot.toText());
+
+    registry.reset();
+    assertTrue(registry.snapshot().stages().isEmpty());
+    assertTrue(registry.snapshot().counters().isEmpty());
+  }
+
+  @Test
+  void jsonCarriesEveryStage() throws Exception {
+    MetricsRegistry registry = new MetricsRegistry();
+    try (StageTimer timer = registry.start(Stage.CHUNK)) {
+      timer.items(3).bytes(1024);
+    }
+
+    JsonNode json = new ObjectMapper().readTree(registry.snapshot().toJson());
+
+    JsonNode chunk = json.get("stages").get(0);
+    assertEquals("chunk", chunk.get("stage").asText());
+    assertEquals(1, chunk.get("calls").asLong());
+    assertEquals(3, chunk.get("items").asLong());
+    assertEquals(1024, chunk.get("bytes").asLong());
+    assertTrue(chunk.get("maxMs").asDouble() >= chunk.get("p50Ms").asDouble());
+    assertTrue(json.get("counters").isEmpty());
+  }
+
+  @Test
+  void timersCommitFlightRecorderEvents(@TempDir Path dir) throws Exception {
+    MetricsRegistry registry = new MetricsRegistry();
+    Path file = dir.resolve("stages.jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable("com.repomind.Embed");
+      recording.disable("com.repomind.Scan");
+      recording.start();
+      try (StageTimer timer = registry.start(Stage.EMBED)) {
+        timer.items(8).bytes(4096);
+      }
+      try (StageTimer ignored = registry.start(Stage.SCAN)) {
+        // disabled in the recording
+      }
+      recording.stop();
+      recording.dump(file);
+    }
+
+    List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+        .filter(event -> event.getEventType().getName().startsWith("com.repomind."))
+        .toList();
+    assertEquals(1, events.size());
+    assertEquals("com.repomind.Embed", events.get(0).getEventType().getName());
+    assertEquals(8, events.get(0).getLong("items"));
+    assertEquals(4096, events.get(0).getLong("bytes"));
+  }
+
+  private static void assertNear(long expected, long actual) {
+    assertTrue(actual >= expected && actual <= expected + expected / 8,
+        "expected ~" + expected + " but was " + actual);
+  }
+}
@@ -0,0 +1,112 @@
+package com.repomind.core.vector;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class VectorKernelsTest {
+  private static final VectorKernels SCALAR = VectorKernels.scalar();
+  private static final VectorKernels SIMD = new SimdVectorKernels();
+
+  @Test
+  void surefireRunsWithTheVectorModule() {
+    assertTrue(VectorKernels.best().name().startsWith("simd-"), VectorKernels.best().name());
+  }
+
+  @Test
+  void simdMatchesScalarIncludingTails() {
+    SplittableRandom random = new SplittableRandom(3);
+    for (int dimension : new int[] {1, 3, 7, 16, 33, 384, 385}) {
+      float[] a = random(random, dimension);
+      float[] b = random(random, dimension);
+      assertEquals(SCALAR.dot(a, b), SIMD.dot(a, b), 1e-4f * dimension, "dot " + dimension);
+      assertEquals(SCALAR.cosine(a, b), SIMD.cosine(a, b), 1e-5f, "cosine " + dimension);
+    }
+  }
+
+  @Test
+  void dotRowsMatchesPerRowDots() {
+    SplittableRandom random = new SplittableRandom(5);
+    int dimension = 37;
+    int rows = 11;
+    float[] query = random(random, dimension);
+    float[] matrix = random(random, rows * dimension);
+    float[] expected = new float[rows];
+    float[] actual = new float[rows];
+
+    SCALAR.dotRows(query, matrix, rows, expected);
+    SIMD.dotRows(query, matrix, rows, actual);
+
+    assertArrayEquals(expected, actual, 1e-4f);
+  }
+
+  @Test
+  void cosineOfZeroVectorIsZero() {
+    float[] zero = new float[8];
+    float[] one = {1, 0, 0, 0, 0, 0, 0, 0};
+    assertEquals(0f, SCALAR.cosine(zero, one));
+    assertEquals(0f, SIMD.cosine(zero, one));
+    assertEquals(1f, SIMD.cosine(one, one), 1e-6f);
+  }
+
+  @Test
+  void topKRanksByCosineOnBothPaths() {
+    SplittableRandom random = new SplittableRandom(11);
+    List<float[]> vectors = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      vectors.add(random(random, 24));
+    }
+    float[] query = random(random, 24);
+
+    PackedVectors raw = PackedVectors.pack(vectors);
+    PackedVectors unit = PackedVectors.packNormalized(vectors);
+    TopK expected = bruteForce(vectors, query, 5);
+    TopK fromRaw = raw.topK(query, 5);
+    TopK fromUnit = unit.topK(normalize(query), 5);
+
+    assertEquals(false, raw.normalized());
+    assertEquals(true, unit.normalized());
+    assertArrayEquals(expected.rows(), fromRaw.rows());
+    assertArrayEquals(expected.rows(), fromUnit.rows());
+    assertArrayEquals(expected.scores(), fromUnit.scores(), 1e-5f);
+    assertEquals(true, PackedVectors.pack(List.of(unit.row(0), unit.row(1))).normalized());
+  }
+
+  @Test
+  void topKKeepsLowerRowFirstOnTiesAndHandlesSmallInputs() {
+    TopK top = TopK.select(new float[] {0.5f, 0.9f, 0.9f, 0.1f}, 4, 2);
+    assertArrayEquals(new int[] {1, 2}, top.rows());
+    assertEquals(1, TopK.select(new float[] {0.3f}, 1, 5).size());
+    assertEquals(0, TopK.select(new float[0], 0, 5).size());
+  }
+
+  private static TopK bruteForce(List<float[]> vectors, float[] query, int k) {
+    float[] scores = new float[vectors.size()];
+    for (int i = 0; i < scores.length; i++) {
+      scores[i] = SCALAR.cosine(query, vectors.get(i));
+    }
+    return TopK.select(scores, scores.length, k);
+  }
+
+  private static float[] normalize(float[] vector) {
+    float norm = (float) Math.sqrt(SCALAR.dot(vector, vector));
+    float[] unit = new float[vector.length];
+    for (int i = 0; i < vector.length; i++) {
+      unit[i] = vector[i] / norm;
+    }
+    return unit;
+  }
+
+  private static float[] random(SplittableRandom random, int length) {
+    float[] vector = new float[length];
+    for (int i = 0; i < length; i++) {
+      vector[i] = (float) (random.nextDouble() * 2 - 1);
+    }
+    return vector;
+  }
+}
@@ -0,0 +1,12 @@
+package com.repomind.indexer;
+
+import com.repomind.core.model.CodeChunk;
+import java.util.List;
+
+/**
+ * Splits one source file into chunks without embeddings. Implementations are called from several
+ * threads at once and must return the same chunks, in the same order, for the same input.
+ */
+public interface Chunker {
+  List<CodeChunk> chunk(String repo, String filePath, String content);
+}
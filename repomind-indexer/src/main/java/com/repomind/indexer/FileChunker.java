@@ -0,0 +1,64 @@
+package com.repomind.indexer;
+
+import com.repomind.core.model.CodeChunk;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Emits one FILE chunk per source file. The line range always covers the whole file; only the
+ * stored code is truncated to {@code maxChunkChars}.
+ */
+public class FileChunker implements Chunker {
+  public static final String FILE_KIND = "FILE";
+
+  private final int maxChunkChars;
+
+  public FileChunker(int maxChunkChars) {
+    if (maxChunkChars <= 0) {
+      throw new IllegalArgumentException("maxChunkChars must be positive.");
+    }
+    this.maxChunkChars = maxChunkChars;
+  }
+
+  @Override
+  public List<CodeChunk> chunk(String repo, String filePath, String content) {
+    if (content == null || content.isBlank()) {
+      return List.of();
+    }
+    String fileName = fileName(filePath);
+    int endLine = lineCount(content);
+    String code = content.length() > maxChunkChars ? content.substring(0, maxChunkChars) : content;
+    return List.of(new CodeChunk(
+        repo,
+        filePath,
+        language(filePath),
+        FILE_KIND,
+        fileName,
+        1,
+        endLine,
+        code,
+        CodeChunk.chunkId(repo, filePath, FILE_KIND, fileName, 1, endLine),
+        null));
+  }
+
+  static int lineCount(String content) {
+    int lines = 1;
+    for (int i = 0; i < content.length(); i++) {
+      if (content.charAt(i) == '\n' && i < content.length() - 1) {
+        lines++;
+      }
+    }
+    return lines;
+  }
+
+  static String language(String filePath) {
+    String fileName = fileName(filePath);
+    int dot = fileName.lastIndexOf('.');
+    return dot < 0 ? "text" : fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+  }
+
+  private static String fileName(String filePath) {
+    int slash = filePath.lastIndexOf('/');
+    return slash < 0 ? filePath : filePath.substring(slash + 1);
+  }
+}
@@ -0,0 +1,67 @@
+package com.repomind.indexer;
+
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Include/exclude globs compiled once into {@link PathMatcher}s and matched against repo-relative
+ * paths. A leading {@code **}{@code /} also matches at the repo root, and a trailing
+ * {@code /**} also matches the directory itself so excluded directories can be pruned without
+ * being listed.
+ */
+final class GlobMatcher {
+  private final List<PathMatcher> matchers;
+
+  private GlobMatcher(List<PathMatcher> matchers) {
+    this.matchers = matchers;
+  }
+
+  static GlobMatcher compile(List<String> patterns) {
+    FileSystem fileSystem = FileSystems.getDefault();
+    List<PathMatcher> matchers = new ArrayList<>();
+    if (patterns != null) {
+      for (String pattern : patterns) {
+        if (pattern == null || pattern.isBlank()) {
+          continue;
+        }
+        for (String variant : variants(pattern.trim())) {
+          matchers.add(fileSystem.getPathMatcher("glob:" + variant));
+        }
+      }
+    }
+    return new GlobMatcher(List.copyOf(matchers));
+  }
+
+  boolean isEmpty() {
+    return matchers.isEmpty();
+  }
+
+  boolean matches(Path relativePath) {
+    for (PathMatcher matcher : matchers) {
+      if (matcher.matches(relativePath)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static Set<String> variants(String pattern) {
+    Set<String> variants = new LinkedHashSet<>();
+    variants.add(pattern);
+    if (pattern.endsWith("/**")) {
+      variants.add(pattern.substring(0, pattern.length() - 3));
+    }
+    for (String variant : List.copyOf(variants)) {
+      if (variant.startsWith("**/")) {
+        variants.add(variant.substring(3));
+      }
+    }
+    return variants;
+  }
+}
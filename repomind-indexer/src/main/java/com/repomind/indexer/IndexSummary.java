@@ -0,0 +1,11 @@
+package com.repomind.indexer;
+
+public record IndexSummary(
+    int scanned,
+    int skipped,
+    int updated,
+    int touched,
+    int deleted,
+    int failed,
+    int chunks,
+    long elapsedMillis) {}
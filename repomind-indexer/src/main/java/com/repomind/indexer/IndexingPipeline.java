@@ -0,0 +1,293 @@
+package com.repomind.indexer;
+
+import com.repomind.core.embeddings.EmbeddingProvider;
+import com.repomind.core.metrics.MetricsRegistry;
+import com.repomind.core.metrics.Stage;
+import com.repomind.core.metrics.StageTimer;
+import com.repomind.core.model.CodeChunk;
+import com.repomind.core.model.FileManifestEntry;
+import com.repomind.core.store.CodeChunkRepository;
+import com.repomind.core.store.IndexBatch;
+import com.repomind.core.store.RepoRebuild;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * scan → chunk → embed → upsert, driven by the per-file manifest of the previous run.
+ *
+ * <p>Files whose size and mtime match the manifest are skipped without being read. Other files
+ * are read and hashed; if the hash still matches only the manifest row is refreshed, otherwise
+ * the file is re-chunked and re-embedded and its chunks are replaced. Manifest paths that no
+ * longer exist are deleted together in one transaction.
+ *
+ * <p>A full re-index goes through {@link CodeChunkRepository#rebuild}, so stores that build it
+ * aside keep answering searches from the previous index until the last batch is written.
+ *
+ * <p>Chunk texts that the repository already holds a vector for, from any repo or an earlier run,
+ * are not sent to the embedding provider; identical texts within a batch are embedded once.
+ *
+ * <p>Reading, hashing and chunking run in parallel on the common fork-join pool; results are
+ * collected in scan order so batches and chunk order stay deterministic.
+ */
+public class IndexingPipeline {
+  private static final Logger log = LoggerFactory.getLogger(IndexingPipeline.class);
+  private static final int FILES_PER_BATCH = 128;
+
+  private final RepoScanner scanner;
+  private final SourceFileReader reader;
+  private final Chunker chunker;
+  private final EmbeddingProvider embeddingProvider;
+  private final CodeChunkRepository repository;
+
+  public IndexingPipeline(
+      RepoScanner scanner,
+      SourceFileReader reader,
+      Chunker chunker,
+      EmbeddingProvider embeddingProvider,
+      CodeChunkRepository repository) {
+    this.scanner = Objects.requireNonNull(scanner, "scanner");
+    this.reader = Objects.requireNonNull(reader, "reader");
+    this.chunker = Objects.requireNonNull(chunker, "chunker");
+    this.embeddingProvider = Objects.requireNonNull(embeddingProvider, "embeddingProvider");
+    this.repository = Objects.requireNonNull(repository, "repository");
+  }
+
+  /**
+   * Indexes {@code root} as {@code repo}. With {@code full} every file is re-chunked and
+   * rewritten regardless of the manifest; only texts without a stored vector are re-embedded.
+   */
+  public IndexSummary index(String repo, Path root, boolean full) {
+    long started = System.nanoTime();
+    ScanResult scan;
+    try (StageTimer timer = MetricsRegistry.global().start(Stage.SCAN)) {
+      scan = scanner.scan(root);
+      timer.items(scan.files().size());
+    }
+    Map<String, FileManifestEntry> manifest = repository.loadManifest(repo);
+
+    List<ScannedFile> candidates = new ArrayList<>();
+    Set<String> present = new HashSet<>();
+    int skipped = 0;
+    for (ScannedFile file : scan.files()) {
+      present.add(file.relativePath());
+      if (!full && unchanged(manifest.get(file.relativePath()), file)) {
+        skipped++;
+      } else {
+        candidates.add(file);
+      }
+    }
+
+    List<String> deleted = new ArrayList<>();
+    for (String path : manifest.keySet()) {
+      if (!present.contains(path)) {
+        deleted.add(path);
+      }
+    }
+    if (!full) {
+      return apply(repo, manifest, candidates, deleted, false, scan.files().size(), skipped, started,
+          batch -> repository.applyBatch(repo, batch));
+    }
+    try (RepoRebuild rebuild = repository.rebuild(repo)) {
+      IndexSummary summary = apply(repo, manifest, candidates, deleted, true, scan.files().size(),
+          skipped, started, rebuild::applyBatch);
+      rebuild.commit();
+      return summary;
+    }
+  }
+
+  /**
+   * Re-indexes only {@code changedPaths} (repo-relative, {@code /}-separated), for callers that
+   * already know what changed, such as a file watcher. Each path, and every manifest path below
+   * it when it names a directory, is re-checked with the scan rules: selected files go through the
+   * same manifest comparison as {@link #index}, and manifest paths that are gone or no longer
+   * selected are deleted. Nothing outside {@code changedPaths} is read or listed.
+   */
+  public IndexSummary update(String repo, Path root, Collection<String> changedPaths) {
+    long started = System.nanoTime();
+    Map<String, FileManifestEntry> manifest = repository.loadManifest(repo);
+
+    Set<String> changed = new HashSet<>(changedPaths);
+    Set<String> paths = new TreeSet<>(changed);
+    for (String path : manifest.keySet()) {
+      if (isBelowAny(path, changed)) {
+        paths.add(path);
+      }
+    }
+
+    List<ScannedFile> candidates = new ArrayList<>();
+    List<String> deleted = new ArrayList<>();
+    int scanned = 0;
+    int skipped = 0;
+    for (String path : paths) {
+      Optional<ScannedFile> selected = scanner.select(root, path);
+      if (selected.isEmpty()) {
+        if (manifest.containsKey(path)) {
+          deleted.add(path);
+        }
+        continue;
+      }
+      ScannedFile file = selected.get();
+      scanned++;
+      if (unchanged(manifest.get(file.relativePath()), file)) {
+        skipped++;
+      } else {
+        candidates.add(file);
+      }
+    }
+    return apply(repo, manifest, candidates, deleted, false, scanned, skipped, started,
+        batch -> repository.applyBatch(repo, batch));
+  }
+
+  private static boolean unchanged(FileManifestEntry previous, ScannedFile file) {
+    return previous != null
+        && previous.size() == file.size()
+        && previous.lastModifiedMillis() == file.lastModifiedMillis();
+  }
+
+  private static boolean isBelowAny(String path, Set<String> directories) {
+    for (int slash = path.indexOf('/'); slash >= 0; slash = path.indexOf('/', slash + 1)) {
+      if (directories.contains(path.substring(0, slash))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Reads, chunks, embeds and upserts {@code candidates} in batches, then applies deletions; every
+   * batch goes to {@code sink}.
+   */
+  private IndexSummary apply(
+      String repo,
+      Map<String, FileManifestEntry> manifest,
+      List<ScannedFile> candidates,
+      List<String> deleted,
+      boolean full,
+      int scanned,
+      int skipped,
+      long started,
+      Consumer<IndexBatch> sink) {
+    int updated = 0;
+    int touched = 0;
+    int failed = 0;
+    int chunkCount = 0;
+    for (int start = 0; start < candidates.size(); start += FILES_PER_BATCH) {
+      List<ScannedFile> slice =
+          candidates.subList(start, Math.min(candidates.size(), start + FILES_PER_BATCH));
+      List<FileRead> reads = slice.parallelStream().map(this::read).toList();
+
+      List<FileManifestEntry> changedFiles = new ArrayList<>();
+      List<FileManifestEntry> touchedFiles = new ArrayList<>();
+      List<FileRead> changedReads = new ArrayList<>();
+      for (FileRead read : reads) {
+        if (read.content() == null) {
+          failed++;
+          continue;
+        }
+        ScannedFile file = read.file();
+        FileManifestEntry entry = new FileManifestEntry(
+            file.relativePath(), file.size(), file.lastModifiedMillis(), read.content().sha256());
+        FileManifestEntry previous = manifest.get(file.relativePath());
+        if (!full && previous != null && previous.contentHash().equals(entry.contentHash())) {
+          touchedFiles.add(entry);
+        } else {
+          changedFiles.add(entry);
+          changedReads.add(read);
+        }
+      }
+      List<CodeChunk> chunks = new ArrayList<>();
+      for (List<CodeChunk> fileChunks : changedReads.parallelStream()
+          .map(read -> chunk(repo, read))
+          .toList()) {
+        chunks.addAll(fileChunks);
+      }
+
+      List<CodeChunk> embedded = embed(chunks);
+      sink.accept(new IndexBatch(changedFiles, embedded, touchedFiles, List.of()));
+      updated += changedFiles.size();
+      touched += touchedFiles.size();
+      chunkCount += embedded.size();
+      log.info("Indexed repo={} files={}/{} chunks={}",
+          repo, Math.min(candidates.size(), start + FILES_PER_BATCH), candidates.size(), chunkCount);
+    }
+
+    deleted.sort(null);
+    if (!deleted.isEmpty()) {
+      sink.accept(new IndexBatch(List.of(), List.of(), List.of(), deleted));
+    }
+
+    long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+    return new IndexSummary(
+        scanned, skipped + touched, updated, touched, deleted.size(), failed, chunkCount,
+        elapsedMillis);
+  }
+
+  private FileRead read(ScannedFile file) {
+    try (StageTimer timer = MetricsRegistry.global().start(Stage.READ).items(1)) {
+      SourceContent content = reader.readContent(file);
+      timer.bytes(file.size());
+      return new FileRead(file, content);
+    } catch (IOException e) {
+      log.warn("Failed to read {}: {}", file.relativePath(), e.getMessage());
+      return new FileRead(file, null);
+    }
+  }
+
+  private List<CodeChunk> chunk(String repo, FileRead read) {
+    try (StageTimer timer = MetricsRegistry.global().start(Stage.CHUNK).bytes(read.file().size())) {
+      List<CodeChunk> chunks = chunker.chunk(repo, read.file().relativePath(), read.content().text());
+      timer.items(chunks.size());
+      return chunks;
+    }
+  }
+
+  /**
+   * Embeds the chunk texts the repository has no vector for yet, each distinct text once, and
+   * takes the others from {@link CodeChunkRepository#findEmbeddings}.
+   */
+  private List<CodeChunk> embed(List<CodeChunk> chunks) {
+    if (chunks.isEmpty()) {
+      return List.of();
+    }
+    Set<String> texts = new LinkedHashSet<>();
+    for (CodeChunk chunk : chunks) {
+      texts.add(chunk.code());
+    }
+    Map<String, float[]> vectors = new HashMap<>(repository.findEmbeddings(List.copyOf(texts)));
+    List<String> inputs = new ArrayList<>(texts.size() - vectors.size());
+    for (String text : texts) {
+      if (!vectors.containsKey(text)) {
+        inputs.add(text);
+      }
+    }
+    if (!inputs.isEmpty()) {
+      List<float[]> fetched = embeddingProvider.embedFloats(inputs);
+      for (int i = 0; i < inputs.size(); i++) {
+        vectors.put(inputs.get(i), fetched.get(i));
+      }
+    }
+    log.debug("Embedded {} of {} distinct chunk texts, {} shared", inputs.size(), texts.size(),
+        texts.size() - inputs.size());
+    List<CodeChunk> embedded = new ArrayList<>(chunks.size());
+    for (CodeChunk chunk : chunks) {
+      embedded.add(chunk.withEmbedding(vectors.get(chunk.code())));
+    }
+    return embedded;
+  }
+
+  private record FileRead(ScannedFile file, SourceContent content) {}
+}
@@ -0,0 +1,270 @@
+package com.repomind.indexer;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ParserConfiguration.LanguageLevel;
+import com.github.javaparser.Position;
+import com.github.javaparser.Range;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.AnnotationDeclaration;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.CompactConstructorDeclaration;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.EnumDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.RecordDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.comments.Comment;
+import com.repomind.core.model.CodeChunk;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Emits one chunk per type, method, constructor and field of a Java file.
+ *
+ * <p>Type chunks hold the declaration with method bodies and nested types elided, so large
+ * classes stay within the embedding model's input window; members get their own chunks with
+ * their source text (including a preceding comment). Symbols are qualified with the enclosing
+ * type names, and methods carry their parameter types so overloads get distinct chunk ids.
+ * Chunks are returned in source order. Files that are not Java, fail to parse or declare no
+ * types fall back to a single FILE chunk.
+ *
+ * <p>{@link JavaParser} is not thread-safe, so each thread reuses its own parser and
+ * configuration.
+ */
+public class JavaSymbolChunker implements Chunker {
+  public static final String CLASS_KIND = "CLASS";
+  public static final String INTERFACE_KIND = "INTERFACE";
+  public static final String ENUM_KIND = "ENUM";
+  public static final String RECORD_KIND = "RECORD";
+  public static final String ANNOTATION_KIND = "ANNOTATION";
+  public static final String METHOD_KIND = "METHOD";
+  public static final String CONSTRUCTOR_KIND = "CONSTRUCTOR";
+  public static final String FIELD_KIND = "FIELD";
+
+  private static final Logger log = LoggerFactory.getLogger(JavaSymbolChunker.class);
+
+  private static final ThreadLocal<JavaParser> PARSER =
+      ThreadLocal.withInitial(() -> new JavaParser(
+          new ParserConfiguration()
+              .setLanguageLevel(LanguageLevel.JAVA_21)
+              .setTabSize(1)));
+
+  private final int maxChunkChars;
+  private final FileChunker fallback;
+
+  public JavaSymbolChunker(int maxChunkChars) {
+    this.fallback = new FileChunker(maxChunkChars);
+    this.maxChunkChars = maxChunkChars;
+  }
+
+  @Override
+  public List<CodeChunk> chunk(String repo, String filePath, String content) {
+    if (content == null || content.isBlank()) {
+      return List.of();
+    }
+    if (!filePath.endsWith(".java")) {
+      return fallback.chunk(repo, filePath, content);
+    }
+    ParseResult<CompilationUnit> result = PARSER.get().parse(content);
+    if (!result.isSuccessful() || result.getResult().isEmpty()) {
+      log.debug("Falling back to a file chunk for {}: {}", filePath, result.getProblems());
+      return fallback.chunk(repo, filePath, content);
+    }
+    Emitter emitter = new Emitter(repo, filePath, new SourceText(content));
+    try {
+      for (TypeDeclaration<?> type : result.getResult().get().getTypes()) {
+        emitter.type(type, null);
+      }
+    } catch (RuntimeException e) {
+      log.debug("Falling back to a file chunk for {}: {}", filePath, e.toString());
+      return fallback.chunk(repo, filePath, content);
+    }
+    return emitter.chunks.isEmpty() ? fallback.chunk(repo, filePath, content) : emitter.chunks;
+  }
+
+  static String kind(TypeDeclaration<?> type) {
+    if (type instanceof ClassOrInterfaceDeclaration declaration) {
+      return declaration.isInterface() ? INTERFACE_KIND : CLASS_KIND;
+    }
+    if (type instanceof EnumDeclaration) {
+      return ENUM_KIND;
+    }
+    if (type instanceof RecordDeclaration) {
+      return RECORD_KIND;
+    }
+    if (type instanceof AnnotationDeclaration) {
+      return ANNOTATION_KIND;
+    }
+    return CLASS_KIND;
+  }
+
+  static String signature(String name, List<Parameter> parameters) {
+    StringJoiner joiner = new StringJoiner(", ", name + "(", ")");
+    for (Parameter parameter : parameters) {
+      joiner.add(parameter.getType().asString() + (parameter.isVarArgs() ? "..." : ""));
+    }
+    return joiner.toString();
+  }
+
+  private final class Emitter {
+    private final String repo;
+    private final String filePath;
+    private final SourceText source;
+    private final String language;
+    private final List<CodeChunk> chunks = new ArrayList<>();
+
+    private Emitter(String repo, String filePath, SourceText source) {
+      this.repo = repo;
+      this.filePath = filePath;
+      this.source = source;
+      this.language = FileChunker.language(filePath);
+    }
+
+    private void type(TypeDeclaration<?> type, String outer) {
+      String name = outer == null ? type.getNameAsString() : outer + "." + type.getNameAsString();
+      Range range = rangeWithComment(type);
+      add(kind(type), name, range, skeleton(type, range));
+      for (BodyDeclaration<?> member : type.getMembers()) {
+        if (member instanceof TypeDeclaration<?> nested) {
+          type(nested, name);
+        } else if (member instanceof MethodDeclaration method) {
+          member(METHOD_KIND,
+              name + "." + signature(method.getNameAsString(), method.getParameters()), method);
+        } else if (member instanceof ConstructorDeclaration constructor) {
+          member(CONSTRUCTOR_KIND,
+              name + "." + signature(constructor.getNameAsString(), constructor.getParameters()),
+              constructor);
+        } else if (member instanceof CompactConstructorDeclaration constructor) {
+          member(CONSTRUCTOR_KIND, name + "." + constructor.getNameAsString(), constructor);
+        } else if (member instanceof FieldDeclaration field) {
+          StringJoiner names = new StringJoiner(",");
+          for (VariableDeclarator variable : field.getVariables()) {
+            names.add(variable.getNameAsString());
+          }
+          member(FIELD_KIND, name + "." + names, field);
+        }
+      }
+    }
+
+    private void member(String kind, String symbol, Node node) {
+      Range range = rangeWithComment(node);
+      add(kind, symbol, range, source.text(range.begin, range.end));
+    }
+
+    /** The type's source with member bodies and nested types replaced by {@code { ... }}. */
+    private String skeleton(TypeDeclaration<?> type, Range range) {
+      StringBuilder code = new StringBuilder();
+      Position cursor = range.begin;
+      for (BodyDeclaration<?> member : type.getMembers()) {
+        Node elided = null;
+        String replacement = "{ ... }";
+        if (member instanceof MethodDeclaration method && method.getBody().isPresent()) {
+          elided = method.getBody().get();
+        } else if (member instanceof ConstructorDeclaration constructor) {
+          elided = constructor.getBody();
+        } else if (member instanceof CompactConstructorDeclaration constructor) {
+          elided = constructor.getBody();
+        } else if (member instanceof TypeDeclaration<?> nested) {
+          elided = nested;
+          replacement = keyword(nested) + " " + nested.getNameAsString() + " { ... }";
+        }
+        if (elided == null || elided.getRange().isEmpty()) {
+          continue;
+        }
+        Range elidedRange = elided.getRange().get();
+        code.append(source.between(cursor, elidedRange.begin)).append(replacement);
+        cursor = elidedRange.end.right(1);
+      }
+      code.append(source.text(cursor, range.end));
+      return code.toString();
+    }
+
+    private void add(String kind, String symbol, Range range, String code) {
+      String truncated = code.length() > maxChunkChars ? code.substring(0, maxChunkChars) : code;
+      chunks.add(new CodeChunk(
+          repo,
+          filePath,
+          language,
+          kind,
+          symbol,
+          range.begin.line,
+          range.end.line,
+          truncated,
+          CodeChunk.chunkId(repo, filePath, kind, symbol, range.begin.line, range.end.line),
+          null));
+    }
+  }
+
+  private static String keyword(TypeDeclaration<?> type) {
+    return switch (kind(type)) {
+      case INTERFACE_KIND -> "interface";
+      case ENUM_KIND -> "enum";
+      case RECORD_KIND -> "record";
+      case ANNOTATION_KIND -> "@interface";
+      default -> "class";
+    };
+  }
+
+  private static Range rangeWithComment(Node node) {
+    Range range = node.getRange()
+        .orElseThrow(() -> new IllegalStateException("Node has no range: " + node));
+    return node.getComment()
+        .flatMap(Comment::getRange)
+        .filter(comment -> comment.begin.isBefore(range.begin))
+        .map(comment -> new Range(comment.begin, range.end))
+        .orElse(range);
+  }
+
+  /** Maps parser positions (1-based line and column, end inclusive) back to the original text. */
+  static final class SourceText {
+    private final String content;
+    private final int[] lineStarts;
+
+    SourceText(String content) {
+      this.content = content;
+      int lines = 1;
+      for (int i = 0; i < content.length(); i++) {
+        if (content.charAt(i) == '\n') {
+          lines++;
+        }
+      }
+      lineStarts = new int[lines];
+      int line = 1;
+      for (int i = 0; i < content.length(); i++) {
+        if (content.charAt(i) == '\n') {
+          lineStarts[line++] = i + 1;
+        }
+      }
+    }
+
+    /** Text from {@code begin} through {@code end}, both inclusive. */
+    String text(Position begin, Position end) {
+      return slice(offset(begin), offset(end) + 1);
+    }
+
+    /** Text from {@code begin} up to, but excluding, {@code end}. */
+    String between(Position begin, Position end) {
+      return slice(offset(begin), offset(end));
+    }
+
+    private String slice(int from, int to) {
+      int start = Math.min(Math.max(from, 0), content.length());
+      return content.substring(start, Math.max(start, Math.min(to, content.length())));
+    }
+
+    private int offset(Position position) {
+      int line = Math.min(Math.max(position.line, 1), lineStarts.length);
+      return lineStarts[line - 1] + Math.max(position.column, 1) - 1;
+    }
+  }
+}
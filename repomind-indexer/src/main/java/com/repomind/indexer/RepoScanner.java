@@ -0,0 +1,204 @@
+package com.repomind.indexer;
+
+import com.repomind.core.config.IndexerConfig;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Discovers files to index. Directories are listed in parallel on a fork/join pool, one task per
+ * directory, with excluded directories pruned before they are opened. Symbolic links are never
+ * followed, so link cycles cannot cause unbounded traversal. Files larger than
+ * {@code maxFileBytes} are skipped using the size from the directory listing, without reading
+ * them. The result is sorted by relative path and is therefore independent of scheduling.
+ */
+public class RepoScanner {
+  private static final Logger log = LoggerFactory.getLogger(RepoScanner.class);
+
+  private final GlobMatcher includes;
+  private final GlobMatcher excludes;
+  private final long maxFileBytes;
+  private final int parallelism;
+
+  public RepoScanner(IndexerConfig config) {
+    this(config, Runtime.getRuntime().availableProcessors());
+  }
+
+  public RepoScanner(IndexerConfig config, int parallelism) {
+    Objects.requireNonNull(config, "config");
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("parallelism must be positive.");
+    }
+    this.includes = GlobMatcher.compile(config.getIncludes());
+    this.excludes = GlobMatcher.compile(config.getExcludes());
+    this.maxFileBytes = config.getMaxFileBytes() == null ? Long.MAX_VALUE : config.getMaxFileBytes();
+    this.parallelism = parallelism;
+  }
+
+  public ScanResult scan(Path root) {
+    if (root == null || !Files.isDirectory(root)) {
+      throw new IllegalArgumentException("Repository path is not a directory: " + root);
+    }
+    Path normalizedRoot = root.toAbsolutePath().normalize();
+    ConcurrentLinkedQueue<ScannedFile> found = new ConcurrentLinkedQueue<>();
+    AtomicInteger excluded = new AtomicInteger();
+    AtomicInteger tooLarge = new AtomicInteger();
+
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      pool.invoke(new DirectoryTask(normalizedRoot, normalizedRoot, found, excluded, tooLarge));
+    } catch (UncheckedIOException e) {
+      throw new IllegalStateException("Failed to scan " + normalizedRoot + ": " + e.getMessage(), e);
+    } finally {
+      pool.shutdown();
+    }
+
+    List<ScannedFile> files = new ArrayList<>(found);
+    files.sort(Comparator.comparing(ScannedFile::relativePath));
+    log.info("Scanned {}: {} files selected, {} excluded, {} over {} bytes",
+        normalizedRoot, files.size(), excluded.get(), tooLarge.get(), maxFileBytes);
+    return new ScanResult(List.copyOf(files), excluded.get(), tooLarge.get());
+  }
+
+  /**
+   * The file at {@code relativePath} if {@link #scan} would select it: a regular file reached
+   * without symbolic links, included, not under an excluded directory and within the size limit.
+   * Lets a watcher re-check single paths with exactly the scan rules.
+   */
+  public Optional<ScannedFile> select(Path root, String relativePath) {
+    Path normalizedRoot = root.toAbsolutePath().normalize();
+    Path relative = normalizedRoot.getFileSystem().getPath(relativePath).normalize();
+    if (relative.toString().isEmpty() || relative.isAbsolute() || relative.startsWith("..")
+        || !matchesRules(normalizedRoot, relative)) {
+      return Optional.empty();
+    }
+    Path path = normalizedRoot.resolve(relative);
+    BasicFileAttributes attributes;
+    try {
+      attributes = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+    } catch (IOException e) {
+      return Optional.empty();
+    }
+    if (!attributes.isRegularFile() || attributes.size() > maxFileBytes) {
+      return Optional.empty();
+    }
+    return Optional.of(new ScannedFile(
+        relativize(normalizedRoot, path), path, attributes.size(),
+        attributes.lastModifiedTime().toMillis()));
+  }
+
+  /**
+   * True when the include and exclude patterns alone would let {@link #scan} select
+   * {@code relative}; file type and size are not checked.
+   */
+  public boolean matchesRules(Path root, Path relative) {
+    return includes.matches(relative) && !isExcluded(root, relative);
+  }
+
+  /**
+   * True when {@link #scan} would never reach {@code relative}: it or one of its parent
+   * directories matches an exclude pattern or is a symbolic link.
+   */
+  public boolean isExcluded(Path root, Path relative) {
+    for (int names = 1; names <= relative.getNameCount(); names++) {
+      Path prefix = relative.subpath(0, names);
+      if (excludes.matches(prefix)) {
+        return true;
+      }
+      if (names < relative.getNameCount() && Files.isSymbolicLink(root.resolve(prefix))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Repo-relative path with {@code /} separators, matching what glob patterns are written in. */
+  static String relativize(Path root, Path path) {
+    Path relative = root.relativize(path);
+    String separator = relative.getFileSystem().getSeparator();
+    String value = relative.toString();
+    return "/".equals(separator) ? value : value.replace(separator, "/");
+  }
+
+  private final class DirectoryTask extends RecursiveAction {
+    private final Path root;
+    private final Path directory;
+    private final ConcurrentLinkedQueue<ScannedFile> found;
+    private final AtomicInteger excluded;
+    private final AtomicInteger tooLarge;
+
+    private DirectoryTask(
+        Path root,
+        Path directory,
+        ConcurrentLinkedQueue<ScannedFile> found,
+        AtomicInteger excluded,
+        AtomicInteger tooLarge) {
+      this.root = root;
+      this.directory = directory;
+      this.found = found;
+      this.excluded = excluded;
+      this.tooLarge = tooLarge;
+    }
+
+    @Override
+    protected void compute() {
+      List<DirectoryTask> subtasks = new ArrayList<>();
+      try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+        for (Path entry : entries) {
+          BasicFileAttributes attributes;
+          try {
+            attributes = Files.readAttributes(
+                entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+          } catch (IOException e) {
+            log.warn("Skipping unreadable path {}: {}", entry, e.getMessage());
+            excluded.incrementAndGet();
+            continue;
+          }
+          if (attributes.isSymbolicLink() || attributes.isOther()) {
+            excluded.incrementAndGet();
+            continue;
+          }
+          Path relative = root.relativize(entry);
+          if (excludes.matches(relative)) {
+            excluded.incrementAndGet();
+            continue;
+          }
+          if (attributes.isDirectory()) {
+            subtasks.add(new DirectoryTask(root, entry, found, excluded, tooLarge));
+          } else if (attributes.isRegularFile()) {
+            if (!includes.matches(relative)) {
+              excluded.incrementAndGet();
+            } else if (attributes.size() > maxFileBytes) {
+              tooLarge.incrementAndGet();
+            } else {
+              found.add(new ScannedFile(
+                  relativize(root, entry),
+                  entry,
+                  attributes.size(),
+                  attributes.lastModifiedTime().toMillis()));
+            }
+          }
+        }
+      } catch (IOException e) {
+        log.warn("Skipping unreadable directory {}: {}", directory, e.getMessage());
+        return;
+      }
+      invokeAll(subtasks);
+    }
+  }
+}
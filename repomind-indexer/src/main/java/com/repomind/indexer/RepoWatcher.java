@@ -0,0 +1,191 @@
+package com.repomind.indexer;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches a repository tree and hands batches of changed repo-relative paths to a listener.
+ *
+ * <p>Every directory a scan would enter is registered with a {@link WatchService}; excluded
+ * directories such as {@code target/} are never registered, and events for files outside the
+ * include patterns are dropped, so build output and editor temp files do not trigger work.
+ * Directories created later are registered as they appear and their files reported.
+ *
+ * <p>Events are debounced: a batch is delivered once no event has arrived for
+ * {@code quietPeriod}, or {@code maxDelay} after its first event during a continuous burst such as
+ * a checkout. The listener runs on the watching thread, so events that arrive meanwhile are
+ * coalesced into the next batch. If the platform drops events, the batch is flagged as an
+ * overflow and the caller should fall back to a scan.
+ */
+public final class RepoWatcher implements Closeable {
+  private static final Logger log = LoggerFactory.getLogger(RepoWatcher.class);
+
+  private final RepoScanner scanner;
+  private final Path root;
+  private final Duration quietPeriod;
+  private final Duration maxDelay;
+  private final WatchService watchService;
+  private final Map<WatchKey, Path> directories = new HashMap<>();
+  private final Set<Path> watchedPaths = new HashSet<>();
+  private volatile boolean closed;
+
+  /** A debounced set of changed paths; {@code overflow} means some changes were not reported. */
+  public record ChangeBatch(Set<String> paths, boolean overflow) {}
+
+  public RepoWatcher(RepoScanner scanner, Path root, Duration quietPeriod, Duration maxDelay)
+      throws IOException {
+    this.scanner = Objects.requireNonNull(scanner, "scanner");
+    if (root == null || !Files.isDirectory(root)) {
+      throw new IllegalArgumentException("Repository path is not a directory: " + root);
+    }
+    if (quietPeriod.isNegative() || quietPeriod.isZero() || maxDelay.compareTo(quietPeriod) < 0) {
+      throw new IllegalArgumentException(
+          "quietPeriod must be positive and maxDelay at least quietPeriod.");
+    }
+    this.root = root.toAbsolutePath().normalize();
+    this.quietPeriod = quietPeriod;
+    this.maxDelay = maxDelay;
+    this.watchService = this.root.getFileSystem().newWatchService();
+    registerTree(this.root, null);
+    log.info("Watching {} ({} directories)", this.root, directories.size());
+  }
+
+  /** Delivers batches to {@code listener} until {@link #close} is called. */
+  public void run(Consumer<ChangeBatch> listener) throws InterruptedException {
+    Set<String> pending = new TreeSet<>();
+    boolean overflow = false;
+    long firstEventAt = 0;
+    try {
+      while (!closed) {
+        boolean idle = pending.isEmpty() && !overflow;
+        WatchKey key;
+        if (idle) {
+          key = watchService.take();
+          firstEventAt = System.nanoTime();
+        } else {
+          long untilDeadline = maxDelay.toNanos() - (System.nanoTime() - firstEventAt);
+          long wait = Math.min(quietPeriod.toNanos(), untilDeadline);
+          key = wait > 0 ? watchService.poll(wait, TimeUnit.NANOSECONDS) : null;
+        }
+        if (key != null) {
+          overflow |= drain(key, pending);
+          continue;
+        }
+        if (!pending.isEmpty() || overflow) {
+          ChangeBatch batch = new ChangeBatch(Set.copyOf(pending), overflow);
+          pending.clear();
+          overflow = false;
+          listener.accept(batch);
+        }
+      }
+    } catch (ClosedWatchServiceException e) {
+      // close() was called
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    watchService.close();
+  }
+
+  /** Records the events of {@code key} into {@code pending}; returns true on overflow. */
+  private boolean drain(WatchKey key, Set<String> pending) {
+    Path directory = directories.get(key);
+    boolean overflow = false;
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == OVERFLOW) {
+        overflow = true;
+        continue;
+      }
+      if (directory == null) {
+        continue;
+      }
+      Path child = directory.resolve((Path) event.context());
+      Path relative = root.relativize(child);
+      if (scanner.isExcluded(root, relative)) {
+        continue;
+      }
+      if (event.kind() == ENTRY_CREATE && Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+        try {
+          registerTree(child, pending);
+        } catch (IOException e) {
+          log.warn("Failed to watch {}: {}", child, e.getMessage());
+          overflow = true;
+        }
+      } else if (event.kind() == ENTRY_DELETE && watchedPaths.remove(child)) {
+        // A deleted directory: the pipeline drops every indexed file below it.
+        watchedPaths.removeIf(path -> path.startsWith(child));
+        pending.add(RepoScanner.relativize(root, child));
+      } else if (scanner.matchesRules(root, relative)) {
+        pending.add(RepoScanner.relativize(root, child));
+      }
+    }
+    if (!key.reset()) {
+      directories.remove(key);
+    }
+    return overflow;
+  }
+
+  /**
+   * Registers {@code start} and every directory below it that a scan would enter. With
+   * {@code pending}, the files found are reported too, since they may have been written before
+   * their directory was registered.
+   */
+  private void registerTree(Path start, Set<String> pending) throws IOException {
+    Files.walkFileTree(start, new SimpleFileVisitor<>() {
+      @Override
+      public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes)
+          throws IOException {
+        if (!directory.equals(root) && scanner.isExcluded(root, root.relativize(directory))) {
+          return FileVisitResult.SKIP_SUBTREE;
+        }
+        WatchKey key = directory.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+        directories.put(key, directory);
+        watchedPaths.add(directory);
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+        if (pending != null && attributes.isRegularFile()
+            && scanner.matchesRules(root, root.relativize(file))) {
+          pending.add(RepoScanner.relativize(root, file));
+        }
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFileFailed(Path file, IOException e) {
+        log.warn("Skipping unreadable path {}: {}", file, e.getMessage());
+        return FileVisitResult.CONTINUE;
+      }
+    });
+  }
+}
@@ -0,0 +1,5 @@
+package com.repomind.indexer;
+
+import java.util.List;
+
+public record ScanResult(List<ScannedFile> files, int excluded, int tooLarge) {}
@@ -0,0 +1,9 @@
+package com.repomind.indexer;
+
+import java.nio.file.Path;
+
+/**
+ * A file selected for indexing. {@code relativePath} always uses {@code /} separators so that
+ * chunk ids are identical across operating systems.
+ */
+public record ScannedFile(String relativePath, Path path, long size, long lastModifiedMillis) {}
@@ -0,0 +1,4 @@
+package com.repomind.indexer;
+
+/** Decoded file text together with the SHA-256 (hex) of the bytes it was decoded from. */
+public record SourceContent(String text, String sha256) {}
@@ -0,0 +1,74 @@
+package com.repomind.indexer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Reads source files as UTF-8 through a per-thread pooled buffer. Scanner output is already
+ * capped by {@code maxFileBytes}, so a worker thread reuses one buffer for every file it reads
+ * and only the final {@link String} is allocated per file.
+ */
+public class SourceFileReader {
+  private static final int INITIAL_BUFFER_BYTES = 64 * 1024;
+
+  private final ThreadLocal<ByteBuffer> buffers =
+      ThreadLocal.withInitial(() -> ByteBuffer.allocate(INITIAL_BUFFER_BYTES));
+  private final ThreadLocal<MessageDigest> digests =
+      ThreadLocal.withInitial(SourceFileReader::sha256);
+
+  public String read(ScannedFile file) throws IOException {
+    ByteBuffer buffer = fill(file);
+    return new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+  }
+
+  /** Reads the file once, hashing the raw bytes from the same pooled buffer. */
+  public SourceContent readContent(ScannedFile file) throws IOException {
+    ByteBuffer buffer = fill(file);
+    MessageDigest digest = digests.get();
+    digest.reset();
+    digest.update(buffer.array(), 0, buffer.position());
+    return new SourceContent(
+        new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8),
+        HexFormat.of().formatHex(digest.digest()));
+  }
+
+  private ByteBuffer fill(ScannedFile file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE - 8) {
+        throw new IOException("File too large to read: " + file.relativePath());
+      }
+      ByteBuffer buffer = buffer((int) size);
+      int read;
+      do {
+        read = channel.read(buffer);
+      } while (read >= 0 && buffer.hasRemaining());
+      return buffer;
+    }
+  }
+
+  private ByteBuffer buffer(int size) {
+    ByteBuffer buffer = buffers.get();
+    if (buffer.capacity() < size) {
+      buffer = ByteBuffer.allocate(
+          (int) Math.min(Integer.MAX_VALUE - 8, Math.max(size, buffer.capacity() * 2L)));
+      buffers.set(buffer);
+    }
+    buffer.clear().limit(size);
+    return buffer;
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available.", e);
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package com.repomind.indexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.repomind.core.model.CodeChunk;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class FileChunkerTest {
+  @Test
+  void emitsOneFileChunkWithStableId() {
+    FileChunker chunker = new FileChunker(1000);
+
+    List<CodeChunk> chunks = chunker.chunk("petclinic", "src/Owner.java", "class Owner {\n  int id;\n}\n");
+
+    assertEquals(1, chunks.size());
+    CodeChunk chunk = chunks.get(0);
+    assertEquals("java", chunk.language());
+    assertEquals("Owner.java", chunk.symbol());
+    assertEquals(1, chunk.startLine());
+    assertEquals(3, chunk.endLine());
+    assertEquals("petclinic:src/Owner.java:FILE:Owner.java:1:3", chunk.chunkId());
+  }
+
+  @Test
+  void truncatesCodeButKeepsFullLineRange() {
+    FileChunker chunker = new FileChunker(10);
+
+    CodeChunk chunk = chunker.chunk("r", "A.java", "line1\nline2\nline3\nline4").get(0);
+
+    assertEquals(10, chunk.code().length());
+    assertEquals(4, chunk.endLine());
+  }
+
+  @Test
+  void skipsBlankFiles() {
+    assertTrue(new FileChunker(10).chunk("r", "Empty.java", " \n").isEmpty());
+  }
+}
@@ -0,0 +1,276 @@
+package com.repomind.indexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.repomind.core.config.IndexerConfig;
+import com.repomind.core.embeddings.EmbeddingProvider;
+import com.repomind.core.model.CodeChunk;
+import com.repomind.core.model.FileManifestEntry;
+import com.repomind.core.model.SearchCandidate;
+import com.repomind.core.model.SearchResult;
+import com.repomind.core.store.CodeChunkRepository;
+import com.repomind.core.store.IndexBatch;
+import com.repomind.core.store.RepoRebuild;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+
+class IndexingPipelineTest {
+  @Test
+  void reindexesOnlyChangedFilesAndDeletesRemovedOnes() throws IOException {
+    Path root = Files.createTempDirectory("repomind-pipeline");
+    Files.writeString(root.resolve("Owner.java"), "class Owner {}\n");
+    Files.writeString(root.resolve("Vet.java"), "class Vet {}\n");
+    Files.writeString(root.resolve("Pet.java"), "class Pet {}\n");
+    InMemoryRepository repository = new InMemoryRepository();
+    CountingProvider provider = new CountingProvider();
+    IndexingPipeline pipeline = pipeline(provider, repository);
+
+    IndexSummary first = pipeline.index("petclinic", root, false);
+    assertEquals(3, first.updated());
+    assertEquals(3, provider.embedded);
+
+    IndexSummary second = pipeline.index("petclinic", root, false);
+    assertEquals(3, second.skipped());
+    assertEquals(0, second.updated());
+    assertEquals(3, provider.embedded);
+
+    Files.writeString(root.resolve("Owner.java"), "class Owner { String name; }\n");
+    Files.delete(root.resolve("Vet.java"));
+    Files.setLastModifiedTime(root.resolve("Pet.java"), FileTime.fromMillis(1_000));
+
+    IndexSummary third = pipeline.index("petclinic", root, false);
+    assertEquals(1, third.updated());
+    assertEquals(1, third.deleted());
+    assertEquals(1, third.touched());
+    assertEquals(1, third.skipped());
+    assertEquals(4, provider.embedded);
+    assertEquals(List.of("Owner.java", "Pet.java"), List.copyOf(repository.chunksByFile.keySet()));
+    assertEquals(List.of("Owner.java", "Pet.java"), List.copyOf(repository.manifest.keySet()));
+    assertEquals(1_000, repository.manifest.get("Pet.java").lastModifiedMillis());
+  }
+
+  @Test
+  void fullReindexIgnoresManifest() throws IOException {
+    Path root = Files.createTempDirectory("repomind-pipeline-full");
+    Files.writeString(root.resolve("Owner.java"), "class Owner {}\n");
+    InMemoryRepository repository = new InMemoryRepository();
+    CountingProvider provider = new CountingProvider();
+    IndexingPipeline pipeline = pipeline(provider, repository);
+
+    pipeline.index("petclinic", root, false);
+    IndexSummary summary = pipeline.index("petclinic", root, true);
+
+    assertEquals(1, summary.updated());
+    assertEquals(2, provider.embedded);
+  }
+
+  @Test
+  void fullReindexSwapsInARebuiltIndexOnlyWhenComplete() throws IOException {
+    Path root = Files.createTempDirectory("repomind-pipeline-rebuild");
+    Files.writeString(root.resolve("Owner.java"), "class Owner {}\n");
+    Files.writeString(root.resolve("Vet.java"), "class Vet {}\n");
+    InMemoryRepository repository = new InMemoryRepository();
+    CountingProvider provider = new CountingProvider();
+    IndexingPipeline pipeline = pipeline(provider, repository);
+    pipeline.index("petclinic", root, false);
+
+    Files.delete(root.resolve("Vet.java"));
+    provider.failing = true;
+    assertThrows(IllegalStateException.class, () -> pipeline.index("petclinic", root, true));
+    assertEquals(List.of("Owner.java", "Vet.java"), List.copyOf(repository.manifest.keySet()));
+
+    provider.failing = false;
+    IndexSummary summary = pipeline.index("petclinic", root, true);
+
+    assertEquals(1, summary.updated());
+    assertEquals(1, summary.deleted());
+    assertEquals(1, repository.rebuilds);
+    assertEquals(List.of("Owner.java"), List.copyOf(repository.chunksByFile.keySet()));
+    assertEquals(List.of("Owner.java"), List.copyOf(repository.manifest.keySet()));
+  }
+
+  @Test
+  void embedsEachTextOnceAndReusesStoredVectors() throws IOException {
+    Path root = Files.createTempDirectory("repomind-pipeline-shared");
+    Files.writeString(root.resolve("Owner.java"), "class Owner {}\n");
+    Files.createDirectories(root.resolve("vendor"));
+    Files.writeString(root.resolve("vendor/Owner.java"), "class Owner {}\n");
+    Files.writeString(root.resolve("Vet.java"), "class Vet {}\n");
+    InMemoryRepository repository = new InMemoryRepository();
+    repository.sharesEmbeddings = true;
+    CountingProvider provider = new CountingProvider();
+    IndexingPipeline pipeline = pipeline(provider, repository);
+
+    IndexSummary first = pipeline.index("petclinic", root, false);
+    assertEquals(3, first.chunks());
+    assertEquals(2, provider.embedded);
+
+    Files.writeString(root.resolve("Pet.java"), "class Pet {}\n");
+    IndexSummary rebuilt = pipeline.index("petclinic", root, true);
+
+    assertEquals(4, rebuilt.chunks());
+    assertEquals(3, provider.embedded);
+    assertEquals(15.0f, repository.chunksByFile.get("vendor/Owner.java").get(0).embedding()[0]);
+  }
+
+  @Test
+  void updateTouchesOnlyChangedPathsAndDropsDeletedDirectories() throws IOException {
+    Path root = Files.createTempDirectory("repomind-pipeline-update");
+    Files.createDirectories(root.resolve("owner"));
+    Files.createDirectories(root.resolve("target"));
+    Files.writeString(root.resolve("owner/Owner.java"), "class Owner {}\n");
+    Files.writeString(root.resolve("owner/OwnerRepository.java"), "interface OwnerRepository {}\n");
+    Files.writeString(root.resolve("Vet.java"), "class Vet {}\n");
+    InMemoryRepository repository = new InMemoryRepository();
+    CountingProvider provider = new CountingProvider();
+    IndexingPipeline pipeline = pipeline(provider, repository);
+    pipeline.index("petclinic", root, false);
+
+    Files.writeString(root.resolve("Vet.java"), "class Vet { String name; }\n");
+    Files.writeString(root.resolve("Pet.java"), "class Pet {}\n");
+    Files.writeString(root.resolve("target/Generated.java"), "class Generated {}\n");
+    IndexSummary changed = pipeline.update(
+        "petclinic", root, List.of("Vet.java", "Pet.java", "target/Generated.java", "Gone.java"));
+
+    assertEquals(2, changed.scanned());
+    assertEquals(2, changed.updated());
+    assertEquals(0, changed.deleted());
+    assertEquals(5, provider.embedded);
+
+    Files.delete(root.resolve("owner/Owner.java"));
+    Files.delete(root.resolve("owner/OwnerRepository.java"));
+    Files.delete(root.resolve("owner"));
+    IndexSummary removed = pipeline.update("petclinic", root, List.of("owner"));
+
+    assertEquals(2, removed.deleted());
+    assertEquals(List.of("Pet.java", "Vet.java"), List.copyOf(repository.manifest.keySet()));
+    assertEquals(5, provider.embedded);
+  }
+
+  private static IndexingPipeline pipeline(EmbeddingProvider provider, CodeChunkRepository repository) {
+    return new IndexingPipeline(
+        new RepoScanner(new IndexerConfig(), 2),
+        new SourceFileReader(),
+        new FileChunker(1000),
+        provider,
+        repository);
+  }
+
+  private static final class CountingProvider implements EmbeddingProvider {
+    private int embedded;
+    private boolean failing;
+
+    @Override
+    public List<float[]> embedFloats(List<String> inputs) {
+      if (failing) {
+        throw new IllegalStateException("embedding server down");
+      }
+      embedded += inputs.size();
+      List<float[]> results = new ArrayList<>();
+      for (String input : inputs) {
+        results.add(new float[] {input.length()});
+      }
+      return results;
+    }
+  }
+
+  private static final class InMemoryRepository implements CodeChunkRepository {
+    private final Map<String, List<CodeChunk>> chunksByFile = new TreeMap<>();
+    private final Map<String, FileManifestEntry> manifest = new TreeMap<>();
+    private int rebuilds;
+    private boolean sharesEmbeddings;
+
+    @Override
+    public List<SearchResult> search(String repo, float[] queryEmbedding, int topK) {
+      return List.of();
+    }
+
+    @Override
+    public List<SearchCandidate> searchCandidates(
+        String repo, String queryText, float[] queryEmbedding, int topK) {
+      return List.of();
+    }
+
+    @Override
+    public void upsertChunks(List<CodeChunk> chunks) {
+      for (CodeChunk chunk : chunks) {
+        chunksByFile.computeIfAbsent(chunk.filePath(), path -> new ArrayList<>()).add(chunk);
+      }
+    }
+
+    @Override
+    public Map<String, float[]> findEmbeddings(List<String> texts) {
+      Map<String, float[]> found = new HashMap<>();
+      if (sharesEmbeddings) {
+        for (List<CodeChunk> chunks : chunksByFile.values()) {
+          for (CodeChunk chunk : chunks) {
+            if (texts.contains(chunk.code())) {
+              found.put(chunk.code(), chunk.embedding());
+            }
+          }
+        }
+      }
+      return found;
+    }
+
+    @Override
+    public Map<String, FileManifestEntry> loadManifest(String repo) {
+      return new HashMap<>(manifest);
+    }
+
+    @Override
+    public void applyBatch(String repo, IndexBatch batch) {
+      for (FileManifestEntry entry : batch.changedFiles()) {
+        chunksByFile.remove(entry.filePath());
+        manifest.put(entry.filePath(), entry);
+      }
+      upsertChunks(batch.chunks());
+      for (FileManifestEntry entry : batch.touchedFiles()) {
+        manifest.put(entry.filePath(), entry);
+      }
+      for (String path : batch.deletedPaths()) {
+        chunksByFile.remove(path);
+        manifest.remove(path);
+      }
+    }
+
+    /** Builds into a separate repository and swaps its contents in on commit. */
+    @Override
+    public RepoRebuild rebuild(String repo) {
+      InMemoryRepository next = new InMemoryRepository();
+      return new RepoRebuild() {
+        @Override
+        public void applyBatch(IndexBatch batch) {
+          next.applyBatch(repo, batch);
+        }
+
+        @Override
+        public void commit() {
+          chunksByFile.clear();
+          chunksByFile.putAll(next.chunksByFile);
+          manifest.clear();
+          manifest.putAll(next.manifest);
+          rebuilds++;
+        }
+
+        @Override
+        public void close() {}
+      };
+    }
+
+    @Override
+    public void deleteRepo(String repo) {
+      chunksByFile.clear();
+      manifest.clear();
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package com.repomind.indexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.repomind.core.model.CodeChunk;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class JavaSymbolChunkerTest {
+  private static final String OWNER = """
+      package org.petclinic;
+
+      /** A pet owner. */
+      public class Owner {
+        private String name, city;
+
+        public Owner(String name) {
+          this.name = name;
+        }
+
+        // Looks up a pet by name.
+        public Pet getPet(String name) {
+          return null;
+        }
+
+        public Pet getPet(String name, boolean ignoreNew) {
+          return null;
+        }
+
+        enum Kind { CAT, DOG }
+      }
+      """;
+
+  @Test
+  void emitsTypeMethodConstructorAndFieldChunksInSourceOrder() {
+    List<CodeChunk> chunks = new JavaSymbolChunker(8000).chunk("petclinic", "src/Owner.java", OWNER);
+
+    assertEquals(List.of(
+            "CLASS Owner 3-21",
+            "FIELD Owner.name,city 5-5",
+            "CONSTRUCTOR Owner.Owner(String) 7-9",
+            "METHOD Owner.getPet(String) 11-14",
+            "METHOD Owner.getPet(String, boolean) 16-18",
+            "ENUM Owner.Kind 20-20"),
+        chunks.stream()
+            .map(c -> c.symbolKind() + " " + c.symbol() + " " + c.startLine() + "-" + c.endLine())
+            .toList());
+    CodeChunk method = chunks.get(3);
+    assertEquals("// Looks up a pet by name.\n  public Pet getPet(String name) {\n    return null;\n  }",
+        method.code());
+    assertEquals("petclinic:src/Owner.java:METHOD:Owner.getPet(String):11:14", method.chunkId());
+    assertEquals("java", method.language());
+  }
+
+  @Test
+  void typeChunkElidesMemberBodiesAndNestedTypes() {
+    CodeChunk type = new JavaSymbolChunker(8000).chunk("petclinic", "src/Owner.java", OWNER).get(0);
+
+    assertTrue(type.code().startsWith("/** A pet owner. */\npublic class Owner {"));
+    assertTrue(type.code().contains("public Owner(String name) { ... }"));
+    assertTrue(type.code().contains("public Pet getPet(String name, boolean ignoreNew) { ... }"));
+    assertTrue(type.code().contains("enum Kind { ... }"));
+    assertFalse(type.code().contains("return null"));
+    assertTrue(type.code().endsWith("}"));
+  }
+
+  @Test
+  void fallsBackToFileChunkForUnparseableOrNonJavaFiles() {
+    JavaSymbolChunker chunker = new JavaSymbolChunker(8000);
+
+    assertEquals("FILE", chunker.chunk("r", "Broken.java", "class {").get(0).symbolKind());
+    assertEquals("FILE", chunker.chunk("r", "package-info.java", "package a;\n").get(0).symbolKind());
+    assertEquals("FILE", chunker.chunk("r", "notes.txt", "hello").get(0).symbolKind());
+    assertTrue(chunker.chunk("r", "Empty.java", " \n").isEmpty());
+  }
+
+  @Test
+  void producesIdenticalChunksAcrossThreads() throws Exception {
+    JavaSymbolChunker chunker = new JavaSymbolChunker(8000);
+    List<String> expected = ids(chunker.chunk("petclinic", "src/Owner.java", OWNER));
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<List<String>>> futures = new ArrayList<>();
+      for (int i = 0; i < 16; i++) {
+        futures.add(executor.submit(() -> ids(chunker.chunk("petclinic", "src/Owner.java", OWNER))));
+      }
+      for (Future<List<String>> future : futures) {
+        assertEquals(expected, future.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static List<String> ids(List<CodeChunk> chunks) {
+    return chunks.stream().map(CodeChunk::chunkId).toList();
+  }
+}
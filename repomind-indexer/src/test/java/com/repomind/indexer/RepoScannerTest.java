@@ -0,0 +1,76 @@
+package com.repomind.indexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.repomind.core.config.IndexerConfig;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RepoScannerTest {
+  @Test
+  void scansIncludedFilesInSortedOrder() throws IOException {
+    Path root = Files.createTempDirectory("repomind-scan");
+    write(root.resolve("src/main/java/b/Vet.java"), "class Vet {}");
+    write(root.resolve("src/main/java/a/Owner.java"), "class Owner {}");
+    write(root.resolve("Root.java"), "class Root {}");
+    write(root.resolve("README.md"), "# readme");
+    write(root.resolve("target/classes/Generated.java"), "class Generated {}");
+    write(root.resolve("module/build/Gen.java"), "class Gen {}");
+    write(root.resolve(".git/objects/Obj.java"), "class Obj {}");
+
+    ScanResult result = new RepoScanner(new IndexerConfig(), 4).scan(root);
+
+    assertEquals(
+        List.of("Root.java", "src/main/java/a/Owner.java", "src/main/java/b/Vet.java"),
+        result.files().stream().map(ScannedFile::relativePath).toList());
+  }
+
+  @Test
+  void skipsFilesOverMaxSize() throws IOException {
+    Path root = Files.createTempDirectory("repomind-scan-size");
+    write(root.resolve("Small.java"), "class Small {}");
+    write(root.resolve("Huge.java"), "x".repeat(4096));
+    IndexerConfig config = new IndexerConfig();
+    config.setMaxFileBytes(1024L);
+
+    ScanResult result = new RepoScanner(config, 2).scan(root);
+
+    assertEquals(List.of("Small.java"), result.files().stream().map(ScannedFile::relativePath).toList());
+    assertEquals(1, result.tooLarge());
+  }
+
+  @Test
+  void doesNotFollowSymlinkLoops() throws IOException {
+    Path root = Files.createTempDirectory("repomind-scan-links");
+    write(root.resolve("pkg/A.java"), "class A {}");
+    try {
+      Files.createSymbolicLink(root.resolve("pkg/loop"), root);
+    } catch (UnsupportedOperationException | IOException e) {
+      return;
+    }
+
+    ScanResult result = new RepoScanner(new IndexerConfig(), 2).scan(root);
+
+    assertEquals(List.of("pkg/A.java"), result.files().stream().map(ScannedFile::relativePath).toList());
+  }
+
+  @Test
+  void readsFileContents() throws IOException {
+    Path root = Files.createTempDirectory("repomind-scan-read");
+    write(root.resolve("Owner.java"), "class Owner { String café; }");
+    ScannedFile file = new RepoScanner(new IndexerConfig(), 1).scan(root).files().get(0);
+
+    SourceFileReader reader = new SourceFileReader();
+
+    assertEquals("class Owner { String café; }", reader.read(file));
+    assertEquals("class Owner { String café; }", reader.read(file));
+  }
+
+  private static void write(Path path, String content) throws IOException {
+    Files.createDirectories(path.getParent());
+    Files.writeString(path, content);
+  }
+}
@@ -0,0 +1,77 @@
+package com.repomind.indexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import com.repomind.core.config.IndexerConfig;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class RepoWatcherTest {
+  @Test
+  void coalescesABurstIntoOneBatchOfIncludedPaths() throws Exception {
+    Path root = Files.createTempDirectory("repomind-watch");
+    Files.createDirectories(root.resolve("src"));
+    Files.createDirectories(root.resolve("target/classes"));
+    BlockingQueue<RepoWatcher.ChangeBatch> batches = new LinkedBlockingQueue<>();
+    try (RepoWatcher watcher = watcher(root)) {
+      Thread thread = Thread.ofVirtual().start(() -> run(watcher, batches));
+
+      for (int i = 0; i < 5; i++) {
+        Files.writeString(root.resolve("src/Owner.java"), "class Owner { int v" + i + "; }\n");
+      }
+      Files.writeString(root.resolve("src/notes.txt"), "todo\n");
+      Files.writeString(root.resolve("target/classes/Owner.java"), "class Owner {}\n");
+      Files.createDirectories(root.resolve("src/vet"));
+      Files.writeString(root.resolve("src/vet/Vet.java"), "class Vet {}\n");
+
+      RepoWatcher.ChangeBatch batch = awaitPaths(batches, Set.of("src/Owner.java", "src/vet/Vet.java"));
+      assertEquals(false, batch.overflow());
+
+      Files.delete(root.resolve("src/vet/Vet.java"));
+      Files.delete(root.resolve("src/vet"));
+      awaitPaths(batches, Set.of("src/vet/Vet.java", "src/vet"));
+
+      watcher.close();
+      thread.join(5_000);
+      assertEquals(false, thread.isAlive());
+    }
+  }
+
+  private static RepoWatcher watcher(Path root) throws IOException {
+    return new RepoWatcher(new RepoScanner(new IndexerConfig(), 1), root,
+        Duration.ofMillis(200), Duration.ofSeconds(2));
+  }
+
+  /** Collects batches until {@code expected} is covered; a burst may straddle two batches. */
+  private static RepoWatcher.ChangeBatch awaitPaths(
+      BlockingQueue<RepoWatcher.ChangeBatch> batches, Set<String> expected)
+      throws InterruptedException {
+    RepoWatcher.ChangeBatch batch = batches.poll(10, TimeUnit.SECONDS);
+    assertNotNull(batch, "no batch for " + expected);
+    Set<String> seen = new TreeSet<>(batch.paths());
+    while (!seen.containsAll(expected)) {
+      RepoWatcher.ChangeBatch next = batches.poll(10, TimeUnit.SECONDS);
+      assertNotNull(next, "saw " + seen + ", expected " + expected);
+      seen.addAll(next.paths());
+    }
+    assertEquals(expected, seen);
+    return batch;
+  }
+
+  private static void run(RepoWatcher watcher, BlockingQueue<RepoWatcher.ChangeBatch> batches) {
+    try {
+      watcher.run(batches::add);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
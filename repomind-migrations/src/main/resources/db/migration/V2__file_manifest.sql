@@ -0,0 +1,14 @@
+-- Per-file manifest for incremental indexing: a file is re-chunked and re-embedded only when its
+-- content hash changes. size/mtime let the indexer skip unchanged files without reading them.
+CREATE TABLE IF NOT EXISTS file_manifest (
+  repo          TEXT NOT NULL,
+  file_path     TEXT NOT NULL,
+  size_bytes    BIGINT NOT NULL,
+  mtime_ms      BIGINT NOT NULL,
+  content_hash  TEXT NOT NULL,
+  indexed_at    TIMESTAMPTZ NOT NULL DEFAULT now(),
+  PRIMARY KEY (repo, file_path)
+);
+
+-- Replacing or deleting a file's chunks filters by (repo, file_path).
+CREATE INDEX IF NOT EXISTS ix_code_chunks_repo_file ON code_chunks(repo, file_path);
@@ -0,0 +1,18 @@
+-- Unlogged staging table for bulk chunk writes: rows are streamed in with COPY, merged into
+-- code_chunks with a single INSERT ... ON CONFLICT and then removed. load_id separates
+-- concurrent writers. Unlogged: contents are transient and need not survive a crash.
+CREATE UNLOGGED TABLE IF NOT EXISTS code_chunks_staging (
+  load_id       BIGINT NOT NULL,
+  repo          TEXT NOT NULL,
+  file_path     TEXT NOT NULL,
+  language      TEXT NOT NULL,
+  symbol        TEXT,
+  symbol_kind   TEXT,
+  start_line    INT,
+  end_line      INT,
+  code          TEXT NOT NULL,
+  embedding     vector NOT NULL,
+  chunk_id      TEXT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS ix_code_chunks_staging_load ON code_chunks_staging(load_id);
@@ -0,0 +1,15 @@
+-- HNSW index for cosine-distance search. Build parameters come from the session settings
+-- repomind.hnsw_m / repomind.hnsw_ef_construction (set by FlywayMigrator from db.hnswM /
+-- db.hnswEfConstruction) and fall back to pgvector's defaults when unset.
+DO $$
+DECLARE
+  hnsw_m INT := COALESCE(NULLIF(current_setting('repomind.hnsw_m', true), '')::INT, 16);
+  hnsw_ef_construction INT :=
+      COALESCE(NULLIF(current_setting('repomind.hnsw_ef_construction', true), '')::INT, 64);
+BEGIN
+  EXECUTE format(
+      'CREATE INDEX IF NOT EXISTS ix_code_chunks_embedding_hnsw ON code_chunks '
+          || 'USING hnsw (embedding vector_cosine_ops) WITH (m = %s, ef_construction = %s)',
+      hnsw_m, hnsw_ef_construction);
+END
+$$;
@@ -0,0 +1,36 @@
+-- Quantized HNSW index. With repomind.quantization (set by FlywayMigrator from db.quantization)
+-- at 'halfvec' or 'binary', the index is built on a float16 or bit expression over the
+-- full-precision embedding column, and the float32 index from V4 is dropped. Searches re-rank
+-- the quantized candidates exactly against the column. 'none' (default) changes nothing.
+-- The expressions must stay in sync with com.repomind.storage.Quantization.
+DO $$
+DECLARE
+  mode TEXT := COALESCE(NULLIF(current_setting('repomind.quantization', true), ''), 'none');
+  hnsw_m INT := COALESCE(NULLIF(current_setting('repomind.hnsw_m', true), '')::INT, 16);
+  hnsw_ef_construction INT :=
+      COALESCE(NULLIF(current_setting('repomind.hnsw_ef_construction', true), '')::INT, 64);
+  dims INT;
+BEGIN
+  IF mode = 'none' THEN
+    RETURN;
+  END IF;
+  SELECT atttypmod INTO dims FROM pg_attribute
+   WHERE attrelid = 'code_chunks'::regclass AND attname = 'embedding';
+  IF mode = 'halfvec' THEN
+    EXECUTE format(
+        'CREATE INDEX IF NOT EXISTS ix_code_chunks_embedding_halfvec ON code_chunks '
+            || 'USING hnsw ((embedding::halfvec(%s)) halfvec_cosine_ops) '
+            || 'WITH (m = %s, ef_construction = %s)',
+        dims, hnsw_m, hnsw_ef_construction);
+  ELSIF mode = 'binary' THEN
+    EXECUTE format(
+        'CREATE INDEX IF NOT EXISTS ix_code_chunks_embedding_bit ON code_chunks '
+            || 'USING hnsw ((binary_quantize(embedding)::bit(%s)) bit_hamming_ops) '
+            || 'WITH (m = %s, ef_construction = %s)',
+        dims, hnsw_m, hnsw_ef_construction);
+  ELSE
+    RAISE EXCEPTION 'Unknown repomind.quantization: %', mode;
+  END IF;
+  DROP INDEX IF EXISTS ix_code_chunks_embedding_hnsw;
+END
+$$;
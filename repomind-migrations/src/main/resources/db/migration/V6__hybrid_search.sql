@@ -0,0 +1,21 @@
+-- Full-text side of hybrid search. search_text indexes the symbol (weight A), the path (B) and the
+-- code (C). Punctuation becomes spaces so qualified names and paths split into words, and
+-- camelCase identifiers are indexed both whole and split ("FetchRequest" -> fetchrequest, fetch,
+-- request). The 'english' config drops stopwords and stems. Queries must use the same config;
+-- see com.repomind.storage.LexicalQuery. Adding a stored column rewrites code_chunks once.
+ALTER TABLE code_chunks ADD COLUMN IF NOT EXISTS search_text tsvector GENERATED ALWAYS AS (
+  setweight(to_tsvector('english',
+      regexp_replace(coalesce(symbol, ''), '[^[:alnum:]]+', ' ', 'g') || ' ' ||
+      regexp_replace(regexp_replace(coalesce(symbol, ''), '[^[:alnum:]]+', ' ', 'g'),
+          '([a-z0-9])([A-Z])', '\1 \2', 'g')), 'A') ||
+  setweight(to_tsvector('english',
+      regexp_replace(file_path, '[^[:alnum:]]+', ' ', 'g') || ' ' ||
+      regexp_replace(regexp_replace(file_path, '[^[:alnum:]]+', ' ', 'g'),
+          '([a-z0-9])([A-Z])', '\1 \2', 'g')), 'B') ||
+  setweight(to_tsvector('english',
+      regexp_replace(code, '[^[:alnum:]]+', ' ', 'g') || ' ' ||
+      regexp_replace(regexp_replace(code, '[^[:alnum:]]+', ' ', 'g'),
+          '([a-z0-9])([A-Z])', '\1 \2', 'g')), 'C')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS ix_code_chunks_search_text ON code_chunks USING gin (search_text);
@@ -0,0 +1,169 @@
+-- List-partitions code_chunks by repo, one partition per repo. Every search filters on repo, so
+-- the planner prunes it to a single partition and walks that partition's own HNSW graph. The
+-- functions below own the partition lifecycle (see com.repomind.storage.PgVectorCodeChunkRepository):
+-- partitions are created on a repo's first write, a full re-index is built in a separate table and
+-- swapped in, and deleting a repo drops its partition. A per-repo advisory lock serializes them.
+-- Existing rows move into per-repo partitions, then the indexes of V1, V2 and V4-V6 are rebuilt
+-- on the partitioned table with the same settings (repomind.hnsw_m, repomind.hnsw_ef_construction,
+-- repomind.quantization); every partition gets its own copy of each.
+
+-- Partition table name for a repo: a readable slug plus a hash, always a valid identifier.
+CREATE OR REPLACE FUNCTION repomind_chunk_partition(repo_name TEXT) RETURNS TEXT
+LANGUAGE sql IMMUTABLE AS $$
+  SELECT 'code_chunks_'
+      || left(trim(BOTH '_' FROM regexp_replace(lower(repo_name), '[^a-z0-9]+', '_', 'g')), 24)
+      || '_' || left(md5(repo_name), 8)
+$$;
+
+-- Creates the repo's partition unless it exists. Creating a partition briefly locks code_chunks
+-- exclusively, so callers run this in its own transaction before writing.
+CREATE OR REPLACE FUNCTION repomind_ensure_chunk_partition(repo_name TEXT) RETURNS TEXT
+LANGUAGE plpgsql AS $$
+DECLARE
+  chunk_table TEXT := repomind_chunk_partition(repo_name);
+BEGIN
+  IF to_regclass(quote_ident(chunk_table)) IS NULL THEN
+    PERFORM pg_advisory_xact_lock(hashtext('code_chunks'), hashtext(repo_name));
+    IF to_regclass(quote_ident(chunk_table)) IS NULL THEN
+      EXECUTE format('CREATE TABLE %I PARTITION OF code_chunks FOR VALUES IN (%L)',
+          chunk_table, repo_name);
+    END IF;
+  END IF;
+  RETURN chunk_table;
+END
+$$;
+
+-- Creates an empty standalone table shaped like a partition for a full re-index of the repo. It
+-- only gets the unique indexes the writers' ON CONFLICT needs: loading into HNSW and GIN indexes
+-- row by row is the slow path, so the swap builds those once the rows are in. The CHECK constraint
+-- lets the swap attach the table without scanning it.
+CREATE OR REPLACE FUNCTION repomind_prepare_chunk_rebuild(repo_name TEXT) RETURNS TEXT
+LANGUAGE plpgsql AS $$
+DECLARE
+  next_table TEXT := repomind_chunk_partition(repo_name) || '_next';
+BEGIN
+  EXECUTE format('DROP TABLE IF EXISTS %I', next_table);
+  EXECUTE format('CREATE TABLE %I (LIKE code_chunks INCLUDING DEFAULTS INCLUDING GENERATED '
+      || 'INCLUDING STORAGE INCLUDING CONSTRAINTS, PRIMARY KEY (repo, id))', next_table);
+  EXECUTE format('CREATE UNIQUE INDEX ON %I (repo, chunk_id)', next_table);
+  EXECUTE format('ALTER TABLE %I ADD CONSTRAINT repomind_partition_check CHECK (repo = %L)',
+      next_table, repo_name);
+  RETURN next_table;
+END
+$$;
+
+-- Replaces the repo's partition with the rebuilt table. Every other index of code_chunks (vector,
+-- full-text, lookup) is first built on the loaded table in one pass each, while searches still use
+-- the old partition; ATTACH then adopts them instead of building its own. Searches see either the
+-- old or the new partition; the exclusive lock on code_chunks lasts only for the catalog changes.
+CREATE OR REPLACE FUNCTION repomind_swap_chunk_partition(repo_name TEXT) RETURNS VOID
+LANGUAGE plpgsql AS $$
+DECLARE
+  chunk_table TEXT := repomind_chunk_partition(repo_name);
+  next_table TEXT := chunk_table || '_next';
+  index_def TEXT;
+BEGIN
+  FOR index_def IN
+    SELECT pg_get_indexdef(i.indexrelid)
+      FROM pg_index i
+     WHERE i.indrelid = 'code_chunks'::regclass AND NOT i.indisunique
+  LOOP
+    EXECUTE regexp_replace(index_def, '^CREATE INDEX \S+ ON (ONLY )?\S+ ',
+        format('CREATE INDEX ON %I ', next_table));
+  END LOOP;
+  PERFORM pg_advisory_xact_lock(hashtext('code_chunks'), hashtext(repo_name));
+  EXECUTE format('DROP TABLE IF EXISTS %I', chunk_table);
+  EXECUTE format('ALTER TABLE %I RENAME TO %I', next_table, chunk_table);
+  EXECUTE format('ALTER TABLE code_chunks ATTACH PARTITION %I FOR VALUES IN (%L)',
+      chunk_table, repo_name);
+  EXECUTE format('ALTER TABLE %I DROP CONSTRAINT repomind_partition_check', chunk_table);
+END
+$$;
+
+-- Drops an unfinished rebuild of the repo.
+CREATE OR REPLACE FUNCTION repomind_discard_chunk_rebuild(repo_name TEXT) RETURNS VOID
+LANGUAGE plpgsql AS $$
+BEGIN
+  EXECUTE format('DROP TABLE IF EXISTS %I', repomind_chunk_partition(repo_name) || '_next');
+END
+$$;
+
+-- Drops the repo's partition and any unfinished rebuild: all of its chunks at once.
+CREATE OR REPLACE FUNCTION repomind_drop_chunk_partition(repo_name TEXT) RETURNS VOID
+LANGUAGE plpgsql AS $$
+DECLARE
+  chunk_table TEXT := repomind_chunk_partition(repo_name);
+BEGIN
+  PERFORM pg_advisory_xact_lock(hashtext('code_chunks'), hashtext(repo_name));
+  EXECUTE format('DROP TABLE IF EXISTS %I', chunk_table);
+  EXECUTE format('DROP TABLE IF EXISTS %I', chunk_table || '_next');
+END
+$$;
+
+-- The old table gives up its sequence and index names before the partitioned one takes them.
+ALTER TABLE code_chunks RENAME TO code_chunks_unpartitioned;
+ALTER SEQUENCE code_chunks_id_seq OWNED BY NONE;
+ALTER TABLE code_chunks_unpartitioned DROP CONSTRAINT code_chunks_pkey;
+DROP INDEX IF EXISTS ux_code_chunks_chunk_id, ix_code_chunks_repo_file, ix_code_chunks_search_text,
+    ix_code_chunks_embedding_hnsw, ix_code_chunks_embedding_halfvec, ix_code_chunks_embedding_bit;
+
+-- Unique keys of a partitioned table must contain the partition key.
+CREATE TABLE code_chunks (
+  LIKE code_chunks_unpartitioned INCLUDING DEFAULTS INCLUDING GENERATED INCLUDING STORAGE,
+  PRIMARY KEY (repo, id)
+) PARTITION BY LIST (repo);
+
+DO $$
+BEGIN
+  PERFORM repomind_ensure_chunk_partition(repo)
+     FROM (SELECT DISTINCT repo FROM code_chunks_unpartitioned) repos;
+END
+$$;
+
+INSERT INTO code_chunks (id, repo, file_path, language, symbol, symbol_kind, start_line, end_line,
+    code, summary, embedding, chunk_id, created_at, updated_at)
+SELECT id, repo, file_path, language, symbol, symbol_kind, start_line, end_line,
+    code, summary, embedding, chunk_id, created_at, updated_at
+  FROM code_chunks_unpartitioned;
+
+DROP TABLE code_chunks_unpartitioned;
+ALTER SEQUENCE code_chunks_id_seq OWNED BY code_chunks.id;
+
+-- Indexes are built after the rows are in; creating them on code_chunks creates them on every
+-- partition, now and for partitions added later.
+CREATE UNIQUE INDEX ux_code_chunks_chunk_id ON code_chunks(repo, chunk_id);
+CREATE INDEX ix_code_chunks_repo_file ON code_chunks(repo, file_path);
+CREATE INDEX ix_code_chunks_search_text ON code_chunks USING gin (search_text);
+
+DO $$
+DECLARE
+  mode TEXT := COALESCE(NULLIF(current_setting('repomind.quantization', true), ''), 'none');
+  hnsw_m INT := COALESCE(NULLIF(current_setting('repomind.hnsw_m', true), '')::INT, 16);
+  hnsw_ef_construction INT :=
+      COALESCE(NULLIF(current_setting('repomind.hnsw_ef_construction', true), '')::INT, 64);
+  dims INT;
+BEGIN
+  SELECT atttypmod INTO dims FROM pg_attribute
+   WHERE attrelid = 'code_chunks'::regclass AND attname = 'embedding';
+  IF mode = 'none' THEN
+    EXECUTE format(
+        'CREATE INDEX ix_code_chunks_embedding_hnsw ON code_chunks '
+            || 'USING hnsw (embedding vector_cosine_ops) WITH (m = %s, ef_construction = %s)',
+        hnsw_m, hnsw_ef_construction);
+  ELSIF mode = 'halfvec' THEN
+    EXECUTE format(
+        'CREATE INDEX ix_code_chunks_embedding_halfvec ON code_chunks '
+            || 'USING hnsw ((embedding::halfvec(%s)) halfvec_cosine_ops) '
+            || 'WITH (m = %s, ef_construction = %s)',
+        dims, hnsw_m, hnsw_ef_construction);
+  ELSIF mode = 'binary' THEN
+    EXECUTE format(
+        'CREATE INDEX ix_code_chunks_embedding_bit ON code_chunks '
+            || 'USING hnsw ((binary_quantize(embedding)::bit(%s)) bit_hamming_ops) '
+            || 'WITH (m = %s, ef_construction = %s)',
+        dims, hnsw_m, hnsw_ef_construction);
+  ELSE
+    RAISE EXCEPTION 'Unknown repomind.quantization: %', mode;
+  END IF;
+END
+$$;
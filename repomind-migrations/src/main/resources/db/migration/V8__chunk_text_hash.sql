@@ -0,0 +1,28 @@
+-- Records which model embedded each chunk and the SHA-256 of its text's UTF-8 bytes. Before
+-- embedding, the indexer looks chunk texts up by (embedding_model, text_hash) across every
+-- partition and reuses a stored vector, so text that any repo or earlier run embedded with the
+-- same model is not embedded again (see com.repomind.storage.PgVectorCodeChunkRepository
+-- #findEmbeddings). The vector itself stays only in code_chunks, where the repo partition's HNSW
+-- graph (V7) indexes it.
+
+-- Added to the partitioned table, so every partition and every rebuild table gets them.
+ALTER TABLE code_chunks ADD COLUMN embedding_model TEXT, ADD COLUMN text_hash BYTEA;
+ALTER TABLE code_chunks_staging ADD COLUMN text_hash BYTEA;
+
+-- Existing chunks are hashed when repomind.embedding_model (set by FlywayMigrator from
+-- embeddings.model) names the model they were embedded with; otherwise they join on their next
+-- write.
+DO $$
+DECLARE
+  model_name TEXT := NULLIF(current_setting('repomind.embedding_model', true), '');
+BEGIN
+  IF model_name IS NULL THEN
+    RETURN;
+  END IF;
+  UPDATE code_chunks
+     SET embedding_model = model_name, text_hash = sha256(convert_to(code, 'UTF8'));
+END
+$$;
+
+-- Serves the lookup in every partition.
+CREATE INDEX ix_code_chunks_text_hash ON code_chunks(text_hash);
@@ -28,6 +28,11 @@ class MigrationsTest {
       try (Connection connection = java.sql.DriverManager.getConnection(
           postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())) {
         assertTrue(tableExists(connection, "code_chunks"));
+        assertTrue(tableExists(connection, "file_manifest"));
+        assertTrue(indexExists(connection, "ix_code_chunks_embedding_hnsw"));
+        assertTrue(indexExists(connection, "ix_code_chunks_search_text"));
+        assertTrue(indexExists(connection, "ix_code_chunks_text_hash"));
+        assertTrue(isPartitioned(connection, "code_chunks"));
       }
     }
   }
@@ -40,6 +45,26 @@ class MigrationsTest {
     }
   }
 
+  private boolean indexExists(Connection connection, String indexName) throws SQLException {
+    String sql = "select exists (select 1 from pg_indexes where indexname = ?)";
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setString(1, indexName);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        return resultSet.next() && resultSet.getBoolean(1);
+      }
+    }
+  }
+
+  private boolean isPartitioned(Connection connection, String tableName) throws SQLException {
+    String sql = "select exists (select 1 from pg_partitioned_table where partrelid = to_regclass(?))";
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setString(1, tableName);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        return resultSet.next() && resultSet.getBoolean(1);
+      }
+    }
+  }
+
   private boolean tableExists(Connection connection, String tableName) throws SQLException {
     String sql =
         "select exists (" +
@@ -0,0 +1,82 @@
+package com.repomind.storage;
+
+import com.repomind.core.config.DatabaseConfig;
+import com.repomind.core.config.RepoMindConfig;
+import com.repomind.core.config.StoreConfig;
+import com.repomind.core.store.CodeChunkRepository;
+import com.repomind.storage.embedded.EmbeddedCodeChunkRepository;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * The chunk repository selected by {@code store.backend}, together with the resources it holds
+ * open: a connection pool for {@code postgres}, memory-mapped store files for {@code embedded}.
+ */
+public final class ChunkStore implements AutoCloseable {
+  private final CodeChunkRepository repository;
+  private final AutoCloseable resource;
+
+  private ChunkStore(CodeChunkRepository repository, AutoCloseable resource) {
+    this.repository = repository;
+    this.resource = resource;
+  }
+
+  /** Opens the store for writing; migrates Postgres first. */
+  public static ChunkStore openForIndexing(RepoMindConfig config) {
+    if (config.getStore().isEmbedded()) {
+      return embedded(config);
+    }
+    DatabaseConfig db = config.getDb();
+    String model = config.getEmbeddings().getModel();
+    HikariDataSource dataSource = new DataSourceFactory().create(db);
+    try {
+      new FlywayMigrator().migrate(dataSource, db, model);
+      return new ChunkStore(new PgVectorCodeChunkRepository(
+          dataSource, ChunkWriteMode.parse(db.getWriteMode()), db.getWriteFlushRows(), model),
+          dataSource);
+    } catch (RuntimeException e) {
+      dataSource.close();
+      throw e;
+    }
+  }
+
+  /** Opens the store for searching with a single pooled connection for Postgres. */
+  public static ChunkStore openForSearch(RepoMindConfig config) {
+    return openForSearch(config, 1);
+  }
+
+  /** Opens the store for searching; {@code poolSize} bounds concurrent Postgres searches. */
+  public static ChunkStore openForSearch(RepoMindConfig config, int poolSize) {
+    if (config.getStore().isEmbedded()) {
+      return embedded(config);
+    }
+    HikariDataSource dataSource = new DataSourceFactory().create(config.getDb(), poolSize);
+    return new ChunkStore(new PgVectorCodeChunkRepository(
+        dataSource, VectorSearchSettings.from(config.getSearch(), config.getDb()),
+        HybridSearchSettings.from(config.getSearch())), dataSource);
+  }
+
+  public CodeChunkRepository repository() {
+    return repository;
+  }
+
+  @Override
+  public void close() {
+    try {
+      resource.close();
+    } catch (StorageException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new StorageException("Failed to close chunk store: " + e.getMessage(), e);
+    }
+  }
+
+  private static ChunkStore embedded(RepoMindConfig config) {
+    StoreConfig store = config.getStore();
+    EmbeddedCodeChunkRepository repository = new EmbeddedCodeChunkRepository(
+        store.resolvePath(),
+        store.getHnswM(),
+        store.getHnswEfConstruction(),
+        config.getSearch().getEfSearch());
+    return new ChunkStore(repository, repository);
+  }
+}
@@ -0,0 +1,23 @@
+package com.repomind.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The {@code text_hash} of {@code code_chunks} rows (see V8__chunk_text_hash.sql): SHA-256 of the
+ * chunk text's UTF-8 bytes, which together with {@code embedding_model} finds a stored vector for
+ * the same text in any repo.
+ */
+final class ChunkTextHash {
+  private ChunkTextHash() {}
+
+  /** SHA-256 of the UTF-8 bytes of {@code text}, as {@code sha256(convert_to(text, 'UTF8'))}. */
+  static byte[] of(String text) {
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available.", e);
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package com.repomind.storage;
+
+import java.util.Locale;
+
+/** How chunk upserts reach Postgres. */
+public enum ChunkWriteMode {
+  /** Binary COPY into an unlogged staging table, merged with one INSERT ... ON CONFLICT. */
+  COPY,
+  /** One parameterized upsert per row, sent as a JDBC batch. */
+  ROWS;
+
+  public static ChunkWriteMode parse(String value) {
+    if (value == null || value.isBlank()) {
+      return COPY;
+    }
+    try {
+      return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new StorageException("Unknown db.writeMode: " + value + " (expected copy or rows)", e);
+    }
+  }
+}
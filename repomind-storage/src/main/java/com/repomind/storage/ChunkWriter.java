@@ -0,0 +1,14 @@
+package com.repomind.storage;
+
+import com.repomind.core.model.CodeChunk;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Upserts chunks by {@code (repo, chunk_id)} into {@code table} ({@code code_chunks} or a
+ * partition being rebuilt) on a connection whose transaction the caller owns.
+ */
+interface ChunkWriter {
+  void write(Connection connection, String table, List<CodeChunk> chunks) throws SQLException;
+}
@@ -0,0 +1,134 @@
+package com.repomind.storage;
+
+import com.repomind.core.model.CodeChunk;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+/**
+ * Streams chunks into {@code code_chunks_staging} with binary COPY and merges every
+ * {@code flushSize} rows into the target table with one {@code INSERT ... ON CONFLICT
+ * (repo, chunk_id) DO UPDATE}. Each flush uses a fresh {@code load_id}, so concurrent writers never see
+ * each other's staged rows, and staged rows are deleted in the same transaction.
+ */
+final class CopyChunkWriter implements ChunkWriter {
+  private static final int FIELD_COUNT = 12;
+  private static final int SEND_BYTES = 256 * 1024;
+
+  private static final String COPY_SQL =
+      "COPY code_chunks_staging "
+          + "(load_id, repo, file_path, language, symbol, symbol_kind, start_line, end_line, code, embedding, chunk_id, "
+          + "text_hash) "
+          + "FROM STDIN (FORMAT binary)";
+
+  private static final String MERGE_SQL =
+      "INSERT INTO %s "
+          + "(repo, file_path, language, symbol, symbol_kind, start_line, end_line, code, embedding, chunk_id, "
+          + "embedding_model, text_hash) "
+          + "SELECT DISTINCT ON (chunk_id) "
+          + "repo, file_path, language, symbol, symbol_kind, start_line, end_line, code, embedding, chunk_id, "
+          + "?::text, text_hash "
+          + "FROM code_chunks_staging WHERE load_id = ? ORDER BY chunk_id "
+          + "ON CONFLICT (repo, chunk_id) DO UPDATE SET "
+          + "file_path = EXCLUDED.file_path, "
+          + "language = EXCLUDED.language, "
+          + "symbol = EXCLUDED.symbol, "
+          + "symbol_kind = EXCLUDED.symbol_kind, "
+          + "start_line = EXCLUDED.start_line, "
+          + "end_line = EXCLUDED.end_line, "
+          + "code = EXCLUDED.code, "
+          + "embedding = EXCLUDED.embedding, "
+          + "embedding_model = EXCLUDED.embedding_model, "
+          + "text_hash = EXCLUDED.text_hash, "
+          + "updated_at = now()";
+
+  private static final String CLEAR_SQL = "DELETE FROM code_chunks_staging WHERE load_id = ?";
+
+  private final int flushSize;
+  private final String embeddingModel;
+
+  /** With a {@code null} model, chunks are written without one and are never reused. */
+  CopyChunkWriter(int flushSize, String embeddingModel) {
+    if (flushSize <= 0) {
+      throw new IllegalArgumentException("flushSize must be positive.");
+    }
+    this.flushSize = flushSize;
+    this.embeddingModel = embeddingModel;
+  }
+
+  @Override
+  public void write(Connection connection, String table, List<CodeChunk> chunks)
+      throws SQLException {
+    if (chunks.isEmpty()) {
+      return;
+    }
+    String mergeSql = String.format(MERGE_SQL, table);
+    CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+    PgBinaryCopyEncoder encoder = new PgBinaryCopyEncoder(SEND_BYTES + 64 * 1024);
+    for (int start = 0; start < chunks.size(); start += flushSize) {
+      List<CodeChunk> slice = chunks.subList(start, Math.min(chunks.size(), start + flushSize));
+      long loadId = ThreadLocalRandom.current().nextLong();
+      copy(copyManager, encoder, loadId, slice);
+      execute(connection, mergeSql, embeddingModel, loadId);
+      execute(connection, CLEAR_SQL, loadId);
+    }
+  }
+
+  private static void copy(
+      CopyManager copyManager, PgBinaryCopyEncoder encoder, long loadId, List<CodeChunk> chunks)
+      throws SQLException {
+    CopyIn copyIn = copyManager.copyIn(COPY_SQL);
+    try {
+      encoder.reset();
+      encoder.writeHeader();
+      for (CodeChunk chunk : chunks) {
+        RowChunkWriter.requireEmbedding(chunk);
+        encoder.beginRow(FIELD_COUNT);
+        encoder.writeInt8(loadId);
+        encoder.writeText(chunk.repo());
+        encoder.writeText(chunk.filePath());
+        encoder.writeText(chunk.language());
+        encoder.writeText(chunk.symbol());
+        encoder.writeText(chunk.symbolKind());
+        encoder.writeInt4(chunk.startLine());
+        encoder.writeInt4(chunk.endLine());
+        encoder.writeText(chunk.code());
+        encoder.writeVector(chunk.embedding());
+        encoder.writeText(chunk.chunkId());
+        encoder.writeBytes(ChunkTextHash.of(chunk.code()));
+        if (encoder.size() >= SEND_BYTES) {
+          copyIn.writeToCopy(encoder.array(), 0, encoder.size());
+          encoder.reset();
+        }
+      }
+      encoder.writeTrailer();
+      copyIn.writeToCopy(encoder.array(), 0, encoder.size());
+      copyIn.endCopy();
+    } finally {
+      if (copyIn.isActive()) {
+        copyIn.cancelCopy();
+      }
+    }
+  }
+
+  private static void execute(Connection connection, String sql, long loadId) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setLong(1, loadId);
+      statement.executeUpdate();
+    }
+  }
+
+  private static void execute(Connection connection, String sql, String model, long loadId)
+      throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setString(1, model);
+      statement.setLong(2, loadId);
+      statement.executeUpdate();
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package com.repomind.storage;
+
+import com.repomind.core.config.DatabaseConfig;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.pool.HikariPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class DataSourceFactory {
+  private static final Logger log = LoggerFactory.getLogger(DataSourceFactory.class);
+
+  private static final long CONNECTION_TIMEOUT_MS = 5_000;
+  private static final long VALIDATION_TIMEOUT_MS = 3_000;
+  private static final int DEFAULT_POOL_SIZE = 4;
+
+  public HikariDataSource create(DatabaseConfig config) {
+    return create(config, DEFAULT_POOL_SIZE);
+  }
+
+  public HikariDataSource create(DatabaseConfig config, int maxPoolSize) {
+    if (config == null) {
+      throw new StorageException("Database config is required.");
+    }
+    HikariConfig hikari = new HikariConfig();
+    hikari.setJdbcUrl(jdbcUrl(config));
+    hikari.setUsername(config.getUser());
+    hikari.setPassword(config.getPassword());
+    hikari.setMaximumPoolSize(maxPoolSize);
+    hikari.setMinimumIdle(1);
+    hikari.setConnectionTimeout(CONNECTION_TIMEOUT_MS);
+    hikari.setValidationTimeout(VALIDATION_TIMEOUT_MS);
+    hikari.setPoolName("repomind");
+    try {
+      HikariDataSource dataSource = new HikariDataSource(hikari);
+      log.info("Connected to Postgres at {}:{}/{}", config.getHost(), config.getPort(), config.getName());
+      return dataSource;
+    } catch (HikariPool.PoolInitializationException e) {
+      throw new StorageException(
+          "Cannot connect to Postgres at "
+              + config.getHost()
+              + ":"
+              + config.getPort()
+              + "/"
+              + config.getName()
+              + " as "
+              + config.getUser()
+              + ": "
+              + rootMessage(e),
+          e);
+    }
+  }
+
+  public static String jdbcUrl(DatabaseConfig config) {
+    return "jdbc:postgresql://" + config.getHost() + ":" + config.getPort() + "/" + config.getName();
+  }
+
+  private static String rootMessage(Throwable e) {
+    Throwable current = e;
+    while (current.getCause() != null) {
+      current = current.getCause();
+    }
+    return current.getMessage();
+  }
+}
@@ -0,0 +1,51 @@
+package com.repomind.storage;
+
+import com.repomind.core.config.DatabaseConfig;
+import java.util.Locale;
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class FlywayMigrator {
+  private static final Logger log = LoggerFactory.getLogger(FlywayMigrator.class);
+
+  public void migrate(DataSource dataSource) {
+    migrate(dataSource, new DatabaseConfig());
+  }
+
+  public void migrate(DataSource dataSource, DatabaseConfig config) {
+    migrate(dataSource, config, null);
+  }
+
+  /**
+   * Migrates using the index build parameters and quantization from {@code config} (read by
+   * V4__hnsw_index and V5__quantized_index) and the embedding model that existing chunks were
+   * embedded with, when known (read by V8__chunk_text_hash).
+   */
+  public void migrate(DataSource dataSource, DatabaseConfig config, String embeddingModel) {
+    String initSql = "SET repomind.hnsw_m = '" + config.getHnswM() + "'; "
+        + "SET repomind.hnsw_ef_construction = '" + config.getHnswEfConstruction() + "'; "
+        + "SET repomind.quantization = '" + Quantization.parse(config.getQuantization())
+            .name().toLowerCase(Locale.ROOT) + "'";
+    if (embeddingModel != null && !embeddingModel.isBlank()) {
+      initSql += "; SET repomind.embedding_model = '" + embeddingModel.replace("'", "''") + "'";
+    }
+    try {
+      MigrateResult result = Flyway.configure()
+          .dataSource(dataSource)
+          .locations("classpath:db/migration")
+          .initSql(initSql)
+          .load()
+          .migrate();
+      if (result.migrationsExecuted > 0) {
+        log.info("Applied {} migration(s), schema now at version {}",
+            result.migrationsExecuted, result.targetSchemaVersion);
+      }
+    } catch (FlywayException e) {
+      throw new StorageException("Database migration failed: " + e.getMessage(), e);
+    }
+  }
+}
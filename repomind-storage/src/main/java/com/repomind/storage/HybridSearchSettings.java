@@ -0,0 +1,26 @@
+package com.repomind.storage;
+
+import com.repomind.core.config.SearchConfig;
+
+/**
+ * Reciprocal rank fusion of the vector and full-text rankings: a chunk scores
+ * {@code weight / (rrfK + rank)} in each list it appears in, and the sums decide the order.
+ */
+public record HybridSearchSettings(
+    boolean enabled, double vectorWeight, double lexicalWeight, int rrfK) {
+  public static final HybridSearchSettings DISABLED = new HybridSearchSettings(false, 1.0, 1.0, 60);
+
+  public HybridSearchSettings {
+    if (vectorWeight < 0 || lexicalWeight < 0) {
+      throw new IllegalArgumentException("Fusion weights must not be negative.");
+    }
+    if (rrfK < 1) {
+      throw new IllegalArgumentException("rrfK must be positive.");
+    }
+  }
+
+  public static HybridSearchSettings from(SearchConfig config) {
+    return new HybridSearchSettings(config.isHybrid(), config.getVectorWeight(),
+        config.getLexicalWeight(), config.getRrfK());
+  }
+}
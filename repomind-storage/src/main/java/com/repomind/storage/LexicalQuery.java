@@ -0,0 +1,41 @@
+package com.repomind.storage;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Turns free query text into a {@code to_tsquery} expression that matches the words
+ * V6__hybrid_search indexes: punctuation separates words, camelCase identifiers contribute both
+ * the whole word and its parts, and any word may match.
+ */
+final class LexicalQuery {
+  /** Text search configuration of {@code code_chunks.search_text}. */
+  static final String TEXT_SEARCH_CONFIG = "english";
+
+  private static final Pattern NON_WORD =
+      Pattern.compile("[^\\p{Alnum}]+", Pattern.UNICODE_CHARACTER_CLASS);
+  private static final Pattern CAMEL_BOUNDARY = Pattern.compile("(?<=[a-z0-9])(?=[A-Z])");
+
+  private LexicalQuery() {
+  }
+
+  /** OR of the query's words, or {@code null} when it has none. */
+  static String toTsQuery(String text) {
+    if (text == null) {
+      return null;
+    }
+    Set<String> words = new LinkedHashSet<>();
+    for (String word : NON_WORD.split(text)) {
+      if (word.isEmpty()) {
+        continue;
+      }
+      words.add(word.toLowerCase(Locale.ROOT));
+      for (String part : CAMEL_BOUNDARY.split(word)) {
+        words.add(part.toLowerCase(Locale.ROOT));
+      }
+    }
+    return words.isEmpty() ? null : String.join(" | ", words);
+  }
+}
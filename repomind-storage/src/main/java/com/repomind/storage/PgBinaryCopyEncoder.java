@@ -0,0 +1,118 @@
+package com.repomind.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Encodes rows in PostgreSQL's binary COPY format into a reusable byte buffer. Integers are
+ * big-endian; vectors use pgvector's binary representation ({@code int16 dim, int16 unused,
+ * float4[dim]}), written straight from the float bits so no per-component text is produced.
+ */
+final class PgBinaryCopyEncoder {
+  private static final byte[] SIGNATURE = {
+      'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0
+  };
+
+  private byte[] buffer;
+  private int size;
+
+  PgBinaryCopyEncoder(int initialCapacity) {
+    this.buffer = new byte[Math.max(initialCapacity, 64)];
+  }
+
+  byte[] array() {
+    return buffer;
+  }
+
+  int size() {
+    return size;
+  }
+
+  void reset() {
+    size = 0;
+  }
+
+  void writeHeader() {
+    ensure(SIGNATURE.length + 8);
+    System.arraycopy(SIGNATURE, 0, buffer, size, SIGNATURE.length);
+    size += SIGNATURE.length;
+    putInt(0);
+    putInt(0);
+  }
+
+  void writeTrailer() {
+    ensure(2);
+    putShort(-1);
+  }
+
+  void beginRow(int fieldCount) {
+    ensure(2);
+    putShort(fieldCount);
+  }
+
+  void writeInt8(long value) {
+    ensure(12);
+    putInt(8);
+    putInt((int) (value >>> 32));
+    putInt((int) value);
+  }
+
+  void writeInt4(int value) {
+    ensure(8);
+    putInt(4);
+    putInt(value);
+  }
+
+  void writeText(String value) {
+    if (value == null) {
+      ensure(4);
+      putInt(-1);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    ensure(4 + bytes.length);
+    putInt(bytes.length);
+    System.arraycopy(bytes, 0, buffer, size, bytes.length);
+    size += bytes.length;
+  }
+
+  void writeBytes(byte[] value) {
+    ensure(4 + value.length);
+    putInt(value.length);
+    System.arraycopy(value, 0, buffer, size, value.length);
+    size += value.length;
+  }
+
+  void writeVector(float[] vector) {
+    if (vector.length > Short.MAX_VALUE) {
+      throw new IllegalArgumentException("Vector dimension too large: " + vector.length);
+    }
+    int length = 4 + vector.length * Float.BYTES;
+    ensure(4 + length);
+    putInt(length);
+    putShort(vector.length);
+    putShort(0);
+    for (float component : vector) {
+      putInt(Float.floatToRawIntBits(component));
+    }
+  }
+
+  private void putShort(int value) {
+    buffer[size++] = (byte) (value >>> 8);
+    buffer[size++] = (byte) value;
+  }
+
+  private void putInt(int value) {
+    buffer[size++] = (byte) (value >>> 24);
+    buffer[size++] = (byte) (value >>> 16);
+    buffer[size++] = (byte) (value >>> 8);
+    buffer[size++] = (byte) value;
+  }
+
+  private void ensure(int additional) {
+    int required = size + additional;
+    if (required > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+    }
+  }
+}
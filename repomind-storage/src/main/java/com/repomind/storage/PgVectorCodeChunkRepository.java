@@ -0,0 +1,867 @@
+package com.repomind.storage;
+
+import com.repomind.core.metrics.MetricsRegistry;
+import com.repomind.core.metrics.Stage;
+import com.repomind.core.metrics.StageTimer;
+import com.repomind.core.model.CodeChunk;
+import com.repomind.core.model.FileManifestEntry;
+import com.repomind.core.model.SearchCandidate;
+import com.repomind.core.model.SearchResult;
+import com.repomind.core.store.CodeChunkRepository;
+import com.repomind.core.store.IndexBatch;
+import com.repomind.core.store.RepoRebuild;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link CodeChunkRepository} on pgvector. {@code code_chunks} is list-partitioned by repo (see
+ * V7__partition_code_chunks.sql): every statement filters on {@code repo}, so it touches only that
+ * repo's partition and HNSW graph. Partitions are created before a repo's first write, a full
+ * re-index builds a new partition aside and swaps it in, and deleting a repo drops its partition.
+ *
+ * <p>Searches rank and return rows without {@code code}, read through a cursor, so TOASTed code
+ * bodies are never read for candidates; {@link #loadCode} fetches them, or just their first
+ * characters, for the rows a caller renders.
+ *
+ * <p>Constructed with the embedding model, writes record it with each chunk's text hash (see
+ * V8__chunk_text_hash.sql), and {@link #findEmbeddings} serves the vector of any chunk in any repo
+ * with the same text and model, so no text is embedded twice with the same model.
+ */
+public class PgVectorCodeChunkRepository implements CodeChunkRepository {
+  private static final Logger log = LoggerFactory.getLogger(PgVectorCodeChunkRepository.class);
+
+  private static final String CHUNKS_TABLE = "code_chunks";
+
+  /** Rows are read through a cursor of this many rows at a time. */
+  private static final int FETCH_ROWS = 64;
+
+  /**
+   * Search statements are format strings: {@code %1$s} is the quantized ordering, where one is
+   * used, and {@code %2$s} the optional {@link #EMBEDDING_BYTES} column on row alias {@code c}.
+   */
+  private static final String SEARCH_SQL =
+      "SELECT chunk_id, file_path, symbol, symbol_kind, start_line, end_line, "
+          + "embedding <=> ?::vector AS distance%2$s "
+          + "FROM code_chunks c "
+          + "WHERE repo = ? "
+          + "ORDER BY embedding <=> ?::vector "
+          + "LIMIT ?";
+
+  /**
+   * Quantized search: the innermost query walks the quantized index for {@code candidates} rows,
+   * which are then re-ranked by exact distance on the full-precision column. The join repeats the
+   * repo so it is pruned to the same partition.
+   */
+  private static final String RERANK_SEARCH_SQL =
+      "SELECT c.chunk_id, c.file_path, c.symbol, c.symbol_kind, c.start_line, c.end_line, "
+          + "r.distance%2$s "
+          + "FROM ("
+          + "SELECT id, embedding <=> ?::vector AS distance "
+          + "FROM (SELECT id, embedding FROM code_chunks "
+          + "WHERE repo = ? ORDER BY %1$s LIMIT ?) candidates "
+          + "ORDER BY distance LIMIT ?"
+          + ") r "
+          + "JOIN code_chunks c ON c.repo = ? AND c.id = r.id "
+          + "ORDER BY r.distance";
+
+  /**
+   * Hybrid search in one statement: the ANN and full-text candidate lists are ranked separately
+   * and fused with weighted reciprocal rank fusion. {@code distance} stays the cosine distance.
+   */
+  private static final String HYBRID_SEARCH_SQL =
+      "WITH vector_hits AS ("
+          + "SELECT id, row_number() OVER (ORDER BY distance, id) AS rank FROM ("
+          + "SELECT id, embedding <=> ?::vector AS distance FROM code_chunks "
+          + "WHERE repo = ? ORDER BY %1$s LIMIT ?) v"
+          + "), text_hits AS ("
+          + "SELECT id, row_number() OVER (ORDER BY ts_rank_cd(search_text, query) DESC, id) AS rank "
+          + "FROM code_chunks, to_tsquery('" + LexicalQuery.TEXT_SEARCH_CONFIG + "', ?) query "
+          + "WHERE repo = ? AND search_text @@ query "
+          + "ORDER BY rank LIMIT ?"
+          + "), fused AS ("
+          + "SELECT id, sum(score) AS score FROM ("
+          + "SELECT id, ?::float8 / (?::int + rank) AS score FROM vector_hits "
+          + "UNION ALL "
+          + "SELECT id, ?::float8 / (?::int + rank) AS score FROM text_hits"
+          + ") s GROUP BY id ORDER BY score DESC, id LIMIT ?"
+          + ") "
+          + "SELECT c.chunk_id, c.file_path, c.symbol, c.symbol_kind, c.start_line, c.end_line, "
+          + "c.embedding <=> ?::vector AS distance%2$s "
+          + "FROM fused f JOIN code_chunks c ON c.repo = ? AND c.id = f.id "
+          + "ORDER BY f.score DESC, distance";
+
+  /**
+   * Code of the rendered rows by {@code (repo, chunk_id)}. {@code substr} lets Postgres
+   * decompress or fetch only the leading part of a TOASTed body.
+   */
+  /** Each row's embedding in pgvector's binary form, for {@link #searchCandidates}. */
+  private static final String EMBEDDING_BYTES = ", vector_send(c.embedding) AS embedding_bytes";
+
+  private static final String LOAD_CODE_SQL =
+      "SELECT chunk_id, substr(code, 1, ?) FROM code_chunks WHERE repo = ? AND chunk_id = ANY(?)";
+
+  /** One stored vector per hash; any chunk with the same text and model has the same vector. */
+  private static final String FIND_EMBEDDINGS_SQL =
+      "SELECT DISTINCT ON (text_hash) text_hash, vector_send(embedding) FROM code_chunks "
+          + "WHERE text_hash = ANY(?) AND embedding_model = ?";
+
+  private static final String EXACT_SEARCH_SQL =
+      "SELECT chunk_id FROM code_chunks WHERE repo = ? ORDER BY embedding <=> ?::vector LIMIT ?";
+
+  private static final String DISABLE_INDEX_SCAN_SQL = "SET LOCAL enable_indexscan = off";
+
+  private static final String SAMPLE_EMBEDDINGS_SQL =
+      "SELECT embedding::text FROM code_chunks WHERE repo = ? ORDER BY md5(chunk_id) LIMIT ?";
+
+  /** Sizes summed over all partitions; {@code -1} for an index that does not exist. */
+  private static final String SIZES_SQL =
+      "SELECT (SELECT sum(pg_table_size(relid)) FROM pg_partition_tree('code_chunks')), "
+          + "COALESCE((SELECT sum(pg_relation_size(relid)) FROM pg_partition_tree(to_regclass(?))), -1), "
+          + "COALESCE((SELECT sum(pg_relation_size(relid)) FROM pg_partition_tree(to_regclass(?))), -1)";
+
+  private static final String EF_SEARCH_SQL = "SELECT set_config('hnsw.ef_search', ?, true)";
+
+  private static final String ITERATIVE_SEARCH_SQL =
+      "SELECT set_config('hnsw.ef_search', ?, true), set_config('hnsw.iterative_scan', ?, true)";
+
+  static final String HNSW_INDEX = Quantization.NONE.indexName();
+
+  private static final String INDEX_DEFINITION_SQL =
+      "SELECT indexdef FROM pg_indexes WHERE schemaname = current_schema() AND indexname = ?";
+
+  /** Names of the per-partition indexes of a partitioned index, as plans show them. */
+  private static final String PARTITION_INDEXES_SQL =
+      "SELECT c.relname FROM pg_partition_tree(to_regclass(?)) t JOIN pg_class c ON c.oid = t.relid "
+          + "WHERE t.isleaf";
+
+  private static final String EMBEDDING_DIMENSION_SQL =
+      "SELECT atttypmod FROM pg_attribute "
+          + "WHERE attrelid = 'code_chunks'::regclass AND attname = 'embedding'";
+
+  private static final String ANY_REPO_SQL = "SELECT repo FROM code_chunks LIMIT 1";
+
+  private static final String ENSURE_PARTITION_SQL = "SELECT repomind_ensure_chunk_partition(?)";
+
+  private static final String PREPARE_REBUILD_SQL = "SELECT repomind_prepare_chunk_rebuild(?)";
+
+  private static final String SWAP_PARTITION_SQL = "SELECT repomind_swap_chunk_partition(?)";
+
+  private static final String DISCARD_REBUILD_SQL = "SELECT repomind_discard_chunk_rebuild(?)";
+
+  private static final String DROP_PARTITION_SQL = "SELECT repomind_drop_chunk_partition(?)";
+
+  private static final String DELETE_FILE_CHUNKS_SQL =
+      "DELETE FROM code_chunks WHERE repo = ? AND file_path = ANY(?)";
+
+  private static final String LOAD_MANIFEST_SQL =
+      "SELECT file_path, size_bytes, mtime_ms, content_hash FROM file_manifest WHERE repo = ?";
+
+  private static final String UPSERT_MANIFEST_SQL =
+      "INSERT INTO file_manifest (repo, file_path, size_bytes, mtime_ms, content_hash) "
+          + "VALUES (?, ?, ?, ?, ?) "
+          + "ON CONFLICT (repo, file_path) DO UPDATE SET "
+          + "size_bytes = EXCLUDED.size_bytes, "
+          + "mtime_ms = EXCLUDED.mtime_ms, "
+          + "content_hash = EXCLUDED.content_hash, "
+          + "indexed_at = now()";
+
+  private static final String DELETE_MANIFEST_SQL =
+      "DELETE FROM file_manifest WHERE repo = ? AND file_path = ANY(?)";
+
+  private static final String DELETE_REPO_MANIFEST_SQL = "DELETE FROM file_manifest WHERE repo = ?";
+
+  public static final int DEFAULT_FLUSH_ROWS = 1000;
+
+  private final DataSource dataSource;
+  private final ChunkWriter chunkWriter;
+  private final VectorSearchSettings searchSettings;
+  private final HybridSearchSettings hybridSettings;
+  private final String embeddingModel;
+  private volatile int dimension;
+
+  public PgVectorCodeChunkRepository(DataSource dataSource) {
+    this(dataSource, VectorSearchSettings.DEFAULT);
+  }
+
+  public PgVectorCodeChunkRepository(DataSource dataSource, VectorSearchSettings searchSettings) {
+    this(dataSource, searchSettings, HybridSearchSettings.DISABLED);
+  }
+
+  public PgVectorCodeChunkRepository(
+      DataSource dataSource, VectorSearchSettings searchSettings, HybridSearchSettings hybridSettings) {
+    this(dataSource, ChunkWriteMode.COPY, DEFAULT_FLUSH_ROWS, searchSettings, hybridSettings);
+  }
+
+  public PgVectorCodeChunkRepository(DataSource dataSource, ChunkWriteMode writeMode, int flushRows) {
+    this(dataSource, writeMode, flushRows, VectorSearchSettings.DEFAULT);
+  }
+
+  /** Writes chunks embedded with {@code embeddingModel} and reuses their vectors across repos. */
+  public PgVectorCodeChunkRepository(
+      DataSource dataSource, ChunkWriteMode writeMode, int flushRows, String embeddingModel) {
+    this(dataSource, writeMode, flushRows, VectorSearchSettings.DEFAULT,
+        HybridSearchSettings.DISABLED, embeddingModel);
+  }
+
+  public PgVectorCodeChunkRepository(
+      DataSource dataSource, ChunkWriteMode writeMode, int flushRows, VectorSearchSettings searchSettings) {
+    this(dataSource, writeMode, flushRows, searchSettings, HybridSearchSettings.DISABLED);
+  }
+
+  public PgVectorCodeChunkRepository(DataSource dataSource, ChunkWriteMode writeMode, int flushRows,
+      VectorSearchSettings searchSettings, HybridSearchSettings hybridSettings) {
+    this(dataSource, writeMode, flushRows, searchSettings, hybridSettings, null);
+  }
+
+  /**
+   * With a {@code null} {@code embeddingModel}, chunks are written without a model and
+   * {@link #findEmbeddings} finds none.
+   */
+  public PgVectorCodeChunkRepository(DataSource dataSource, ChunkWriteMode writeMode, int flushRows,
+      VectorSearchSettings searchSettings, HybridSearchSettings hybridSettings,
+      String embeddingModel) {
+    this.dataSource = Objects.requireNonNull(dataSource, "dataSource");
+    this.searchSettings = Objects.requireNonNull(searchSettings, "searchSettings");
+    this.hybridSettings = Objects.requireNonNull(hybridSettings, "hybridSettings");
+    this.embeddingModel = embeddingModel;
+    this.chunkWriter = switch (Objects.requireNonNull(writeMode, "writeMode")) {
+      case COPY -> new CopyChunkWriter(flushRows, embeddingModel);
+      case ROWS -> new RowChunkWriter(embeddingModel);
+    };
+  }
+
+  @Override
+  public List<SearchResult> search(String repo, float[] queryEmbedding, int topK) {
+    return vectorSearch(repo, queryEmbedding, topK, null);
+  }
+
+  private List<SearchResult> vectorSearch(
+      String repo, float[] queryEmbedding, int topK, List<float[]> embeddings) {
+    if (repo == null || repo.isBlank()) {
+      throw new IllegalArgumentException("repo is required.");
+    }
+    long started = System.nanoTime();
+    List<SearchResult> results = new ArrayList<>(topK);
+    try (Connection connection = dataSource.getConnection()) {
+      // SET LOCAL semantics: the HNSW settings only last for this transaction.
+      inTransaction(connection, () -> {
+        applySearchSettings(connection, searchSettings.efSearchFor(topK));
+        try (PreparedStatement statement =
+            connection.prepareStatement(searchSql(connection, embeddings != null))) {
+          bindSearch(statement, repo, PgVectors.toLiteral(queryEmbedding), topK);
+          readResults(statement, results, embeddings);
+        }
+      });
+    } catch (SQLException e) {
+      throw new StorageException("Search failed for repo " + repo + ": " + e.getMessage(), e);
+    }
+    log.debug("Search repo={} topK={} results={} took {} ms",
+        repo, topK, results.size(), (System.nanoTime() - started) / 1_000_000);
+    return results;
+  }
+
+  /**
+   * Fuses the vector ranking with a full-text ranking of {@code queryText} when hybrid search is
+   * enabled and the text has words to match; otherwise a plain vector search.
+   */
+  @Override
+  public List<SearchResult> search(String repo, String queryText, float[] queryEmbedding, int topK) {
+    String tsQuery = hybridSettings.enabled() ? LexicalQuery.toTsQuery(queryText) : null;
+    return tsQuery == null
+        ? vectorSearch(repo, queryEmbedding, topK, null)
+        : hybridSearch(repo, tsQuery, queryEmbedding, topK, null);
+  }
+
+  /**
+   * The same search as {@link #search(String, String, float[], int)}; the statement also selects
+   * each row's embedding in pgvector's binary form.
+   */
+  @Override
+  public List<SearchCandidate> searchCandidates(
+      String repo, String queryText, float[] queryEmbedding, int topK) {
+    String tsQuery = hybridSettings.enabled() ? LexicalQuery.toTsQuery(queryText) : null;
+    List<float[]> embeddings = new ArrayList<>(topK);
+    List<SearchResult> results = tsQuery == null
+        ? vectorSearch(repo, queryEmbedding, topK, embeddings)
+        : hybridSearch(repo, tsQuery, queryEmbedding, topK, embeddings);
+    List<SearchCandidate> candidates = new ArrayList<>(results.size());
+    for (int i = 0; i < results.size(); i++) {
+      candidates.add(new SearchCandidate(results.get(i), embeddings.get(i)));
+    }
+    return candidates;
+  }
+
+  private List<SearchResult> hybridSearch(
+      String repo, String tsQuery, float[] queryEmbedding, int topK, List<float[]> embeddings) {
+    if (repo == null || repo.isBlank()) {
+      throw new IllegalArgumentException("repo is required.");
+    }
+    long started = System.nanoTime();
+    int depth = searchSettings.fusionDepth(topK);
+    List<SearchResult> results = new ArrayList<>(topK);
+    try (Connection connection = dataSource.getConnection()) {
+      inTransaction(connection, () -> {
+        applySearchSettings(connection, searchSettings.efSearchForRows(depth));
+        try (PreparedStatement statement =
+            connection.prepareStatement(hybridSql(connection, embeddings != null))) {
+          String vector = PgVectors.toLiteral(queryEmbedding);
+          statement.setString(1, vector);
+          statement.setString(2, repo);
+          statement.setString(3, vector);
+          statement.setInt(4, depth);
+          statement.setString(5, tsQuery);
+          statement.setString(6, repo);
+          statement.setInt(7, depth);
+          statement.setDouble(8, hybridSettings.vectorWeight());
+          statement.setInt(9, hybridSettings.rrfK());
+          statement.setDouble(10, hybridSettings.lexicalWeight());
+          statement.setInt(11, hybridSettings.rrfK());
+          statement.setInt(12, topK);
+          statement.setString(13, vector);
+          statement.setString(14, repo);
+          readResults(statement, results, embeddings);
+        }
+      });
+    } catch (SQLException e) {
+      throw new StorageException("Search failed for repo " + repo + ": " + e.getMessage(), e);
+    }
+    log.debug("Hybrid search repo={} topK={} depth={} results={} took {} ms",
+        repo, topK, depth, results.size(), (System.nanoTime() - started) / 1_000_000);
+    return results;
+  }
+
+  /** Loads the code of {@code results} in one query on the repo's partition. */
+  @Override
+  public List<SearchResult> loadCode(String repo, List<SearchResult> results, int maxChars) {
+    if (results.isEmpty()) {
+      return results;
+    }
+    Map<String, String> code = new HashMap<>(results.size() * 2);
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(LOAD_CODE_SQL)) {
+      String[] chunkIds = new String[results.size()];
+      for (int i = 0; i < chunkIds.length; i++) {
+        chunkIds[i] = results.get(i).chunkId();
+      }
+      Array array = connection.createArrayOf("text", chunkIds);
+      statement.setInt(1, maxChars > 0 ? maxChars : Integer.MAX_VALUE);
+      statement.setString(2, repo);
+      statement.setArray(3, array);
+      try (ResultSet rs = statement.executeQuery()) {
+        while (rs.next()) {
+          code.put(rs.getString(1), rs.getString(2));
+        }
+      }
+      array.free();
+    } catch (SQLException e) {
+      throw new StorageException("Failed to load code for repo " + repo + ": " + e.getMessage(), e);
+    }
+    List<SearchResult> loaded = new ArrayList<>(results.size());
+    for (SearchResult result : results) {
+      loaded.add(result.withCode(code.get(result.chunkId())));
+    }
+    return loaded;
+  }
+
+  /**
+   * Explains a representative search for {@code repo} (or any indexed repo when {@code null})
+   * under the configured HNSW settings and reports whether the plan uses the HNSW index of the
+   * configured quantization, which plans show under the name of the repo partition's copy.
+   */
+  public VectorIndexReport inspectVectorIndex(String repo, int topK) {
+    try (Connection connection = dataSource.getConnection()) {
+      String definition = null;
+      try (PreparedStatement statement = connection.prepareStatement(INDEX_DEFINITION_SQL)) {
+        statement.setString(1, searchSettings.quantization().indexName());
+        try (ResultSet rs = statement.executeQuery()) {
+          if (rs.next()) {
+            definition = rs.getString(1);
+          }
+        }
+      }
+      String targetRepo = repo == null ? anyRepo(connection) : repo;
+      float[] probe = new float[embeddingDimension(connection)];
+      probe[0] = 1.0f;
+      StringBuilder plan = new StringBuilder();
+      inTransaction(connection, () -> {
+        applySearchSettings(connection, searchSettings.efSearchFor(topK));
+        try (PreparedStatement statement =
+            connection.prepareStatement("EXPLAIN " + searchSql(connection, false))) {
+          bindSearch(statement, targetRepo, PgVectors.toLiteral(probe), topK);
+          try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+              plan.append(rs.getString(1)).append('\n');
+            }
+          }
+        }
+      });
+      String planText = plan.toString();
+      boolean used = false;
+      try (PreparedStatement statement = connection.prepareStatement(PARTITION_INDEXES_SQL)) {
+        statement.setString(1, searchSettings.quantization().indexName());
+        try (ResultSet rs = statement.executeQuery()) {
+          while (rs.next()) {
+            used |= planText.contains(rs.getString(1));
+          }
+        }
+      }
+      return new VectorIndexReport(definition, used, planText);
+    } catch (SQLException e) {
+      throw new StorageException("Failed to inspect vector index: " + e.getMessage(), e);
+    }
+  }
+
+  public Quantization quantization() {
+    return searchSettings.quantization();
+  }
+
+  /** DDL for the configured quantization's index, for when the mode changed after migration. */
+  public String createIndexSql(int m, int efConstruction) {
+    try (Connection connection = dataSource.getConnection()) {
+      return searchSettings.quantization()
+          .createIndexSql(embeddingDimension(connection), m, efConstruction);
+    } catch (SQLException e) {
+      throw new StorageException("Failed to read the embedding dimension: " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Compares the configured search with an exact sequential scan for up to {@code samples} of
+   * {@code repo}'s own embeddings used as queries, and reports table and index sizes.
+   */
+  public QuantizationReport measureQuantization(String repo, int samples, int topK) {
+    Quantization mode = searchSettings.quantization();
+    try (Connection connection = dataSource.getConnection()) {
+      long tableBytes;
+      long fullIndexBytes;
+      long quantizedIndexBytes;
+      try (PreparedStatement statement = connection.prepareStatement(SIZES_SQL)) {
+        statement.setString(1, HNSW_INDEX);
+        statement.setString(2, mode.indexName());
+        try (ResultSet rs = statement.executeQuery()) {
+          rs.next();
+          tableBytes = rs.getLong(1);
+          fullIndexBytes = rs.getLong(2);
+          quantizedIndexBytes = rs.getLong(3);
+        }
+      }
+      List<String> queries = new ArrayList<>(samples);
+      try (PreparedStatement statement = connection.prepareStatement(SAMPLE_EMBEDDINGS_SQL)) {
+        statement.setString(1, repo);
+        statement.setInt(2, samples);
+        try (ResultSet rs = statement.executeQuery()) {
+          while (rs.next()) {
+            queries.add(rs.getString(1));
+          }
+        }
+      }
+      long expected = 0;
+      long found = 0;
+      for (String vector : queries) {
+        Set<String> exact = new HashSet<>(topK);
+        inTransaction(connection, () -> {
+          try (PreparedStatement disable = connection.prepareStatement(DISABLE_INDEX_SCAN_SQL)) {
+            disable.execute();
+          }
+          try (PreparedStatement statement = connection.prepareStatement(EXACT_SEARCH_SQL)) {
+            statement.setString(1, repo);
+            statement.setString(2, vector);
+            statement.setInt(3, topK);
+            try (ResultSet rs = statement.executeQuery()) {
+              while (rs.next()) {
+                exact.add(rs.getString(1));
+              }
+            }
+          }
+        });
+        List<String> approximate = new ArrayList<>(topK);
+        inTransaction(connection, () -> {
+          applySearchSettings(connection, searchSettings.efSearchFor(topK));
+          try (PreparedStatement statement =
+              connection.prepareStatement(searchSql(connection, false))) {
+            bindSearch(statement, repo, vector, topK);
+            try (ResultSet rs = statement.executeQuery()) {
+              while (rs.next()) {
+                approximate.add(rs.getString("chunk_id"));
+              }
+            }
+          }
+        });
+        expected += exact.size();
+        found += approximate.stream().filter(exact::contains).count();
+      }
+      double recall = expected == 0 ? 1.0 : (double) found / expected;
+      return new QuantizationReport(mode, tableBytes, fullIndexBytes, quantizedIndexBytes,
+          queries.size(), topK, recall);
+    } catch (SQLException e) {
+      throw new StorageException(
+          "Failed to measure quantization for repo " + repo + ": " + e.getMessage(), e);
+    }
+  }
+
+  /** Looks {@code texts} up in every repo's chunks by their hash, in one query. */
+  @Override
+  public Map<String, float[]> findEmbeddings(List<String> texts) {
+    if (embeddingModel == null || texts.isEmpty()) {
+      return Map.of();
+    }
+    Map<String, String> textsByHash = new HashMap<>(texts.size() * 2);
+    List<byte[]> hashes = new ArrayList<>(texts.size());
+    for (String text : texts) {
+      byte[] hash = ChunkTextHash.of(text);
+      if (textsByHash.putIfAbsent(HexFormat.of().formatHex(hash), text) == null) {
+        hashes.add(hash);
+      }
+    }
+    Map<String, float[]> found = new HashMap<>(hashes.size() * 2);
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(FIND_EMBEDDINGS_SQL)) {
+      Array array = connection.createArrayOf("bytea", hashes.toArray(new byte[0][]));
+      statement.setArray(1, array);
+      statement.setString(2, embeddingModel);
+      try (ResultSet rs = statement.executeQuery()) {
+        while (rs.next()) {
+          found.put(textsByHash.get(HexFormat.of().formatHex(rs.getBytes(1))),
+              PgVectors.fromBinary(rs.getBytes(2)));
+        }
+      }
+      array.free();
+    } catch (SQLException e) {
+      throw new StorageException("Failed to look up stored embeddings: " + e.getMessage(), e);
+    }
+    return found;
+  }
+
+  @Override
+  public void upsertChunks(List<CodeChunk> chunks) {
+    if (chunks.isEmpty()) {
+      return;
+    }
+    try (StageTimer timer = MetricsRegistry.global().start(Stage.STORE_WRITE).items(chunks.size());
+        Connection connection = dataSource.getConnection()) {
+      Set<String> repos = new LinkedHashSet<>();
+      for (CodeChunk chunk : chunks) {
+        repos.add(chunk.repo());
+      }
+      for (String repo : repos) {
+        ensurePartition(connection, repo);
+      }
+      inTransaction(connection, () -> chunkWriter.write(connection, CHUNKS_TABLE, chunks));
+    } catch (SQLException e) {
+      throw new StorageException("Failed to upsert " + chunks.size() + " chunks: " + e.getMessage(), e);
+    }
+  }
+
+  @Override
+  public Map<String, FileManifestEntry> loadManifest(String repo) {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(LOAD_MANIFEST_SQL)) {
+      statement.setString(1, repo);
+      Map<String, FileManifestEntry> manifest = new HashMap<>();
+      try (ResultSet rs = statement.executeQuery()) {
+        while (rs.next()) {
+          FileManifestEntry entry = new FileManifestEntry(
+              rs.getString("file_path"),
+              rs.getLong("size_bytes"),
+              rs.getLong("mtime_ms"),
+              rs.getString("content_hash"));
+          manifest.put(entry.filePath(), entry);
+        }
+      }
+      return manifest;
+    } catch (SQLException e) {
+      throw new StorageException("Failed to load file manifest for repo " + repo + ": " + e.getMessage(), e);
+    }
+  }
+
+  @Override
+  public void applyBatch(String repo, IndexBatch batch) {
+    if (batch.isEmpty()) {
+      return;
+    }
+    try (StageTimer timer =
+            MetricsRegistry.global().start(Stage.STORE_WRITE).items(batch.chunks().size());
+        Connection connection = dataSource.getConnection()) {
+      if (!batch.chunks().isEmpty()) {
+        ensurePartition(connection, repo);
+      }
+      inTransaction(connection, () -> {
+        List<String> replaced = new ArrayList<>(batch.changedFiles().size() + batch.deletedPaths().size());
+        for (FileManifestEntry entry : batch.changedFiles()) {
+          replaced.add(entry.filePath());
+        }
+        replaced.addAll(batch.deletedPaths());
+        deleteByPath(connection, DELETE_FILE_CHUNKS_SQL, repo, replaced);
+        chunkWriter.write(connection, CHUNKS_TABLE, batch.chunks());
+        upsertManifest(connection, repo, batch.changedFiles());
+        upsertManifest(connection, repo, batch.touchedFiles());
+        deleteByPath(connection, DELETE_MANIFEST_SQL, repo, batch.deletedPaths());
+      });
+    } catch (SQLException e) {
+      throw new StorageException("Failed to write index batch for repo " + repo + ": " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Writes the new index of {@code repo} into a standalone table with the partition's indexes,
+   * while searches keep using the current partition. {@code commit} replaces the partition with
+   * it and the manifest with the rebuilt one in one transaction.
+   */
+  @Override
+  public RepoRebuild rebuild(String repo) {
+    try (Connection connection = dataSource.getConnection()) {
+      return new PartitionRebuild(repo, callForText(connection, PREPARE_REBUILD_SQL, repo));
+    } catch (SQLException e) {
+      throw new StorageException("Failed to start rebuild of repo " + repo + ": " + e.getMessage(), e);
+    }
+  }
+
+  /** Drops the partition of {@code repo} and deletes its manifest. */
+  @Override
+  public void deleteRepo(String repo) {
+    try (Connection connection = dataSource.getConnection()) {
+      inTransaction(connection, () -> {
+        callForText(connection, DROP_PARTITION_SQL, repo);
+        try (PreparedStatement statement = connection.prepareStatement(DELETE_REPO_MANIFEST_SQL)) {
+          statement.setString(1, repo);
+          statement.executeUpdate();
+        }
+      });
+    } catch (SQLException e) {
+      throw new StorageException("Failed to delete repo " + repo + ": " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Creates the partition of {@code repo} if needed, in its own transaction: creating one locks
+   * {@code code_chunks} exclusively, which must not last for a whole write.
+   */
+  private static void ensurePartition(Connection connection, String repo) throws SQLException {
+    callForText(connection, ENSURE_PARTITION_SQL, repo);
+  }
+
+  private static String callForText(Connection connection, String sql, String argument)
+      throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setString(1, argument);
+      try (ResultSet rs = statement.executeQuery()) {
+        rs.next();
+        return rs.getString(1);
+      }
+    }
+  }
+
+  private void applySearchSettings(Connection connection, int efSearch) throws SQLException {
+    boolean iterative = searchSettings.iterative();
+    try (PreparedStatement statement =
+        connection.prepareStatement(iterative ? ITERATIVE_SEARCH_SQL : EF_SEARCH_SQL)) {
+      statement.setString(1, Integer.toString(efSearch));
+      if (iterative) {
+        statement.setString(2, searchSettings.iterativeScan());
+      }
+      statement.execute();
+    }
+  }
+
+  private String searchSql(Connection connection, boolean embeddings) throws SQLException {
+    Quantization mode = searchSettings.quantization();
+    String columns = embeddings ? EMBEDDING_BYTES : "";
+    if (mode == Quantization.NONE) {
+      return String.format(SEARCH_SQL, "", columns);
+    }
+    return String.format(RERANK_SEARCH_SQL, mode.orderBy(dimension(connection)), columns);
+  }
+
+  private String hybridSql(Connection connection, boolean embeddings) throws SQLException {
+    Quantization mode = searchSettings.quantization();
+    int dims = mode == Quantization.NONE ? 0 : dimension(connection);
+    return String.format(
+        HYBRID_SEARCH_SQL, mode.orderBy(dims), embeddings ? EMBEDDING_BYTES : "");
+  }
+
+  private int dimension(Connection connection) throws SQLException {
+    int dims = dimension;
+    if (dims == 0) {
+      dims = embeddingDimension(connection);
+      dimension = dims;
+    }
+    return dims;
+  }
+
+  /** Reads result rows, without code, through a cursor; the caller's transaction keeps it open. */
+  private static void readResults(
+      PreparedStatement statement, List<SearchResult> results, List<float[]> embeddings)
+      throws SQLException {
+    statement.setFetchSize(FETCH_ROWS);
+    try (ResultSet rs = statement.executeQuery()) {
+      while (rs.next()) {
+        results.add(new SearchResult(
+            rs.getString("chunk_id"),
+            rs.getString("file_path"),
+            rs.getString("symbol"),
+            rs.getString("symbol_kind"),
+            rs.getInt("start_line"),
+            rs.getInt("end_line"),
+            null,
+            rs.getDouble("distance")));
+        if (embeddings != null) {
+          embeddings.add(PgVectors.fromBinary(rs.getBytes("embedding_bytes")));
+        }
+      }
+    }
+  }
+
+  /** Binds the parameters of {@link #searchSql}. */
+  private void bindSearch(PreparedStatement statement, String repo, String vector, int topK)
+      throws SQLException {
+    statement.setString(1, vector);
+    statement.setString(2, repo);
+    statement.setString(3, vector);
+    if (searchSettings.quantization() == Quantization.NONE) {
+      statement.setInt(4, topK);
+      return;
+    }
+    statement.setInt(4, searchSettings.candidatesFor(topK));
+    statement.setInt(5, topK);
+    statement.setString(6, repo);
+  }
+
+  private static String anyRepo(Connection connection) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(ANY_REPO_SQL);
+        ResultSet rs = statement.executeQuery()) {
+      return rs.next() ? rs.getString(1) : "";
+    }
+  }
+
+  private static int embeddingDimension(Connection connection) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(EMBEDDING_DIMENSION_SQL);
+        ResultSet rs = statement.executeQuery()) {
+      if (!rs.next() || rs.getInt(1) <= 0) {
+        throw new SQLException("code_chunks.embedding has no fixed dimension.");
+      }
+      return rs.getInt(1);
+    }
+  }
+
+  private static void upsertManifest(Connection connection, String repo, List<FileManifestEntry> entries)
+      throws SQLException {
+    if (entries.isEmpty()) {
+      return;
+    }
+    try (PreparedStatement statement = connection.prepareStatement(UPSERT_MANIFEST_SQL)) {
+      for (FileManifestEntry entry : entries) {
+        statement.setString(1, repo);
+        statement.setString(2, entry.filePath());
+        statement.setLong(3, entry.size());
+        statement.setLong(4, entry.lastModifiedMillis());
+        statement.setString(5, entry.contentHash());
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    }
+  }
+
+  private static void deleteByPath(Connection connection, String sql, String repo, List<String> paths)
+      throws SQLException {
+    if (paths.isEmpty()) {
+      return;
+    }
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      Array array = connection.createArrayOf("text", paths.toArray());
+      statement.setString(1, repo);
+      statement.setArray(2, array);
+      statement.executeUpdate();
+      array.free();
+    }
+  }
+
+  private static void inTransaction(Connection connection, SqlWork work) throws SQLException {
+    boolean autoCommit = connection.getAutoCommit();
+    connection.setAutoCommit(false);
+    try {
+      work.run();
+      connection.commit();
+    } catch (SQLException | RuntimeException e) {
+      connection.rollback();
+      throw e;
+    } finally {
+      connection.setAutoCommit(autoCommit);
+    }
+  }
+
+  private final class PartitionRebuild implements RepoRebuild {
+    private final String repo;
+    private final String table;
+    private final List<FileManifestEntry> manifest = new ArrayList<>();
+    private boolean committed;
+
+    PartitionRebuild(String repo, String table) {
+      this.repo = repo;
+      this.table = table;
+    }
+
+    @Override
+    public void applyBatch(IndexBatch batch) {
+      try (StageTimer timer =
+              MetricsRegistry.global().start(Stage.STORE_WRITE).items(batch.chunks().size());
+          Connection connection = dataSource.getConnection()) {
+        inTransaction(connection, () -> chunkWriter.write(connection, table, batch.chunks()));
+      } catch (SQLException e) {
+        throw new StorageException(
+            "Failed to write rebuild batch for repo " + repo + ": " + e.getMessage(), e);
+      }
+      manifest.addAll(batch.changedFiles());
+      manifest.addAll(batch.touchedFiles());
+    }
+
+    @Override
+    public void commit() {
+      try (Connection connection = dataSource.getConnection()) {
+        inTransaction(connection, () -> {
+          callForText(connection, SWAP_PARTITION_SQL, repo);
+          try (PreparedStatement statement = connection.prepareStatement(DELETE_REPO_MANIFEST_SQL)) {
+            statement.setString(1, repo);
+            statement.executeUpdate();
+          }
+          upsertManifest(connection, repo, manifest);
+        });
+        committed = true;
+      } catch (SQLException e) {
+        throw new StorageException("Failed to swap in rebuilt repo " + repo + ": " + e.getMessage(), e);
+      }
+      log.debug("Swapped in rebuilt partition for repo={} files={}", repo, manifest.size());
+    }
+
+    @Override
+    public void close() {
+      if (committed) {
+        return;
+      }
+      try (Connection connection = dataSource.getConnection()) {
+        callForText(connection, DISCARD_REBUILD_SQL, repo);
+      } catch (SQLException e) {
+        log.warn("Failed to discard rebuild of repo {}: {}", repo, e.getMessage());
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface SqlWork {
+    void run() throws SQLException;
+  }
+}
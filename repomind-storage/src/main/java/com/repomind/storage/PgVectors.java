@@ -0,0 +1,30 @@
+package com.repomind.storage;
+
+import java.nio.ByteBuffer;
+
+final class PgVectors {
+  private PgVectors() {}
+
+  /** Formats a vector in pgvector's text input form, e.g. {@code [0.1,-0.2]}. */
+  static String toLiteral(float[] vector) {
+    StringBuilder builder = new StringBuilder(vector.length * 12 + 2);
+    builder.append('[');
+    for (int i = 0; i < vector.length; i++) {
+      if (i > 0) {
+        builder.append(',');
+      }
+      builder.append(vector[i]);
+    }
+    return builder.append(']').toString();
+  }
+
+  /** Decodes pgvector's binary form ({@code vector_send}): int16 dimension, int16 unused, float4s. */
+  static float[] fromBinary(byte[] bytes) {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    int dimension = buffer.getShort() & 0xffff;
+    buffer.getShort();
+    float[] vector = new float[dimension];
+    buffer.asFloatBuffer().get(vector);
+    return vector;
+  }
+}
@@ -0,0 +1,70 @@
+package com.repomind.storage;
+
+import java.util.Locale;
+
+/**
+ * Which representation of {@code code_chunks.embedding} the HNSW index is built on. Quantized
+ * modes index an expression over the full-precision column and re-rank their candidates against
+ * it, so only the index shrinks; stored vectors keep full precision.
+ */
+public enum Quantization {
+  /** float32 index ({@code vector_cosine_ops}). */
+  NONE("ix_code_chunks_embedding_hnsw"),
+  /** float16 index ({@code halfvec_cosine_ops}): half the size, near-identical ranking. */
+  HALFVEC("ix_code_chunks_embedding_halfvec"),
+  /** One bit per dimension ({@code bit_hamming_ops}): 1/32 of the size, needs a wider re-rank. */
+  BINARY("ix_code_chunks_embedding_bit");
+
+  private final String indexName;
+
+  Quantization(String indexName) {
+    this.indexName = indexName;
+  }
+
+  public String indexName() {
+    return indexName;
+  }
+
+  /** Indexed expression; must match V5__quantized_index.sql so the planner can use the index. */
+  String indexedExpression(int dimension) {
+    return switch (this) {
+      case NONE -> "embedding";
+      case HALFVEC -> "(embedding::halfvec(" + dimension + "))";
+      case BINARY -> "(binary_quantize(embedding)::bit(" + dimension + "))";
+    };
+  }
+
+  /** {@code ORDER BY} term comparing the indexed expression with a {@code ?} query vector. */
+  String orderBy(int dimension) {
+    return switch (this) {
+      case NONE -> "embedding <=> ?::vector";
+      case HALFVEC -> indexedExpression(dimension) + " <=> ?::halfvec(" + dimension + ")";
+      case BINARY -> indexedExpression(dimension) + " <~> binary_quantize(?::vector)::bit("
+          + dimension + ")";
+    };
+  }
+
+  /** DDL that creates this mode's index, for when the mode changes after migration. */
+  public String createIndexSql(int dimension, int m, int efConstruction) {
+    String opclass = switch (this) {
+      case NONE -> "vector_cosine_ops";
+      case HALFVEC -> "halfvec_cosine_ops";
+      case BINARY -> "bit_hamming_ops";
+    };
+    return "CREATE INDEX IF NOT EXISTS " + indexName + " ON code_chunks USING hnsw ("
+        + indexedExpression(dimension) + " " + opclass + ") WITH (m = " + m
+        + ", ef_construction = " + efConstruction + ")";
+  }
+
+  public static Quantization parse(String value) {
+    if (value == null || value.isBlank()) {
+      return NONE;
+    }
+    try {
+      return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new StorageException(
+          "Unknown db.quantization: " + value + " (expected none, halfvec or binary)", e);
+    }
+  }
+}
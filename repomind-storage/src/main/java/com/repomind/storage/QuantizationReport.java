@@ -0,0 +1,16 @@
+package com.repomind.storage;
+
+/**
+ * Size and recall of the configured index. Index sizes are {@code -1} when that index does not
+ * exist; {@code recall} is the share of exact top-{@code k} neighbours the configured search
+ * returned, averaged over {@code queries} sampled embeddings.
+ */
+public record QuantizationReport(
+    Quantization mode,
+    long tableBytes,
+    long fullIndexBytes,
+    long quantizedIndexBytes,
+    int queries,
+    int k,
+    double recall) {
+}
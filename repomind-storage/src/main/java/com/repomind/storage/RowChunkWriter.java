@@ -0,0 +1,68 @@
+package com.repomind.storage;
+
+import com.repomind.core.model.CodeChunk;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+final class RowChunkWriter implements ChunkWriter {
+  private static final String UPSERT_SQL =
+      "INSERT INTO %s "
+          + "(repo, file_path, language, symbol, symbol_kind, start_line, end_line, code, embedding, chunk_id, "
+          + "embedding_model, text_hash) "
+          + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?::vector, ?, ?, ?) "
+          + "ON CONFLICT (repo, chunk_id) DO UPDATE SET "
+          + "file_path = EXCLUDED.file_path, "
+          + "language = EXCLUDED.language, "
+          + "symbol = EXCLUDED.symbol, "
+          + "symbol_kind = EXCLUDED.symbol_kind, "
+          + "start_line = EXCLUDED.start_line, "
+          + "end_line = EXCLUDED.end_line, "
+          + "code = EXCLUDED.code, "
+          + "embedding = EXCLUDED.embedding, "
+          + "embedding_model = EXCLUDED.embedding_model, "
+          + "text_hash = EXCLUDED.text_hash, "
+          + "updated_at = now()";
+
+  private final String embeddingModel;
+
+  /** With a {@code null} model, chunks are written without one and are never reused. */
+  RowChunkWriter(String embeddingModel) {
+    this.embeddingModel = embeddingModel;
+  }
+
+  @Override
+  public void write(Connection connection, String table, List<CodeChunk> chunks)
+      throws SQLException {
+    if (chunks.isEmpty()) {
+      return;
+    }
+    try (PreparedStatement statement =
+        connection.prepareStatement(String.format(UPSERT_SQL, table))) {
+      for (CodeChunk chunk : chunks) {
+        requireEmbedding(chunk);
+        statement.setString(1, chunk.repo());
+        statement.setString(2, chunk.filePath());
+        statement.setString(3, chunk.language());
+        statement.setString(4, chunk.symbol());
+        statement.setString(5, chunk.symbolKind());
+        statement.setInt(6, chunk.startLine());
+        statement.setInt(7, chunk.endLine());
+        statement.setString(8, chunk.code());
+        statement.setString(9, PgVectors.toLiteral(chunk.embedding()));
+        statement.setString(10, chunk.chunkId());
+        statement.setString(11, embeddingModel);
+        statement.setBytes(12, ChunkTextHash.of(chunk.code()));
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    }
+  }
+
+  static void requireEmbedding(CodeChunk chunk) {
+    if (chunk.embedding() == null) {
+      throw new IllegalArgumentException("Chunk has no embedding: " + chunk.chunkId());
+    }
+  }
+}
@@ -0,0 +1,11 @@
+package com.repomind.storage;
+
+/**
+ * What the planner does with a representative search. {@code indexDefinition} is {@code null}
+ * when the HNSW index does not exist.
+ */
+public record VectorIndexReport(String indexDefinition, boolean usedByPlanner, String plan) {
+  public boolean indexExists() {
+    return indexDefinition != null;
+  }
+}
@@ -0,0 +1,69 @@
+package com.repomind.storage;
+
+import com.repomind.core.config.DatabaseConfig;
+import com.repomind.core.config.SearchConfig;
+import java.util.Objects;
+
+/**
+ * Per-query pgvector HNSW settings. {@code efSearch} is raised to the requested limit when it is
+ * smaller; {@code iterativeScan} ({@code off}, {@code strict_order} or {@code relaxed_order}) lets
+ * the index keep scanning when the {@code repo} filter discards most candidates (pgvector 0.8+).
+ * With a quantized index, {@code rerankFactor * limit} candidates are fetched from it and re-ranked
+ * against the full-precision column.
+ */
+public record VectorSearchSettings(
+    int efSearch, String iterativeScan, Quantization quantization, int rerankFactor) {
+  public static final VectorSearchSettings DEFAULT = new VectorSearchSettings(40, "strict_order");
+
+  private static final int MAX_CANDIDATES = 1000;
+  private static final int MIN_FUSION_DEPTH = 50;
+
+  public VectorSearchSettings {
+    if (efSearch <= 0) {
+      throw new IllegalArgumentException("efSearch must be positive.");
+    }
+    Objects.requireNonNull(iterativeScan, "iterativeScan");
+    Objects.requireNonNull(quantization, "quantization");
+    if (rerankFactor < 1) {
+      throw new IllegalArgumentException("rerankFactor must be positive.");
+    }
+  }
+
+  public VectorSearchSettings(int efSearch, String iterativeScan) {
+    this(efSearch, iterativeScan, Quantization.NONE, 4);
+  }
+
+  public static VectorSearchSettings from(SearchConfig config) {
+    return new VectorSearchSettings(config.getEfSearch(), config.getIterativeScan());
+  }
+
+  public static VectorSearchSettings from(SearchConfig search, DatabaseConfig db) {
+    return new VectorSearchSettings(search.getEfSearch(), search.getIterativeScan(),
+        Quantization.parse(db.getQuantization()), search.getRerankFactor());
+  }
+
+  boolean iterative() {
+    return !"off".equals(iterativeScan);
+  }
+
+  /** Rows read from the index before the exact re-rank; {@code topK} when not quantized. */
+  int candidatesFor(int topK) {
+    if (quantization == Quantization.NONE) {
+      return topK;
+    }
+    return (int) Math.min(MAX_CANDIDATES, Math.max((long) topK, (long) topK * rerankFactor));
+  }
+
+  /** Rows each ranking contributes to hybrid fusion; deeper than {@code topK} so both can vote. */
+  int fusionDepth(int topK) {
+    return Math.min(MAX_CANDIDATES, Math.max(MIN_FUSION_DEPTH, candidatesFor(topK)));
+  }
+
+  int efSearchFor(int topK) {
+    return efSearchForRows(candidatesFor(topK));
+  }
+
+  int efSearchForRows(int rows) {
+    return Math.min(1000, Math.max(efSearch, rows));
+  }
+}
@@ -0,0 +1,270 @@
+package com.repomind.storage.embedded;
+
+import com.repomind.core.model.CodeChunk;
+import com.repomind.core.model.FileManifestEntry;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only log of chunk metadata, tombstones and manifest changes for one store generation.
+ *
+ * <p>Layout: a 32-byte header (magic, version, committed length, node count, entry point, top
+ * level, dimension) followed by typed records, little-endian, strings as length-prefixed UTF-8.
+ * Records are buffered per batch and appended on {@link #commit}; the header is rewritten last, so
+ * anything past the committed length (a batch torn by a crash) is ignored on the next open.
+ */
+final class ChunkLog implements Closeable {
+  private static final int MAGIC = 0x524D434C;
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 32;
+  private static final byte CHUNK = 1;
+  private static final byte TOMBSTONE = 2;
+  private static final byte MANIFEST_PUT = 3;
+  private static final byte MANIFEST_DELETE = 4;
+
+  interface Visitor {
+    void chunk(int node, ChunkMeta meta);
+
+    void tombstone(int node);
+
+    void manifestPut(FileManifestEntry entry);
+
+    void manifestDelete(String filePath);
+  }
+
+  private final Path path;
+  private final FileChannel channel;
+  private ByteBuffer pending = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+  private long committedLength = HEADER_BYTES;
+  private int nodeCount;
+  private int entryPoint = -1;
+  private int maxLevel = -1;
+  private int dimension;
+
+  private ChunkLog(Path path, FileChannel channel) {
+    this.path = path;
+    this.channel = channel;
+  }
+
+  static ChunkLog open(Path path) throws IOException {
+    FileChannel channel = FileChannel.open(path,
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    ChunkLog log = new ChunkLog(path, channel);
+    try {
+      if (channel.size() < HEADER_BYTES) {
+        log.writeHeader();
+        return log;
+      }
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      log.readFully(header, 0);
+      header.flip();
+      if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+        throw new IOException("Not a RepoMind chunk log: " + path);
+      }
+      log.committedLength = header.getLong(8);
+      log.nodeCount = header.getInt(16);
+      log.entryPoint = header.getInt(20);
+      log.maxLevel = header.getInt(24);
+      log.dimension = header.getInt(28);
+      if (log.committedLength < HEADER_BYTES || log.committedLength > channel.size()) {
+        throw new IOException("Corrupt RepoMind chunk log header: " + path);
+      }
+      return log;
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  int nodeCount() {
+    return nodeCount;
+  }
+
+  /** True when another process committed past what this log has loaded. */
+  boolean committedElsewhere() throws IOException {
+    ByteBuffer length = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    readFully(length, 8);
+    return length.getLong(0) != committedLength;
+  }
+
+  int entryPoint() {
+    return entryPoint;
+  }
+
+  int maxLevel() {
+    return maxLevel;
+  }
+
+  int dimension() {
+    return dimension;
+  }
+
+  /** Replays every committed record in order. */
+  void replay(Visitor visitor) throws IOException {
+    if (committedLength == HEADER_BYTES) {
+      return;
+    }
+    if (committedLength > Integer.MAX_VALUE) {
+      throw new IOException("Chunk log exceeds 2 GB: " + path);
+    }
+    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, committedLength);
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+    buffer.position(HEADER_BYTES);
+    while (buffer.hasRemaining()) {
+      byte type = buffer.get();
+      switch (type) {
+        case CHUNK -> {
+          int node = buffer.getInt();
+          String chunkId = getString(buffer);
+          String filePath = getString(buffer);
+          String language = getString(buffer);
+          String symbolKind = getString(buffer);
+          String symbol = getString(buffer);
+          int startLine = buffer.getInt();
+          int endLine = buffer.getInt();
+          int codeLength = buffer.getInt();
+          long codeOffset = buffer.position();
+          buffer.position(buffer.position() + codeLength);
+          visitor.chunk(node, new ChunkMeta(chunkId, filePath, language, symbolKind, symbol,
+              startLine, endLine, codeOffset, codeLength));
+        }
+        case TOMBSTONE -> visitor.tombstone(buffer.getInt());
+        case MANIFEST_PUT -> visitor.manifestPut(new FileManifestEntry(
+            getString(buffer), buffer.getLong(), buffer.getLong(), getString(buffer)));
+        case MANIFEST_DELETE -> visitor.manifestDelete(getString(buffer));
+        default -> throw new IOException("Unknown record type " + type + " in " + path);
+      }
+    }
+  }
+
+  /** Buffers a chunk record and returns its metadata, pointing at where the code will land. */
+  ChunkMeta appendChunk(int node, CodeChunk chunk) {
+    byte[] code = chunk.code() == null
+        ? new byte[0]
+        : chunk.code().getBytes(StandardCharsets.UTF_8);
+    ensureRemaining(1 + Integer.BYTES);
+    pending.put(CHUNK).putInt(node);
+    putString(chunk.chunkId());
+    putString(chunk.filePath());
+    putString(chunk.language());
+    putString(chunk.symbolKind());
+    putString(chunk.symbol());
+    ensureRemaining(3 * Integer.BYTES + code.length);
+    pending.putInt(chunk.startLine()).putInt(chunk.endLine()).putInt(code.length);
+    long codeOffset = committedLength + pending.position();
+    pending.put(code);
+    return new ChunkMeta(chunk.chunkId(), chunk.filePath(), chunk.language(), chunk.symbolKind(),
+        chunk.symbol(), chunk.startLine(), chunk.endLine(), codeOffset, code.length);
+  }
+
+  void appendTombstone(int node) {
+    ensureRemaining(1 + Integer.BYTES);
+    pending.put(TOMBSTONE).putInt(node);
+  }
+
+  void appendManifestPut(FileManifestEntry entry) {
+    ensureRemaining(1);
+    pending.put(MANIFEST_PUT);
+    putString(entry.filePath());
+    ensureRemaining(2 * Long.BYTES);
+    pending.putLong(entry.size()).putLong(entry.lastModifiedMillis());
+    putString(entry.contentHash());
+  }
+
+  void appendManifestDelete(String filePath) {
+    ensureRemaining(1);
+    pending.put(MANIFEST_DELETE);
+    putString(filePath);
+  }
+
+  /** Appends buffered records, forces them, then publishes the new header. */
+  void commit(int nodes, int entry, int topLevel, int dim) throws IOException {
+    pending.flip();
+    long position = committedLength;
+    while (pending.hasRemaining()) {
+      position += channel.write(pending, position);
+    }
+    pending.clear();
+    channel.force(false);
+    committedLength = position;
+    nodeCount = nodes;
+    entryPoint = entry;
+    maxLevel = topLevel;
+    dimension = dim;
+    writeHeader();
+    channel.force(false);
+  }
+
+  String readCode(long offset, int length) throws IOException {
+    ByteBuffer code = ByteBuffer.allocate(length);
+    readFully(code, offset);
+    return new String(code.array(), StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private void writeHeader() throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    header.putInt(MAGIC).putInt(VERSION).putLong(committedLength)
+        .putInt(nodeCount).putInt(entryPoint).putInt(maxLevel).putInt(dimension)
+        .flip();
+    long position = 0;
+    while (header.hasRemaining()) {
+      position += channel.write(header, position);
+    }
+  }
+
+  private void readFully(ByteBuffer target, long offset) throws IOException {
+    long position = offset;
+    while (target.hasRemaining()) {
+      int read = channel.read(target, position);
+      if (read < 0) {
+        throw new EOFException("Unexpected end of " + path);
+      }
+      position += read;
+    }
+  }
+
+  private void putString(String value) {
+    if (value == null) {
+      ensureRemaining(Integer.BYTES);
+      pending.putInt(-1);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    ensureRemaining(Integer.BYTES + bytes.length);
+    pending.putInt(bytes.length).put(bytes);
+  }
+
+  private static String getString(ByteBuffer buffer) {
+    int length = buffer.getInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private void ensureRemaining(int bytes) {
+    if (pending.remaining() >= bytes) {
+      return;
+    }
+    ByteBuffer grown = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + bytes))
+        .order(ByteOrder.LITTLE_ENDIAN);
+    pending.flip();
+    grown.put(pending);
+    pending = grown;
+  }
+}
@@ -0,0 +1,13 @@
+package com.repomind.storage.embedded;
+
+/** Chunk fields kept on the heap; the code itself stays in the chunk log at {@code codeOffset}. */
+record ChunkMeta(
+    String chunkId,
+    String filePath,
+    String language,
+    String symbolKind,
+    String symbol,
+    int startLine,
+    int endLine,
+    long codeOffset,
+    int codeLength) {}
@@ -0,0 +1,195 @@
+package com.repomind.storage.embedded;
+
+import com.repomind.core.metrics.MetricsRegistry;
+import com.repomind.core.metrics.Stage;
+import com.repomind.core.metrics.StageTimer;
+import com.repomind.core.model.CodeChunk;
+import com.repomind.core.model.FileManifestEntry;
+import com.repomind.core.model.SearchCandidate;
+import com.repomind.core.model.SearchResult;
+import com.repomind.core.store.CodeChunkRepository;
+import com.repomind.core.store.IndexBatch;
+import com.repomind.storage.StorageException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link CodeChunkRepository} backed by in-process HNSW graphs in memory-mapped files, one store
+ * directory per repo under {@code root}. Needs no database; searches run concurrently.
+ */
+public class EmbeddedCodeChunkRepository implements CodeChunkRepository, Closeable {
+  private static final Logger log = LoggerFactory.getLogger(EmbeddedCodeChunkRepository.class);
+
+  private final Path root;
+  private final int m;
+  private final int efConstruction;
+  private final int efSearch;
+  private final Map<String, EmbeddedStore> stores = new ConcurrentHashMap<>();
+
+  public EmbeddedCodeChunkRepository(Path root, int m, int efConstruction, int efSearch) {
+    this.root = Objects.requireNonNull(root, "root");
+    this.m = m;
+    this.efConstruction = efConstruction;
+    this.efSearch = efSearch;
+  }
+
+  public Path root() {
+    return root;
+  }
+
+  @Override
+  public List<SearchResult> search(String repo, float[] queryEmbedding, int topK) {
+    return search(repo, queryEmbedding, topK, null);
+  }
+
+  /** Vector search (this backend has no lexical ranking) returning the stored unit vectors. */
+  @Override
+  public List<SearchCandidate> searchCandidates(
+      String repo, String queryText, float[] queryEmbedding, int topK) {
+    List<float[]> embeddings = new ArrayList<>(topK);
+    List<SearchResult> results = search(repo, queryEmbedding, topK, embeddings);
+    List<SearchCandidate> candidates = new ArrayList<>(results.size());
+    for (int i = 0; i < results.size(); i++) {
+      candidates.add(new SearchCandidate(results.get(i), embeddings.get(i)));
+    }
+    return candidates;
+  }
+
+  private List<SearchResult> search(
+      String repo, float[] queryEmbedding, int topK, List<float[]> embeddings) {
+    if (repo == null || repo.isBlank()) {
+      throw new IllegalArgumentException("repo is required.");
+    }
+    if (!exists(repo)) {
+      return List.of();
+    }
+    long started = System.nanoTime();
+    try {
+      List<SearchResult> results = store(repo).search(queryEmbedding, topK, efSearch, embeddings);
+      log.debug("Search repo={} topK={} results={} took {} ms",
+          repo, topK, results.size(), (System.nanoTime() - started) / 1_000_000);
+      return results;
+    } catch (IOException e) {
+      throw new StorageException("Search failed for repo " + repo + ": " + e.getMessage(), e);
+    }
+  }
+
+  @Override
+  public void upsertChunks(List<CodeChunk> chunks) {
+    Map<String, List<CodeChunk>> byRepo = new LinkedHashMap<>();
+    for (CodeChunk chunk : chunks) {
+      byRepo.computeIfAbsent(chunk.repo(), repo -> new ArrayList<>()).add(chunk);
+    }
+    for (Map.Entry<String, List<CodeChunk>> entry : byRepo.entrySet()) {
+      applyBatch(entry.getKey(), new IndexBatch(List.of(), entry.getValue(), List.of(), List.of()));
+    }
+  }
+
+  @Override
+  public Map<String, FileManifestEntry> loadManifest(String repo) {
+    if (!exists(repo)) {
+      return new LinkedHashMap<>();
+    }
+    return store(repo).loadManifest();
+  }
+
+  @Override
+  public void applyBatch(String repo, IndexBatch batch) {
+    try (StageTimer timer =
+        MetricsRegistry.global().start(Stage.STORE_WRITE).items(batch.chunks().size())) {
+      store(repo).apply(batch);
+    } catch (IOException e) {
+      throw new StorageException("Index batch failed for repo " + repo + ": " + e.getMessage(), e);
+    }
+  }
+
+  /** Closes the store of {@code repo} and deletes its directory. */
+  @Override
+  public void deleteRepo(String repo) {
+    try {
+      EmbeddedStore store = stores.remove(repo);
+      if (store != null) {
+        store.close();
+      }
+      Path dir = repoDir(repo);
+      if (Files.isDirectory(dir)) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+          for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+            Files.delete(path);
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new StorageException("Failed to delete repo " + repo + ": " + e.getMessage(), e);
+    }
+  }
+
+  /** Number of live chunks stored for {@code repo}; {@code 0} when it was never indexed. */
+  public int chunkCount(String repo) {
+    return exists(repo) ? store(repo).liveCount() : 0;
+  }
+
+  @Override
+  public void close() {
+    StorageException failure = null;
+    for (Map.Entry<String, EmbeddedStore> entry : stores.entrySet()) {
+      try {
+        entry.getValue().close();
+      } catch (IOException e) {
+        if (failure == null) {
+          failure = new StorageException("Failed to close embedded store: " + e.getMessage(), e);
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    stores.clear();
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private boolean exists(String repo) {
+    return stores.containsKey(repo) || Files.isDirectory(repoDir(repo));
+  }
+
+  private EmbeddedStore store(String repo) {
+    try {
+      return stores.computeIfAbsent(repo, key -> {
+        try {
+          return EmbeddedStore.open(repoDir(key), m, efConstruction);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw new StorageException(
+          "Failed to open embedded store for repo " + repo + ": " + e.getCause().getMessage(),
+          e.getCause());
+    }
+  }
+
+  /** Repo names become URL-encoded directory names, so any repo maps to one safe path segment. */
+  private Path repoDir(String repo) {
+    String name = URLEncoder.encode(repo, StandardCharsets.UTF_8);
+    if (name.equals(".") || name.equals("..")) {
+      name = name.replace(".", "%2E");
+    }
+    return root.resolve(name);
+  }
+}
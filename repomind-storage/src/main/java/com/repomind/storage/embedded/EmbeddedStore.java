@@ -0,0 +1,250 @@
+package com.repomind.storage.embedded;
+
+import com.repomind.core.model.CodeChunk;
+import com.repomind.core.model.FileManifestEntry;
+import com.repomind.core.model.SearchResult;
+import com.repomind.core.store.IndexBatch;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Embedded store of one repo. {@code CURRENT} names the live generation directory; searches share
+ * a read lock, batches take the write lock and an OS file lock on {@code write.lock} so only one
+ * process writes at a time. When tombstones outnumber a quarter of the live chunks, the live set
+ * is copied into a fresh generation and {@code CURRENT} is switched atomically. A process that is
+ * not the writer checks {@code CURRENT} and the committed log length before each search and
+ * reopens when another process has written, so long-lived readers do not serve stale results.
+ */
+final class EmbeddedStore implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(EmbeddedStore.class);
+  private static final String CURRENT = "CURRENT";
+  private static final int COMPACTION_MIN_TOMBSTONES = 1024;
+
+  private final Path root;
+  private final int m;
+  private final int efConstruction;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private Generation current;
+  private FileChannel lockChannel;
+  private FileLock writerLock;
+
+  private EmbeddedStore(Path root, int m, int efConstruction) {
+    this.root = root;
+    this.m = m;
+    this.efConstruction = efConstruction;
+  }
+
+  static EmbeddedStore open(Path root, int m, int efConstruction) throws IOException {
+    EmbeddedStore store = new EmbeddedStore(root, m, efConstruction);
+    Files.createDirectories(root);
+    store.current = Generation.open(root.resolve(store.readCurrent()), m, efConstruction);
+    return store;
+  }
+
+  List<SearchResult> search(float[] query, int topK, int efSearch, List<float[]> embeddings)
+      throws IOException {
+    refreshIfStale();
+    lock.readLock().lock();
+    try {
+      return current.search(query, topK, efSearch, embeddings);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  Map<String, FileManifestEntry> loadManifest() {
+    lock.readLock().lock();
+    try {
+      return current.manifest();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  int liveCount() {
+    lock.readLock().lock();
+    try {
+      return current.liveCount();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Applies {@code batch} and commits it; on failure the generation is reloaded from disk. */
+  void apply(IndexBatch batch) throws IOException {
+    lock.writeLock().lock();
+    try {
+      if (acquireWriterLock()) {
+        // Another process may have written since this one opened the store.
+        current.close();
+        current = Generation.open(root.resolve(readCurrent()), m, efConstruction);
+      }
+      try {
+        for (FileManifestEntry entry : batch.changedFiles()) {
+          current.deletePath(entry.filePath());
+        }
+        for (String path : batch.deletedPaths()) {
+          current.deletePath(path);
+        }
+        for (CodeChunk chunk : batch.chunks()) {
+          current.upsert(chunk);
+        }
+        for (FileManifestEntry entry : batch.changedFiles()) {
+          current.putManifest(entry);
+        }
+        for (FileManifestEntry entry : batch.touchedFiles()) {
+          current.putManifest(entry);
+        }
+        for (String path : batch.deletedPaths()) {
+          current.deleteManifest(path);
+        }
+        current.commit();
+      } catch (IOException | RuntimeException e) {
+        reload();
+        throw e;
+      }
+      if (current.tombstoneCount() >= COMPACTION_MIN_TOMBSTONES
+          && current.tombstoneCount() * 4L > current.liveCount()) {
+        compact();
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    lock.writeLock().lock();
+    try {
+      current.close();
+      if (writerLock != null) {
+        writerLock.release();
+      }
+      if (lockChannel != null) {
+        lockChannel.close();
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void compact() throws IOException {
+    Generation old = current;
+    String name = nextGenerationName(old.dir());
+    Path nextDir = root.resolve(name);
+    deleteRecursively(nextDir);
+    Generation next = Generation.open(nextDir, m, efConstruction);
+    try {
+      old.copyLiveInto(next);
+      next.commit();
+      writeCurrent(name);
+    } catch (IOException | RuntimeException e) {
+      next.close();
+      deleteRecursively(nextDir);
+      throw e;
+    }
+    LOG.info("Compacted embedded store {}: {} live chunks, dropped {} tombstones",
+        root, next.liveCount(), old.tombstoneCount());
+    current = next;
+    old.close();
+    deleteRecursively(old.dir());
+  }
+
+  private void refreshIfStale() throws IOException {
+    lock.readLock().lock();
+    try {
+      if (writerLock != null || !isStale()) {
+        return;
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    lock.writeLock().lock();
+    try {
+      if (writerLock == null && isStale()) {
+        current.close();
+        current = Generation.open(root.resolve(readCurrent()), m, efConstruction);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private boolean isStale() throws IOException {
+    return !current.dir().getFileName().toString().equals(readCurrent()) || current.changedOnDisk();
+  }
+
+  private void reload() throws IOException {
+    Path dir = current.dir();
+    current.close();
+    current = Generation.open(dir, m, efConstruction);
+  }
+
+  /** Returns true when the lock was newly acquired. */
+  private boolean acquireWriterLock() throws IOException {
+    if (writerLock != null) {
+      return false;
+    }
+    lockChannel = FileChannel.open(root.resolve("write.lock"),
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    try {
+      writerLock = lockChannel.tryLock();
+    } catch (OverlappingFileLockException e) {
+      writerLock = null;
+    }
+    if (writerLock == null) {
+      lockChannel.close();
+      lockChannel = null;
+      throw new IOException("Embedded store is being written by another process: " + root);
+    }
+    return true;
+  }
+
+  private String readCurrent() throws IOException {
+    Path pointer = root.resolve(CURRENT);
+    if (Files.exists(pointer)) {
+      return Files.readString(pointer, StandardCharsets.UTF_8).trim();
+    }
+    String name = "gen-1";
+    writeCurrent(name);
+    return name;
+  }
+
+  private void writeCurrent(String name) throws IOException {
+    Path tmp = root.resolve(CURRENT + ".tmp");
+    Files.writeString(tmp, name + "\n", StandardCharsets.UTF_8);
+    Files.move(tmp, root.resolve(CURRENT),
+        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static String nextGenerationName(Path dir) {
+    String name = dir.getFileName().toString();
+    int generation = Integer.parseInt(name.substring(name.indexOf('-') + 1));
+    return "gen-" + (generation + 1);
+  }
+
+  private static void deleteRecursively(Path dir) throws IOException {
+    if (!Files.exists(dir)) {
+      return;
+    }
+    try (Stream<Path> paths = Files.walk(dir)) {
+      for (Path path : paths.sorted((a, b) -> b.getNameCount() - a.getNameCount()).toList()) {
+        Files.deleteIfExists(path);
+      }
+    }
+  }
+}
@@ -0,0 +1,273 @@
+package com.repomind.storage.embedded;
+
+import com.repomind.core.model.CodeChunk;
+import com.repomind.core.model.FileManifestEntry;
+import com.repomind.core.model.SearchResult;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * One generation directory of an embedded store: chunk log, vectors and graph, plus the heap
+ * indexes rebuilt from the log on open. Not thread-safe; {@link EmbeddedStore} guards it.
+ */
+final class Generation implements Closeable {
+  private final Path dir;
+  private final ChunkLog log;
+  private final HnswGraph graph;
+  private final List<ChunkMeta> nodes = new ArrayList<>();
+  private final BitSet deleted = new BitSet();
+  private final Map<String, Integer> liveByChunkId = new HashMap<>();
+  private final Map<String, List<Integer>> liveByPath = new HashMap<>();
+  private final Map<String, FileManifestEntry> manifest = new TreeMap<>();
+  private VectorFile vectors;
+
+  private Generation(Path dir, ChunkLog log, HnswGraph graph) {
+    this.dir = dir;
+    this.log = log;
+    this.graph = graph;
+  }
+
+  static Generation open(Path dir, int m, int efConstruction) throws IOException {
+    Files.createDirectories(dir);
+    ChunkLog log = ChunkLog.open(dir.resolve("chunks.log"));
+    HnswGraph graph = null;
+    try {
+      graph = HnswGraph.open(dir, m, efConstruction);
+      Generation generation = new Generation(dir, log, graph);
+      generation.load();
+      return generation;
+    } catch (IOException | RuntimeException e) {
+      log.close();
+      if (graph != null) {
+        graph.close();
+      }
+      throw e;
+    }
+  }
+
+  Path dir() {
+    return dir;
+  }
+
+  boolean changedOnDisk() throws IOException {
+    return log.committedElsewhere();
+  }
+
+  int liveCount() {
+    return liveByChunkId.size();
+  }
+
+  int tombstoneCount() {
+    return deleted.cardinality();
+  }
+
+  int dimension() {
+    return vectors == null ? 0 : vectors.dimension();
+  }
+
+  Map<String, FileManifestEntry> manifest() {
+    return new LinkedHashMap<>(manifest);
+  }
+
+  void deletePath(String filePath) {
+    List<Integer> live = liveByPath.remove(filePath);
+    if (live == null) {
+      return;
+    }
+    for (int node : live) {
+      tombstone(node);
+      liveByChunkId.remove(nodes.get(node).chunkId());
+    }
+  }
+
+  void upsert(CodeChunk chunk) throws IOException {
+    if (chunk.embedding() == null) {
+      throw new IllegalArgumentException("Chunk has no embedding: " + chunk.chunkId());
+    }
+    Integer previous = liveByChunkId.remove(chunk.chunkId());
+    if (previous != null) {
+      tombstone(previous);
+      List<Integer> siblings = liveByPath.get(nodes.get(previous).filePath());
+      if (siblings != null) {
+        siblings.remove(previous);
+      }
+    }
+    float[] vector = VectorFile.normalize(chunk.embedding().clone());
+    if (vectors == null) {
+      vectors = VectorFile.open(dir.resolve("vectors.f32"), vector.length);
+    } else if (vector.length != vectors.dimension()) {
+      throw new IllegalArgumentException("Embedding dimension " + vector.length
+          + " does not match store dimension " + vectors.dimension() + ".");
+    }
+    int node = nodes.size();
+    vectors.set(node, vector);
+    graph.insert(node, vector, vectors);
+    ChunkMeta meta = log.appendChunk(node, chunk);
+    nodes.add(meta);
+    liveByChunkId.put(meta.chunkId(), node);
+    liveByPath.computeIfAbsent(meta.filePath(), path -> new ArrayList<>()).add(node);
+  }
+
+  void putManifest(FileManifestEntry entry) {
+    log.appendManifestPut(entry);
+    manifest.put(entry.filePath(), entry);
+  }
+
+  void deleteManifest(String filePath) {
+    log.appendManifestDelete(filePath);
+    manifest.remove(filePath);
+  }
+
+  /** Makes everything since the last commit durable: vectors and graph first, then the log. */
+  void commit() throws IOException {
+    if (vectors != null) {
+      vectors.force();
+    }
+    graph.commit();
+    log.commit(nodes.size(), graph.entryPoint(), graph.maxLevel(), dimension());
+  }
+
+  /**
+   * Nearest live chunks first; with {@code embeddings}, their stored (unit-length) vectors too.
+   * The beam starts at {@code max(efSearch, topK)} and doubles while tombstones leave fewer than
+   * {@code topK} live hits, the embedded analog of pgvector's iterative index scans.
+   */
+  List<SearchResult> search(float[] query, int topK, int efSearch, List<float[]> embeddings)
+      throws IOException {
+    if (vectors == null || liveByChunkId.isEmpty() || topK <= 0) {
+      return List.of();
+    }
+    if (query.length != vectors.dimension()) {
+      throw new IllegalArgumentException("Query dimension " + query.length
+          + " does not match store dimension " + vectors.dimension() + ".");
+    }
+    float[] normalized = VectorFile.normalize(query.clone());
+    int wanted = Math.min(topK, liveByChunkId.size());
+    int ef = Math.max(efSearch, topK);
+    while (true) {
+      ScoredHeap found = graph.search(normalized, ef, vectors);
+      int[] hits = new int[found.size()];
+      float[] distances = new float[found.size()];
+      int count = found.drainAscending(hits, distances);
+      List<SearchResult> results = new ArrayList<>(wanted);
+      if (embeddings != null) {
+        embeddings.clear();
+      }
+      for (int i = 0; i < count && results.size() < wanted; i++) {
+        if (!deleted.get(hits[i])) {
+          results.add(toResult(hits[i], distances[i]));
+          if (embeddings != null) {
+            embeddings.add(vectors.read(hits[i]));
+          }
+        }
+      }
+      if (results.size() >= wanted || ef >= nodes.size()) {
+        return results;
+      }
+      ef = Math.min(ef * 2, nodes.size());
+    }
+  }
+
+  /** Re-inserts every live chunk and the manifest into {@code target}, in node order. */
+  void copyLiveInto(Generation target) throws IOException {
+    for (int node = 0; node < nodes.size(); node++) {
+      if (deleted.get(node)) {
+        continue;
+      }
+      ChunkMeta meta = nodes.get(node);
+      target.upsert(new CodeChunk(null, meta.filePath(), meta.language(), meta.symbolKind(),
+          meta.symbol(), meta.startLine(), meta.endLine(),
+          log.readCode(meta.codeOffset(), meta.codeLength()), meta.chunkId(),
+          vectors.read(node)));
+    }
+    for (FileManifestEntry entry : manifest.values()) {
+      target.putManifest(entry);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    IOException failure = null;
+    for (Closeable closeable : new Closeable[] {log, graph, vectors}) {
+      if (closeable == null) {
+        continue;
+      }
+      try {
+        closeable.close();
+      } catch (IOException e) {
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private void tombstone(int node) {
+    deleted.set(node);
+    log.appendTombstone(node);
+  }
+
+  private SearchResult toResult(int node, float distance) throws IOException {
+    ChunkMeta meta = nodes.get(node);
+    return new SearchResult(meta.chunkId(), meta.filePath(), meta.symbol(), meta.symbolKind(),
+        meta.startLine(), meta.endLine(), log.readCode(meta.codeOffset(), meta.codeLength()),
+        distance);
+  }
+
+  private void load() throws IOException {
+    int committedNodes = log.nodeCount();
+    log.replay(new ChunkLog.Visitor() {
+      @Override
+      public void chunk(int node, ChunkMeta meta) {
+        nodes.add(meta);
+        Integer previous = liveByChunkId.put(meta.chunkId(), node);
+        if (previous != null) {
+          deleted.set(previous);
+        }
+      }
+
+      @Override
+      public void tombstone(int node) {
+        deleted.set(node);
+        liveByChunkId.remove(nodes.get(node).chunkId(), node);
+      }
+
+      @Override
+      public void manifestPut(FileManifestEntry entry) {
+        manifest.put(entry.filePath(), entry);
+      }
+
+      @Override
+      public void manifestDelete(String filePath) {
+        manifest.remove(filePath);
+      }
+    });
+    if (nodes.size() != committedNodes) {
+      throw new IOException("Chunk log node count mismatch in " + dir + ": header says "
+          + committedNodes + ", records hold " + nodes.size());
+    }
+    for (int node = 0; node < nodes.size(); node++) {
+      if (!deleted.get(node)) {
+        liveByPath.computeIfAbsent(nodes.get(node).filePath(), path -> new ArrayList<>()).add(node);
+      }
+    }
+    if (log.dimension() > 0) {
+      vectors = VectorFile.open(dir.resolve("vectors.f32"), log.dimension());
+    }
+    graph.load(committedNodes, log.entryPoint(), log.maxLevel());
+  }
+}
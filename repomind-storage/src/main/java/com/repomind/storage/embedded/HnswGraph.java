@@ -0,0 +1,432 @@
+package com.repomind.storage.embedded;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Hierarchical navigable small world graph over the nodes of a {@link VectorFile}.
+ *
+ * <p>Layer 0 holds every node and lives in a memory-mapped file of fixed-size records
+ * {@code level, count, 2 * m neighbor ids} (int32, little-endian, after a 16-byte header of magic,
+ * version and {@code m}). Upper layers hold roughly {@code 1 / m} of the nodes, so they are kept on
+ * the heap and rewritten to a side file on every commit. Neighbor ids at or beyond the committed
+ * node count are ignored, which is what makes a torn write after a crash harmless.
+ */
+final class HnswGraph implements Closeable {
+  private static final int MAGIC = 0x524D4847;
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 16;
+  private static final long GROWTH_BYTES = 4L * 1024 * 1024;
+
+  private final Path layer0Path;
+  private final Path upperPath;
+  private final FileChannel channel;
+  private final int m;
+  private final int maxM0;
+  private final int efConstruction;
+  private final int recordInts;
+  private final double levelMultiplier;
+  private final List<int[][]> upper = new ArrayList<>();
+  private MappedByteBuffer buffer;
+  private IntBuffer ints;
+  private int size;
+  private int entryPoint = -1;
+  private int maxLevel = -1;
+
+  private HnswGraph(Path layer0Path, Path upperPath, FileChannel channel, int m, int efConstruction) {
+    this.layer0Path = layer0Path;
+    this.upperPath = upperPath;
+    this.channel = channel;
+    this.m = m;
+    this.maxM0 = 2 * m;
+    this.efConstruction = Math.max(efConstruction, m);
+    this.recordInts = 2 + maxM0;
+    this.levelMultiplier = 1.0 / Math.log(m);
+  }
+
+  /**
+   * Opens the graph files in {@code dir}. An existing layer-0 file keeps the {@code m} it was built
+   * with; {@code m} only applies to new graphs.
+   */
+  static HnswGraph open(Path dir, int m, int efConstruction) throws IOException {
+    Path layer0Path = dir.resolve("graph.l0");
+    FileChannel channel = FileChannel.open(layer0Path,
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      HnswGraph graph;
+      if (channel.size() < HEADER_BYTES) {
+        graph = new HnswGraph(layer0Path, dir.resolve("graph.upper"), channel, m, efConstruction);
+        graph.map(GROWTH_BYTES);
+        graph.buffer.putInt(0, MAGIC);
+        graph.buffer.putInt(4, VERSION);
+        graph.buffer.putInt(8, m);
+      } else {
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+          throw new IOException("Not a RepoMind graph file: " + layer0Path);
+        }
+        graph = new HnswGraph(layer0Path, dir.resolve("graph.upper"), channel, header.getInt(8),
+            efConstruction);
+        graph.map(channel.size());
+      }
+      return graph;
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /** Restores the committed state: node count, entry point and top level, then upper layers. */
+  void load(int nodeCount, int entry, int topLevel) throws IOException {
+    size = nodeCount;
+    entryPoint = entry < nodeCount ? entry : -1;
+    maxLevel = entryPoint < 0 ? -1 : topLevel;
+    upper.clear();
+    for (int i = 0; i < nodeCount; i++) {
+      upper.add(null);
+    }
+    if (!Files.exists(upperPath)) {
+      return;
+    }
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(upperPath)))) {
+      int nodes = in.readInt();
+      for (int n = 0; n < nodes; n++) {
+        int node = in.readInt();
+        int levels = in.readInt();
+        int[][] lists = new int[levels][];
+        for (int l = 0; l < levels; l++) {
+          int count = in.readInt();
+          int[] list = new int[m + 1];
+          for (int i = 0; i < count; i++) {
+            int neighbor = in.readInt();
+            if (neighbor < nodeCount && list[0] < m) {
+              list[++list[0]] = neighbor;
+            }
+          }
+          lists[l] = list;
+        }
+        if (node < nodeCount) {
+          upper.set(node, lists);
+        }
+      }
+    }
+  }
+
+  int size() {
+    return size;
+  }
+
+  int entryPoint() {
+    return entryPoint;
+  }
+
+  int maxLevel() {
+    return maxLevel;
+  }
+
+  int m() {
+    return m;
+  }
+
+  /** Deterministic level for {@code node}: same insertion order, same graph. */
+  int randomLevel(int node) {
+    double u = new SplittableRandom(node * 0x9E3779B97F4A7C15L).nextDouble();
+    return (int) (-Math.log(1.0 - u) * levelMultiplier);
+  }
+
+  /** Links {@code node} (already written to {@code vectors}) into the graph. */
+  void insert(int node, float[] vector, VectorFile vectors) throws IOException {
+    if (node != size) {
+      throw new IllegalStateException("Nodes must be inserted in id order: " + node + " != " + size);
+    }
+    int level = randomLevel(node);
+    ensureCapacity(node);
+    int offset = node * recordInts;
+    ints.put(offset, level);
+    ints.put(offset + 1, 0);
+    upper.add(level == 0 ? null : newUpperLists(level));
+    size++;
+
+    if (entryPoint < 0) {
+      entryPoint = node;
+      maxLevel = level;
+      return;
+    }
+
+    int current = entryPoint;
+    float currentDistance = vectors.distance(vector, current);
+    for (int l = maxLevel; l > level; l--) {
+      int[] best = greedy(vector, current, currentDistance, l, vectors);
+      current = best[0];
+      currentDistance = Float.intBitsToFloat(best[1]);
+    }
+
+    int[] candidates = new int[efConstruction];
+    float[] candidateDistances = new float[efConstruction];
+    BitSet visited = new BitSet(size);
+    for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+      visited.clear();
+      ScoredHeap found = searchLayer(vector, current, currentDistance, efConstruction, l, vectors,
+          visited);
+      int count = found.drainAscending(candidates, candidateDistances);
+      int[] selected = selectNeighbors(candidates, candidateDistances, count, m, vectors);
+      setNeighbors(node, l, selected, selected.length);
+      for (int neighbor : selected) {
+        link(neighbor, node, l, vectors);
+      }
+      current = candidates[0];
+      currentDistance = candidateDistances[0];
+    }
+
+    if (level > maxLevel) {
+      entryPoint = node;
+      maxLevel = level;
+    }
+  }
+
+  /**
+   * Returns up to {@code ef} nearest nodes to a normalized query as a max-heap. Callers filter
+   * tombstones; traversal still passes through them so the graph stays connected.
+   */
+  ScoredHeap search(float[] query, int ef, VectorFile vectors) {
+    if (entryPoint < 0) {
+      return ScoredHeap.max(1);
+    }
+    int current = entryPoint;
+    float currentDistance = vectors.distance(query, current);
+    for (int l = maxLevel; l > 0; l--) {
+      int[] best = greedy(query, current, currentDistance, l, vectors);
+      current = best[0];
+      currentDistance = Float.intBitsToFloat(best[1]);
+    }
+    return searchLayer(query, current, currentDistance, ef, 0, vectors, new BitSet(size));
+  }
+
+  /** Forces layer 0 to disk and atomically rewrites the upper-layer side file. */
+  void commit() throws IOException {
+    buffer.force();
+    Path tmp = upperPath.resolveSibling(upperPath.getFileName() + ".tmp");
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+      int nodes = 0;
+      for (int[][] lists : upper) {
+        if (lists != null) {
+          nodes++;
+        }
+      }
+      out.writeInt(nodes);
+      for (int node = 0; node < upper.size(); node++) {
+        int[][] lists = upper.get(node);
+        if (lists == null) {
+          continue;
+        }
+        out.writeInt(node);
+        out.writeInt(lists.length);
+        for (int[] list : lists) {
+          out.writeInt(list[0]);
+          for (int i = 1; i <= list[0]; i++) {
+            out.writeInt(list[i]);
+          }
+        }
+      }
+    }
+    Files.move(tmp, upperPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private int[] greedy(float[] query, int start, float startDistance, int level,
+      VectorFile vectors) {
+    int current = start;
+    float currentDistance = startDistance;
+    boolean improved = true;
+    while (improved) {
+      improved = false;
+      int count = neighborCount(current, level);
+      for (int i = 0; i < count; i++) {
+        int neighbor = neighbor(current, level, i);
+        if (neighbor >= size) {
+          continue;
+        }
+        float distance = vectors.distance(query, neighbor);
+        if (distance < currentDistance) {
+          current = neighbor;
+          currentDistance = distance;
+          improved = true;
+        }
+      }
+    }
+    return new int[] {current, Float.floatToRawIntBits(currentDistance)};
+  }
+
+  private ScoredHeap searchLayer(float[] query, int entry, float entryDistance, int ef, int level,
+      VectorFile vectors, BitSet visited) {
+    ScoredHeap candidates = ScoredHeap.min(ef);
+    ScoredHeap results = ScoredHeap.max(ef + 1);
+    visited.set(entry);
+    candidates.push(entry, entryDistance);
+    results.push(entry, entryDistance);
+    while (!candidates.isEmpty()) {
+      int current = candidates.topNode();
+      float currentDistance = candidates.topDistance();
+      if (results.size() >= ef && currentDistance > results.topDistance()) {
+        break;
+      }
+      candidates.pop();
+      int count = neighborCount(current, level);
+      for (int i = 0; i < count; i++) {
+        int neighbor = neighbor(current, level, i);
+        if (neighbor >= size || visited.get(neighbor)) {
+          continue;
+        }
+        visited.set(neighbor);
+        float distance = vectors.distance(query, neighbor);
+        if (results.size() < ef || distance < results.topDistance()) {
+          candidates.push(neighbor, distance);
+          results.push(neighbor, distance);
+          if (results.size() > ef) {
+            results.pop();
+          }
+        }
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Neighbor selection heuristic from the HNSW paper: keep a candidate only if it is closer to the
+   * base node than to every neighbor already kept, then top up with the nearest pruned candidates.
+   */
+  private int[] selectNeighbors(int[] candidates, float[] distances, int count, int limit,
+      VectorFile vectors) {
+    int[] selected = new int[Math.min(count, limit)];
+    boolean[] taken = new boolean[count];
+    int kept = 0;
+    for (int i = 0; i < count && kept < selected.length; i++) {
+      boolean diverse = true;
+      for (int j = 0; j < kept; j++) {
+        if (vectors.distance(candidates[i], selected[j]) < distances[i]) {
+          diverse = false;
+          break;
+        }
+      }
+      if (diverse) {
+        selected[kept++] = candidates[i];
+        taken[i] = true;
+      }
+    }
+    for (int i = 0; i < count && kept < selected.length; i++) {
+      if (!taken[i]) {
+        selected[kept++] = candidates[i];
+      }
+    }
+    return selected;
+  }
+
+  private void link(int node, int newNeighbor, int level, VectorFile vectors) {
+    int limit = level == 0 ? maxM0 : m;
+    int count = neighborCount(node, level);
+    if (count < limit) {
+      setNeighbor(node, level, count, newNeighbor);
+      setNeighborCount(node, level, count + 1);
+      return;
+    }
+    int[] candidates = new int[count + 1];
+    float[] distances = new float[count + 1];
+    ScoredHeap heap = ScoredHeap.min(count + 1);
+    for (int i = 0; i < count; i++) {
+      int neighbor = neighbor(node, level, i);
+      heap.push(neighbor, vectors.distance(node, neighbor));
+    }
+    heap.push(newNeighbor, vectors.distance(node, newNeighbor));
+    int total = heap.drainAscending(candidates, distances);
+    int[] selected = selectNeighbors(candidates, distances, total, limit, vectors);
+    setNeighbors(node, level, selected, selected.length);
+  }
+
+  private int neighborCount(int node, int level) {
+    if (level == 0) {
+      return ints.get(node * recordInts + 1);
+    }
+    int[][] lists = upper.get(node);
+    return lists == null || level > lists.length ? 0 : lists[level - 1][0];
+  }
+
+  private int neighbor(int node, int level, int i) {
+    if (level == 0) {
+      return ints.get(node * recordInts + 2 + i);
+    }
+    return upper.get(node)[level - 1][i + 1];
+  }
+
+  private void setNeighbor(int node, int level, int i, int neighbor) {
+    if (level == 0) {
+      ints.put(node * recordInts + 2 + i, neighbor);
+    } else {
+      upper.get(node)[level - 1][i + 1] = neighbor;
+    }
+  }
+
+  private void setNeighborCount(int node, int level, int count) {
+    if (level == 0) {
+      ints.put(node * recordInts + 1, count);
+    } else {
+      upper.get(node)[level - 1][0] = count;
+    }
+  }
+
+  private void setNeighbors(int node, int level, int[] neighbors, int count) {
+    for (int i = 0; i < count; i++) {
+      setNeighbor(node, level, i, neighbors[i]);
+    }
+    setNeighborCount(node, level, count);
+  }
+
+  private int[][] newUpperLists(int level) {
+    int[][] lists = new int[level][];
+    for (int l = 0; l < level; l++) {
+      lists[l] = new int[m + 1];
+    }
+    return lists;
+  }
+
+  private void ensureCapacity(int node) throws IOException {
+    long end = HEADER_BYTES + ((long) node + 1) * recordInts * Integer.BYTES;
+    if (end <= buffer.capacity()) {
+      return;
+    }
+    if (end > Integer.MAX_VALUE) {
+      throw new IOException("Embedded graph file exceeds 2 GB: " + layer0Path);
+    }
+    map(Math.min(Integer.MAX_VALUE, Math.max(end, (long) buffer.capacity() + GROWTH_BYTES)));
+  }
+
+  private void map(long bytes) throws IOException {
+    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+    ints = buffer.slice(HEADER_BYTES, buffer.capacity() - HEADER_BYTES)
+        .order(ByteOrder.LITTLE_ENDIAN)
+        .asIntBuffer();
+  }
+}
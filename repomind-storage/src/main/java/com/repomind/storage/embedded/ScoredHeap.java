@@ -0,0 +1,97 @@
+package com.repomind.storage.embedded;
+
+import java.util.Arrays;
+
+/** Binary heap of (node, distance) pairs on primitive arrays; min- or max-ordered by distance. */
+final class ScoredHeap {
+  private final boolean maxHeap;
+  private int[] nodes;
+  private float[] distances;
+  private int size;
+
+  ScoredHeap(boolean maxHeap, int capacity) {
+    this.maxHeap = maxHeap;
+    this.nodes = new int[Math.max(capacity, 4)];
+    this.distances = new float[nodes.length];
+  }
+
+  static ScoredHeap min(int capacity) {
+    return new ScoredHeap(false, capacity);
+  }
+
+  static ScoredHeap max(int capacity) {
+    return new ScoredHeap(true, capacity);
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  int topNode() {
+    return nodes[0];
+  }
+
+  float topDistance() {
+    return distances[0];
+  }
+
+  void push(int node, float distance) {
+    if (size == nodes.length) {
+      nodes = Arrays.copyOf(nodes, size * 2);
+      distances = Arrays.copyOf(distances, size * 2);
+    }
+    int i = size++;
+    while (i > 0) {
+      int parent = (i - 1) >>> 1;
+      if (!before(distance, distances[parent])) {
+        break;
+      }
+      nodes[i] = nodes[parent];
+      distances[i] = distances[parent];
+      i = parent;
+    }
+    nodes[i] = node;
+    distances[i] = distance;
+  }
+
+  void pop() {
+    int lastNode = nodes[--size];
+    float lastDistance = distances[size];
+    int i = 0;
+    int half = size >>> 1;
+    while (i < half) {
+      int child = 2 * i + 1;
+      if (child + 1 < size && before(distances[child + 1], distances[child])) {
+        child++;
+      }
+      if (!before(distances[child], lastDistance)) {
+        break;
+      }
+      nodes[i] = nodes[child];
+      distances[i] = distances[child];
+      i = child;
+    }
+    nodes[i] = lastNode;
+    distances[i] = lastDistance;
+  }
+
+  /** Empties the heap into {@code outNodes}/{@code outDistances}, nearest first; returns the count. */
+  int drainAscending(int[] outNodes, float[] outDistances) {
+    int count = size;
+    for (int i = 0; i < count; i++) {
+      int slot = maxHeap ? count - 1 - i : i;
+      outNodes[slot] = topNode();
+      outDistances[slot] = topDistance();
+      pop();
+    }
+    return count;
+  }
+
+  private boolean before(float a, float b) {
+    return maxHeap ? a > b : a < b;
+  }
+}
@@ -0,0 +1,141 @@
+package com.repomind.storage.embedded;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory-mapped, fixed-width float32 vectors addressed by node id.
+ *
+ * <p>Layout: a 16-byte header (magic, version, dimension, reserved) followed by
+ * {@code dimension * float32} per node, little-endian. Vectors are stored unit-normalized, so the
+ * cosine distance between two of them is {@code 1 - dot}. Reads are absolute and safe to run
+ * concurrently; writes and remapping happen under the store's write lock.
+ */
+final class VectorFile implements Closeable {
+  private static final int MAGIC = 0x524D5646;
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 16;
+  private static final long GROWTH_BYTES = 4L * 1024 * 1024;
+
+  private final Path path;
+  private final FileChannel channel;
+  private final int dimension;
+  private MappedByteBuffer buffer;
+  private FloatBuffer floats;
+
+  private VectorFile(Path path, FileChannel channel, int dimension) {
+    this.path = path;
+    this.channel = channel;
+    this.dimension = dimension;
+  }
+
+  /** Opens {@code path}, creating it for {@code dimension} when missing or empty. */
+  static VectorFile open(Path path, int dimension) throws IOException {
+    FileChannel channel = FileChannel.open(path,
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      if (channel.size() < HEADER_BYTES) {
+        VectorFile file = new VectorFile(path, channel, dimension);
+        file.map(Math.max(GROWTH_BYTES, HEADER_BYTES + (long) dimension * Float.BYTES));
+        file.buffer.putInt(0, MAGIC);
+        file.buffer.putInt(4, VERSION);
+        file.buffer.putInt(8, dimension);
+        return file;
+      }
+      MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+      header.order(ByteOrder.LITTLE_ENDIAN);
+      if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+        throw new IOException("Not a RepoMind vector file: " + path);
+      }
+      VectorFile file = new VectorFile(path, channel, header.getInt(8));
+      file.map(channel.size());
+      return file;
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  int dimension() {
+    return dimension;
+  }
+
+  /** Writes an already normalized vector for {@code node}. */
+  void set(int node, float[] vector) throws IOException {
+    long end = HEADER_BYTES + ((long) node + 1) * dimension * Float.BYTES;
+    if (end > buffer.capacity()) {
+      if (end > Integer.MAX_VALUE) {
+        throw new IOException("Embedded vector file exceeds 2 GB: " + path);
+      }
+      map(Math.min(Integer.MAX_VALUE, Math.max(end, (long) buffer.capacity() + GROWTH_BYTES)));
+    }
+    floats.put(node * dimension, vector);
+  }
+
+  /** Cosine distance between a normalized query and a stored vector. */
+  float distance(float[] query, int node) {
+    FloatBuffer view = floats;
+    int base = node * dimension;
+    float dot = 0f;
+    for (int i = 0; i < dimension; i++) {
+      dot += query[i] * view.get(base + i);
+    }
+    return 1f - dot;
+  }
+
+  /** Cosine distance between two stored vectors. */
+  float distance(int a, int b) {
+    FloatBuffer view = floats;
+    int baseA = a * dimension;
+    int baseB = b * dimension;
+    float dot = 0f;
+    for (int i = 0; i < dimension; i++) {
+      dot += view.get(baseA + i) * view.get(baseB + i);
+    }
+    return 1f - dot;
+  }
+
+  float[] read(int node) {
+    float[] vector = new float[dimension];
+    floats.get(node * dimension, vector);
+    return vector;
+  }
+
+  void force() {
+    buffer.force();
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private void map(long size) throws IOException {
+    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+    floats = buffer.slice(HEADER_BYTES, buffer.capacity() - HEADER_BYTES)
+        .order(ByteOrder.LITTLE_ENDIAN)
+        .asFloatBuffer();
+  }
+
+  /** Scales {@code vector} to unit length in place; zero vectors are left as they are. */
+  static float[] normalize(float[] vector) {
+    double sum = 0;
+    for (float value : vector) {
+      sum += (double) value * value;
+    }
+    if (sum > 0) {
+      float scale = (float) (1.0 / Math.sqrt(sum));
+      for (int i = 0; i < vector.length; i++) {
+        vector[i] *= scale;
+      }
+    }
+    return vector;
+  }
+}
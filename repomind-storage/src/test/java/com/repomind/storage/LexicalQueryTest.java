@@ -0,0 +1,24 @@
+package com.repomind.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class LexicalQueryTest {
+  @Test
+  void splitsCamelCaseAndPunctuationIntoAlternatives() {
+    assertEquals("producerequest | produce | request | validation",
+        LexicalQuery.toTsQuery("ProduceRequest validation"));
+    assertEquals("kafka | fetchrequest | fetch | request | java",
+        LexicalQuery.toTsQuery("kafka/FetchRequest.java"));
+    assertEquals("http2client | http2 | client", LexicalQuery.toTsQuery("Http2Client"));
+  }
+
+  @Test
+  void dropsOperatorsAndReturnsNullWithoutWords() {
+    assertEquals("a | b", LexicalQuery.toTsQuery("a & !b | a"));
+    assertNull(LexicalQuery.toTsQuery("  :*()  "));
+    assertNull(LexicalQuery.toTsQuery(null));
+  }
+}
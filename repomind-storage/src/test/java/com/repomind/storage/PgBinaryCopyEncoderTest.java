@@ -0,0 +1,61 @@
+package com.repomind.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class PgBinaryCopyEncoderTest {
+  @Test
+  void writesHeaderRowAndTrailer() {
+    PgBinaryCopyEncoder encoder = new PgBinaryCopyEncoder(8);
+    encoder.writeHeader();
+    encoder.beginRow(5);
+    encoder.writeInt8(-2L);
+    encoder.writeInt4(7);
+    encoder.writeText(null);
+    encoder.writeText("é");
+    encoder.writeBytes(new byte[] {1, 2, (byte) 0xFF});
+    encoder.writeTrailer();
+
+    ByteBuffer buffer = ByteBuffer.wrap(Arrays.copyOf(encoder.array(), encoder.size()));
+    byte[] signature = new byte[11];
+    buffer.get(signature);
+    assertArrayEquals(new byte[] {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0},
+        signature);
+    assertEquals(0, buffer.getInt());
+    assertEquals(0, buffer.getInt());
+    assertEquals(5, buffer.getShort());
+    assertEquals(8, buffer.getInt());
+    assertEquals(-2L, buffer.getLong());
+    assertEquals(4, buffer.getInt());
+    assertEquals(7, buffer.getInt());
+    assertEquals(-1, buffer.getInt());
+    assertEquals(2, buffer.getInt());
+    assertEquals((byte) 0xC3, buffer.get());
+    assertEquals((byte) 0xA9, buffer.get());
+    assertEquals(3, buffer.getInt());
+    byte[] bytes = new byte[3];
+    buffer.get(bytes);
+    assertArrayEquals(new byte[] {1, 2, (byte) 0xFF}, bytes);
+    assertEquals(-1, buffer.getShort());
+    assertEquals(0, buffer.remaining());
+  }
+
+  @Test
+  void writesVectorsInPgvectorBinaryLayout() {
+    PgBinaryCopyEncoder encoder = new PgBinaryCopyEncoder(8);
+    encoder.writeVector(new float[] {1.5f, -0.25f, 0f});
+
+    ByteBuffer buffer = ByteBuffer.wrap(Arrays.copyOf(encoder.array(), encoder.size()));
+    assertEquals(4 + 3 * Float.BYTES, buffer.getInt());
+    assertEquals(3, buffer.getShort());
+    assertEquals(0, buffer.getShort());
+    assertEquals(1.5f, buffer.getFloat());
+    assertEquals(-0.25f, buffer.getFloat());
+    assertEquals(0f, buffer.getFloat());
+    assertEquals(0, buffer.remaining());
+  }
+}
@@ -0,0 +1,372 @@
+package com.repomind.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.repomind.core.model.CodeChunk;
+import com.repomind.core.model.FileManifestEntry;
+import com.repomind.core.model.SearchCandidate;
+import com.repomind.core.model.SearchResult;
+import com.repomind.core.store.IndexBatch;
+import com.repomind.core.store.RepoRebuild;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+class PgVectorCodeChunkRepositoryTest {
+  private static final int DIMENSION = 384;
+
+  @Test
+  void searchReturnsNearestChunksForRepo() throws SQLException {
+    Assumptions.assumeTrue(isDockerAvailable(), "Docker not available for Testcontainers");
+    try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("pgvector/pgvector:pg16")) {
+      postgres.start();
+      DataSource dataSource = migrate(postgres);
+      insert(dataSource, "petclinic", "Owner.java", axis(0));
+      insert(dataSource, "petclinic", "Vet.java", axis(1));
+      insert(dataSource, "other", "Owner.java", axis(0));
+
+      PgVectorCodeChunkRepository repository = new PgVectorCodeChunkRepository(dataSource);
+      List<SearchResult> results = repository.search("petclinic", axis(0), 5);
+
+      assertEquals(2, results.size());
+      assertEquals("Owner.java", results.get(0).filePath());
+      assertEquals(0.0, results.get(0).distance(), 1e-6);
+      assertEquals("Vet.java", results.get(1).filePath());
+    }
+  }
+
+  @Test
+  void applyBatchReplacesChangedFilesAndDeletesRemovedOnes() {
+    Assumptions.assumeTrue(isDockerAvailable(), "Docker not available for Testcontainers");
+    try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("pgvector/pgvector:pg16")) {
+      postgres.start();
+      PgVectorCodeChunkRepository repository = new PgVectorCodeChunkRepository(migrate(postgres));
+      repository.applyBatch("petclinic", new IndexBatch(
+          List.of(manifest("Owner.java", "h1"), manifest("Vet.java", "h2")),
+          List.of(chunk("Owner.java", 10, axis(0)), chunk("Vet.java", 5, axis(1))),
+          List.of(),
+          List.of()));
+
+      repository.applyBatch("petclinic", new IndexBatch(
+          List.of(manifest("Owner.java", "h3")),
+          List.of(chunk("Owner.java", 12, axis(2))),
+          List.of(),
+          List.of("Vet.java")));
+
+      Map<String, FileManifestEntry> manifest = repository.loadManifest("petclinic");
+      assertEquals(List.of("Owner.java"), List.copyOf(manifest.keySet()));
+      assertEquals("h3", manifest.get("Owner.java").contentHash());
+      List<SearchResult> results = repository.search("petclinic", axis(2), 10);
+      assertEquals(1, results.size());
+      assertEquals(12, results.get(0).endLine());
+    }
+  }
+
+  @Test
+  void fullRebuildSwapsPartitionAndDeleteDropsIt() throws SQLException {
+    Assumptions.assumeTrue(isDockerAvailable(), "Docker not available for Testcontainers");
+    try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("pgvector/pgvector:pg16")) {
+      postgres.start();
+      DataSource dataSource = migrate(postgres);
+      PgVectorCodeChunkRepository repository = new PgVectorCodeChunkRepository(dataSource);
+      repository.applyBatch("petclinic", new IndexBatch(
+          List.of(manifest("Owner.java", "h1"), manifest("Vet.java", "h2")),
+          List.of(chunk("Owner.java", 10, axis(0)), chunk("Vet.java", 5, axis(1))),
+          List.of(),
+          List.of()));
+      insert(dataSource, "other", "Owner.java", axis(0));
+      assertEquals(2L, count(dataSource, "SELECT count(*) FROM pg_inherits "
+          + "WHERE inhparent = 'code_chunks'::regclass"));
+
+      try (RepoRebuild rebuild = repository.rebuild("petclinic")) {
+        rebuild.applyBatch(new IndexBatch(
+            List.of(manifest("Owner.java", "h3")),
+            List.of(chunk("Owner.java", 12, axis(2))),
+            List.of(),
+            List.of()));
+        assertEquals(2, repository.search("petclinic", axis(2), 10).size());
+        rebuild.commit();
+      }
+
+      List<SearchResult> results = repository.search("petclinic", axis(2), 10);
+      assertEquals(1, results.size());
+      assertEquals(12, results.get(0).endLine());
+      assertEquals(List.of("Owner.java"), List.copyOf(repository.loadManifest("petclinic").keySet()));
+      String plan = repository.inspectVectorIndex("petclinic", 5).plan();
+      assertTrue(plan.contains(partition(dataSource, "petclinic")));
+      assertFalse(plan.contains(partition(dataSource, "other")));
+
+      try (RepoRebuild abandoned = repository.rebuild("petclinic")) {
+        abandoned.applyBatch(new IndexBatch(List.of(), List.of(), List.of(), List.of()));
+      }
+      assertEquals(1, repository.search("petclinic", axis(2), 10).size());
+      assertEquals(0L, count(dataSource, "SELECT count(*) FROM pg_class WHERE relname LIKE '%\\_next'"));
+
+      repository.deleteRepo("petclinic");
+      assertEquals(List.of(), repository.search("petclinic", axis(2), 10));
+      assertEquals(0, repository.loadManifest("petclinic").size());
+      assertEquals(1, repository.search("other", axis(0), 10).size());
+      assertEquals(1L, count(dataSource, "SELECT count(*) FROM pg_inherits "
+          + "WHERE inhparent = 'code_chunks'::regclass"));
+    }
+  }
+
+  @Test
+  void copyAndRowWriteModesUpsertTheSameRows() throws SQLException {
+    Assumptions.assumeTrue(isDockerAvailable(), "Docker not available for Testcontainers");
+    try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("pgvector/pgvector:pg16")) {
+      postgres.start();
+      DataSource dataSource = migrate(postgres);
+      List<CodeChunk> chunks = List.of(
+          chunk("A.java", 3, axis(0)),
+          chunk("B.java", 4, axis(1)),
+          chunk("C.java", 5, axis(2)));
+
+      new PgVectorCodeChunkRepository(dataSource, ChunkWriteMode.ROWS, 1).upsertChunks(chunks);
+      CodeChunk updated = new CodeChunk("petclinic", "B.java", "java", "FILE", "B.java", 1, 4,
+          "class Üpdated {}", chunks.get(1).chunkId(), axis(3));
+      new PgVectorCodeChunkRepository(dataSource, ChunkWriteMode.COPY, 2)
+          .upsertChunks(List.of(chunks.get(0), updated, chunks.get(2)));
+
+      PgVectorCodeChunkRepository repository = new PgVectorCodeChunkRepository(dataSource);
+      List<SearchResult> results = repository.search("petclinic", axis(3), 10);
+      assertEquals(3, results.size());
+      assertEquals("B.java", results.get(0).filePath());
+      assertEquals(null, results.get(0).code());
+      List<SearchResult> loaded = repository.loadCode("petclinic", results, 0);
+      assertEquals("class Üpdated {}", loaded.get(0).code());
+      assertEquals("class X {}", loaded.get(1).code());
+      assertEquals("class Ü", repository.loadCode("petclinic", results, 7).get(0).code());
+      assertEquals(0.0, results.get(0).distance(), 1e-6);
+      assertEquals(0L, count(dataSource, "SELECT count(*) FROM code_chunks_staging"));
+    }
+  }
+
+  @Test
+  void findsVectorsOfIdenticalTextInOtherRepos() throws SQLException {
+    Assumptions.assumeTrue(isDockerAvailable(), "Docker not available for Testcontainers");
+    try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("pgvector/pgvector:pg16")) {
+      postgres.start();
+      DataSource dataSource = migrate(postgres);
+      PgVectorCodeChunkRepository repository =
+          new PgVectorCodeChunkRepository(dataSource, ChunkWriteMode.COPY, 2, "model-a");
+      repository.applyBatch("petclinic", new IndexBatch(
+          List.of(manifest("Owner.java", "h1")),
+          List.of(chunk("Owner.java", 10, axis(0))),
+          List.of(),
+          List.of()));
+      CodeChunk copy = new CodeChunk("fork", "Owner.java", "java", "FILE", "Owner.java", 1, 10,
+          "class X {}", CodeChunk.chunkId("fork", "Owner.java", "FILE", "Owner.java", 1, 10),
+          axis(0));
+      new PgVectorCodeChunkRepository(dataSource, ChunkWriteMode.ROWS, 1, "model-a").applyBatch(
+          "fork", new IndexBatch(List.of(manifest("Owner.java", "h1")), List.of(copy), List.of(),
+              List.of()));
+
+      assertEquals(2L, count(dataSource, "SELECT count(*) FROM code_chunks "
+          + "WHERE embedding_model = 'model-a' AND text_hash = sha256(convert_to('class X {}', 'UTF8'))"));
+      Map<String, float[]> found = repository.findEmbeddings(List.of("class X {}", "class Y {}"));
+      assertEquals(List.of("class X {}"), List.copyOf(found.keySet()));
+      assertArrayEquals(axis(0), found.get("class X {}"));
+      assertEquals(Map.of(), new PgVectorCodeChunkRepository(
+          dataSource, ChunkWriteMode.ROWS, 1, "model-b").findEmbeddings(List.of("class X {}")));
+
+      repository.deleteRepo("petclinic");
+      assertArrayEquals(axis(0), repository.findEmbeddings(List.of("class X {}")).get("class X {}"));
+      repository.deleteRepo("fork");
+      assertEquals(Map.of(), repository.findEmbeddings(List.of("class X {}")));
+    }
+  }
+
+  @Test
+  void filteredSearchFillsLimitWithIterativeScanAndReportsIndexUse() throws SQLException {
+    Assumptions.assumeTrue(isDockerAvailable(), "Docker not available for Testcontainers");
+    try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("pgvector/pgvector:pg16")) {
+      postgres.start();
+      DataSource dataSource = migrate(postgres);
+      for (int i = 0; i < 200; i++) {
+        insert(dataSource, "other", "Other" + i + ".java", axis(i % 8));
+      }
+      for (int i = 0; i < 5; i++) {
+        insert(dataSource, "petclinic", "Pet" + i + ".java", axis(100 + i));
+      }
+      try (Connection connection = dataSource.getConnection();
+          PreparedStatement statement = connection.prepareStatement("ANALYZE code_chunks")) {
+        statement.execute();
+      }
+
+      PgVectorCodeChunkRepository repository = new PgVectorCodeChunkRepository(
+          dataSource, new VectorSearchSettings(1, "strict_order"));
+      assertEquals(5, repository.search("petclinic", axis(0), 5).size());
+
+      VectorIndexReport report = repository.inspectVectorIndex("petclinic", 5);
+      assertTrue(report.indexExists());
+      assertTrue(report.indexDefinition().contains("hnsw"));
+      assertEquals(report.plan().contains("_embedding_idx"), report.usedByPlanner());
+    }
+  }
+
+  @Test
+  void quantizedIndexesRerankToExactDistancesAndReportRecall() throws SQLException {
+    Assumptions.assumeTrue(isDockerAvailable(), "Docker not available for Testcontainers");
+    for (Quantization mode : List.of(Quantization.HALFVEC, Quantization.BINARY)) {
+      try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("pgvector/pgvector:pg16")) {
+        postgres.start();
+        DataSource dataSource = migrate(postgres, mode.name().toLowerCase());
+        for (int i = 0; i < 20; i++) {
+          insert(dataSource, "petclinic", "Pet" + i + ".java", axis(i));
+        }
+
+        PgVectorCodeChunkRepository repository = new PgVectorCodeChunkRepository(
+            dataSource, new VectorSearchSettings(40, "strict_order", mode, 4));
+        List<SearchResult> results = repository.search("petclinic", axis(3), 3);
+        assertEquals("Pet3.java", results.get(0).filePath());
+        assertEquals(0.0, results.get(0).distance(), 1e-6);
+        assertEquals(1.0, results.get(1).distance(), 1e-6);
+
+        VectorIndexReport index = repository.inspectVectorIndex("petclinic", 3);
+        assertTrue(index.indexDefinition().contains(mode.indexName()));
+        assertEquals(-1L, count(dataSource,
+            "SELECT COALESCE(pg_relation_size(to_regclass('ix_code_chunks_embedding_hnsw')), -1)"));
+
+        QuantizationReport report = repository.measureQuantization("petclinic", 5, 1);
+        assertEquals(5, report.queries());
+        assertEquals(1.0, report.recall(), 1e-9);
+        assertEquals(-1L, report.fullIndexBytes());
+        assertTrue(report.quantizedIndexBytes() > 0);
+      }
+    }
+  }
+
+  @Test
+  void hybridSearchFusesIdentifierMatchesWithVectorNeighbours() throws SQLException {
+    Assumptions.assumeTrue(isDockerAvailable(), "Docker not available for Testcontainers");
+    try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("pgvector/pgvector:pg16")) {
+      postgres.start();
+      DataSource dataSource = migrate(postgres);
+      for (int i = 0; i < 10; i++) {
+        insert(dataSource, "kafka", "clients/Other" + i + ".java", axis(i));
+      }
+      insert(dataSource, "kafka", "clients/FetchRequest.java", axis(200));
+      insert(dataSource, "other", "clients/FetchRequest.java", axis(0));
+
+      PgVectorCodeChunkRepository vectorOnly = new PgVectorCodeChunkRepository(dataSource);
+      PgVectorCodeChunkRepository hybrid = new PgVectorCodeChunkRepository(dataSource,
+          VectorSearchSettings.DEFAULT, new HybridSearchSettings(true, 1.0, 1.0, 60));
+
+      List<SearchResult> vectorResults = vectorOnly.search("kafka", "FetchRequest", axis(0), 3);
+      assertEquals("clients/Other0.java", vectorResults.get(0).filePath());
+      assertTrue(vectorResults.stream().noneMatch(r -> r.filePath().contains("FetchRequest")));
+
+      List<SearchResult> results = hybrid.search("kafka", "FetchRequest", axis(0), 3);
+      assertEquals(3, results.size());
+      assertEquals("clients/FetchRequest.java", results.get(0).filePath());
+      assertEquals(1.0, results.get(0).distance(), 1e-6);
+      assertEquals("clients/Other0.java", results.get(1).filePath());
+
+      List<SearchResult> camelParts = hybrid.search("kafka", "fetch", axis(5), 2);
+      assertEquals("clients/FetchRequest.java", camelParts.get(0).filePath());
+      assertEquals(5, hybrid.search("kafka", "?!", axis(0), 5).size());
+
+      List<SearchCandidate> candidates = hybrid.searchCandidates("kafka", "FetchRequest", axis(0), 3);
+      assertEquals(results.stream().map(SearchResult::chunkId).toList(),
+          candidates.stream().map(c -> c.result().chunkId()).toList());
+      assertArrayEquals(axis(200), candidates.get(0).embedding());
+      assertArrayEquals(axis(0), candidates.get(1).embedding());
+      assertArrayEquals(axis(3),
+          vectorOnly.searchCandidates("kafka", "FetchRequest", axis(3), 1).get(0).embedding());
+    }
+  }
+
+  static FileManifestEntry manifest(String path, String hash) {
+    return new FileManifestEntry(path, 100, 1_000, hash);
+  }
+
+  static CodeChunk chunk(String path, int endLine, float[] embedding) {
+    return new CodeChunk("petclinic", path, "java", "FILE", path, 1, endLine, "class X {}",
+        CodeChunk.chunkId("petclinic", path, "FILE", path, 1, endLine), embedding);
+  }
+
+  static DataSource migrate(PostgreSQLContainer<?> postgres) {
+    return migrate(postgres, "none");
+  }
+
+  static DataSource migrate(PostgreSQLContainer<?> postgres, String quantization) {
+    Flyway.configure()
+        .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+        .locations("classpath:db/migration")
+        .initSql("SET repomind.quantization = '" + quantization + "'")
+        .load()
+        .migrate();
+    PGSimpleDataSource dataSource = new PGSimpleDataSource();
+    dataSource.setUrl(postgres.getJdbcUrl());
+    dataSource.setUser(postgres.getUsername());
+    dataSource.setPassword(postgres.getPassword());
+    return dataSource;
+  }
+
+  static float[] axis(int index) {
+    float[] vector = new float[DIMENSION];
+    vector[index] = 1.0f;
+    return vector;
+  }
+
+  private static void insert(DataSource dataSource, String repo, String filePath, float[] embedding)
+      throws SQLException {
+    partition(dataSource, repo);
+    String sql = "INSERT INTO code_chunks "
+        + "(repo, file_path, language, symbol, symbol_kind, start_line, end_line, code, embedding, chunk_id) "
+        + "VALUES (?, ?, 'java', ?, 'FILE', 1, 10, 'class X {}', ?::vector, ?)";
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setString(1, repo);
+      statement.setString(2, filePath);
+      statement.setString(3, filePath);
+      statement.setString(4, PgVectors.toLiteral(embedding));
+      statement.setString(5, repo + ":" + filePath + ":FILE:" + filePath + ":1:10");
+      statement.executeUpdate();
+    }
+  }
+
+  /** Creates the partition of {@code repo} if needed and returns its name. */
+  private static String partition(DataSource dataSource, String repo) throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement =
+            connection.prepareStatement("SELECT repomind_ensure_chunk_partition(?)")) {
+      statement.setString(1, repo);
+      try (ResultSet rs = statement.executeQuery()) {
+        rs.next();
+        return rs.getString(1);
+      }
+    }
+  }
+
+  private static long count(DataSource dataSource, String sql) throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(sql);
+        ResultSet rs = statement.executeQuery()) {
+      rs.next();
+      return rs.getLong(1);
+    }
+  }
+
+  private static boolean isDockerAvailable() {
+    try {
+      return DockerClientFactory.instance().isDockerAvailable();
+    } catch (Exception e) {
+      return false;
+    }
+  }
+}
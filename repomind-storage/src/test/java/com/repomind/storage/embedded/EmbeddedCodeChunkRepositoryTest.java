@@ -0,0 +1,268 @@
+package com.repomind.storage.embedded;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.repomind.core.model.CodeChunk;
+import com.repomind.core.model.FileManifestEntry;
+import com.repomind.core.model.SearchCandidate;
+import com.repomind.core.model.SearchResult;
+import com.repomind.core.store.IndexBatch;
+import com.repomind.storage.StorageException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class EmbeddedCodeChunkRepositoryTest {
+  private static final int DIMENSION = 32;
+
+  @TempDir
+  Path root;
+
+  @Test
+  void searchReturnsNearestChunksForRepo() {
+    try (EmbeddedCodeChunkRepository repository = open()) {
+      repository.upsertChunks(List.of(
+          chunk("petclinic", "Owner.java", 10, axis(0)),
+          chunk("petclinic", "Vet.java", 10, axis(1)),
+          chunk("other", "Owner.java", 10, axis(0))));
+
+      List<SearchResult> results = repository.search("petclinic", axis(0), 5);
+
+      assertEquals(2, results.size());
+      assertEquals("Owner.java", results.get(0).filePath());
+      assertEquals(0.0, results.get(0).distance(), 1e-6);
+      assertEquals("class Owner {}", results.get(0).code());
+      assertEquals("Vet.java", results.get(1).filePath());
+      assertEquals(List.of(), repository.search("missing", axis(0), 5));
+
+      List<SearchCandidate> candidates = repository.searchCandidates("petclinic", "owner", axis(1), 5);
+      assertEquals(List.of("Vet.java", "Owner.java"),
+          candidates.stream().map(c -> c.result().filePath()).toList());
+      assertArrayEquals(axis(1), candidates.get(0).embedding(), 1e-6f);
+      assertArrayEquals(axis(0), candidates.get(1).embedding(), 1e-6f);
+    }
+  }
+
+  @Test
+  void applyBatchReplacesChangedFilesAndSurvivesReopen() {
+    try (EmbeddedCodeChunkRepository repository = open()) {
+      repository.applyBatch("petclinic", new IndexBatch(
+          List.of(manifest("Owner.java", "h1"), manifest("Vet.java", "h2")),
+          List.of(chunk("petclinic", "Owner.java", 10, axis(0)),
+              chunk("petclinic", "Vet.java", 5, axis(1))),
+          List.of(),
+          List.of()));
+      repository.applyBatch("petclinic", new IndexBatch(
+          List.of(manifest("Owner.java", "h3")),
+          List.of(chunk("petclinic", "Owner.java", 12, axis(2))),
+          List.of(),
+          List.of("Vet.java")));
+    }
+
+    try (EmbeddedCodeChunkRepository repository = open()) {
+      Map<String, FileManifestEntry> manifest = repository.loadManifest("petclinic");
+      assertEquals(List.of("Owner.java"), List.copyOf(manifest.keySet()));
+      assertEquals("h3", manifest.get("Owner.java").contentHash());
+      List<SearchResult> results = repository.search("petclinic", axis(2), 10);
+      assertEquals(1, results.size());
+      assertEquals(12, results.get(0).endLine());
+      assertEquals(1, repository.chunkCount("petclinic"));
+    }
+  }
+
+  @Test
+  void deleteRepoRemovesItsStoreOnly() {
+    try (EmbeddedCodeChunkRepository repository = open()) {
+      repository.applyBatch("petclinic", new IndexBatch(
+          List.of(manifest("Owner.java", "h1")),
+          List.of(chunk("petclinic", "Owner.java", 10, axis(0))),
+          List.of(),
+          List.of()));
+      repository.upsertChunks(List.of(chunk("other", "Owner.java", 10, axis(0))));
+
+      repository.deleteRepo("petclinic");
+
+      assertEquals(List.of(), repository.search("petclinic", axis(0), 5));
+      assertEquals(Map.of(), repository.loadManifest("petclinic"));
+      assertEquals(1, repository.search("other", axis(0), 5).size());
+      assertTrue(Files.notExists(root.resolve("petclinic")));
+      assertTrue(Files.isDirectory(root.resolve("other")));
+    }
+  }
+
+  @Test
+  void graphSearchRecallsBruteForceNeighbors() {
+    Random random = new Random(42);
+    List<CodeChunk> chunks = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      chunks.add(chunk("petclinic", "F" + i + ".java", 10, randomVector(random)));
+    }
+    try (EmbeddedCodeChunkRepository repository = open()) {
+      repository.upsertChunks(chunks);
+
+      int hits = 0;
+      int queries = 50;
+      for (int q = 0; q < queries; q++) {
+        float[] query = randomVector(random);
+        Set<String> expected = new HashSet<>(bruteForce(chunks, query, 10));
+        for (SearchResult result : repository.search("petclinic", query, 10)) {
+          if (expected.contains(result.filePath())) {
+            hits++;
+          }
+        }
+      }
+      double recall = hits / (queries * 10.0);
+      assertTrue(recall >= 0.95, "recall@10 was " + recall);
+    }
+  }
+
+  @Test
+  void compactsTombstonesIntoNewGeneration() throws IOException {
+    try (EmbeddedCodeChunkRepository repository = open()) {
+      repository.upsertChunks(files(0, 1100, 0));
+      repository.upsertChunks(files(0, 1100, 1));
+
+      assertEquals(1100, repository.chunkCount("petclinic"));
+      assertEquals("gen-2", Files.readString(root.resolve("petclinic").resolve("CURRENT")).trim());
+      assertTrue(Files.notExists(root.resolve("petclinic").resolve("gen-1")));
+    }
+    try (EmbeddedCodeChunkRepository repository = open()) {
+      List<SearchResult> results = repository.search("petclinic", axis(1), 1);
+      assertEquals(0.0, results.get(0).distance(), 1e-6);
+      assertEquals(1100, repository.chunkCount("petclinic"));
+    }
+  }
+
+  @Test
+  void searchesRunConcurrentlyWithWrites() throws Exception {
+    Random random = new Random(7);
+    try (EmbeddedCodeChunkRepository repository = open()) {
+      repository.upsertChunks(IntStream.range(0, 200)
+          .mapToObj(i -> chunk("petclinic", "F" + i + ".java", 10, randomVector(random)))
+          .toList());
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try {
+        List<Future<?>> readers = new ArrayList<>();
+        for (int t = 0; t < 3; t++) {
+          float[] query = randomVector(random);
+          readers.add(executor.submit(() -> {
+            for (int i = 0; i < 200; i++) {
+              assertEquals(10, repository.search("petclinic", query, 10).size());
+            }
+          }));
+        }
+        for (int batch = 0; batch < 20; batch++) {
+          int offset = 200 + batch * 10;
+          repository.upsertChunks(IntStream.range(offset, offset + 10)
+              .mapToObj(i -> chunk("petclinic", "F" + i + ".java", 10, randomVector(random)))
+              .toList());
+        }
+        for (Future<?> reader : readers) {
+          reader.get();
+        }
+      } finally {
+        executor.shutdownNow();
+      }
+      assertEquals(400, repository.chunkCount("petclinic"));
+    }
+  }
+
+  @Test
+  void rejectsSecondWriterOnSameStore() {
+    try (EmbeddedCodeChunkRepository first = open(); EmbeddedCodeChunkRepository second = open()) {
+      first.upsertChunks(List.of(chunk("petclinic", "Owner.java", 10, axis(0))));
+
+      StorageException ex = assertThrows(StorageException.class,
+          () -> second.upsertChunks(List.of(chunk("petclinic", "Vet.java", 10, axis(1)))));
+      assertTrue(ex.getMessage().contains("being written by another process"), ex.getMessage());
+    }
+  }
+
+  @Test
+  void longLivedReaderSeesCommitsFromWriter() {
+    try (EmbeddedCodeChunkRepository writer = open(); EmbeddedCodeChunkRepository reader = open()) {
+      writer.upsertChunks(List.of(chunk("petclinic", "Owner.java", 10, axis(0))));
+      assertEquals(1, reader.search("petclinic", axis(1), 5).size());
+
+      writer.upsertChunks(List.of(chunk("petclinic", "Vet.java", 10, axis(1))));
+      List<SearchResult> results = reader.search("petclinic", axis(1), 5);
+
+      assertEquals(2, results.size());
+      assertEquals("Vet.java", results.get(0).filePath());
+    }
+  }
+
+  private EmbeddedCodeChunkRepository open() {
+    return new EmbeddedCodeChunkRepository(root, 16, 100, 40);
+  }
+
+  private static List<CodeChunk> files(int from, int to, int axis) {
+    return IntStream.range(from, to)
+        .mapToObj(i -> {
+          float[] vector = axis(axis);
+          vector[2 + i % (DIMENSION - 2)] += 0.01f * (i % 7);
+          return chunk("petclinic", "F" + i + ".java", 10, vector);
+        })
+        .toList();
+  }
+
+  private static List<String> bruteForce(List<CodeChunk> chunks, float[] query, int k) {
+    return chunks.stream()
+        .sorted(Comparator.comparingDouble(chunk -> -cosine(query, chunk.embedding())))
+        .limit(k)
+        .map(CodeChunk::filePath)
+        .toList();
+  }
+
+  private static double cosine(float[] a, float[] b) {
+    double dot = 0;
+    double normA = 0;
+    double normB = 0;
+    for (int i = 0; i < a.length; i++) {
+      dot += a[i] * b[i];
+      normA += a[i] * a[i];
+      normB += b[i] * b[i];
+    }
+    return dot / Math.sqrt(normA * normB);
+  }
+
+  static FileManifestEntry manifest(String path, String hash) {
+    return new FileManifestEntry(path, 100, 1_000, hash);
+  }
+
+  static CodeChunk chunk(String repo, String path, int endLine, float[] embedding) {
+    String code = "class " + path.substring(0, path.indexOf('.')) + " {}";
+    return new CodeChunk(repo, path, "java", "FILE", path, 1, endLine, code,
+        CodeChunk.chunkId(repo, path, "FILE", path, 1, endLine), embedding);
+  }
+
+  static float[] axis(int index) {
+    float[] vector = new float[DIMENSION];
+    vector[index] = 1.0f;
+    return vector;
+  }
+
+  private static float[] randomVector(Random random) {
+    float[] vector = new float[DIMENSION];
+    for (int i = 0; i < DIMENSION; i++) {
+      vector[i] = (float) random.nextGaussian();
+    }
+    return vector;
+  }
+}
@@ -0,0 +1,24 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+PETCLINIC_DIR="${1:-$HOME/code/oss/spring-petclinic}"
+shift || true
+
+echo "== RepoMind PetClinic Benchmarks =="
+echo "PetClinic dir: ${PETCLINIC_DIR}"
+
+if [ ! -d "${PETCLINIC_DIR}/.git" ]; then
+  echo "PetClinic repo not found at ${PETCLINIC_DIR}"
+  echo "Cloning..."
+  mkdir -p "$(dirname "${PETCLINIC_DIR}")"
+  git clone https://github.com/spring-projects/spring-petclinic.git "${PETCLINIC_DIR}"
+fi
+
+echo "Building benchmarks..."
+mvn -q -DskipTests package -pl repomind-benchmarks -am
+
+echo "Running benchmarks (extra JMH arguments: $*)..."
+java -jar repomind-benchmarks/target/benchmarks.jar \
+  "EmbeddingCodec|Chunking|Similarity|ConfigLoad" \
+  -p corpus="${PETCLINIC_DIR}" \
+  -rf json -rff repomind-benchmarks/target/petclinic-results.json "$@"